@@ -2,7 +2,6 @@ package org.hyperagents.yggdrasil;
 
 import io.vertx.config.ConfigRetriever;
 import io.vertx.core.AbstractVerticle;
-import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import org.hyperagents.yggdrasil.http.HttpServerVerticle;
@@ -51,7 +50,7 @@ public class MainVerticle extends AbstractVerticle {
       // start the verticles
       return this.vertx.deployVerticle(new HttpServerVerticle()).compose(
         v -> this.vertx.deployVerticle(new RdfStoreVerticle(),
-          new DeploymentOptions().setConfig(c))).compose(v -> notificationConfig.isEnabled()
+          RdfStoreVerticle.getDeploymentOptions(c))).compose(v -> notificationConfig.isEnabled()
         ?
         this.vertx.deployVerticle("org.hyperagents.yggdrasil.websub.HttpNotificationVerticle") :
         Future.succeededFuture()).compose(v -> new EnvironmentConfigImpl(c).isEnabled()
@@ -43,6 +43,7 @@ dependencies {
   implementation(libs.hmas.java)
 
   implementation(libs.rdf4j.model)
+  implementation(libs.rdf4j.rio.turtle)
 
   implementation(libs.gson)
 
@@ -19,6 +19,7 @@ import io.vertx.core.Promise;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonObject;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -34,7 +35,10 @@ import org.apache.commons.lang3.function.Failable;
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.hyperagents.yggdrasil.cartago.artifacts.HypermediaArtifact;
 import org.hyperagents.yggdrasil.cartago.entities.NotificationCallback;
 import org.hyperagents.yggdrasil.cartago.entities.WorkspaceRegistry;
@@ -52,6 +56,7 @@ import org.hyperagents.yggdrasil.model.interfaces.Environment;
 import org.hyperagents.yggdrasil.utils.EnvironmentConfig;
 import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
 import org.hyperagents.yggdrasil.utils.JsonObjectUtils;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
 import org.hyperagents.yggdrasil.utils.RepresentationFactory;
 import org.hyperagents.yggdrasil.utils.WebSubConfig;
 import org.hyperagents.yggdrasil.utils.impl.RepresentationFactoryFactory;
@@ -65,6 +70,10 @@ public class CartagoVerticle extends AbstractVerticle {
   private static final Logger LOGGER = LogManager.getLogger(CartagoVerticle.class);
   private static final String DEFAULT_CONFIG_VALUE = "default";
   private static final String YGGDRASIL = "yggdrasil";
+  private static final IRI ARTIFACT_TYPE =
+      RdfModelUtils.createIri("https://purl.org/hmas/Artifact");
+  private static final IRI CONTAINED_IN =
+      RdfModelUtils.createIri("https://purl.org/hmas/isContainedIn");
 
   private HttpInterfaceConfig httpConfig;
   private WorkspaceRegistry workspaceRegistry;
@@ -366,8 +375,13 @@ public class CartagoVerticle extends AbstractVerticle {
             String workspaceName,
             String entityUri
           ) -> this.deleteEntity(workspaceName, entityUri);
+        case CartagoMessage.FindArtifacts(
+            String workspaceName,
+            Optional<String> actionType,
+            Optional<String> artifactType
+          ) -> message.reply(this.findArtifacts(workspaceName, actionType, artifactType));
       }
-    } catch (final DecodeException | NoSuchElementException | CartagoException e) {
+    } catch (final DecodeException | NoSuchElementException | CartagoException | IOException e) {
       message.fail(HttpStatus.SC_INTERNAL_SERVER_ERROR, e.getMessage());
     } catch (AgentNotFoundException e) {
       message.fail(HttpStatus.SC_METHOD_NOT_ALLOWED, e.getMessage());
@@ -602,16 +616,70 @@ public class CartagoVerticle extends AbstractVerticle {
       final var parent = workspaceDescriptor.get().getParentInfo();
       final var parentWorkspace = parent.getWorkspace();
       parentWorkspace.removeWorkspace(workspaceName);
-      this.workspaceRegistry.deleteWorkspace(workspaceName);
+      this.unregisterWorkspace(workspaceName);
 
     } else {
       final var workspace = this.workspaceRegistry.getWorkspace(workspaceName).orElseThrow();
       final var agentId = getAgentId(credentials.orElseThrow(), workspace.getId());
       final var artifact = workspace.getArtifact(artifactName);
       workspace.disposeArtifact(agentId, artifact);
+      this.registry.unregister(artifactName);
     }
   }
 
+  /**
+   * Unregisters a deleted workspace along with its artifacts, and does the same for each of its
+   * sub-workspaces, which are deleted with it.
+   */
+  private void unregisterWorkspace(final String workspaceName) {
+    this.workspaceRegistry.getSubWorkspaceNames(workspaceName).forEach(this::unregisterWorkspace);
+    this.workspaceRegistry.deleteWorkspace(workspaceName);
+    this.registry
+        .getArtifacts(workspaceName)
+        .forEach(a -> this.registry.unregister(a.getArtifactId().getName()));
+  }
+
+  /**
+   * Returns the description of the artifacts offering an action of the given semantic type, or
+   * being of the given semantic type, or both, as found in the index of the registry.
+   */
+  private String findArtifacts(
+      final String workspaceName,
+      final Optional<String> actionType,
+      final Optional<String> artifactType
+  ) throws IOException {
+    final var model = new LinkedHashModel();
+    this.registry
+        .findArtifacts(actionType, artifactType)
+        .stream()
+        .filter(a -> workspaceName == null
+                     || a.getArtifactId().getWorkspaceId().getName().equals(workspaceName))
+        .forEach(a -> {
+          final var artifactWorkspace = a.getArtifactId().getWorkspaceId().getName();
+          final var artifactIri = RdfModelUtils.createIri(
+              this.httpConfig.getArtifactUri(artifactWorkspace, a.getArtifactId().getName())
+              + "#artifact"
+          );
+          model.add(artifactIri, RDF.TYPE, ARTIFACT_TYPE);
+          this.registry
+              .getArtifactSemanticType(a.getClass().getCanonicalName())
+              .ifPresent(t -> model.add(artifactIri, RDF.TYPE, RdfModelUtils.createIri(t)));
+          model.add(
+              artifactIri,
+              CONTAINED_IN,
+              RdfModelUtils.createIri(
+                  this.httpConfig.getWorkspaceUri(artifactWorkspace) + "#workspace"
+              )
+          );
+        });
+    model.setNamespace("hmas", "https://purl.org/hmas/");
+    return RdfModelUtils.modelToString(
+        model,
+        RDFFormat.TURTLE,
+        this.httpConfig.getBaseUriTrailingSlash()
+    );
+  }
+
   private JsonObject getActionNotificationContent(final String artifactName, final String action) {
     return JsonObject.of(
         "artifactName",
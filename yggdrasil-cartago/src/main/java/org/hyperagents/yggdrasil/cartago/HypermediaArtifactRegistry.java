@@ -3,10 +3,14 @@ package org.hyperagents.yggdrasil.cartago;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.hyperagents.yggdrasil.cartago.artifacts.HypermediaArtifact;
 
 /**
@@ -28,6 +32,10 @@ public final class HypermediaArtifactRegistry {
   // Maps an HTTP request to an action name. The HTTP request is currently identified by
   // [HTTP_Method] + [HTTP_Target_URI].
   private final Map<String, String> artifactActionRouter;
+  // Maps the semantic type of an action to the names of the artifacts offering that action
+  private final Map<String, Set<String>> artifactsByActionType;
+  // Maps the semantic type of an artifact to the names of the artifacts of that type
+  private final Map<String, Set<String>> artifactsBySemanticType;
   private int counter;
 
   /**
@@ -38,6 +46,8 @@ public final class HypermediaArtifactRegistry {
     this.artifacts = Collections.synchronizedMap(new HashMap<>());
     this.artifactTemplateDescriptions = Collections.synchronizedMap(new HashMap<>());
     this.artifactActionRouter = Collections.synchronizedMap(new HashMap<>());
+    this.artifactsByActionType = new HashMap<>();
+    this.artifactsBySemanticType = new HashMap<>();
     this.counter = 0;
   }
 
@@ -48,13 +58,24 @@ public final class HypermediaArtifactRegistry {
    */
   public void register(final HypermediaArtifact artifact) {
     final var artifactTemplate = artifact.getArtifactId().getName();
+    final var semanticType = this
+        .getArtifactSemanticType(artifact.getClass().getCanonicalName())
+        .orElseThrow(
+            () -> new RuntimeException("Artifact was not registered!")
+        );
     this.artifacts.put(artifactTemplate, artifact);
-    this.artifactTemplateDescriptions.put(artifactTemplate, artifact.getHypermediaDescription(
-        this
-            .getArtifactSemanticType(artifact.getClass().getCanonicalName())
-            .orElseThrow(
-                () -> new RuntimeException("Artifact was not registered!")
-            )));
+    this.artifactTemplateDescriptions.put(
+        artifactTemplate,
+        artifact.getHypermediaDescription(semanticType)
+    );
+    synchronized (this) {
+      artifact.getActionSemanticTypes().forEach(actionType -> this.artifactsByActionType
+          .computeIfAbsent(actionType, t -> new LinkedHashSet<>())
+          .add(artifactTemplate));
+      this.artifactsBySemanticType
+          .computeIfAbsent(semanticType, t -> new LinkedHashSet<>())
+          .add(artifactTemplate);
+    }
     artifact.getArtifactActions()
         .entrySet()
         .stream()
@@ -71,6 +92,84 @@ public final class HypermediaArtifactRegistry {
             )));
   }
 
+  /**
+   * When an artifact is disposed it is then removed from the Registry using this method.
+   *
+   * @param artifactName the name of the disposed artifact.
+   */
+  public void unregister(final String artifactName) {
+    final var artifact = this.artifacts.remove(artifactName);
+    if (artifact == null) {
+      return;
+    }
+    this.artifactTemplateDescriptions.remove(artifactName);
+    artifact.getArtifactActions()
+        .values()
+        .stream()
+        .flatMap(List::stream)
+        .forEach(action -> artifact.getMethodNameAndTarget(action)
+            .ifPresent(this.artifactActionRouter::remove));
+    synchronized (this) {
+      artifact.getActionSemanticTypes().forEach(actionType ->
+          removeFromIndex(this.artifactsByActionType, actionType, artifactName));
+      this.getArtifactSemanticType(artifact.getClass().getCanonicalName())
+          .ifPresent(semanticType ->
+              removeFromIndex(this.artifactsBySemanticType, semanticType, artifactName));
+    }
+  }
+
+  private static void removeFromIndex(
+      final Map<String, Set<String>> index,
+      final String type,
+      final String artifactName
+  ) {
+    final var artifactNames = index.get(type);
+    if (artifactNames != null) {
+      artifactNames.remove(artifactName);
+      if (artifactNames.isEmpty()) {
+        index.remove(type);
+      }
+    }
+  }
+
+  /**
+   * Finds the artifacts offering an action of the given semantic type, or being of the given
+   * semantic type, or both, in the order in which they have been registered. Only the artifacts
+   * indexed under the given types are looked at, so the lookup takes a time proportional to the
+   * number of artifacts matching either type.
+   *
+   * @param actionType   the semantic type of the action the artifacts must offer, if any.
+   * @param semanticType the semantic type the artifacts must have, if any.
+   * @return the list of the matching artifacts, which is empty if no type is given.
+   */
+  public synchronized List<HypermediaArtifact> findArtifacts(
+      final Optional<String> actionType,
+      final Optional<String> semanticType
+  ) {
+    final var offeringAction =
+        actionType.map(t -> this.artifactsByActionType.getOrDefault(t, Set.of()));
+    final var ofSemanticType =
+        semanticType.map(t -> this.artifactsBySemanticType.getOrDefault(t, Set.of()));
+    final Set<String> artifactNames;
+    if (offeringAction.isPresent() && ofSemanticType.isPresent()) {
+      final var smaller = offeringAction.get().size() <= ofSemanticType.get().size()
+          ? offeringAction.get()
+          : ofSemanticType.get();
+      final var larger = smaller == offeringAction.get()
+          ? ofSemanticType.get()
+          : offeringAction.get();
+      artifactNames = smaller.stream()
+                             .filter(larger::contains)
+                             .collect(Collectors.toCollection(LinkedHashSet::new));
+    } else {
+      artifactNames = offeringAction.or(() -> ofSemanticType).orElse(Set.of());
+    }
+    return artifactNames.stream()
+                        .map(this.artifacts::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+  }
+
   public void addArtifactTemplate(final String key, final String value) {
     this.artifactSemanticTypes.put(key, value);
   }
@@ -114,4 +213,20 @@ public final class HypermediaArtifactRegistry {
   public Optional<HypermediaArtifact> getArtifact(final String artifactName) {
     return Optional.ofNullable(this.artifacts.get(artifactName));
   }
+
+  /**
+   * Returns the artifacts registered in the given workspace.
+   *
+   * @param workspaceName the name of the workspace.
+   * @return the list of the artifacts of the workspace.
+   */
+  public List<HypermediaArtifact> getArtifacts(final String workspaceName) {
+    synchronized (this.artifacts) {
+      return this.artifacts
+          .values()
+          .stream()
+          .filter(a -> a.getArtifactId().getWorkspaceId().getName().equals(workspaceName))
+          .toList();
+    }
+  }
 }
@@ -5,6 +5,7 @@ import cartago.ArtifactId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface that defines the API of a HypermediaArtifact.
@@ -17,6 +18,8 @@ public interface HypermediaArtifact {
 
   Map<String, List<Object>> getArtifactActions();
 
+  Set<String> getActionSemanticTypes();
+
   Optional<String> getMethodNameAndTarget(Object action);
 
   Optional<String> handleInput(String storeResponse, String actionName, String context);
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
@@ -127,6 +128,19 @@ public abstract class HypermediaHMASArtifact extends Artifact implements Hyperme
         .collect(Collectors.toMap(Map.Entry::getKey, e -> new ArrayList<>(e.getValue())));
   }
 
+  /**
+   * Returns the semantic types of the actions specified by all the signifiers of the artifact.
+   *
+   * @return the set of the semantic types of the actions.
+   */
+  public final Set<String> getActionSemanticTypes() {
+    return this.signifiers
+        .values()
+        .stream()
+        .flatMap(s -> ((Signifier) s).getActionSpecification().getSemanticTypes().stream())
+        .collect(Collectors.toSet());
+  }
+
   protected abstract void registerInteractionAffordances();
 
   protected URI getBaseUri() {
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
@@ -117,6 +118,19 @@ public abstract class HypermediaTDArtifact extends Artifact implements Hypermedi
         .collect(Collectors.toMap(Map.Entry::getKey, e -> new ArrayList<>(e.getValue())));
   }
 
+  /**
+   * Returns the semantic types of all the actions of the artifact.
+   *
+   * @return the set of the semantic types of the actions.
+   */
+  public final Set<String> getActionSemanticTypes() {
+    return this.actionAffordances
+        .values()
+        .stream()
+        .flatMap(a -> ((ActionAffordance) a).getSemanticTypes().stream())
+        .collect(Collectors.toSet());
+  }
+
   protected abstract void registerInteractionAffordances();
 
   protected URI getBaseUri() {
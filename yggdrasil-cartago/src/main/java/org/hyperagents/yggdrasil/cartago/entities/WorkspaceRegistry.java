@@ -2,6 +2,7 @@ package org.hyperagents.yggdrasil.cartago.entities;
 
 import cartago.Workspace;
 import cartago.WorkspaceDescriptor;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,5 +15,7 @@ public interface WorkspaceRegistry {
 
   Optional<Workspace> getWorkspace(final String name);
 
+  List<String> getSubWorkspaceNames(final String name);
+
   void deleteWorkspace(final String name);
 }
@@ -3,6 +3,7 @@ package org.hyperagents.yggdrasil.cartago.entities.impl;
 import cartago.Workspace;
 import cartago.WorkspaceDescriptor;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.hyperagents.yggdrasil.cartago.entities.WorkspaceRegistry;
@@ -34,6 +35,19 @@ public final class WorkspaceRegistryImpl implements WorkspaceRegistry {
         .map(WorkspaceDescriptor::getWorkspace);
   }
 
+  @Override
+  public List<String> getSubWorkspaceNames(final String name) {
+    return this.workspaceDescriptors
+        .entrySet()
+        .stream()
+        .filter(e -> {
+          final var parent = e.getValue().getParentInfo();
+          return parent != null && parent.getWorkspace().getId().getName().equals(name);
+        })
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
   @Override
   public void deleteWorkspace(final String name) {
     this.workspaceDescriptors.remove(name);
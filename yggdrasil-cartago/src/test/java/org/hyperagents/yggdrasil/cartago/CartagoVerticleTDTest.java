@@ -59,6 +59,7 @@ public class CartagoVerticleTDTest {
   private static final String ADDER_SEMANTIC_TYPE = "http://example.org/Adder";
   private static final String MATH_SEMANTIC_TYPE = "http://example.org/Math";
   private static final String COUNTER_SEMANTIC_TYPE = "http://example.org/Counter";
+  private static final String INCREMENT_ACTION_TYPE = "http://example.org/Increment";
   private static final String NONEXISTENT_NAME = "nonexistent";
   private static final String ARTIFACT_SEMANTIC_TYPE_PARAM = "artifactClass";
   private static final String ARTIFACT_INIT_PARAMS = "initParams";
@@ -390,6 +391,110 @@ public class CartagoVerticleTDTest {
         .onComplete(ctx.succeedingThenComplete());
   }
 
+  @Test
+  public void testFindArtifactsByActionTypeSucceeds(final VertxTestContext ctx) {
+    this.cartagoMessagebox
+        .sendMessage(new CartagoMessage.CreateWorkspace(MAIN_WORKSPACE_NAME))
+        .compose(r -> this.cartagoMessagebox.sendMessage(new CartagoMessage.JoinWorkspace(
+            TEST_AGENT_IRI,
+            TEST_AGENT_BODY,
+            MAIN_WORKSPACE_NAME
+        )))
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.CreateArtifact(
+                TEST_AGENT_IRI,
+                MAIN_WORKSPACE_NAME,
+                "c0",
+                Json.encode(Map.of(
+                    ARTIFACT_SEMANTIC_TYPE_PARAM,
+                    COUNTER_SEMANTIC_TYPE,
+                    ARTIFACT_INIT_PARAMS,
+                    List.of()
+                ))
+            )))
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.FindArtifacts(
+                MAIN_WORKSPACE_NAME,
+                Optional.of(INCREMENT_ACTION_TYPE),
+                Optional.of(COUNTER_SEMANTIC_TYPE)
+            )))
+        .onSuccess(r -> {
+          Assertions.assertTrue(
+              r.body().contains("artifacts/c0#artifact"),
+              "The counter should be found"
+          );
+          Assertions.assertTrue(
+              r.body().contains(COUNTER_SEMANTIC_TYPE),
+              "The semantic type of the counter should be given"
+          );
+        })
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.FindArtifacts(
+                null,
+                Optional.of(ADDER_SEMANTIC_TYPE),
+                Optional.empty()
+            )))
+        .onSuccess(r -> Assertions.assertFalse(
+            r.body().contains("artifacts/c0#artifact"),
+            "The counter should not be found"
+        ))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testDeleteWorkspaceUnregistersArtifactsOfSubWorkspaces(final VertxTestContext ctx) {
+    this.cartagoMessagebox
+        .sendMessage(new CartagoMessage.CreateWorkspace(MAIN_WORKSPACE_NAME))
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.CreateSubWorkspace(
+                MAIN_WORKSPACE_NAME,
+                SUB_WORKSPACE_NAME
+            )))
+        .compose(r -> this.cartagoMessagebox.sendMessage(new CartagoMessage.JoinWorkspace(
+            TEST_AGENT_IRI,
+            TEST_AGENT_BODY,
+            SUB_WORKSPACE_NAME
+        )))
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.CreateArtifact(
+                TEST_AGENT_IRI,
+                SUB_WORKSPACE_NAME,
+                "c1",
+                Json.encode(Map.of(
+                    ARTIFACT_SEMANTIC_TYPE_PARAM,
+                    COUNTER_SEMANTIC_TYPE,
+                    ARTIFACT_INIT_PARAMS,
+                    List.of()
+                ))
+            )))
+        .compose(r -> {
+          // The deletion is not replied to, but handled before the next messages
+          this.cartagoMessagebox.sendMessage(
+              new CartagoMessage.DeleteEntity(MAIN_WORKSPACE_NAME, MAIN_WORKSPACE_NAME)
+          );
+          return this.cartagoMessagebox.sendMessage(new CartagoMessage.FindArtifacts(
+              null,
+              Optional.of(INCREMENT_ACTION_TYPE),
+              Optional.empty()
+          ));
+        })
+        .onSuccess(r -> Assertions.assertFalse(
+            r.body().contains("artifacts/c1#artifact"),
+            "The counter should not be found by its action type once its workspace is deleted"
+        ))
+        .compose(r -> this.cartagoMessagebox
+            .sendMessage(new CartagoMessage.FindArtifacts(
+                null,
+                Optional.empty(),
+                Optional.of(COUNTER_SEMANTIC_TYPE)
+            )))
+        .onSuccess(r -> Assertions.assertFalse(
+            r.body().contains("artifacts/c1#artifact"),
+            "The counter should not be found by its type once its workspace is deleted"
+        ))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testCreateArtifactWithParametersSucceeds(final VertxTestContext ctx)
       throws URISyntaxException, IOException {
@@ -52,11 +52,26 @@ dependencies {
   implementation(libs.rdf4j.repository.sail)
   implementation(libs.rdf4j.sail.memory)
   implementation(libs.rdf4j.sail.nativerdf)
+  implementation(libs.rdf4j.sail.lmdb)
+  implementation(libs.rdf4j.sail.lucene)
+  implementation(libs.rdf4j.rio.binary)
   implementation(libs.rdf4j.queryresultio.sparqljson)
   implementation(libs.rdf4j.queryresultio.text)
 
   implementation(libs.apache.commons.lang3)
 
+  // The LMDB store needs the native libraries of the platforms on which it is run
+  listOf(
+    "natives-linux",
+    "natives-linux-arm64",
+    "natives-macos",
+    "natives-macos-arm64",
+    "natives-windows"
+  ).forEach {
+    runtimeOnly(variantOf(libs.lwjgl) { classifier(it) })
+    runtimeOnly(variantOf(libs.lwjgl.lmdb) { classifier(it) })
+  }
+
   compileOnly(libs.spotbugs.annotations)
   pmd(libs.pmd.java)
   pmd(libs.pmd.ant)
@@ -72,10 +87,25 @@ dependencies {
 
 tasks {
   test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+      excludeTags("benchmark")
+    }
     finalizedBy(jacocoTestReport)
   }
 
+  register<Test>("benchmark") {
+    description = "Runs the benchmarks of the store."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+      includeTags("benchmark")
+    }
+    testLogging {
+      showStandardStreams = true
+    }
+  }
+
   spotbugsMain {
     reports.create("html") {
         required.set(true)
@@ -6,7 +6,9 @@ import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.http.HttpMethod;
@@ -23,7 +25,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Pattern;
 import org.apache.http.HttpHeaders;
@@ -34,6 +35,8 @@ import org.apache.logging.log4j.Logger;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.CartagoMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.Messagebox;
@@ -59,13 +62,24 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
   private static final Logger LOGGER = LogManager.getLogger(HttpEntityHandler.class);
   private static final String WORKSPACE_ID_PARAM = "wkspid";
   private static final String ARTIFACT_ID_PARAM = "artid";
+  private static final String CURSOR_PARAM = "cursor";
   private static final String AGENT_WEBID_HEADER = "X-Agent-WebID";
   private static final String AGENT_LOCALNAME_HEADER = "X-Agent-LocalName";
   private static final String SLUG_HEADER = "Slug";
   private static final String TURTLE_CONTENT_TYPE = "text/turtle";
+  private static final String NTRIPLES_CONTENT_TYPE = "application/n-triples";
+  private static final String JSONLD_CONTENT_TYPE = "application/ld+json";
+  private static final String BINARY_RDF_CONTENT_TYPE = "application/x-binary-rdf";
+  // In the order in which they are chosen when the client accepts several of them equally
+  private static final List<String> REPRESENTATION_CONTENT_TYPES = List.of(
+      TURTLE_CONTENT_TYPE,
+      NTRIPLES_CONTENT_TYPE,
+      JSONLD_CONTENT_TYPE,
+      BINARY_RDF_CONTENT_TYPE
+  );
 
   private final Messagebox<CartagoMessage> cartagoMessagebox;
-  private final Messagebox<RdfStoreMessage> rdfStoreMessagebox;
+  private final RdfStoreMessagebox rdfStoreMessagebox;
   private final Messagebox<HttpNotificationDispatcherMessage> notificationMessagebox;
   private final HttpInterfaceConfig httpConfig;
   private final WebSubConfig notificationConfig;
@@ -132,7 +146,10 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
   public void handleGetEntity(final RoutingContext routingContext) {
     final var entityIri = routingContext.request().absoluteURI();
     this.rdfStoreMessagebox
-        .sendMessage(new RdfStoreMessage.GetEntity(entityIri))
+        .sendMessage(
+            new RdfStoreMessage.GetEntity(entityIri),
+            this.negotiateRepresentationType(routingContext)
+        )
         .onComplete(
             this.handleStoreReply(routingContext, HttpStatus.SC_OK,
                 this.getHeaders(entityIri))
@@ -142,7 +159,8 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
   // TODO: what if localhost and different baseUri will headers work correctly for websub?
 
   /**
-   * Returns the representation of the entity at the given Uri.
+   * Returns a page of the workspaces contained in the platform, or in the workspace given in the
+   * "parent" query parameter, starting after the workspace given in the "cursor" query parameter.
    *
    * @param context the routingContext
    */
@@ -150,24 +168,108 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
     var parentUri = context.request().getParam("parent");
     parentUri = parentUri == null ? this.httpConfig.getBaseUriTrailingSlash()
         : this.httpConfig.getWorkspaceUriTrailingSlash(parentUri);
-    this.rdfStoreMessagebox.sendMessage(new RdfStoreMessage.GetWorkspaces(parentUri)).onComplete(
-        this.handleStoreReply(context, HttpStatus.SC_OK,
-            this.getHeaders(context.request().absoluteURI()))
-    );
+    this.rdfStoreMessagebox
+        .sendMessage(
+            new RdfStoreMessage.GetWorkspaces(
+                parentUri,
+                Optional.ofNullable(context.request().getParam(CURSOR_PARAM))
+            ),
+            this.negotiateRepresentationType(context)
+        )
+        .onComplete(this.handleStoreReply(context, HttpStatus.SC_OK,
+            this.getHeaders(context.request().absoluteURI())));
   }
 
   /**
-   * Returns the representation of the entity at the given Uri.
+   * Returns a page of the artifacts contained in a workspace, starting after the artifact given
+   * in the "cursor" query parameter.
    *
    * @param context the routingContext
    */
   public void handleGetArtifacts(final RoutingContext context) {
     final var workspaceName = context.pathParam(WORKSPACE_ID_PARAM);
-    this.rdfStoreMessagebox.sendMessage(new RdfStoreMessage.GetArtifacts(workspaceName))
+    this.rdfStoreMessagebox
+        .sendMessage(
+            new RdfStoreMessage.GetArtifacts(
+                workspaceName,
+                Optional.ofNullable(context.request().getParam(CURSOR_PARAM))
+            ),
+            this.negotiateRepresentationType(context)
+        )
         .onComplete(this.handleStoreReply(context, HttpStatus.SC_OK,
             this.getHeaders(this.httpConfig.getArtifactsUri(workspaceName))));
   }
 
+  /**
+   * Returns a page of the triples matching the triple pattern given in the query parameters,
+   * whatever the entities they belong to, with the controls to request the other pages and the
+   * other patterns.
+   *
+   * @param context the routingContext
+   */
+  public void handleGetFragment(final RoutingContext context) {
+    final var request = context.request();
+    final long page;
+    try {
+      page = Optional.ofNullable(request.getParam("page")).map(Long::parseLong).orElse(1L);
+    } catch (final NumberFormatException e) {
+      context.response().setStatusCode(HttpStatus.SC_BAD_REQUEST).end();
+      return;
+    }
+    this.rdfStoreMessagebox
+        .sendMessage(
+            new RdfStoreMessage.GetFragment(
+                request.getParam("subject", ""),
+                request.getParam("predicate", ""),
+                request.getParam("object", ""),
+                page
+            ),
+            this.negotiateRepresentationType(context)
+        )
+        .onComplete(this.handleStoreReply(context, HttpStatus.SC_OK, this.getCorsHeaders()));
+  }
+
+  /**
+   * Returns the entities whose literals match the full-text query given in the "q" query
+   * parameter, if full-text search is enabled on the store.
+   *
+   * @param context the routingContext
+   */
+  public void handleSearchEntities(final RoutingContext context) {
+    final var query = context.request().getParam("q");
+    if (query == null || query.isBlank()) {
+      context.response().setStatusCode(HttpStatus.SC_BAD_REQUEST).end();
+      return;
+    }
+    this.rdfStoreMessagebox
+        .sendMessage(new RdfStoreMessage.SearchEntities(query))
+        .onComplete(this.handleStoreReply(context, HttpStatus.SC_OK, this.getCorsHeaders()));
+  }
+
+  /**
+   * Returns the artifacts offering an action of the semantic type given in the "action" query
+   * parameter, or being of the semantic type given in the "type" query parameter, or both,
+   * optionally only the ones in the workspace given in the "workspace" query parameter.
+   *
+   * @param context the routingContext
+   */
+  public void handleFindArtifacts(final RoutingContext context) {
+    final var request = context.request();
+    final var actionType = Optional.ofNullable(request.getParam("action"));
+    final var artifactType = Optional.ofNullable(request.getParam("type"));
+    if (actionType.isEmpty() && artifactType.isEmpty()) {
+      context.response().setStatusCode(HttpStatus.SC_BAD_REQUEST).end();
+      return;
+    }
+    this.cartagoMessagebox
+        .sendMessage(new CartagoMessage.FindArtifacts(
+            request.getParam("workspace"),
+            actionType,
+            artifactType
+        ))
+        .onComplete(this.handleStoreReply(context, HttpStatus.SC_OK, this.getCorsHeaders()));
+  }
+
   /**
    * Handles the creation of a workspace.
    *
@@ -226,7 +328,10 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
             r -> {
               switch (contentType) {
                 case "application/json" -> handleCreateArtifactJson(context, agentId);
-                case TURTLE_CONTENT_TYPE -> handleCreateArtifactTurtle(context);
+                case TURTLE_CONTENT_TYPE,
+                     NTRIPLES_CONTENT_TYPE,
+                     JSONLD_CONTENT_TYPE,
+                     BINARY_RDF_CONTENT_TYPE -> handleCreateArtifactTurtle(context);
                 default ->
                     context.response().setStatusCode(HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE).end();
               }
@@ -280,13 +385,15 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
   }
 
   /**
-   * Creating an Artifact given content in text/turtle.
+   * Creating an Artifact given content in text/turtle, or in another RDF format the store reads.
    *
    * @param context              routingContext
    */
   public void handleCreateArtifactTurtle(final RoutingContext context) {
     final var requestUri = context.request().absoluteURI();
-    final var entityRepresentation = context.body().asString();
+    final var contentType =
+        this.getRepresentationContentType(context).orElse(TURTLE_CONTENT_TYPE);
+    final var entityRepresentation = context.body().buffer();
 
     this.rdfStoreMessagebox.sendMessage(new RdfStoreMessage.GetEntityIri(requestUri,
             context.request().getHeader(SLUG_HEADER)))
@@ -303,11 +410,12 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
                         false
                     )
                 )).onComplete(
-                  response -> this.rdfStoreMessagebox.sendMessage(
+                  response -> this.rdfStoreMessagebox.sendWriteMessage(
                     new RdfStoreMessage.UpdateEntity(
                         requestUri + actualEntityName.body(),
                         entityRepresentation
-                    )
+                    ),
+                    contentType
                 ).onComplete(this.handleStoreReply(context, HttpStatus.SC_CREATED,
                     this.getHeaders(requestUri + actualEntityName.body())))))
         .onFailure(f -> context.response().setStatusCode(HttpStatus.SC_BAD_REQUEST).end());
@@ -355,11 +463,16 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
       routingContext.response().setStatusCode(HttpStatus.SC_UNAUTHORIZED).end();
       return;
     }
+    final var contentType =
+        this.getRepresentationContentType(routingContext).orElse(TURTLE_CONTENT_TYPE);
     this.rdfStoreMessagebox
-        .sendMessage(new RdfStoreMessage.ReplaceEntity(
-            routingContext.request().absoluteURI(),
-            routingContext.body().asString()
-        ))
+        .sendWriteMessage(
+            new RdfStoreMessage.ReplaceEntity(
+                routingContext.request().absoluteURI(),
+                routingContext.body().buffer()
+            ),
+            contentType
+        )
         .onComplete(this.handleStoreReply(routingContext));
   }
 
@@ -625,27 +738,55 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
       final List<String> namedGraphUris,
       final String resultContentType
   ) {
+    final var response = routingContext.response();
+    final var contentType =
+        Optional.ofNullable(resultContentType).orElse("application/sparql-results+json");
+    // The results are written as they are produced, only asking the store for more once the
+    // ones already received have been handed over to the connection
     this.rdfStoreMessagebox
-        .sendMessage(new RdfStoreMessage.QueryKnowledgeGraph(
-            query,
-            defaultGraphUris.stream()
-                .map(s -> URLDecoder.decode(s, StandardCharsets.UTF_8))
-                .toList(),
-            namedGraphUris.stream()
-                .map(s -> URLDecoder.decode(s, StandardCharsets.UTF_8))
-                .toList(),
-            Optional.ofNullable(resultContentType).orElse("application/sparql-results+json")
-        ))
-        .onSuccess(r ->
-            routingContext.response()
-                .putHeader(HttpHeaders.CONTENT_TYPE, resultContentType)
-                .end(r.body())
+        .sendQueryMessage(
+            new RdfStoreMessage.QueryKnowledgeGraph(
+                query,
+                defaultGraphUris.stream()
+                    .map(s -> URLDecoder.decode(s, StandardCharsets.UTF_8))
+                    .toList(),
+                namedGraphUris.stream()
+                    .map(s -> URLDecoder.decode(s, StandardCharsets.UTF_8))
+                    .toList(),
+                contentType
+            ),
+            chunk -> {
+              if (response.closed()) {
+                return Future.failedFuture("The connection has been closed");
+              }
+              if (!response.headWritten()) {
+                response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+              }
+              response.write(chunk);
+              if (!response.writeQueueFull()) {
+                return Future.succeededFuture();
+              }
+              final Promise<Void> drained = Promise.promise();
+              response.drainHandler(v -> drained.tryComplete());
+              response.closeHandler(v -> drained.tryFail("The connection has been closed"));
+              return drained.future();
+            }
         )
+        .onSuccess(r -> {
+          if (!response.headWritten()) {
+            response.putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+          }
+          // The store may also reply with the whole results instead of streaming them
+          response.end(Optional.ofNullable(r.body()).orElse(""));
+        })
         .onFailure(t -> {
-          if (t instanceof ReplyException e) {
-            routingContext.response().setStatusCode(e.failureCode()).end();
+          if (response.headWritten()) {
+            // Part of the results have already been sent, so the response can only be aborted
+            response.reset();
+          } else if (t instanceof ReplyException e) {
+            response.setStatusCode(e.failureCode()).end();
           } else {
-            routingContext.response().setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR).end();
+            response.setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR).end();
           }
         });
   }
@@ -659,9 +800,13 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
       return Future.succeededFuture(new WorkspaceResult(workspaceName, modelString));
     }
     try {
-      final Model baseModel = RdfModelUtils.stringToModel(modelString, entityIri, RDFFormat.TURTLE);
-      additionalMetadataModel.addAll(baseModel);
-      baseModel.getNamespaces().forEach(additionalMetadataModel::setNamespace);
+      // The base representation is parsed straight into the metadata model
+      RdfModelUtils.parse(
+          modelString,
+          entityIri,
+          RDFFormat.TURTLE,
+          new StatementCollector(additionalMetadataModel)
+      );
       final String result = RdfModelUtils.modelToString(additionalMetadataModel, RDFFormat.TURTLE,
           this.httpConfig.getBaseUriTrailingSlash());
       return Future.succeededFuture(new WorkspaceResult(workspaceName, result));
@@ -675,11 +820,16 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
     final var entityIri = iri(this.httpConfig.getWorkspaceUri(workspaceName));
 
     final Model additionalMetadataModel;
-    if (Objects.equals(ctx.request().getHeader(HttpHeaders.CONTENT_TYPE), "text/turtle")) {
+    final var contentType = this.getRepresentationContentType(ctx);
+    if (contentType.isPresent()) {
       try {
         additionalMetadataModel = ctx.body().isEmpty()
             ? null
-            : RdfModelUtils.stringToModel(ctx.body().asString(), entityIri, RDFFormat.TURTLE);
+            : RdfModelUtils.bufferToModel(
+                ctx.body().buffer(),
+                entityIri,
+                Rio.getParserFormatForMIMEType(contentType.get()).orElseThrow()
+            );
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
@@ -744,14 +894,18 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
   }
 
 
-  private Handler<AsyncResult<Message<String>>> handleStoreReply(
+  private <T> Handler<AsyncResult<Message<T>>> handleStoreReply(
       final RoutingContext routingContext
   ) {
     return this.handleStoreReply(routingContext, HttpStatus.SC_OK, new HashMap<>());
   }
 
 
-  private Handler<AsyncResult<Message<String>>> handleStoreReply(
+  /**
+   * Sends the reply of the store, which is either a string of Turtle or, for negotiated reads, a
+   * buffer whose content type is given by the reply.
+   */
+  private <T> Handler<AsyncResult<Message<T>>> handleStoreReply(
       final RoutingContext routingContext,
       final int successCode,
       final Map<String, List<String>> headers
@@ -759,8 +913,22 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
     return reply -> {
       if (reply.succeeded()) {
         final var httpResponse = routingContext.response();
-        httpResponse.setStatusCode(successCode);
-        httpResponse.putHeader(HttpHeaders.CONTENT_TYPE, TURTLE_CONTENT_TYPE);
+        final var entityTag = reply.result().headers().get(HttpHeaders.ETAG);
+        final var notModified = entityTag != null && this.isNotModified(routingContext, entityTag);
+        httpResponse.setStatusCode(notModified ? HttpStatus.SC_NOT_MODIFIED : successCode);
+        final var contentType = reply.result().headers().get(HttpHeaders.CONTENT_TYPE);
+        if (!notModified) {
+          httpResponse.putHeader(
+              HttpHeaders.CONTENT_TYPE,
+              contentType == null ? TURTLE_CONTENT_TYPE : contentType
+          );
+        }
+        if (contentType != null) {
+          httpResponse.putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (entityTag != null) {
+          httpResponse.putHeader(HttpHeaders.ETAG, entityTag);
+        }
 
         headers.forEach((headerName, headerValue) -> {
           if (headerName.equalsIgnoreCase("Link")) {
@@ -769,17 +937,31 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
             httpResponse.putHeader(headerName, String.join(",", headerValue));
           }
         });
+        // The links to the other pages of a representation are given by the store
+        reply.result().headers().getAll("Link")
+             .forEach(link -> httpResponse.headers().add("Link", link));
 
-        Optional.ofNullable(reply.result().body())
-            .filter(r -> !r.isEmpty())
-            .ifPresentOrElse(httpResponse::end, httpResponse::end);
+        if (notModified) {
+          httpResponse.end();
+          return;
+        }
+        final Object body = reply.result().body();
+        if (body instanceof Buffer buffer) {
+          httpResponse.end(buffer);
+        } else if (body instanceof String string && !string.isEmpty()) {
+          httpResponse.end(string);
+        } else {
+          httpResponse.end();
+        }
       } else {
         final var exception = ((ReplyException) reply.cause());
 
         LOGGER.error(exception);
 
-        if (exception.failureCode() == HttpStatus.SC_NOT_FOUND) {
-          routingContext.response().setStatusCode(HttpStatus.SC_NOT_FOUND).end();
+        if (exception.failureCode() == HttpStatus.SC_NOT_FOUND
+            || exception.failureCode() == HttpStatus.SC_METHOD_NOT_ALLOWED
+            || exception.failureCode() == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+          routingContext.response().setStatusCode(exception.failureCode()).end();
         } else {
           routingContext.response().setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR).end();
         }
@@ -787,6 +969,60 @@ public class HttpEntityHandler implements HttpEntityHandlerInterface {
     };
   }
 
+  /**
+   * Chooses the content type of a representation among the ones the store can send, in the order
+   * of preference of the client, falling back to Turtle when the client accepts none of them.
+   */
+  private String negotiateRepresentationType(final RoutingContext routingContext) {
+    for (final var accepted : routingContext.parsedHeaders().accept()) {
+      if (accepted.weight() <= 0) {
+        continue;
+      }
+      for (final var contentType : REPRESENTATION_CONTENT_TYPES) {
+        final var separator = contentType.indexOf('/');
+        if (
+            (accepted.component().equals("*")
+             || accepted.component().equalsIgnoreCase(contentType.substring(0, separator)))
+            && (accepted.subComponent().equals("*")
+                || accepted.subComponent().equalsIgnoreCase(contentType.substring(separator + 1)))
+        ) {
+          return contentType;
+        }
+      }
+    }
+    return TURTLE_CONTENT_TYPE;
+  }
+
+  /**
+   * Returns the content type of the representation sent by the client, if it is one of the ones
+   * the store reads.
+   */
+  private Optional<String> getRepresentationContentType(final RoutingContext routingContext) {
+    final var contentType = routingContext.parsedHeaders().contentType();
+    if (contentType == null) {
+      return Optional.empty();
+    }
+    final var mediaType = contentType.component() + "/" + contentType.subComponent();
+    return REPRESENTATION_CONTENT_TYPES.stream().filter(mediaType::equalsIgnoreCase).findFirst();
+  }
+
+  /**
+   * Checks if the representation with the given entity tag is already held by the client, using
+   * the weak comparison required for the If-None-Match header.
+   */
+  private boolean isNotModified(final RoutingContext routingContext, final String entityTag) {
+    final var request = routingContext.request();
+    final var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch == null
+        || !(request.method().equals(HttpMethod.GET) || request.method().equals(HttpMethod.HEAD))) {
+      return false;
+    }
+    final var opaqueTag = entityTag.replaceFirst("^W/", "");
+    return Arrays.stream(ifNoneMatch.split(","))
+                 .map(String::trim)
+                 .anyMatch(t -> t.equals("*") || t.replaceFirst("^W/", "").equals(opaqueTag));
+  }
+
   private record WorkspaceResult(String workspaceName, String modelString) {
   }
 }
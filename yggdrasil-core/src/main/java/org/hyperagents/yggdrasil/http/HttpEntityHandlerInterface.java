@@ -15,6 +15,12 @@ public interface HttpEntityHandlerInterface {
 
   void handleGetArtifacts(final RoutingContext routingContext);
 
+  void handleGetFragment(final RoutingContext routingContext);
+
+  void handleFindArtifacts(final RoutingContext routingContext);
+
+  void handleSearchEntities(final RoutingContext routingContext);
+
   void handleCreateWorkspace(final RoutingContext context);
 
   void handleCreateArtifact(final RoutingContext context);
@@ -22,6 +22,9 @@ public class HttpServerVerticle extends AbstractVerticle {
   private static final String WORKSPACE_PATH = "/workspaces/:wkspid";
   private static final String ARTIFACT_PATH = "/workspaces/:wkspid/artifacts/:artid";
   private static final String TURTLE_CONTENT_TYPE = "text/turtle";
+  private static final String NTRIPLES_CONTENT_TYPE = "application/n-triples";
+  private static final String JSONLD_CONTENT_TYPE = "application/ld+json";
+  private static final String BINARY_RDF_CONTENT_TYPE = "application/x-binary-rdf";
 
   private HttpServer server;
   private EnvironmentConfig environmentConfig;
@@ -117,6 +120,9 @@ public class HttpServerVerticle extends AbstractVerticle {
     router.put(WORKSPACE_PATH + "/").handler(handler::handleRedirectWithoutSlash);
     router.put(WORKSPACE_PATH)
         .consumes(TURTLE_CONTENT_TYPE)
+        .consumes(NTRIPLES_CONTENT_TYPE)
+        .consumes(JSONLD_CONTENT_TYPE)
+        .consumes(BINARY_RDF_CONTENT_TYPE)
         .handler(handler::handleUpdateEntity);
 
     router.delete(WORKSPACE_PATH + "/").handler(handler::handleRedirectWithoutSlash);
@@ -141,6 +147,9 @@ public class HttpServerVerticle extends AbstractVerticle {
 
     router.post("/workspaces/:wkspid/artifacts/")
         .consumes(TURTLE_CONTENT_TYPE)
+        .consumes(NTRIPLES_CONTENT_TYPE)
+        .consumes(JSONLD_CONTENT_TYPE)
+        .consumes(BINARY_RDF_CONTENT_TYPE)
         .handler(handler::handleCreateArtifact);
     final var createArtifactRoute = router.post("/workspaces/:wkspid/artifacts/")
         .handler(handler::handleCreateArtifact);
@@ -153,6 +162,9 @@ public class HttpServerVerticle extends AbstractVerticle {
         .handler(handler::handleRedirectWithoutSlash);
     router.put(ARTIFACT_PATH)
         .consumes(TURTLE_CONTENT_TYPE)
+        .consumes(NTRIPLES_CONTENT_TYPE)
+        .consumes(JSONLD_CONTENT_TYPE)
+        .consumes(BINARY_RDF_CONTENT_TYPE)
         .handler(handler::handleUpdateEntity);
 
     router.delete(ARTIFACT_PATH + "/").handler(handler::handleRedirectWithoutSlash);
@@ -160,6 +172,8 @@ public class HttpServerVerticle extends AbstractVerticle {
 
     final var actionRoute = router.post(ARTIFACT_PATH + "/*").handler(handler::handleAction);
 
+    final var findArtifactsRoute = router.get("/artifacts").handler(handler::handleFindArtifacts);
+
 
     if (!this.environmentConfig.isEnabled()) {
       joinRoute.disable();
@@ -167,6 +181,7 @@ public class HttpServerVerticle extends AbstractVerticle {
       focusRoute.disable();
       createArtifactRoute.disable();
       actionRoute.disable();
+      findArtifactsRoute.disable();
     }
 
     final var notificationRoute = router.post("/hub/").handler(handler::handleEntitySubscription);
@@ -181,6 +196,10 @@ public class HttpServerVerticle extends AbstractVerticle {
         .consumes("application/sparql-query")
         .handler(handler::handleQuery);
 
+    router.get("/fragments").handler(handler::handleGetFragment);
+
+    router.get("/search").handler(handler::handleSearchEntities);
+
     return router;
   }
 
@@ -0,0 +1,82 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.Future;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Interface that defines the asynchronous API of a RDFStore. Every operation is started without
+ * blocking the calling thread and its outcome is signalled through the returned future, which is
+ * failed with an {@link java.io.IOException} if the store cannot be accessed or with an
+ * {@link IllegalArgumentException} if the arguments of the operation are not valid.
+ */
+public interface AsyncRdfStore {
+  Future<Boolean> containsEntityModel(IRI entityIri);
+
+  Future<Optional<Model>> getEntityModel(IRI entityIri);
+
+  Future<Void> addEntityModel(IRI entityIri, Model entityModel);
+
+  Future<Void> replaceEntityModel(IRI entityIri, Model entityModel);
+
+  Future<Void> removeStatements(IRI entityIri, Model statements);
+
+  Future<Void> removeEntityModel(IRI entityIri);
+
+  Future<Void> applyChanges(List<EntityChange> changes);
+
+  Future<Void> close();
+
+  Future<String> queryGraph(
+      String query,
+      List<String> defaultGraphUris,
+      List<String> namedGraphUris,
+      String responseContentType
+  );
+
+  /**
+   * Evaluates a query and writes its results to the given stream while they are being computed.
+   * The stream is written from a thread that is allowed to block, so that writing to it can wait
+   * for the results already written to be consumed.
+   *
+   * @param query               the SPARQL query
+   * @param defaultGraphUris    the URIs of the graphs making up the default graph of the query
+   * @param namedGraphUris      the URIs of the named graphs of the query
+   * @param responseContentType the media type in which the results are written
+   * @param out                 the stream to which the results are written
+   * @param snapshotTaken       an action run once the snapshot of the store on which the query is
+   *                            evaluated has been taken, from a thread that is allowed to block
+   * @return a future completed once all the results have been written and flushed
+   */
+  Future<Void> queryGraph(
+      String query,
+      List<String> defaultGraphUris,
+      List<String> namedGraphUris,
+      String responseContentType,
+      OutputStream out,
+      Runnable snapshotTaken
+  );
+
+  /**
+   * Returns a page of the triples matching a triple pattern in any named graph.
+   *
+   * @param subject   the subject of the matching triples, or null to match any subject
+   * @param predicate the predicate of the matching triples, or null to match any predicate
+   * @param object    the object of the matching triples, or null to match any object
+   * @param offset    the number of matching triples preceding the page
+   * @param limit     the maximum number of triples on the page
+   * @return a future completed with the page of matching triples
+   */
+  Future<TriplePatternFragment> getFragment(
+      Resource subject,
+      IRI predicate,
+      Value object,
+      long offset,
+      int limit
+  );
+}
@@ -0,0 +1,180 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * Keeps, for each container, i.e. the platform and the workspaces, the workspaces and the
+ * artifacts it contains, so that the listings of the contained entities can be built without
+ * reading and filtering the model of the container. Bodies are indexed as the artifacts they are.
+ *
+ * <p>A container is indexed from its model the first time it is needed, after which the index is
+ * kept up to date with the changes of the containment statements in its model. Containers whose
+ * model is replaced or updated by other means are removed from the index, so that they are indexed
+ * again from their new model.</p>
+ *
+ * <p>The contained entities are kept in the order of their IRIs, so that the listings can be read
+ * one page at a time, each page starting after the last entity of the previous one.</p>
+ */
+final class ContainmentIndex {
+  private static final IRI PLATFORM_TYPE =
+      RdfModelUtils.createIri("https://purl.org/hmas/HypermediaMASPlatform");
+  private static final IRI WORKSPACE_TYPE =
+      RdfModelUtils.createIri("https://purl.org/hmas/Workspace");
+  private static final IRI ARTIFACT_TYPE =
+      RdfModelUtils.createIri("https://purl.org/hmas/Artifact");
+  private static final IRI HOSTS = RdfModelUtils.createIri("https://purl.org/hmas/hosts");
+  private static final IRI CONTAINS = RdfModelUtils.createIri("https://purl.org/hmas/contains");
+  private static final String HMAS = "hmas";
+  private static final String HMAS_IRI = "https://purl.org/hmas/";
+  private static final Comparator<IRI> IRI_ORDER = Comparator.comparing(IRI::stringValue);
+
+  private final Map<IRI, Container> containers;
+
+  ContainmentIndex() {
+    this.containers = new HashMap<>();
+  }
+
+  /**
+   * Indexes the entities contained in a container from the model of the container, unless the
+   * container is already indexed.
+   *
+   * @param containerIri      the IRI of the container
+   * @param containerResource the IRI of the resource described by the container, i.e. the IRI of
+   *                          the container with either the platform or the workspace fragment
+   * @param containerModel    the model of the container
+   */
+  synchronized void index(
+      final IRI containerIri,
+      final IRI containerResource,
+      final Model containerModel
+  ) {
+    this.containers.computeIfAbsent(RdfModelUtils.fixEntityIri(containerIri), i -> {
+      final var platform = containerModel.contains(containerResource, RDF.TYPE, PLATFORM_TYPE);
+      final var container = new Container(
+          containerResource,
+          platform ? PLATFORM_TYPE : WORKSPACE_TYPE,
+          platform ? HOSTS : CONTAINS,
+          new TreeSet<>(IRI_ORDER),
+          new TreeSet<>(IRI_ORDER)
+      );
+      containerModel
+          .filter(containerResource, container.containment(), null)
+          .objects()
+          .stream()
+          .map(o -> o instanceof IRI contained ? Optional.of(contained) : Optional.<IRI>empty())
+          .flatMap(Optional::stream)
+          .forEach(contained -> {
+            if (containerModel.contains(contained, RDF.TYPE, WORKSPACE_TYPE)) {
+              container.workspaces().add(contained);
+            } else if (containerModel.contains(contained, RDF.TYPE, ARTIFACT_TYPE)) {
+              container.artifacts().add(contained);
+            }
+          });
+      return container;
+    });
+  }
+
+  synchronized void addWorkspace(final IRI containerIri, final IRI workspaceResource) {
+    this.getContainer(containerIri).ifPresent(c -> c.workspaces().add(workspaceResource));
+  }
+
+  synchronized void removeWorkspace(final IRI containerIri, final IRI workspaceResource) {
+    this.getContainer(containerIri).ifPresent(c -> c.workspaces().remove(workspaceResource));
+  }
+
+  synchronized void addArtifact(final IRI workspaceIri, final IRI artifactResource) {
+    this.getContainer(workspaceIri).ifPresent(c -> c.artifacts().add(artifactResource));
+  }
+
+  synchronized void removeArtifact(final IRI workspaceIri, final IRI artifactResource) {
+    this.getContainer(workspaceIri).ifPresent(c -> c.artifacts().remove(artifactResource));
+  }
+
+  /**
+   * Removes a container from the index, either because it has been deleted or because its model
+   * has been changed in a way that cannot be tracked by the index.
+   */
+  synchronized void remove(final IRI containerIri) {
+    this.containers.remove(RdfModelUtils.fixEntityIri(containerIri));
+  }
+
+  /**
+   * Returns a page of the listing of the workspaces contained in a container, which is empty if
+   * the container has not been indexed yet.
+   */
+  synchronized Optional<Listing> getWorkspaces(final IRI containerIri, final ListingPage page) {
+    return this.getContainer(containerIri)
+               .map(c -> createListing(c, c.workspaces(), WORKSPACE_TYPE, page));
+  }
+
+  /**
+   * Returns a page of the listing of the artifacts contained in a workspace, which is empty if
+   * the workspace has not been indexed yet.
+   */
+  synchronized Optional<Listing> getArtifacts(final IRI workspaceIri, final ListingPage page) {
+    return this.getContainer(workspaceIri)
+               .map(c -> createListing(c, c.artifacts(), ARTIFACT_TYPE, page));
+  }
+
+  private Optional<Container> getContainer(final IRI containerIri) {
+    return Optional.ofNullable(this.containers.get(RdfModelUtils.fixEntityIri(containerIri)));
+  }
+
+  private static Listing createListing(
+      final Container container,
+      final NavigableSet<IRI> containedResources,
+      final IRI containedType,
+      final ListingPage page
+  ) {
+    final var remainingResources = page.getCursor()
+                                       .map(c -> containedResources.tailSet(c, false))
+                                       .orElse(containedResources);
+    final var pageResources = new ArrayList<IRI>(page.getPageSize());
+    final var iterator = remainingResources.iterator();
+    while (iterator.hasNext() && pageResources.size() < page.getPageSize()) {
+      pageResources.add(iterator.next());
+    }
+    final Model listing = new LinkedHashModel();
+    listing.add(container.resource(), RDF.TYPE, container.type());
+    pageResources.forEach(r -> listing.add(container.resource(), container.containment(), r));
+    pageResources.forEach(r -> listing.add(r, RDF.TYPE, containedType));
+    listing.setNamespace(HMAS, HMAS_IRI);
+    final var nextPage = page.addControls(
+        listing,
+        pageResources.isEmpty()
+            ? Optional.empty()
+            : Optional.of(pageResources.get(pageResources.size() - 1)),
+        iterator.hasNext()
+    );
+    return new Listing(listing, nextPage);
+  }
+
+  /**
+   * A page of the listing of the entities contained in a container, together with the IRI of the
+   * next page, if any.
+   */
+  record Listing(Model model, Optional<IRI> nextPage) {}
+
+  /**
+   * A container, together with the resources of the workspaces and the artifacts it contains, in
+   * the order of their IRIs.
+   */
+  private record Container(
+      IRI resource,
+      IRI type,
+      IRI containment,
+      NavigableSet<IRI> workspaces,
+      NavigableSet<IRI> artifacts
+  ) {}
+}
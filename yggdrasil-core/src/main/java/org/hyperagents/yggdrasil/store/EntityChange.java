@@ -0,0 +1,55 @@
+package org.hyperagents.yggdrasil.store;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+
+/**
+ * A change to the model of an entity in the store. A list of changes can be applied to a store
+ * in a single transaction, so that either all of them or none of them are stored.
+ */
+public sealed interface EntityChange {
+
+  /**
+   * Returns the IRI of the entity whose model is changed.
+   *
+   * @return the IRI of the changed entity
+   */
+  IRI entityIri();
+
+  /**
+   * A change adding the statements of a model to the model of an entity, leaving the statements
+   * already in the model of the entity untouched.
+   *
+   * @param entityIri   the IRI of the entity
+   * @param entityModel the statements to be added
+   */
+  record Add(IRI entityIri, Model entityModel) implements EntityChange {
+  }
+
+  /**
+   * A change removing the statements of a model from the model of an entity, leaving the other
+   * statements in the model of the entity untouched.
+   *
+   * @param entityIri  the IRI of the entity
+   * @param statements the statements to be removed
+   */
+  record RemoveStatements(IRI entityIri, Model statements) implements EntityChange {
+  }
+
+  /**
+   * A change replacing the model of an entity.
+   *
+   * @param entityIri   the IRI of the entity
+   * @param entityModel the new model of the entity
+   */
+  record Replace(IRI entityIri, Model entityModel) implements EntityChange {
+  }
+
+  /**
+   * A change removing the model of an entity.
+   *
+   * @param entityIri the IRI of the entity
+   */
+  record Remove(IRI entityIri) implements EntityChange {
+  }
+}
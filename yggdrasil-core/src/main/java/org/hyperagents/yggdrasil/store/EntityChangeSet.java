@@ -0,0 +1,53 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+
+/**
+ * Collects the changes made to the store while handling a message, so that they can be applied
+ * in a single transaction, together with the actions that must only be taken once the changes
+ * have been applied, such as notifying the subscribers of the changed entities.
+ */
+final class EntityChangeSet {
+  private final List<EntityChange> changes;
+  private final List<Runnable> commitActions;
+
+  EntityChangeSet() {
+    this.changes = new ArrayList<>();
+    this.commitActions = new ArrayList<>();
+  }
+
+  void add(final IRI entityIri, final Model entityModel) {
+    this.changes.add(new EntityChange.Add(entityIri, entityModel));
+  }
+
+  void addStatements(final IRI entityIri, final Model statements) {
+    this.add(entityIri, statements);
+  }
+
+  void removeStatements(final IRI entityIri, final Model statements) {
+    this.changes.add(new EntityChange.RemoveStatements(entityIri, statements));
+  }
+
+  void replace(final IRI entityIri, final Model entityModel) {
+    this.changes.add(new EntityChange.Replace(entityIri, entityModel));
+  }
+
+  void remove(final IRI entityIri) {
+    this.changes.add(new EntityChange.Remove(entityIri));
+  }
+
+  void onCommit(final Runnable action) {
+    this.commitActions.add(action);
+  }
+
+  List<EntityChange> getChanges() {
+    return List.copyOf(this.changes);
+  }
+
+  void runCommitActions() {
+    this.commitActions.forEach(Runnable::run);
+  }
+}
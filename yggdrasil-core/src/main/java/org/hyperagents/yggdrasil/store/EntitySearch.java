@@ -0,0 +1,73 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+
+/**
+ * A full-text search of the entities in the store, from which the SPARQL query evaluated against
+ * the full-text index of the store is built.
+ *
+ * <p>The literals of the resources described by the entities are indexed, so the query finds the
+ * resources with matching literals and returns the named graphs of the entities describing them,
+ * as the members of a collection. Each entity is given the best score of its matching resources,
+ * since the order of the members of a collection is lost once it is serialized.</p>
+ */
+final class EntitySearch {
+  private static final String SEARCH_NAMESPACE = "http://www.openrdf.org/contrib/lucenesail#";
+
+  private final String searchUri;
+  private final String query;
+  private final int maxResults;
+
+  /**
+   * Creates a full-text search of the entities.
+   *
+   * @param searchUri  the URI from which the searches are served
+   * @param query      the full-text query, in the syntax of Lucene queries
+   * @param maxResults the maximum number of entities found
+   * @throws IllegalArgumentException if the query is empty
+   */
+  EntitySearch(final String searchUri, final String query, final int maxResults) {
+    if (query == null || query.isBlank()) {
+      throw new IllegalArgumentException("The full-text query cannot be empty");
+    }
+    this.searchUri = searchUri;
+    this.query = query;
+    this.maxResults = maxResults;
+  }
+
+  /**
+   * Returns the IRI of the collection of the entities found.
+   */
+  String getIri() {
+    return this.searchUri + "?q=" + URLEncoder.encode(this.query, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Builds the SPARQL query constructing the collection of the entities found, which is declared
+   * even if no entity is found.
+   */
+  String toSparqlQuery() {
+    return "PREFIX search: <" + SEARCH_NAMESPACE + ">\n"
+           + "PREFIX hydra: <" + HYDRA.NAMESPACE + ">\n"
+           + "CONSTRUCT {\n"
+           + "  <" + this.getIri() + "> a hydra:Collection ; hydra:member ?entity .\n"
+           + "  ?entity search:score ?score .\n"
+           + "} WHERE {\n"
+           + "  OPTIONAL {\n"
+           + "    SELECT ?entity (MAX(?matchScore) AS ?score) WHERE {\n"
+           + "      ?resource search:matches [\n"
+           + "        search:query \"" + NTriplesUtil.escapeString(this.query) + "\" ;\n"
+           + "        search:score ?matchScore\n"
+           + "      ] .\n"
+           + "      GRAPH ?entity { ?resource ?property ?value }\n"
+           + "    }\n"
+           + "    GROUP BY ?entity\n"
+           + "    ORDER BY DESC(?score)\n"
+           + "    LIMIT " + this.maxResults + "\n"
+           + "  }\n"
+           + "}";
+  }
+}
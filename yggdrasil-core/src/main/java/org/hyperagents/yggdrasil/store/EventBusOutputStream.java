@@ -0,0 +1,74 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An output stream sending what is written to it over the event bus in chunks, each one as a
+ * request whose reply has to be received before more data is accepted, so that the writer is
+ * slowed down to the pace of the consumer. Since writing to this stream blocks, it must only be
+ * written from threads allowed to block, never from an event loop.
+ */
+final class EventBusOutputStream extends OutputStream {
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final EventBus eventBus;
+  private final String address;
+  private Buffer chunk;
+
+  /**
+   * Creates a stream sending chunks to the given address.
+   *
+   * @param eventBus the event bus on which the chunks are sent
+   * @param address  the address to which the chunks are sent
+   */
+  EventBusOutputStream(final EventBus eventBus, final String address) {
+    super();
+    this.eventBus = eventBus;
+    this.address = address;
+    this.chunk = Buffer.buffer(CHUNK_SIZE);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    this.chunk.appendByte((byte) b);
+    if (this.chunk.length() >= CHUNK_SIZE) {
+      this.sendChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    this.chunk.appendBytes(b, off, len);
+    if (this.chunk.length() >= CHUNK_SIZE) {
+      this.sendChunk();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (this.chunk.length() > 0) {
+      this.sendChunk();
+    }
+  }
+
+  private void sendChunk() throws IOException {
+    final var sentChunk = this.chunk;
+    this.chunk = Buffer.buffer(CHUNK_SIZE);
+    try {
+      this.eventBus
+          .request(this.address, sentChunk)
+          .toCompletionStage()
+          .toCompletableFuture()
+          .get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (final ExecutionException e) {
+      throw new IOException("The chunk could not be delivered", e.getCause());
+    }
+  }
+}
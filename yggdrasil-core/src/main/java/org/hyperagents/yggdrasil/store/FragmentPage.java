@@ -0,0 +1,236 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.VOID;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A page of a triple pattern fragment requested to the store, from which the triples to read are
+ * selected and the representation of the page is built, with the metadata and the hypermedia
+ * controls a Linked Data Fragments client needs to evaluate its queries.
+ *
+ * <p>The terms of the pattern are given in the explicit representation of Hydra: IRIs as they are,
+ * literals between double quotes, possibly followed by a language tag or a datatype, and
+ * variables, or empty values, to match any term. The IRI of a page only depends on the terms and
+ * the page number, in the order of the search template, so that the same page is always cached
+ * under the same IRI.</p>
+ */
+final class FragmentPage {
+  private static final String SUBJECT_VARIABLE = "subject";
+  private static final String PREDICATE_VARIABLE = "predicate";
+  private static final String OBJECT_VARIABLE = "object";
+  private static final String PAGE_VARIABLE = "page";
+  private static final IRI TOTAL_ITEMS = Values.iri(HYDRA.NAMESPACE, "totalItems");
+  private static final IRI ITEMS_PER_PAGE = Values.iri(HYDRA.NAMESPACE, "itemsPerPage");
+  private static final IRI EXPLICIT_REPRESENTATION =
+      Values.iri(HYDRA.NAMESPACE, "ExplicitRepresentation");
+
+  private final String fragmentsUri;
+  private final Map<String, String> pattern;
+  private final Resource subject;
+  private final IRI predicate;
+  private final Value object;
+  private final long page;
+  private final int pageSize;
+
+  /**
+   * Creates a page of a triple pattern fragment.
+   *
+   * @param fragmentsUri the URI from which the fragments are served
+   * @param subject      the subject of the pattern, empty to match any subject
+   * @param predicate    the predicate of the pattern, empty to match any predicate
+   * @param object       the object of the pattern, empty to match any object
+   * @param page         the number of the page, starting from 1
+   * @param pageSize     the number of triples on each page
+   * @throws IllegalArgumentException if a term of the pattern or the page number is not valid
+   */
+  FragmentPage(
+      final String fragmentsUri,
+      final String subject,
+      final String predicate,
+      final String object,
+      final long page,
+      final int pageSize
+  ) {
+    if (page < 1) {
+      throw new IllegalArgumentException("The page number must be positive: " + page);
+    }
+    this.fragmentsUri = fragmentsUri;
+    this.page = page;
+    this.pageSize = pageSize;
+    this.pattern = new LinkedHashMap<>();
+    this.subject = parseTerm(SUBJECT_VARIABLE, subject)
+        .map(t -> {
+          if (t instanceof Resource r) {
+            return r;
+          }
+          throw new IllegalArgumentException("The subject of a pattern cannot be a literal");
+        })
+        .orElse(null);
+    this.predicate = parseTerm(PREDICATE_VARIABLE, predicate)
+        .map(t -> {
+          if (t instanceof IRI i) {
+            return i;
+          }
+          throw new IllegalArgumentException("The predicate of a pattern must be an IRI");
+        })
+        .orElse(null);
+    this.object = parseTerm(OBJECT_VARIABLE, object).orElse(null);
+  }
+
+  /**
+   * Parses a term of the pattern, remembering it to build the IRIs of the pages.
+   */
+  private Optional<Value> parseTerm(final String variable, final String term) {
+    if (term == null || term.isEmpty() || term.startsWith("?")) {
+      return Optional.empty();
+    }
+    this.pattern.put(variable, term);
+    if (!term.startsWith("\"")) {
+      return Optional.of(parseIri(term));
+    }
+    final var labelEnd = term.lastIndexOf('"');
+    if (labelEnd == 0) {
+      throw new IllegalArgumentException("Unterminated literal: " + term);
+    }
+    final var label = term.substring(1, labelEnd);
+    final var suffix = term.substring(labelEnd + 1);
+    if (suffix.isEmpty()) {
+      return Optional.of(Values.literal(label));
+    } else if (suffix.startsWith("@") && suffix.length() > 1) {
+      return Optional.of(Values.literal(label, suffix.substring(1)));
+    } else if (suffix.startsWith("^^") && suffix.length() > 2) {
+      return Optional.of(Values.literal(label, parseIri(suffix.substring(2))));
+    }
+    throw new IllegalArgumentException("Badly formatted literal: " + term);
+  }
+
+  private static IRI parseIri(final String term) {
+    return RdfModelUtils.createIri(
+        term.startsWith("<") && term.endsWith(">") ? term.substring(1, term.length() - 1) : term
+    );
+  }
+
+  Resource getSubject() {
+    return this.subject;
+  }
+
+  IRI getPredicate() {
+    return this.predicate;
+  }
+
+  Value getObject() {
+    return this.object;
+  }
+
+  long getOffset() {
+    return (this.page - 1) * this.pageSize;
+  }
+
+  int getLimit() {
+    return this.pageSize;
+  }
+
+  /**
+   * Returns the IRI of this page, under which its representation is cached.
+   */
+  IRI getIri() {
+    return this.getPageIri(this.page);
+  }
+
+  private IRI getPageIri(final long pageNumber) {
+    final var query = new StringBuilder();
+    this.pattern.forEach((variable, term) -> appendParameter(query, variable, term));
+    if (pageNumber > 1) {
+      appendParameter(query, PAGE_VARIABLE, Long.toString(pageNumber));
+    }
+    return RdfModelUtils.createIri(this.fragmentsUri + query);
+  }
+
+  private static void appendParameter(
+      final StringBuilder query,
+      final String name,
+      final String value
+  ) {
+    query.append(query.isEmpty() ? '?' : '&')
+         .append(name)
+         .append('=')
+         .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Builds the representation of this page from the triples read from the store, adding the
+   * description of the dataset, the form to request other fragments, and the links to the other
+   * pages of the fragment.
+   *
+   * @param fragment the triples of this page, as read from the store
+   * @return the model of the page
+   */
+  Model toModel(final TriplePatternFragment fragment) {
+    final var model = new LinkedHashModel(fragment.triples());
+    final var pageIri = this.getIri();
+    final var datasetIri = RdfModelUtils.createIri(this.fragmentsUri + "#dataset");
+    model.add(datasetIri, RDF.TYPE, VOID.DATASET);
+    model.add(datasetIri, RDF.TYPE, HYDRA.COLLECTION);
+    model.add(datasetIri, VOID.SUBSET, pageIri);
+
+    final var search = Values.bnode();
+    model.add(datasetIri, HYDRA.SEARCH, search);
+    model.add(search, RDF.TYPE, HYDRA.IRI_TEMPLATE);
+    model.add(
+        search,
+        HYDRA.TEMPLATE,
+        Values.literal(
+            this.fragmentsUri
+            + "{?" + SUBJECT_VARIABLE + "," + PREDICATE_VARIABLE + "," + OBJECT_VARIABLE + "}"
+        )
+    );
+    model.add(search, HYDRA.VARIABLE_REPRESENTATION_PROP, EXPLICIT_REPRESENTATION);
+    addMapping(model, search, SUBJECT_VARIABLE, RDF.SUBJECT);
+    addMapping(model, search, PREDICATE_VARIABLE, RDF.PREDICATE);
+    addMapping(model, search, OBJECT_VARIABLE, RDF.OBJECT);
+
+    model.add(pageIri, RDF.TYPE, HYDRA.PARTIAL_COLLECTION_VIEW);
+    final var count = Values.literal(Long.toString(fragment.estimatedCount()), XSD.INTEGER);
+    model.add(pageIri, VOID.TRIPLES, count);
+    model.add(pageIri, TOTAL_ITEMS, count);
+    model.add(
+        pageIri,
+        ITEMS_PER_PAGE,
+        Values.literal(Integer.toString(this.pageSize), XSD.INTEGER)
+    );
+    model.add(pageIri, HYDRA.FIRST, this.getPageIri(1));
+    if (this.page > 1) {
+      model.add(pageIri, HYDRA.PREVIOUS, this.getPageIri(this.page - 1));
+    }
+    if (fragment.hasNext()) {
+      model.add(pageIri, HYDRA.NEXT, this.getPageIri(this.page + 1));
+    }
+    return model;
+  }
+
+  private static void addMapping(
+      final Model model,
+      final Resource search,
+      final String variable,
+      final IRI property
+  ) {
+    final var mapping = Values.bnode();
+    model.add(search, HYDRA.MAPPING, mapping);
+    model.add(mapping, HYDRA.VARIABLE, Values.literal(variable));
+    model.add(mapping, HYDRA.PROPERTY, property);
+  }
+}
@@ -0,0 +1,109 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A page of a listing of the workspaces or the artifacts contained in a container, from which the
+ * contained resources to list are selected and the hypermedia controls to the other pages are
+ * added to the representation of the listing.
+ *
+ * <p>The contained resources are listed in the order of their IRIs, and a page starts right after
+ * the resource given as its cursor, i.e. the last resource listed on the previous page, so that
+ * the pages stay consistent while resources are added to and removed from the container. The
+ * controls are only added to the listings that do not fit on a single page, whose representation
+ * is therefore the same as the one of the whole listing.</p>
+ */
+final class ListingPage {
+  private static final String CURSOR_VARIABLE = "cursor";
+  private static final IRI ITEMS_PER_PAGE = Values.iri(HYDRA.NAMESPACE, "itemsPerPage");
+
+  private final String listingUri;
+  private final IRI cursor;
+  private final int pageSize;
+
+  /**
+   * Creates a page of a listing.
+   *
+   * @param listingUri the URI from which the listing is served, possibly with a query
+   * @param cursor     the IRI of the last resource listed on the previous page, empty for the
+   *                   first page
+   * @param pageSize   the maximum number of resources listed on each page
+   * @throws IllegalArgumentException if the cursor is not an IRI
+   */
+  ListingPage(final String listingUri, final Optional<String> cursor, final int pageSize) {
+    this.listingUri = listingUri;
+    this.cursor = cursor.filter(c -> !c.isEmpty()).map(RdfModelUtils::createIri).orElse(null);
+    this.pageSize = pageSize;
+  }
+
+  Optional<IRI> getCursor() {
+    return Optional.ofNullable(this.cursor);
+  }
+
+  int getPageSize() {
+    return this.pageSize;
+  }
+
+  /**
+   * Returns the IRI of this page.
+   */
+  IRI getIri() {
+    return this.getPageIri(this.cursor);
+  }
+
+  private IRI getPageIri(final IRI pageCursor) {
+    if (pageCursor == null) {
+      return RdfModelUtils.createIri(this.listingUri);
+    }
+    return RdfModelUtils.createIri(
+        this.listingUri
+        + (this.listingUri.contains("?") ? '&' : '?')
+        + CURSOR_VARIABLE
+        + '='
+        + URLEncoder.encode(pageCursor.stringValue(), StandardCharsets.UTF_8)
+    );
+  }
+
+  /**
+   * Adds the links to the first and the next pages to the listing, unless the whole listing is
+   * on this page.
+   *
+   * @param listing      the listing of the resources on this page
+   * @param lastResource the last resource listed on this page, if any
+   * @param hasNext      whether resources are listed after the last one of this page
+   * @return the IRI of the next page, if any
+   */
+  Optional<IRI> addControls(
+      final Model listing,
+      final Optional<IRI> lastResource,
+      final boolean hasNext
+  ) {
+    if (this.cursor == null && !hasNext) {
+      return Optional.empty();
+    }
+    final var pageIri = this.getIri();
+    listing.add(pageIri, RDF.TYPE, HYDRA.PARTIAL_COLLECTION_VIEW);
+    listing.add(
+        pageIri,
+        ITEMS_PER_PAGE,
+        Values.literal(Integer.toString(this.pageSize), XSD.INTEGER)
+    );
+    listing.add(pageIri, HYDRA.FIRST, this.getPageIri(null));
+    listing.setNamespace(HYDRA.PREFIX, HYDRA.NAMESPACE);
+    if (!hasNext) {
+      return Optional.empty();
+    }
+    final var nextIri = this.getPageIri(lastResource.orElseThrow());
+    listing.add(pageIri, HYDRA.NEXT, nextIri);
+    return Optional.of(nextIri);
+  }
+}
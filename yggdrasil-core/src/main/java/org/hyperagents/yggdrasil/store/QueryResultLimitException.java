@@ -0,0 +1,13 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a SPARQL query has more results than the maximum number of results.
+ */
+@SuppressWarnings("serial")
+public class QueryResultLimitException extends IOException {
+  public QueryResultLimitException(final String message) {
+    super(message);
+  }
+}
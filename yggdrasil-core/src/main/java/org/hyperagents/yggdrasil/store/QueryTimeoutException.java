@@ -0,0 +1,13 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a SPARQL query is interrupted for running longer than its timeout.
+ */
+@SuppressWarnings("serial")
+public class QueryTimeoutException extends IOException {
+  public QueryTimeoutException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+}
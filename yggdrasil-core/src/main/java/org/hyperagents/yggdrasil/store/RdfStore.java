@@ -1,10 +1,14 @@
 package org.hyperagents.yggdrasil.store;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
 
 /**
  * Interface that defines the API of a RDFStore.
@@ -18,8 +22,18 @@ public interface RdfStore {
 
   void replaceEntityModel(IRI entityIri, Model entityModel) throws IOException;
 
+  void removeStatements(IRI entityIri, Model statements) throws IOException;
+
   void removeEntityModel(IRI entityIri) throws IOException;
 
+  /**
+   * Applies the given changes, in order, in a single transaction.
+   *
+   * @param changes the changes to be applied
+   * @throws IOException if the store cannot be accessed, in which case no change is applied
+   */
+  void applyChanges(List<EntityChange> changes) throws IOException;
+
   void close() throws IOException;
 
   String queryGraph(
@@ -28,4 +42,58 @@ public interface RdfStore {
       List<String> namedGraphUris,
       String responseContentType
   ) throws IllegalArgumentException, IOException;
+
+  /**
+   * Evaluates a query and writes its results to the given stream while they are being computed,
+   * so that they never need to be held in memory as a whole. The stream is flushed, but not
+   * closed, once all the results have been written.
+   *
+   * @param query               the SPARQL query
+   * @param defaultGraphUris    the URIs of the graphs making up the default graph of the query
+   * @param namedGraphUris      the URIs of the named graphs of the query
+   * @param responseContentType the media type in which the results are written
+   * @param out                 the stream to which the results are written
+   * @param snapshotTaken       an action run once the snapshot of the store on which the query is
+   *                            evaluated has been taken, before any result is written
+   * @throws IllegalArgumentException if the query is not valid
+   * @throws IOException if the store cannot be accessed or the results cannot be written
+   */
+  void queryGraph(
+      String query,
+      List<String> defaultGraphUris,
+      List<String> namedGraphUris,
+      String responseContentType,
+      OutputStream out,
+      Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException;
+
+  /**
+   * Writes all the statements of the store, in the named graphs of their entities, and its
+   * namespaces to the given handler, from a single snapshot of the store.
+   *
+   * @param handler the handler to which the statements are written
+   * @throws IOException if the store cannot be accessed or the statements cannot be written
+   */
+  void exportStatements(RDFHandler handler) throws IOException;
+
+  /**
+   * Returns a page of the triples matching a triple pattern in any named graph, from a single
+   * snapshot of the store. The matching triples are always listed in the same order as long as the
+   * store is not changed.
+   *
+   * @param subject   the subject of the matching triples, or null to match any subject
+   * @param predicate the predicate of the matching triples, or null to match any predicate
+   * @param object    the object of the matching triples, or null to match any object
+   * @param offset    the number of matching triples preceding the page
+   * @param limit     the maximum number of triples on the page
+   * @return the page of matching triples, with an estimate of their total number
+   * @throws IOException if the store cannot be accessed
+   */
+  TriplePatternFragment getFragment(
+      Resource subject,
+      IRI predicate,
+      Value object,
+      long offset,
+      int limit
+  ) throws IOException;
 }
@@ -3,18 +3,30 @@ package org.hyperagents.yggdrasil.store;
 import static org.eclipse.rdf4j.model.util.Values.iri;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.ThreadingModel;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.function.Failable;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,6 +35,7 @@ import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.Messagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
@@ -30,12 +43,15 @@ import org.hyperagents.yggdrasil.eventbus.messages.HttpNotificationDispatcherMes
 import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
 import org.hyperagents.yggdrasil.model.interfaces.Environment;
 import org.hyperagents.yggdrasil.store.impl.RdfStoreFactory;
+import org.hyperagents.yggdrasil.store.impl.ReplicationClient;
+import org.hyperagents.yggdrasil.store.impl.ReplicationServer;
 import org.hyperagents.yggdrasil.utils.EnvironmentConfig;
 import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
-import org.hyperagents.yggdrasil.utils.JsonObjectUtils;
 import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.hyperagents.yggdrasil.utils.RdfStoreConfig;
 import org.hyperagents.yggdrasil.utils.RepresentationFactory;
 import org.hyperagents.yggdrasil.utils.WebSubConfig;
+import org.hyperagents.yggdrasil.utils.impl.RdfStoreConfigImpl;
 import org.hyperagents.yggdrasil.utils.impl.RepresentationFactoryFactory;
 
 /**
@@ -50,20 +66,56 @@ public class RdfStoreVerticle extends AbstractVerticle {
   private static final String ARTIFACT_HMAS_IRI = "https://purl.org/hmas/Artifact";
   private static final String HOSTS_HMAS_IRI = "https://purl.org/hmas/hosts";
   private static final String HOSTED_ON_HMAS_IRI = "https://purl.org/hmas/isHostedOn";
-  private static final String HMAS_IRI = "https://purl.org/hmas/";
-  private static final String HMAS = "hmas";
   private static final String ARTIFACT_FRAGMENT = "#artifact";
   private static final String WORKSPACE_FRAGMENT = "#workspace";
   private static final String PLATFORM_FRAGMENT = "#platform";
   private static final String DEFAULT_CONFIG_VALUE = "default";
+  private static final long REPLICATION_RECONNECT_INTERVAL = 1000;
+  private static final Set<RDFFormat> REPRESENTATION_FORMATS =
+      Set.of(RDFFormat.TURTLE, RDFFormat.NTRIPLES, RDFFormat.JSONLD, RDFFormat.BINARY);
 
   private Messagebox<HttpNotificationDispatcherMessage> dispatcherMessagebox;
   private HttpInterfaceConfig httpConfig;
-  private RdfStore store;
+  private AsyncRdfStore store;
+  private RepresentationCache representationCache;
+  private RdfStoreConfig.SerializationProfile serializationProfile;
+  private int fragmentPageSize;
+  private int listingPageSize;
+  private boolean fullTextSearchEnabled;
+  private int fullTextSearchMaxResults;
+  private final ContainmentIndex containmentIndex = new ContainmentIndex();
+  private boolean groupCommit;
+  private final Set<Future<Void>> readsInFlight = new HashSet<>();
+  private final Set<Future<Void>> mutationsInFlight = new HashSet<>();
+  private Future<Void> lastMutationStaged = Future.succeededFuture();
+  private Promise<Void> stagingMutation;
+  private ReplicationServer replicationServer;
+  private ReplicationClient replicationClient;
+  private long maxReplicationLag;
 
   private RepresentationFactory representationFactory;
 
-  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  /**
+   * Creates the options for deploying this verticle with the given configuration, which select
+   * the threads on which the store messages are handled. Vert.x runs the handlers of a verticle one
+   * at a time on its context, whatever its threading model, so the store messages are scheduled in
+   * the order in which they are received.
+   *
+   * @param config the configuration of the platform
+   * @return the options for deploying the verticle
+   */
+  public static DeploymentOptions getDeploymentOptions(final JsonObject config) {
+    final var storeConfig = new RdfStoreConfigImpl(config);
+    final var options = new DeploymentOptions().setConfig(config);
+    return switch (storeConfig.getExecutionMode()) {
+      case EVENT_LOOP -> options;
+      case WORKER -> options.setThreadingModel(ThreadingModel.WORKER)
+                            .setWorkerPoolName("rdf-store-worker-pool")
+                            .setWorkerPoolSize(storeConfig.getWorkerPoolSize());
+      case VIRTUAL_THREAD -> options.setThreadingModel(ThreadingModel.VIRTUAL_THREAD);
+    };
+  }
+
   @Override
   public void start(final Promise<Void> startPromise) {
     this.httpConfig = this.vertx.sharedData()
@@ -87,85 +139,63 @@ public class RdfStoreVerticle extends AbstractVerticle {
         this.vertx.eventBus(),
         notificationConfig
     );
+    final var storeConfig = new RdfStoreConfigImpl(this.config());
+    this.groupCommit = storeConfig.isGroupCommitEnabled();
+    this.representationCache = new RepresentationCache(
+        storeConfig.isRepresentationCacheEnabled(),
+        storeConfig.getRepresentationCacheMaxEntries()
+    );
+    this.serializationProfile = storeConfig.getSerializationProfile();
+    this.fragmentPageSize = storeConfig.getFragmentPageSize();
+    this.listingPageSize = storeConfig.getListingPageSize();
+    this.fullTextSearchEnabled = storeConfig.isFullTextSearchEnabled();
+    this.fullTextSearchMaxResults = storeConfig.getFullTextSearchMaxResults();
+    final var replicationRole = storeConfig.getReplicationRole();
+    this.maxReplicationLag = storeConfig.getReplicationMaxLag();
     final var ownMessagebox = new RdfStoreMessagebox(this.vertx.eventBus());
     ownMessagebox.init();
     ownMessagebox.receiveMessages(message -> {
-      try {
-        switch (message.body()) {
-          case RdfStoreMessage.GetEntityIri content -> message.reply(this.handleGetEntityIri(
-              content.requestUri(),
-              content.slug())
-          );
-          case RdfStoreMessage.GetEntity content -> this.handleGetEntity(
-              RdfModelUtils.createIri(content.requestUri()),
-              message
-          );
-          case RdfStoreMessage.CreateArtifact content -> this.handleCreateArtifact(
-              content,
-              message
-          );
-          case RdfStoreMessage.CreateWorkspace content -> this.handleCreateWorkspace(
-              content,
-              message
-          );
-          case RdfStoreMessage.ReplaceEntity content -> this.handleReplaceEntity(
-              RdfModelUtils.createIri(content.requestUri()),
-              content,
-              message
-          );
-          case RdfStoreMessage.UpdateEntity content -> this.handleUpdateEntity(
-              RdfModelUtils.createIri(content.requestUri()),
-              content,
-              message
-          );
-          case RdfStoreMessage.DeleteEntity(String workspaceName, String artifactName) ->
-              this.handleDeleteEntity(workspaceName, artifactName, message);
-          case RdfStoreMessage.GetWorkspaces(String containerWorkspace) ->
-              this.handleGetWorkspaces(containerWorkspace, message);
-          case RdfStoreMessage.GetArtifacts(String workspaceName) ->
-              this.handleGetArtifacts(workspaceName, message);
-          case RdfStoreMessage.QueryKnowledgeGraph(
-              String query,
-              List<String> defaultGraphUris,
-              List<String> namedGraphUris,
-              String responseContentType
-            ) -> this.handleQuery(query, defaultGraphUris, namedGraphUris, responseContentType,
-              message);
-          case RdfStoreMessage.CreateBody content -> this.handleCreateBody(content, message);
-        }
-      } catch (final IllegalArgumentException e) {
-        LOGGER.error(e);
-        this.replyBadRequest(message);
-      } catch (final IOException | UncheckedIOException e) {
-        LOGGER.error(e);
-        this.replyFailed(message);
+      final var mutating = isMutating(message.body());
+      if (!this.rejectOnReplica(mutating, message)) {
+        this.schedule(mutating, () -> this.handleMessage(message))
+            .onFailure(e -> this.replyError(message, e));
       }
     });
     this.vertx
-        .<Void>executeBlocking(() -> {
-          this.store =
-              Optional.ofNullable(this.config())
-                  .flatMap(c -> JsonObjectUtils.getBoolean(c, "in-memory", LOGGER::error))
-                  .map(Failable.asFunction(inMemory -> {
-                    if (inMemory) {
-                      return RdfStoreFactory.createInMemoryStore();
-                    } else {
-                      return RdfStoreFactory.createFilesystemStore(
-                          JsonObjectUtils
-                              .getJsonObject(this.config(), "rdf-store", LOGGER::error)
-                              .flatMap(c -> JsonObjectUtils.getString(
-                                  c,
-                                  "store-path",
-                                  LOGGER::error
-                              ))
-                              .orElse("data/")
-                      );
-                    }
-                  }))
-                  .orElse(RdfStoreFactory.createInMemoryStore());
+        .<RdfStore>executeBlocking(() -> {
+          final var configuredStore = RdfStoreFactory.createStore(storeConfig);
+          if (replicationRole == RdfStoreConfig.ReplicationRole.FOLLOWER) {
+            // The models changed by the primary are indexed again from their new version
+            final var store = RdfStoreFactory.createNotifyingStore(configuredStore, iri -> {
+              this.representationCache.invalidate(iri);
+              this.containmentIndex.remove(iri);
+            });
+            this.replicationClient = RdfStoreFactory.createReplicationClient(
+                this.vertx,
+                store,
+                REPLICATION_RECONNECT_INTERVAL
+            );
+            return store;
+          }
+          final RdfStore replicatedStore;
+          if (replicationRole == RdfStoreConfig.ReplicationRole.PRIMARY) {
+            final var replicatingStore = RdfStoreFactory.createReplicatingStore(configuredStore);
+            this.replicationServer = RdfStoreFactory.createReplicationServer(
+                this.vertx,
+                replicatingStore,
+                storeConfig.getReplicationHeartbeatInterval()
+            );
+            replicatedStore = replicatingStore;
+          } else {
+            replicatedStore = configuredStore;
+          }
+          final var store = RdfStoreFactory.createNotifyingStore(
+              replicatedStore,
+              this.representationCache::invalidate
+          );
           final var platformIri =
               RdfModelUtils.createIri(this.httpConfig.getBaseUriTrailingSlash());
-          this.store.addEntityModel(
+          store.addEntityModel(
               platformIri,
               RdfModelUtils.stringToModel(
                   this.representationFactory.createPlatformRepresentation(),
@@ -173,6 +203,21 @@ public class RdfStoreVerticle extends AbstractVerticle {
                   RDFFormat.TURTLE
               )
           );
+          return store;
+        })
+        .<Void>map(s -> {
+          final var asyncStore = RdfStoreFactory.createAsyncStore(this.vertx, s);
+          this.store = this.groupCommit
+              ? RdfStoreFactory.createGroupCommitStore(asyncStore)
+              : asyncStore;
+          if (this.replicationClient != null) {
+            // The platform and the environment are those of the primary
+            this.replicationClient.connect(
+                storeConfig.getReplicationHost(),
+                storeConfig.getReplicationPort()
+            );
+            return null;
+          }
           if (
               !this.vertx
                   .sharedData()
@@ -206,118 +251,401 @@ public class RdfStoreVerticle extends AbstractVerticle {
           }
           return null;
         })
+        .compose(v -> this.replicationServer == null
+            ? Future.<Void>succeededFuture()
+            : this.replicationServer
+                .listen(storeConfig.getReplicationHost(), storeConfig.getReplicationPort())
+                .<Void>mapEmpty())
         .onComplete(startPromise);
   }
 
   @Override
   public void stop(final Promise<Void> stopPromise) {
-    this.vertx
-        .<Void>executeBlocking(() -> {
-          this.store.close();
+    final Future<Void> replicationStopped;
+    if (this.replicationServer != null) {
+      replicationStopped = this.replicationServer.close();
+    } else if (this.replicationClient != null) {
+      replicationStopped = this.replicationClient.close();
+    } else {
+      replicationStopped = Future.succeededFuture();
+    }
+    replicationStopped.transform(r -> this.store.close()).onComplete(stopPromise);
+  }
+
+  /**
+   * Rejects the messages a follower of a primary store cannot handle, i.e. the ones changing the
+   * store, and the ones reading it while it is too far behind the primary.
+   *
+   * @return true if the message has been rejected
+   */
+  private boolean rejectOnReplica(
+      final boolean mutating,
+      final Message<RdfStoreMessage> message
+  ) {
+    if (this.replicationClient == null) {
+      return false;
+    }
+    if (mutating) {
+      message.fail(HttpStatus.SC_METHOD_NOT_ALLOWED, "The store is a read-only replica.");
+      return true;
+    }
+    if (this.replicationClient.getLag() > this.maxReplicationLag) {
+      message.fail(HttpStatus.SC_SERVICE_UNAVAILABLE, "The replica is behind its primary.");
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean isMutating(final RdfStoreMessage message) {
+    return !(message instanceof RdfStoreMessage.GetEntityIri
+             || message instanceof RdfStoreMessage.GetEntity
+             || message instanceof RdfStoreMessage.GetWorkspaces
+             || message instanceof RdfStoreMessage.GetArtifacts
+             || message instanceof RdfStoreMessage.GetFragment
+             || message instanceof RdfStoreMessage.SearchEntities
+             || message instanceof RdfStoreMessage.QueryKnowledgeGraph);
+  }
+
+  /**
+   * Schedules the handling of a message, so that the store requests of many messages can be in
+   * flight at the same time while every message still observes the changes made by the ones
+   * received before it. Messages that change the store are handled after all the messages
+   * received before them have been, or, with group commit, after the changes of the previous
+   * message changing the store have been staged, while messages that only read the store wait for
+   * all the changes to be completed.
+   */
+  private Future<Void> schedule(
+      final boolean mutating,
+      final Supplier<Future<Void>> operation
+  ) {
+    if (mutating) {
+      final var previousOperations = new ArrayList<Future<Void>>(this.readsInFlight);
+      previousOperations.add(this.lastMutationStaged);
+      final Promise<Void> staged = Promise.promise();
+      final Future<Void> result = Future.all(previousOperations).transform(r -> {
+        this.stagingMutation = staged;
+        return operation.get();
+      });
+      // Messages not changing the store, or failing, do not stage any change
+      result.onComplete(r -> staged.tryComplete());
+      this.lastMutationStaged = staged.future();
+      track(this.mutationsInFlight, result);
+      return result;
+    }
+    final Future<Void> result = Future.all(new ArrayList<>(this.mutationsInFlight))
+        .transform(r -> operation.get());
+    track(this.readsInFlight, result);
+    return result;
+  }
+
+  private static void track(final Set<Future<Void>> operationsInFlight, final Future<Void> result) {
+    final var completion = result.otherwiseEmpty();
+    operationsInFlight.add(completion);
+    completion.onComplete(r -> operationsInFlight.remove(completion));
+  }
+
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  private Future<Void> handleMessage(final Message<RdfStoreMessage> message) {
+    try {
+      return switch (message.body()) {
+        case RdfStoreMessage.GetEntityIri content -> this.handleGetEntityIri(
+            content.requestUri(),
+            content.slug()
+        ).map(entityIri -> {
+          message.reply(entityIri);
           return null;
-        })
-        .onComplete(stopPromise);
+        });
+        case RdfStoreMessage.GetEntity content -> this.handleGetEntity(
+            RdfModelUtils.createIri(content.requestUri()),
+            message
+        );
+        case RdfStoreMessage.CreateArtifact content -> this.handleCreateArtifact(
+            content,
+            message
+        );
+        case RdfStoreMessage.CreateWorkspace content -> this.handleCreateWorkspace(
+            content,
+            message
+        );
+        case RdfStoreMessage.ReplaceEntity content -> this.handleReplaceEntity(
+            RdfModelUtils.createIri(content.requestUri()),
+            content,
+            message
+        );
+        case RdfStoreMessage.UpdateEntity content -> this.handleUpdateEntity(
+            RdfModelUtils.createIri(content.requestUri()),
+            content,
+            message
+        );
+        case RdfStoreMessage.DeleteEntity(String workspaceName, String artifactName) ->
+            this.handleDeleteEntity(workspaceName, artifactName, message);
+        case RdfStoreMessage.GetWorkspaces(String containerWorkspace, Optional<String> cursor) ->
+            this.handleGetWorkspaces(containerWorkspace, cursor, message);
+        case RdfStoreMessage.GetArtifacts(String workspaceName, Optional<String> cursor) ->
+            this.handleGetArtifacts(workspaceName, cursor, message);
+        case RdfStoreMessage.GetFragment content -> this.handleGetFragment(
+            new FragmentPage(
+                this.httpConfig.getBaseUriTrailingSlash() + "fragments",
+                content.subject(),
+                content.predicate(),
+                content.object(),
+                content.page(),
+                this.fragmentPageSize
+            ),
+            message
+        );
+        case RdfStoreMessage.SearchEntities(String query) -> this.handleSearchEntities(
+            query,
+            message
+        );
+        case RdfStoreMessage.QueryKnowledgeGraph(
+            String query,
+            List<String> defaultGraphUris,
+            List<String> namedGraphUris,
+            String responseContentType
+          ) -> this.handleQuery(query, defaultGraphUris, namedGraphUris, responseContentType,
+            message);
+        case RdfStoreMessage.CreateBody content -> this.handleCreateBody(content, message);
+      };
+    } catch (final IllegalArgumentException | UncheckedIOException e) {
+      return Future.failedFuture(e);
+    }
   }
 
-  private void handleGetEntity(
+  private Future<Void> handleGetEntity(
       final IRI requestIri,
       final Message<RdfStoreMessage> message
-  ) throws IOException {
-    final var result = this.store.getEntityModel(requestIri);
-    if (result.isPresent()) {
-      this.replyWithPayload(message, RdfModelUtils.modelToString(result.get(), RDFFormat.TURTLE,
-          this.httpConfig.getBaseUriTrailingSlash()));
-    } else {
-      this.replyEntityNotFound(message);
+  ) {
+    final var format = this.getRepresentationFormat(message);
+    final var cachedRepresentation = this.representationCache.get(
+        requestIri,
+        RepresentationCache.View.ENTITY,
+        format
+    );
+    if (cachedRepresentation.isPresent()) {
+      this.replyWithRepresentation(message, cachedRepresentation.get());
+      return Future.succeededFuture();
     }
+    final var version = this.representationCache.getVersion(requestIri);
+    return this.store.getEntityModel(requestIri).map(result -> {
+      if (result.isPresent()) {
+        this.replyWithRepresentation(message, this.representationCache.put(
+            requestIri,
+            RepresentationCache.View.ENTITY,
+            format,
+            this.serializeRepresentation(result.get(), format),
+            version
+        ));
+      } else {
+        this.replyEntityNotFound(message);
+      }
+      return null;
+    });
   }
 
-  private void handleGetWorkspaces(
+  private Future<Void> handleGetWorkspaces(
       final String containerWorkspaceUri,
+      final Optional<String> cursor,
       final Message<RdfStoreMessage> message
-  ) throws IOException {
+  ) {
     // either parentWorkspace or the Platform
-    final var result = this.store.getEntityModel(iri(containerWorkspaceUri));
-    if (result.isPresent()) {
-      final var containerFragment =
-          containerWorkspaceUri.equals(this.httpConfig.getBaseUriTrailingSlash())
-              ? PLATFORM_FRAGMENT : WORKSPACE_FRAGMENT;
-
-      final Model m = handleGetContainedThings(
-          result.get(),
-          containerWorkspaceUri + containerFragment,
-          containerFragment.equals(PLATFORM_FRAGMENT) ? PLATFORM_HMAS_IRI : WORKSPACE_HMAS_IRI,
-          containerFragment.equals(PLATFORM_FRAGMENT) ? HOSTS_HMAS_IRI : CONTAINS_HMAS_IRI,
-          WORKSPACE_HMAS_IRI,
-          WORKSPACE_FRAGMENT
-      );
+    final var containerIri = iri(containerWorkspaceUri);
+    final var platform = containerWorkspaceUri.equals(this.httpConfig.getBaseUriTrailingSlash());
+    final var page = new ListingPage(
+        platform
+            ? this.httpConfig.getWorkspacesUri()
+            : this.httpConfig.getWorkspacesUri() + "?parent=" + URLEncoder.encode(
+                getWorkspaceName(containerWorkspaceUri),
+                StandardCharsets.UTF_8
+            ),
+        cursor,
+        this.listingPageSize
+    );
+    return this.replyWithListing(
+        containerIri,
+        iri(containerWorkspaceUri + (platform ? PLATFORM_FRAGMENT : WORKSPACE_FRAGMENT)),
+        RepresentationCache.View.WORKSPACES,
+        page,
+        i -> this.containmentIndex.getWorkspaces(i, page),
+        message
+    );
+  }
 
-      this.replyWithPayload(message, RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-          this.httpConfig.getBaseUriTrailingSlash()));
-    } else {
-      this.replyEntityNotFound(message);
-    }
+  /**
+   * Returns the first page of a listing, which is the one sent to the subscribers of the listing
+   * when it changes.
+   */
+  private ListingPage getFirstListingPage(final String listingUri) {
+    return new ListingPage(listingUri, Optional.empty(), this.listingPageSize);
   }
 
-  private Model handleGetContainedThings(final Model container,
-                                         final String containerIri,
-                                         final String containerType,
-                                         final String containmentAction,
-                                         final String containedIri,
-                                         final String containedFragment) {
-    final Model m = new LinkedHashModel();
+  /**
+   * Returns the name of a workspace from its URI, with or without a trailing slash.
+   */
+  private static String getWorkspaceName(final String workspaceUri) {
+    final var path = workspaceUri.endsWith("/")
+        ? workspaceUri.substring(0, workspaceUri.length() - 1)
+        : workspaceUri;
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
 
-    final var containerTriple = container.filter(
-        iri(containerIri), RDF.TYPE, iri(containerType)
-    );
+  /**
+   * Sends a page of the listing of the entities contained in a container. Only the listings
+   * fitting on a single page are cached, as the pages of larger listings are read from the
+   * containment index one at a time, with the link to the next page sent along with them.
+   */
+  private Future<Void> replyWithListing(
+      final IRI containerIri,
+      final IRI containerResource,
+      final RepresentationCache.View view,
+      final ListingPage page,
+      final Function<IRI, Optional<ContainmentIndex.Listing>> listing,
+      final Message<RdfStoreMessage> message
+  ) {
+    final var format = this.getRepresentationFormat(message);
+    if (page.getCursor().isEmpty()) {
+      final var cachedRepresentation = this.representationCache.get(containerIri, view, format);
+      if (cachedRepresentation.isPresent()) {
+        this.replyWithRepresentation(message, cachedRepresentation.get());
+        return Future.succeededFuture();
+      }
+    }
+    final var version = this.representationCache.getVersion(containerIri);
+    return this.getListing(containerIri, containerResource, listing).map(result -> {
+      if (result.isEmpty()) {
+        this.replyEntityNotFound(message);
+        return null;
+      }
+      final var payload = this.serializeRepresentation(result.get().model(), format);
+      final var nextPage = result.get().nextPage();
+      if (page.getCursor().isEmpty() && nextPage.isEmpty()) {
+        this.replyWithRepresentation(
+            message,
+            this.representationCache.put(containerIri, view, format, payload, version)
+        );
+      } else {
+        this.replyWithRepresentation(
+            message,
+            this.representationCache.createRepresentation(payload, format, version),
+            nextPage
+        );
+      }
+      return null;
+    });
+  }
 
-    final var relevantEntities = container.filter(
-        null, RDF.TYPE, iri(containedIri)
+  /**
+   * Returns a listing of the entities contained in a container, first indexing the container
+   * from its model if needed, or nothing if the container does not exist.
+   */
+  private Future<Optional<ContainmentIndex.Listing>> getListing(
+      final IRI containerIri,
+      final IRI containerResource,
+      final Function<IRI, Optional<ContainmentIndex.Listing>> listing
+  ) {
+    final var indexedListing = listing.apply(containerIri);
+    if (indexedListing.isPresent()) {
+      return Future.succeededFuture(indexedListing);
+    }
+    return this.store.getEntityModel(containerIri).map(containerModel ->
+        containerModel.flatMap(m -> {
+          this.containmentIndex.index(containerIri, containerResource, m);
+          return listing.apply(containerIri);
+        })
     );
+  }
 
-    final var allContainedEntities = container.filter(
-        iri(containerIri), iri(containmentAction), null
+  private Future<Void> handleGetArtifacts(
+      final String workspaceName,
+      final Optional<String> cursor,
+      final Message<RdfStoreMessage> message
+  ) {
+    final var workspaceIri = this.httpConfig.getWorkspaceUri(workspaceName);
+    final var page = new ListingPage(
+        this.httpConfig.getArtifactsUri(workspaceName),
+        cursor,
+        this.listingPageSize
     );
-
-    allContainedEntities.removeIf(
-        triple -> !triple.getObject().stringValue().contains(containedFragment)
+    return this.replyWithListing(
+        iri(workspaceIri),
+        iri(workspaceIri + WORKSPACE_FRAGMENT),
+        RepresentationCache.View.ARTIFACTS,
+        page,
+        i -> this.containmentIndex.getArtifacts(i, page),
+        message
     );
+  }
 
-    m.addAll(containerTriple);
-    m.addAll(allContainedEntities);
-    m.addAll(relevantEntities);
-    m.setNamespace(HMAS, HMAS_IRI);
-
-    return m;
+  /**
+   * Sends a page of the triples matching a triple pattern, whatever the entities they belong to.
+   * The pages are cached with the version of the whole store, and are therefore read again after
+   * any entity is changed.
+   */
+  private Future<Void> handleGetFragment(
+      final FragmentPage page,
+      final Message<RdfStoreMessage> message
+  ) {
+    final var format = this.getRepresentationFormat(message);
+    final var cachedRepresentation = this.representationCache.get(
+        page.getIri(),
+        RepresentationCache.View.FRAGMENT,
+        format
+    );
+    if (cachedRepresentation.isPresent()) {
+      this.replyWithRepresentation(message, cachedRepresentation.get());
+      return Future.succeededFuture();
+    }
+    final var version = this.representationCache.getStoreVersion();
+    return this.store.getFragment(
+        page.getSubject(),
+        page.getPredicate(),
+        page.getObject(),
+        page.getOffset(),
+        page.getLimit()
+    ).map(fragment -> {
+      this.replyWithRepresentation(message, this.representationCache.put(
+          page.getIri(),
+          RepresentationCache.View.FRAGMENT,
+          format,
+          this.serializeRepresentation(page.toModel(fragment), format),
+          version
+      ));
+      return null;
+    });
   }
 
-  private void handleGetArtifacts(final String workspaceName,
-                                  final Message<RdfStoreMessage> message) throws IOException {
-    final var workspaceIri = this.httpConfig.getWorkspaceUri(workspaceName);
-    final var result = this.store.getEntityModel(iri(workspaceIri));
-    if (result.isPresent()) {
-      final Model m = handleGetContainedThings(
-          result.get(),
-          workspaceIri + WORKSPACE_FRAGMENT,
-          WORKSPACE_HMAS_IRI,
-          CONTAINS_HMAS_IRI,
-          ARTIFACT_HMAS_IRI,
-          ARTIFACT_FRAGMENT
-      );
-      this.replyWithPayload(message, RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-          this.httpConfig.getBaseUriTrailingSlash()));
-    } else {
-      this.replyEntityNotFound(message);
+  /**
+   * Sends the entities whose literals match a full-text query, as found in the full-text index of
+   * the store, which is only kept if full-text search is enabled.
+   */
+  private Future<Void> handleSearchEntities(
+      final String query,
+      final Message<RdfStoreMessage> message
+  ) {
+    if (!this.fullTextSearchEnabled) {
+      message.fail(HttpStatus.SC_NOT_FOUND, "Full-text search is not enabled.");
+      return Future.succeededFuture();
     }
+    final var search = new EntitySearch(
+        this.httpConfig.getBaseUriTrailingSlash() + "search",
+        query,
+        this.fullTextSearchMaxResults
+    );
+    return this.store
+        .queryGraph(search.toSparqlQuery(), List.of(), List.of(), "text/turtle")
+        .map(result -> {
+          this.replyWithPayload(message, result);
+          return null;
+        });
   }
 
   /**
    * Creates a body artifact and adds it to the store.
    */
-  private void handleCreateBody(
+  private Future<Void> handleCreateBody(
       final RdfStoreMessage.CreateBody content,
       final Message<RdfStoreMessage> message
-  ) throws IOException {
+  ) {
     final var bodyIri = this.httpConfig.getAgentBodyUri(
         content.workspaceName(),
         content.agentName()
@@ -325,64 +653,64 @@ public class RdfStoreVerticle extends AbstractVerticle {
 
     final var entityIri = RdfModelUtils.createIri(bodyIri);
 
-    if (this.store.containsEntityModel(entityIri)) {
-      this.replyWithPayload(message,
-          RdfModelUtils.modelToString(
-              this.store.getEntityModel(entityIri).orElseThrow(),
-              RDFFormat.TURTLE,
-              this.httpConfig.getBaseUriTrailingSlash()));
-      return;
-    }
+    return this.store.getEntityModel(entityIri).compose(existingModel -> {
+      if (existingModel.isPresent()) {
+        this.replyWithPayload(message, this.serialize(existingModel.get()));
+        return Future.succeededFuture();
+      }
 
-    final var entityBodyIri = RdfModelUtils.createIri(bodyIri + "#artifact");
-    Optional
-        .ofNullable(content.bodyRepresentation())
-        .filter(s -> !s.isEmpty())
-        // Replace all null relative IRIs with the IRI generated for this entity
-        .map(s -> s.replaceAll("<>", "<" + bodyIri + ">"))
-        .ifPresentOrElse(
-            Failable.asConsumer(s -> {
-              final var entityModel = RdfModelUtils.stringToModel(s, entityIri, RDFFormat.TURTLE);
-              final var workspaceActualIri = RdfModelUtils.createIri(
-                  this.httpConfig.getWorkspaceUri(content.workspaceName())
-              );
-              this.enrichArtifactGraphWithWorkspace(
-                  entityIri, entityModel, workspaceActualIri, true);
-              final var agentIri =
-                  RdfModelUtils.createIri(content.agentID());
-              entityModel.add(
-                  entityBodyIri,
-                  RdfModelUtils.createIri("https://purl.org/hmas/jacamo/isBodyOf"),
-                  agentIri
-              );
-              entityModel.add(
-                  agentIri,
-                  RDF.TYPE,
-                  RdfModelUtils.createIri("https://purl.org/hmas/Agent")
-              );
-              this.store.addEntityModel(entityIri, entityModel);
-              final var stringGraphResult =
-                  RdfModelUtils.modelToString(entityModel, RDFFormat.TURTLE,
-                      this.httpConfig.getBaseUriTrailingSlash());
-              this.dispatcherMessagebox.sendMessage(
-                  new HttpNotificationDispatcherMessage.EntityCreated(
-                      this.httpConfig.getAgentBodiesUri(content.workspaceName()),
-                      stringGraphResult
-                  )
-              );
-              this.replyWithPayload(message, stringGraphResult);
-            }),
-            () -> this.replyFailed(message)
-        );
+      final var entityBodyIri = RdfModelUtils.createIri(bodyIri + "#artifact");
+      final var bodyRepresentation =
+          Optional.ofNullable(content.bodyRepresentation()).filter(s -> !s.isEmpty());
+      if (bodyRepresentation.isEmpty()) {
+        this.replyFailed(message);
+        return Future.succeededFuture();
+      }
+      // The null relative IRIs are resolved to the IRI generated for this entity, the base IRI
+      final var entityModel = this.parse(bodyRepresentation.get(), entityIri);
+      final var workspaceActualIri = RdfModelUtils.createIri(
+          this.httpConfig.getWorkspaceUri(content.workspaceName())
+      );
+      final var changes = new EntityChangeSet();
+      return this.enrichArtifactGraphWithWorkspace(
+              entityIri, entityModel, workspaceActualIri, true, changes)
+          .compose(v -> {
+            final var agentIri =
+                RdfModelUtils.createIri(content.agentID());
+            entityModel.add(
+                entityBodyIri,
+                RdfModelUtils.createIri("https://purl.org/hmas/jacamo/isBodyOf"),
+                agentIri
+            );
+            entityModel.add(
+                agentIri,
+                RDF.TYPE,
+                RdfModelUtils.createIri("https://purl.org/hmas/Agent")
+            );
+            changes.add(entityIri, entityModel);
+            return this.commit(changes);
+          })
+          .map(v -> {
+            final var stringGraphResult = this.serialize(entityModel);
+            this.dispatcherMessagebox.sendMessage(
+                new HttpNotificationDispatcherMessage.EntityCreated(
+                    this.httpConfig.getAgentBodiesUri(content.workspaceName()),
+                    stringGraphResult
+                )
+            );
+            this.replyWithPayload(message, stringGraphResult);
+            return null;
+          });
+    });
   }
 
   /**
    * Creates an artifact and adds it to the store.
    */
-  private void handleCreateArtifact(
+  private Future<Void> handleCreateArtifact(
       final RdfStoreMessage.CreateArtifact content,
       final Message<RdfStoreMessage> message
-  ) throws IOException {
+  ) {
     // Create IRI for new entity
     final var artifactIri = this.httpConfig
         .getArtifactUri(content.workspaceName(), content.artifactName());
@@ -393,36 +721,36 @@ public class RdfStoreVerticle extends AbstractVerticle {
         artifactIri.substring(0, artifactIri.indexOf("/artifacts/"))
     );
 
-    final var t = this.store.containsEntityModel(workspaceIri);
-    if (!t) {
-      this.replyFailed(message);
-    } else {
-      Optional
-          .ofNullable(content.artifactRepresentation())
-          .filter(s -> !s.isEmpty())
-          // Replace all null relative IRIs with the IRI generated for this entity
-          .map(s -> s.replaceAll("<>", "<" + artifactIri + ">"))
-          .ifPresentOrElse(
-              Failable.asConsumer(s -> {
-                final var entityModel = RdfModelUtils.stringToModel(s, entityIri, RDFFormat.TURTLE);
-                this.enrichArtifactGraphWithWorkspace(entityIri, entityModel, workspaceIri, false);
-                this.store.addEntityModel(entityIri, entityModel);
-                final var stringGraphResult =
-                    RdfModelUtils.modelToString(entityModel, RDFFormat.TURTLE,
-                        this.httpConfig.getBaseUriTrailingSlash());
-                this.replyWithPayload(message, stringGraphResult);
-              }),
-              () -> this.replyFailed(message)
-          );
-    }
+    return this.store.containsEntityModel(workspaceIri).compose(workspaceExists -> {
+      final var artifactRepresentation =
+          Optional.ofNullable(content.artifactRepresentation()).filter(s -> !s.isEmpty());
+      if (!workspaceExists || artifactRepresentation.isEmpty()) {
+        this.replyFailed(message);
+        return Future.succeededFuture();
+      }
+      // The null relative IRIs are resolved to the IRI generated for this entity, the base IRI
+      final var entityModel = this.parse(artifactRepresentation.get(), entityIri);
+      final var changes = new EntityChangeSet();
+      return this.enrichArtifactGraphWithWorkspace(
+              entityIri, entityModel, workspaceIri, false, changes)
+          .compose(v -> {
+            changes.add(entityIri, entityModel);
+            return this.commit(changes);
+          })
+          .map(v -> {
+            this.replyWithPayload(message, this.serialize(entityModel));
+            return null;
+          });
+    });
   }
 
-  private void enrichArtifactGraphWithWorkspace(
+  private Future<Void> enrichArtifactGraphWithWorkspace(
       final IRI entityIri,
       final Model entityModel,
       final IRI workspaceIri,
-      final boolean isBody
-  ) throws IOException {
+      final boolean isBody,
+      final EntityChangeSet changes
+  ) {
     final var artifactIRI =
         RdfModelUtils.createIri(entityIri + ARTIFACT_FRAGMENT);
 
@@ -439,66 +767,54 @@ public class RdfStoreVerticle extends AbstractVerticle {
         RDF.TYPE,
         RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
     );
-    this.store
-        .getEntityModel(workspaceIri)
-        .ifPresent(Failable.asConsumer(workspaceModel -> {
-          workspaceModel.add(
-              workspaceActualIRI,
-              RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
-              artifactIRI
-          );
-          workspaceModel.add(
-              artifactIRI,
-              RDF.TYPE,
-              RdfModelUtils.createIri(ARTIFACT_HMAS_IRI)
-          );
-          if (isBody) {
-            workspaceModel.add(
-                artifactIRI,
-                RDF.TYPE,
-                RdfModelUtils.createIri("https://purl.org/hmas/jacamo/Body")
-            );
-            workspaceModel.setNamespace("jacamo", "https://purl.org/hmas/jacamo/");
-          }
-          this.store.replaceEntityModel(workspaceIri, workspaceModel);
-          this.dispatcherMessagebox.sendMessage(
-              new HttpNotificationDispatcherMessage.EntityChanged(
-                  workspaceIri.toString(),
-                  RdfModelUtils.modelToString(workspaceModel, RDFFormat.TURTLE,
-                      this.httpConfig.getBaseUriTrailingSlash())
-              )
-          );
-
-          final Model m = new LinkedHashModel();
-
-          final var artifactsContained = workspaceModel
-              .filter(null, RDF.TYPE, iri(ARTIFACT_HMAS_IRI));
-
-          final var workspaceDefTriple = workspaceModel
-              .filter(workspaceActualIRI, RDF.TYPE, iri(WORKSPACE_HMAS_IRI));
-
-
-          final var containedThings = workspaceModel
-              .filter(null, iri(CONTAINS_HMAS_IRI), null);
-
-          containedThings.removeIf(
-              triple -> !triple.getObject().stringValue().contains(ARTIFACT_FRAGMENT)
-          );
-
-          m.addAll(containedThings);
-          m.addAll(workspaceDefTriple);
-          m.addAll(artifactsContained);
-          m.setNamespace(HMAS, HMAS_IRI);
-
-
-          this.dispatcherMessagebox.sendMessage(
-              new HttpNotificationDispatcherMessage.EntityChanged(
-                  workspaceIri + "/artifacts/",
-                  RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-                      this.httpConfig.getBaseUriTrailingSlash())
-              )
-          );
-        }));
+    return this.store.getEntityModel(workspaceIri).map(optionalWorkspaceModel -> {
+      if (optionalWorkspaceModel.isEmpty()) {
+        return null;
+      }
+      final var workspaceModel = optionalWorkspaceModel.get();
+      final var containmentStatements = new LinkedHashModel();
+      containmentStatements.add(
+          workspaceActualIRI,
+          RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
+          artifactIRI
+      );
+      containmentStatements.add(
+          artifactIRI,
+          RDF.TYPE,
+          RdfModelUtils.createIri(ARTIFACT_HMAS_IRI)
+      );
+      if (isBody) {
+        containmentStatements.add(
+            artifactIRI,
+            RDF.TYPE,
+            RdfModelUtils.createIri("https://purl.org/hmas/jacamo/Body")
+        );
+        containmentStatements.setNamespace("jacamo", "https://purl.org/hmas/jacamo/");
+      }
+      this.addStatements(workspaceIri, workspaceModel, containmentStatements, changes);
+      changes.onCommit(() -> {
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityChanged(
+                workspaceIri.toString(),
+                this.serialize(workspaceModel)
+            )
+        );
+        this.containmentIndex.index(workspaceIri, workspaceActualIRI, workspaceModel);
+        this.containmentIndex.addArtifact(workspaceIri, artifactIRI);
+        this.containmentIndex.getArtifacts(
+            workspaceIri,
+            this.getFirstListingPage(workspaceIri + "/artifacts")
+        ).ifPresent(l ->
+            this.dispatcherMessagebox.sendMessage(
+                new HttpNotificationDispatcherMessage.EntityChanged(
+                    workspaceIri + "/artifacts/",
+                    this.serialize(l.model())
+                )
+            )
+        );
+      });
+      return null;
+    });
   }
 
   /**
@@ -506,492 +822,745 @@ public class RdfStoreVerticle extends AbstractVerticle {
    *
    * @param message    Request
    */
-  private void handleCreateWorkspace(
+  private Future<Void> handleCreateWorkspace(
       final RdfStoreMessage.CreateWorkspace content,
       final Message<RdfStoreMessage> message
-  ) throws IllegalArgumentException, IOException {
+  ) throws IllegalArgumentException {
     // Create IRI for new entity
     final var workspaceIri = this.httpConfig.getWorkspaceUri(content.workspaceName());
     final var resourceIRI = RdfModelUtils.createIri(workspaceIri);
 
     final var workspaceIRI = RdfModelUtils.createIri(workspaceIri + WORKSPACE_FRAGMENT);
-    Optional
-        .ofNullable(content.workspaceRepresentation())
-        .filter(s -> !s.isEmpty())
-        // Replace all null relative IRIs with the IRI generated for this entity
-        .map(s -> s.replaceAll("<>", "<" + workspaceIri + ">"))
-        .ifPresentOrElse(
-            Failable.asConsumer(s -> {
-              final var entityModel = RdfModelUtils.stringToModel(s, resourceIRI, RDFFormat.TURTLE);
-
-              if (content.parentWorkspaceUri().isPresent()) {
-                final var parentIri = RdfModelUtils.createIri(content.parentWorkspaceUri().get());
-
-                entityModel.add(
-                    workspaceIRI,
-                    RdfModelUtils.createIri(CONTAINED_IN_HMAS_IRI),
-                    RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT)
-                );
-                entityModel.add(
-                    RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
-                    RDF.TYPE,
-                    RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-                );
-                this.store
-                    .getEntityModel(parentIri)
-                    .ifPresent(Failable.asConsumer(parentModel -> {
-                      parentModel.add(
-                          RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
-                          RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
-                          workspaceIRI
-                      );
-                      parentModel.add(
-                          workspaceIRI,
-                          RDF.TYPE,
-                          RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-                      );
-                      this.store.replaceEntityModel(parentIri, parentModel);
-                      this.dispatcherMessagebox.sendMessage(
-                          new HttpNotificationDispatcherMessage.EntityChanged(
-                              parentIri.toString(),
-                              RdfModelUtils.modelToString(parentModel, RDFFormat.TURTLE,
-                                  this.httpConfig.getBaseUriTrailingSlash())
-                          )
-                      );
-
-                      final var parentWorkspaceName = parentIri.toString()
-                          .substring(parentIri.toString().lastIndexOf('/') + 1);
-
-                      final Model m = new LinkedHashModel();
-
-                      final var workspaceDefTriple = parentModel
-                          .filter(
-                              RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
-                              RDF.TYPE, iri(WORKSPACE_HMAS_IRI));
-
-                      final Model containedThings = parentModel
-                          .filter(null, iri(CONTAINS_HMAS_IRI), null);
-
-
-                      containedThings.removeIf(
-                          triple -> !triple.getObject().stringValue().contains(WORKSPACE_FRAGMENT)
-                      );
-
-                      final Model containedDefinitions = parentModel
-                          .filter(null, null, iri(WORKSPACE_HMAS_IRI));
-
-                      m.addAll(containedThings);
-                      m.addAll(workspaceDefTriple);
-                      m.addAll(containedDefinitions);
-
-                      m.setNamespace(HMAS, HMAS_IRI);
-
-
-                      this.dispatcherMessagebox.sendMessage(
-                          new HttpNotificationDispatcherMessage.EntityChanged(
-                              this.httpConfig.getWorkspacesUri()
-                                  + "?parent=" + parentWorkspaceName,
-                              RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-                                  this.httpConfig.getBaseUriTrailingSlash())
-                          )
-                      );
-                    }));
-              } else {
-                final var platformResourceProfileIri =
-                    iri(this.httpConfig.getBaseUriTrailingSlash());
-
-                final var platformIRI =
-                    RdfModelUtils.createIri(platformResourceProfileIri + PLATFORM_FRAGMENT);
-                entityModel.add(
-                    workspaceIRI,
-                    RdfModelUtils.createIri(HOSTED_ON_HMAS_IRI),
-                    platformIRI
-                );
-                entityModel.add(
-                    platformIRI,
-                    RDF.TYPE,
-                    RdfModelUtils.createIri(PLATFORM_HMAS_IRI)
-                );
-                this.store
-                    .getEntityModel(platformResourceProfileIri)
-                    .ifPresent(Failable.asConsumer(platformModel -> {
-                      platformModel.add(
-                          platformIRI,
-                          RdfModelUtils.createIri(HOSTS_HMAS_IRI),
-                          workspaceIRI
-                      );
-                      platformModel.add(
-                          workspaceIRI,
-                          RDF.TYPE,
-                          RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-                      );
-                      this.store.replaceEntityModel(platformResourceProfileIri, platformModel);
-                      this.dispatcherMessagebox.sendMessage(
-                          new HttpNotificationDispatcherMessage.EntityChanged(
-                              platformResourceProfileIri.toString(),
-                              RdfModelUtils.modelToString(platformModel, RDFFormat.TURTLE,
-                                  this.httpConfig.getBaseUriTrailingSlash())
-                          )
-                      );
-
-                      final Model m = new LinkedHashModel();
-
-                      final var workspaceDefTriple = platformModel
-                          .filter(RdfModelUtils.createIri(
-                                  platformResourceProfileIri + PLATFORM_FRAGMENT),
-                              RDF.TYPE, iri(PLATFORM_HMAS_IRI));
-
-                      final Model containedThings = platformModel
-                          .filter(null, iri(HOSTS_HMAS_IRI), null);
-
-                      final Model workspaceDef = platformModel
-                          .filter(null, null, iri(WORKSPACE_HMAS_IRI));
-
-                      m.addAll(workspaceDefTriple);
-                      m.addAll(containedThings);
-                      m.addAll(workspaceDef);
-
-                      m.setNamespace(HMAS, HMAS_IRI);
-
-
-                      this.dispatcherMessagebox.sendMessage(
-                          new HttpNotificationDispatcherMessage.EntityChanged(
-                              this.httpConfig.getWorkspacesUriTrailingSlash(),
-                              RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-                                  this.httpConfig.getBaseUriTrailingSlash())
-                          )
-                      );
-                    }));
-              }
-              this.store.addEntityModel(resourceIRI, entityModel);
-              final var stringGraphResult =
-                  RdfModelUtils.modelToString(entityModel, RDFFormat.TURTLE,
-                      this.httpConfig.getBaseUriTrailingSlash());
-              this.replyWithPayload(message, stringGraphResult);
-            }),
-            () -> this.replyFailed(message)
+    final var workspaceRepresentation =
+        Optional.ofNullable(content.workspaceRepresentation()).filter(s -> !s.isEmpty());
+    if (workspaceRepresentation.isEmpty()) {
+      this.replyFailed(message);
+      return Future.succeededFuture();
+    }
+    // The null relative IRIs are resolved to the IRI generated for this entity, the base IRI
+    final var entityModel = this.parse(workspaceRepresentation.get(), resourceIRI);
+
+    final var changes = new EntityChangeSet();
+    final Future<Void> containerUpdated;
+    if (content.parentWorkspaceUri().isPresent()) {
+      final var parentIri = RdfModelUtils.createIri(content.parentWorkspaceUri().get());
+
+      entityModel.add(
+          workspaceIRI,
+          RdfModelUtils.createIri(CONTAINED_IN_HMAS_IRI),
+          RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT)
+      );
+      entityModel.add(
+          RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
+          RDF.TYPE,
+          RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
+      );
+      containerUpdated = this.store.getEntityModel(parentIri).map(optionalParentModel -> {
+        if (optionalParentModel.isEmpty()) {
+          return null;
+        }
+        final var parentModel = optionalParentModel.get();
+        final var containmentStatements = new LinkedHashModel();
+        containmentStatements.add(
+            RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
+            RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
+            workspaceIRI
+        );
+        containmentStatements.add(
+            workspaceIRI,
+            RDF.TYPE,
+            RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
         );
+        this.addStatements(parentIri, parentModel, containmentStatements, changes);
+        changes.onCommit(() -> {
+          this.dispatcherMessagebox.sendMessage(
+              new HttpNotificationDispatcherMessage.EntityChanged(
+                  parentIri.toString(),
+                  this.serialize(parentModel)
+              )
+          );
+
+          final var parentWorkspaceName = parentIri.toString()
+              .substring(parentIri.toString().lastIndexOf('/') + 1);
+
+          this.containmentIndex.index(
+              parentIri,
+              RdfModelUtils.createIri(parentIri + WORKSPACE_FRAGMENT),
+              parentModel
+          );
+          this.containmentIndex.addWorkspace(parentIri, workspaceIRI);
+          this.containmentIndex.getWorkspaces(
+              parentIri,
+              this.getFirstListingPage(
+                  this.httpConfig.getWorkspacesUri() + "?parent=" + parentWorkspaceName
+              )
+          ).ifPresent(l ->
+              this.dispatcherMessagebox.sendMessage(
+                  new HttpNotificationDispatcherMessage.EntityChanged(
+                      this.httpConfig.getWorkspacesUri()
+                          + "?parent=" + parentWorkspaceName,
+                      this.serialize(l.model())
+                  )
+              )
+          );
+        });
+        return null;
+      });
+    } else {
+      final var platformResourceProfileIri =
+          iri(this.httpConfig.getBaseUriTrailingSlash());
+
+      final var platformIRI =
+          RdfModelUtils.createIri(platformResourceProfileIri + PLATFORM_FRAGMENT);
+      entityModel.add(
+          workspaceIRI,
+          RdfModelUtils.createIri(HOSTED_ON_HMAS_IRI),
+          platformIRI
+      );
+      entityModel.add(
+          platformIRI,
+          RDF.TYPE,
+          RdfModelUtils.createIri(PLATFORM_HMAS_IRI)
+      );
+      containerUpdated =
+          this.store.getEntityModel(platformResourceProfileIri).map(optionalPlatformModel -> {
+            if (optionalPlatformModel.isEmpty()) {
+              return null;
+            }
+            final var platformModel = optionalPlatformModel.get();
+            final var containmentStatements = new LinkedHashModel();
+            containmentStatements.add(
+                platformIRI,
+                RdfModelUtils.createIri(HOSTS_HMAS_IRI),
+                workspaceIRI
+            );
+            containmentStatements.add(
+                workspaceIRI,
+                RDF.TYPE,
+                RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
+            );
+            this.addStatements(
+                platformResourceProfileIri,
+                platformModel,
+                containmentStatements,
+                changes
+            );
+            changes.onCommit(() -> {
+              this.dispatcherMessagebox.sendMessage(
+                  new HttpNotificationDispatcherMessage.EntityChanged(
+                      platformResourceProfileIri.toString(),
+                      this.serialize(platformModel)
+                  )
+              );
+              this.containmentIndex.index(platformResourceProfileIri, platformIRI, platformModel);
+              this.containmentIndex.addWorkspace(platformResourceProfileIri, workspaceIRI);
+              this.sendHostedWorkspacesChanged(platformResourceProfileIri);
+            });
+            return null;
+          });
+    }
+    return containerUpdated
+        .compose(v -> {
+          changes.add(resourceIRI, entityModel);
+          return this.commit(changes);
+        })
+        .map(v -> {
+          this.replyWithPayload(message, this.serialize(entityModel));
+          return null;
+        });
+  }
+
+  private void sendHostedWorkspacesChanged(final IRI platformIri) {
+    this.containmentIndex.getWorkspaces(
+        platformIri,
+        this.getFirstListingPage(this.httpConfig.getWorkspacesUri())
+    ).ifPresent(l ->
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityChanged(
+                this.httpConfig.getWorkspacesUriTrailingSlash(),
+                this.serialize(l.model())
+            )
+        )
+    );
   }
 
   // TODO: add message content validation
-  private void handleReplaceEntity(
+  private Future<Void> handleReplaceEntity(
       final IRI requestIri,
       final RdfStoreMessage.ReplaceEntity content,
       final Message<RdfStoreMessage> message
-  ) throws IOException {
-    this.store.getEntityModel(requestIri).ifPresentOrElse(
-        Failable.asConsumer(m -> {
-          final var replacingModel = RdfModelUtils.stringToModel(
-              content.entityRepresentation(),
-              requestIri,
-              RDFFormat.TURTLE
+  ) {
+    return this.store.getEntityModel(requestIri).compose(entityModel -> {
+      if (entityModel.isEmpty()) {
+        this.replyEntityNotFound(message);
+        return Future.succeededFuture();
+      }
+      final var format = this.getContentFormat(message);
+      final var replacingModel = this.parse(content.entityRepresentation(), requestIri, format);
+      // The subscribers and the sender are sent the representation in Turtle
+      final var representation = format.equals(RDFFormat.TURTLE)
+                                 ? content.entityRepresentation().toString(StandardCharsets.UTF_8)
+                                 : this.serialize(replacingModel);
+      final var changes = new EntityChangeSet();
+      changes.replace(requestIri, replacingModel);
+      return this.commit(changes).map(v -> {
+        // The containment statements of the entity may have changed along with the others
+        this.containmentIndex.remove(requestIri);
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityChanged(
+                requestIri.toString(),
+                representation
+            )
+        );
+        this.replyWithPayload(message, representation);
+        return null;
+      });
+    });
+  }
+
+  private Future<Void> handleUpdateEntity(
+      final IRI requestIri,
+      final RdfStoreMessage.UpdateEntity content,
+      final Message<RdfStoreMessage> message
+  ) {
+    return this.store.getEntityModel(requestIri).compose(entityModel -> {
+      if (entityModel.isEmpty()) {
+        this.replyEntityNotFound(message);
+        return Future.succeededFuture();
+      }
+      final var additionalTriples = this.parse(
+          content.entityRepresentation(),
+          requestIri,
+          this.getContentFormat(message)
+      );
+      final var changes = new EntityChangeSet();
+      changes.add(requestIri, additionalTriples);
+      // The updated model is the one read before the update with the added triples
+      final var updatedEntityModel = entityModel.get();
+      updatedEntityModel.addAll(additionalTriples);
+      additionalTriples.getNamespaces().forEach(updatedEntityModel::setNamespace);
+      return this.commit(changes).map(v -> {
+        this.containmentIndex.remove(requestIri);
+        final var updatedModel = this.serialize(updatedEntityModel);
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityChanged(
+                requestIri.toString(),
+                updatedModel
+            )
+        );
+        this.replyWithPayload(message, updatedModel);
+        return null;
+      });
+    });
+  }
+
+  private Future<Void> handleDeleteEntity(
+      final String workspaceName,
+      final String artifactName,
+      final Message<RdfStoreMessage> message
+  ) throws IllegalArgumentException {
+    final var workspaceIri = iri(this.httpConfig.getWorkspaceUri(workspaceName));
+    final var requestIri = artifactName == null ? workspaceIri :
+        iri(this.httpConfig.getArtifactUri(workspaceName, artifactName));
+
+    return this.store.getEntityModel(requestIri).compose(optionalEntityModel -> {
+      if (optionalEntityModel.isEmpty()) {
+        this.replyEntityNotFound(message);
+        return Future.succeededFuture();
+      }
+      final var entityModel = optionalEntityModel.get();
+      final var entityModelString = this.serialize(entityModel);
+      final var changes = new EntityChangeSet();
+      final Future<Void> entityDeleted;
+      if (entityModel.contains(
+          RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
+          RdfModelUtils.createIri(RDF.TYPE.stringValue()),
+          RdfModelUtils.createIri("https://purl.org/hmas/Artifact")
+      )) {
+        entityDeleted = this.deleteArtifact(workspaceIri, requestIri, entityModelString, changes);
+      } else if (entityModel.contains(
+          RdfModelUtils.createIri(requestIri + WORKSPACE_FRAGMENT),
+          RdfModelUtils.createIri(RDF.TYPE.stringValue()),
+          RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
+      )) {
+        entityDeleted = this.deleteWorkspace(requestIri, entityModel, changes);
+      } else {
+        entityDeleted = Future.succeededFuture();
+      }
+      return entityDeleted
+          .compose(v -> this.commit(changes))
+          .map(v -> {
+            this.replyWithPayload(message, entityModelString);
+            return null;
+          });
+    });
+  }
+
+  private Future<Void> deleteArtifact(
+      final IRI workspaceIri,
+      final IRI requestIri,
+      final String entityModelString,
+      final EntityChangeSet changes
+  ) {
+    return this.store.getEntityModel(workspaceIri).map(optionalWorkspaceModel -> {
+      optionalWorkspaceModel.ifPresent(workspaceModel -> {
+        final var containmentStatements = new LinkedHashModel();
+        containmentStatements.add(
+            RdfModelUtils.createIri(workspaceIri + WORKSPACE_FRAGMENT),
+            RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
+            RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT)
+        );
+        containmentStatements.add(
+            RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
+            RDF.TYPE,
+            RdfModelUtils.createIri("https://purl.org/hmas/Artifact")
+        );
+        containmentStatements.add(
+            RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
+            RDF.TYPE,
+            RdfModelUtils.createIri("https://purl.org/hmas/jacamo/Body")
+        );
+        this.removeStatements(workspaceIri, workspaceModel, containmentStatements, changes);
+        changes.onCommit(() -> {
+          this.containmentIndex.removeArtifact(
+              workspaceIri,
+              RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT)
           );
-          this.store.replaceEntityModel(requestIri, replacingModel);
+          final var workspaceIriWIthoutTrailingSlash = workspaceIri.toString()
+              .endsWith("/")
+              ?
+              workspaceIri.toString().substring(0, workspaceIri.toString().length() - 1)
+              : workspaceIri.toString();
           this.dispatcherMessagebox.sendMessage(
               new HttpNotificationDispatcherMessage.EntityChanged(
-                  requestIri.toString(),
-                  content.entityRepresentation()
+                  workspaceIriWIthoutTrailingSlash,
+                  this.serialize(workspaceModel)
               )
           );
-          this.replyWithPayload(message, content.entityRepresentation());
-        }),
-        () -> this.replyEntityNotFound(message)
-    );
+        });
+      });
+      changes.remove(requestIri);
+      changes.onCommit(() -> {
+        final var requestIriWithoutTrailingSlash = requestIri.toString().endsWith("/")
+            ? requestIri.toString().substring(0, requestIri.toString().length() - 1)
+            : requestIri.toString();
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityDeleted(
+                requestIriWithoutTrailingSlash,
+                entityModelString
+            )
+        );
+      });
+      return null;
+    });
   }
 
-  private void handleUpdateEntity(
+  private Future<Void> deleteWorkspace(
       final IRI requestIri,
-      final RdfStoreMessage.UpdateEntity content,
-      final Message<RdfStoreMessage> message
-  ) throws IOException, IllegalArgumentException {
-    this.store.getEntityModel(requestIri).ifPresentOrElse(
-        Failable.asConsumer(m -> {
-          final var additionalTriples = RdfModelUtils.stringToModel(
-              content.entityRepresentation(),
-              requestIri,
-              RDFFormat.TURTLE
-          );
-          this.store.addEntityModel(requestIri, additionalTriples);
-          final var updatedModel =
-              RdfModelUtils.modelToString(this.store.getEntityModel(requestIri).orElseThrow(),
-                  RDFFormat.TURTLE,
-                  this.httpConfig.getBaseUriTrailingSlash());
+      final Model entityModel,
+      final EntityChangeSet changes
+  ) {
+    final var workspaceIriResource = RdfModelUtils.createIri(
+        requestIri + WORKSPACE_FRAGMENT
+    );
+    final var platformIri = iri(this.httpConfig.getBaseUriTrailingSlash());
+    final var platformIriResource = iri(
+        this.httpConfig.getBaseUriTrailingSlash() + PLATFORM_FRAGMENT
+    );
+    final Future<Void> containerUpdated;
+    if (entityModel.contains(
+        workspaceIriResource,
+        RdfModelUtils.createIri("https://purl.org/hmas/isHostedOn"),
+        platformIriResource
+    )) {
+      containerUpdated = this.store.getEntityModel(platformIri).map(optionalPlatformModel -> {
+        if (optionalPlatformModel.isEmpty()) {
+          return null;
+        }
+        final var platformModel = optionalPlatformModel.get();
+        final var containmentStatements = new LinkedHashModel();
+        containmentStatements.add(
+            platformIriResource,
+            RdfModelUtils.createIri(HOSTS_HMAS_IRI),
+            workspaceIriResource
+        );
+        containmentStatements.add(
+            workspaceIriResource,
+            RDF.TYPE,
+            RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
+        );
+        this.removeStatements(platformIri, platformModel, containmentStatements, changes);
+        changes.onCommit(() -> {
           this.dispatcherMessagebox.sendMessage(
               new HttpNotificationDispatcherMessage.EntityChanged(
-                  requestIri.toString(),
-                  updatedModel
+                  platformIri.toString(),
+                  this.serialize(platformModel)
               )
           );
-          this.replyWithPayload(message, updatedModel);
-        }),
-        () -> this.replyEntityNotFound(message)
-    );
+          this.containmentIndex.index(platformIri, platformIriResource, platformModel);
+          this.containmentIndex.removeWorkspace(platformIri, workspaceIriResource);
+          this.sendHostedWorkspacesChanged(platformIri);
+        });
+        return null;
+      });
+    } else {
+      containerUpdated = entityModel
+          .filter(
+              workspaceIriResource,
+              RdfModelUtils.createIri("https://purl.org/hmas/isContainedIn"),
+              null
+          )
+          .objects()
+          .stream()
+          .map(o -> o instanceof IRI i ? Optional.of(i) : Optional.<IRI>empty())
+          .flatMap(Optional::stream)
+          .findFirst()
+          .map(parentIri -> this.removeFromParentWorkspace(
+              parentIri,
+              workspaceIriResource,
+              changes
+          ))
+          .orElse(Future.succeededFuture());
+    }
+    return containerUpdated.compose(v -> this.removeResourcesRecursively(requestIri, changes));
   }
 
-  private void handleDeleteEntity(final String workspaceName, final String artifactName,
-                                  final Message<RdfStoreMessage> message)
-      throws IllegalArgumentException, IOException {
-
-    final var workspaceIri = iri(this.httpConfig.getWorkspaceUri(workspaceName));
-    final var requestIri = artifactName == null ? workspaceIri :
-        iri(this.httpConfig.getArtifactUri(workspaceName, artifactName));
+  private Future<Void> removeFromParentWorkspace(
+      final IRI parentIri,
+      final IRI workspaceIriResource,
+      final EntityChangeSet changes
+  ) {
+    // strip fragments
+    final var parentIriDefragmented =
+        iri(parentIri.getNamespace().replace("#", ""));
+    return this.store.getEntityModel(parentIriDefragmented).map(optionalParentModel -> {
+      if (optionalParentModel.isEmpty()) {
+        return null;
+      }
+      final var parentModel = optionalParentModel.get();
+      final var containmentStatements = new LinkedHashModel();
+      containmentStatements.add(
+          parentIri,
+          RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
+          workspaceIriResource
+      );
+      containmentStatements.add(
+          workspaceIriResource,
+          RDF.TYPE,
+          RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
+      );
+      this.removeStatements(
+          parentIriDefragmented,
+          parentModel,
+          containmentStatements,
+          changes
+      );
+      changes.onCommit(() -> {
+        this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityChanged(
+                parentIriDefragmented.toString(),
+                this.serialize(parentModel)
+            )
+        );
 
-    this.store
-        .getEntityModel(requestIri)
-        .ifPresentOrElse(
-            Failable.asConsumer(entityModel -> {
-              final var entityModelString =
-                  RdfModelUtils.modelToString(entityModel, RDFFormat.TURTLE,
-                      this.httpConfig.getBaseUriTrailingSlash());
-              if (entityModel.contains(
-                  RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
-                  RdfModelUtils.createIri(RDF.TYPE.stringValue()),
-                  RdfModelUtils.createIri("https://purl.org/hmas/Artifact")
-              )) {
-                this.store
-                    .getEntityModel(workspaceIri)
-                    .ifPresent(Failable.asConsumer(workspaceModel -> {
-                      workspaceModel.remove(
-                          RdfModelUtils.createIri(workspaceIri + WORKSPACE_FRAGMENT),
-                          RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
-                          RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT)
-                      );
-                      workspaceModel.remove(
-                          RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
-                          RDF.TYPE,
-                          RdfModelUtils.createIri("https://purl.org/hmas/Artifact")
-                      );
-                      workspaceModel.remove(
-                          RdfModelUtils.createIri(requestIri + ARTIFACT_FRAGMENT),
-                          RDF.TYPE,
-                          RdfModelUtils.createIri("https://purl.org/hmas/jacamo/Body")
-                      );
-                      this.store.replaceEntityModel(workspaceIri, workspaceModel);
-                      final var workspaceIriWIthoutTrailingSlash = workspaceIri.toString()
-                          .endsWith("/")
-                          ?
-                          workspaceIri.toString().substring(0, workspaceIri.toString().length() - 1)
-                          : workspaceIri.toString();
-                      this.dispatcherMessagebox.sendMessage(
-                          new HttpNotificationDispatcherMessage.EntityChanged(
-                              workspaceIriWIthoutTrailingSlash,
-                              RdfModelUtils.modelToString(workspaceModel, RDFFormat.TURTLE,
-                                  this.httpConfig.getBaseUriTrailingSlash())
-                          )
-                      );
-                    }));
-                this.store.removeEntityModel(requestIri);
-                final var requestIriWithoutTrailingSlash = requestIri.toString().endsWith("/")
-                    ? requestIri.toString().substring(0, requestIri.toString().length() - 1)
-                    : requestIri.toString();
-                this.dispatcherMessagebox.sendMessage(
-                    new HttpNotificationDispatcherMessage.EntityDeleted(
-                        requestIriWithoutTrailingSlash,
-                        entityModelString
-                    )
-                );
-              } else if (entityModel.contains(
-                  RdfModelUtils.createIri(requestIri + WORKSPACE_FRAGMENT),
-                  RdfModelUtils.createIri(RDF.TYPE.stringValue()),
-                  RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-              )) {
-                final var workspaceIriResource = RdfModelUtils.createIri(
-                    requestIri + WORKSPACE_FRAGMENT
-                );
-                final var platformIri = iri(this.httpConfig.getBaseUriTrailingSlash());
-                final var platformIriResource = iri(
-                    this.httpConfig.getBaseUriTrailingSlash() + PLATFORM_FRAGMENT
-                );
-                if (entityModel.contains(
-                    workspaceIriResource,
-                    RdfModelUtils.createIri("https://purl.org/hmas/isHostedOn"),
-                    platformIriResource
-                )) {
-                  this.store
-                      .getEntityModel(platformIri)
-                      .ifPresent(Failable.asConsumer(platformModel -> {
-                        platformModel.remove(
-                            platformIriResource,
-                            RdfModelUtils.createIri(HOSTS_HMAS_IRI),
-                            workspaceIriResource
-                        );
-                        platformModel.remove(
-                            workspaceIriResource,
-                            RDF.TYPE,
-                            RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-                        );
-                        this.store.replaceEntityModel(platformIri, platformModel);
-                        this.dispatcherMessagebox.sendMessage(
-                            new HttpNotificationDispatcherMessage.EntityChanged(
-                                platformIri.toString(),
-                                RdfModelUtils.modelToString(platformModel, RDFFormat.TURTLE,
-                                    this.httpConfig.getBaseUriTrailingSlash())
-                            )
-                        );
-
-                        final Model m = new LinkedHashModel();
-
-                        final var workspaceDefTriple = platformModel
-                            .filter(platformIriResource, RDF.TYPE,
-                                iri(PLATFORM_HMAS_IRI));
-
-                        final Model containedThings = platformModel
-                            .filter(null, iri(HOSTS_HMAS_IRI), null);
-
-                        final Model workspaceDef = platformModel
-                            .filter(null, null, iri(WORKSPACE_HMAS_IRI));
-
-                        m.addAll(workspaceDefTriple);
-                        m.addAll(containedThings);
-                        m.addAll(workspaceDef);
-
-                        m.setNamespace(HMAS, HMAS_IRI);
-
-                        this.dispatcherMessagebox.sendMessage(
-                            new HttpNotificationDispatcherMessage.EntityChanged(
-                                this.httpConfig.getWorkspacesUriTrailingSlash(),
-                                RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-                                    this.httpConfig.getBaseUriTrailingSlash())
-                            )
-                        );
-                      }));
-                } else {
-                  entityModel
-                      .filter(
-                          workspaceIriResource,
-                          RdfModelUtils.createIri("https://purl.org/hmas/isContainedIn"),
-                          null
-                      )
-                      .objects()
-                      .stream()
-                      .map(o -> o instanceof IRI i ? Optional.of(i) : Optional.<IRI>empty())
-                      .flatMap(Optional::stream)
-                      .findFirst()
-                      .ifPresent(Failable.asConsumer(parentIri -> {
-                        // strip fragments
-                        final var parentIriDefragmented =
-                            iri(parentIri.getNamespace().replace("#", ""));
-                        this.store
-                            .getEntityModel(parentIriDefragmented)
-                            .ifPresent(Failable.asConsumer(parentModel -> {
-                              parentModel.remove(
-                                  parentIri,
-                                  RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
-                                  workspaceIriResource
-                              );
-                              parentModel.remove(
-                                  workspaceIriResource,
-                                  RDF.TYPE,
-                                  RdfModelUtils.createIri(WORKSPACE_HMAS_IRI)
-                              );
-                              this.store.replaceEntityModel(
-                                  parentIriDefragmented, parentModel);
-                              this.dispatcherMessagebox.sendMessage(
-                                  new HttpNotificationDispatcherMessage.EntityChanged(
-                                      parentIriDefragmented.toString(),
-                                      RdfModelUtils.modelToString(parentModel, RDFFormat.TURTLE,
-                                          this.httpConfig.getBaseUriTrailingSlash())
-                                  )
-                              );
-
-                              final Model m = new LinkedHashModel();
-
-                              final var workspaceDefTriple = parentModel
-                                  .filter(parentIriDefragmented, RDF.TYPE, iri(WORKSPACE_HMAS_IRI));
-
-
-                              final Model containedThings = parentModel
-                                  .filter(null, iri("https://purl.org/hmas/contains"), null);
-
-                              containedThings.removeIf(
-                                  triple -> !triple.getObject().stringValue().contains("#workspace")
-                              );
-
-                              final Model containedDefinitions = parentModel
-                                  .filter(null, null, iri(WORKSPACE_HMAS_IRI));
-
-                              m.addAll(containedThings);
-                              m.addAll(workspaceDefTriple);
-                              m.addAll(containedDefinitions);
-
-                              m.setNamespace(HMAS, HMAS_IRI);
-
-                              final var parentWorkspaceSplit =
-                                  parentIriDefragmented.toString().split("/");
-                              final var parentWorkspaceName =
-                                  parentWorkspaceSplit[parentWorkspaceSplit.length - 1];
-
-                              this.dispatcherMessagebox.sendMessage(
-                                  new HttpNotificationDispatcherMessage.EntityChanged(
-                                      this.httpConfig.getWorkspacesUri()
-                                          + "?parent=" + parentWorkspaceName,
-                                      RdfModelUtils.modelToString(m, RDFFormat.TURTLE,
-                                          this.httpConfig.getBaseUriTrailingSlash())
-                                  )
-                              );
-                            }));
-                      }));
-                }
-                this.removeResourcesRecursively(requestIri);
-              }
-              this.replyWithPayload(message, entityModelString);
-            }),
-            () -> this.replyEntityNotFound(message)
+        final var parentWorkspaceSplit =
+            parentIriDefragmented.toString().split("/");
+        final var parentWorkspaceName =
+            parentWorkspaceSplit[parentWorkspaceSplit.length - 1];
+
+        this.containmentIndex.index(parentIriDefragmented, parentIri, parentModel);
+        this.containmentIndex.removeWorkspace(parentIriDefragmented, workspaceIriResource);
+        this.containmentIndex.getWorkspaces(
+            parentIriDefragmented,
+            this.getFirstListingPage(
+                this.httpConfig.getWorkspacesUri() + "?parent=" + parentWorkspaceName
+            )
+        ).ifPresent(l ->
+            this.dispatcherMessagebox.sendMessage(
+                new HttpNotificationDispatcherMessage.EntityChanged(
+                    this.httpConfig.getWorkspacesUri()
+                        + "?parent=" + parentWorkspaceName,
+                    this.serialize(l.model())
+                )
+            )
         );
+      });
+      return null;
+    });
   }
 
-  private void removeResourcesRecursively(final IRI workspaceIri) throws IOException {
+  private Future<Void> removeResourcesRecursively(
+      final IRI workspaceIri,
+      final EntityChangeSet changes
+  ) {
     final var stack = new LinkedList<>(List.of(workspaceIri));
     final var irisToDelete = new ArrayList<>(stack);
-    while (!stack.isEmpty()) {
-      final var iri = stack.removeLast();
-
-      this.store.getEntityModel(iri)
-          .ifPresent(Failable.asConsumer(model -> {
-            final var iriResource = iri(iri + WORKSPACE_FRAGMENT);
-            model
-                .filter(
-                    iriResource,
-                    RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
-                    null
-                )
-                .objects()
-                .stream()
-                .map(o -> o instanceof IRI i ? Optional.of(i) : Optional.<IRI>empty())
-                .flatMap(Optional::stream)
-                .map(fragmentedIri -> RdfModelUtils.createIri(
-                    fragmentedIri.getNamespace().replace("#", "")))
-                .peek(irisToDelete::add)
-                .forEach(stack::add);
-            this.dispatcherMessagebox.sendMessage(
-                new HttpNotificationDispatcherMessage.EntityDeleted(
-                    iri.toString(),
-                    RdfModelUtils.modelToString(model, RDFFormat.TURTLE,
-                        this.httpConfig.getBaseUriTrailingSlash())
-                )
-            );
-          }));
+    return this.collectContainedResources(stack, irisToDelete, changes)
+        .map(v -> {
+          irisToDelete.forEach(changes::remove);
+          changes.onCommit(() -> irisToDelete.forEach(this.containmentIndex::remove));
+          return null;
+        });
+  }
+
+  private Future<Void> collectContainedResources(
+      final LinkedList<IRI> stack,
+      final List<IRI> irisToDelete,
+      final EntityChangeSet changes
+  ) {
+    if (stack.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    final var iri = stack.removeLast();
+    return this.store.getEntityModel(iri).compose(optionalModel -> {
+      optionalModel.ifPresent(model -> {
+        final var iriResource = iri(iri + WORKSPACE_FRAGMENT);
+        model
+            .filter(
+                iriResource,
+                RdfModelUtils.createIri(CONTAINS_HMAS_IRI),
+                null
+            )
+            .objects()
+            .stream()
+            .map(o -> o instanceof IRI i ? Optional.of(i) : Optional.<IRI>empty())
+            .flatMap(Optional::stream)
+            .map(fragmentedIri -> RdfModelUtils.createIri(
+                fragmentedIri.getNamespace().replace("#", "")))
+            .peek(irisToDelete::add)
+            .forEach(stack::add);
+        changes.onCommit(() -> this.dispatcherMessagebox.sendMessage(
+            new HttpNotificationDispatcherMessage.EntityDeleted(
+                iri.toString(),
+                this.serialize(model)
+            )
+        ));
+      });
+      return this.collectContainedResources(stack, irisToDelete, changes);
+    });
+  }
+
+  /**
+   * Adds the given statements to the model of a container, only writing the added statements to
+   * the store rather than the whole model of the container. The model of the container read before
+   * the change is updated as well, so that it can be sent to the subscribers of the container.
+   */
+  private void addStatements(
+      final IRI containerIri,
+      final Model containerModel,
+      final Model statements,
+      final EntityChangeSet changes
+  ) {
+    containerModel.addAll(statements);
+    statements.getNamespaces().forEach(containerModel::setNamespace);
+    changes.addStatements(containerIri, statements);
+  }
+
+  /**
+   * Removes the given statements from the model of a container, only writing the removed
+   * statements to the store rather than the whole model of the container. The model of the
+   * container read before the change is updated as well, so that it can be sent to the subscribers
+   * of the container.
+   */
+  private void removeStatements(
+      final IRI containerIri,
+      final Model containerModel,
+      final Model statements,
+      final EntityChangeSet changes
+  ) {
+    statements.forEach(s ->
+        containerModel.remove(s.getSubject(), s.getPredicate(), s.getObject())
+    );
+    changes.removeStatements(containerIri, statements);
+  }
+
+  /**
+   * Applies the changes made while handling a message in a single transaction and, once they have
+   * been committed, takes the actions depending on them. With group commit, the next message
+   * changing the store can be handled as soon as the changes have been staged, so that its changes
+   * can be committed together with these ones.
+   */
+  private Future<Void> commit(final EntityChangeSet changes) {
+    final var committed = this.store.applyChanges(changes.getChanges());
+    if (this.groupCommit) {
+      this.stagingMutation.tryComplete();
     }
-    irisToDelete.forEach(Failable.asConsumer(this.store::removeEntityModel));
+    return committed.map(v -> {
+      changes.runCommitActions();
+      return null;
+    });
   }
 
-  private void handleQuery(
+  private Future<Void> handleQuery(
       final String query,
       final List<String> defaultGraphUris,
       final List<String> namedGraphUris,
       final String responseContentType,
       final Message<RdfStoreMessage> message
-  ) throws IllegalArgumentException, IOException {
-    this.replyWithPayload(
-        message,
-        this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType)
-    );
+  ) {
+    final var resultsAddress =
+        message.headers().get(RdfStoreMessagebox.QUERY_RESULTS_ADDRESS_HEADER);
+    if (resultsAddress == null) {
+      return this.store
+          .queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType)
+          .map(result -> {
+            this.replyWithPayload(message, result);
+            return null;
+          });
+    }
+    // The query is evaluated on a snapshot of the store, so the next changes only have to wait
+    // for the snapshot to be taken, not for the results to be consumed, however slowly
+    final Promise<Void> started = Promise.promise();
+    this.store
+        .queryGraph(
+            query,
+            defaultGraphUris,
+            namedGraphUris,
+            responseContentType,
+            new EventBusOutputStream(this.vertx.eventBus(), resultsAddress),
+            () -> this.context.runOnContext(v -> started.tryComplete())
+        )
+        .onComplete(r -> {
+          if (r.succeeded()) {
+            this.replyWithPayload(message, "");
+            started.tryComplete();
+          } else if (!started.tryFail(r.cause())) {
+            this.replyError(message, r.cause());
+          }
+        });
+    return started.future();
+  }
+
+  private String serialize(final Model model) {
+    try {
+      return RdfModelUtils.modelToString(
+          model,
+          RDFFormat.TURTLE,
+          this.httpConfig.getBaseUriTrailingSlash()
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Serializes a representation sent in reply to a read, which is pretty-printed only if it is
+   * Turtle and the store is not configured for machine clients.
+   */
+  private Buffer serializeRepresentation(final Model model, final RDFFormat format) {
+    if (
+        format.equals(RDFFormat.TURTLE)
+        && this.serializationProfile == RdfStoreConfig.SerializationProfile.PRETTY
+    ) {
+      return Buffer.buffer(this.serialize(model));
+    }
+    try {
+      return RdfModelUtils.modelToBuffer(
+          model,
+          format,
+          format.equals(RDFFormat.TURTLE) ? this.httpConfig.getBaseUriTrailingSlash() : null
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the format of the representation requested by a read, which is Turtle unless the
+   * message asks for another format in which representations can be sent.
+   */
+  private RDFFormat getRepresentationFormat(final Message<RdfStoreMessage> message) {
+    return Optional.ofNullable(message.headers().get(RdfStoreMessagebox.ACCEPT_HEADER))
+                   .flatMap(Rio::getWriterFormatForMIMEType)
+                   .filter(REPRESENTATION_FORMATS::contains)
+                   .orElse(RDFFormat.TURTLE);
+  }
+
+  /**
+   * Returns the format of the representation held by a write, which is Turtle unless the message
+   * gives another format in which representations can be sent.
+   */
+  private RDFFormat getContentFormat(final Message<RdfStoreMessage> message) {
+    final var contentType = message.headers().get(RdfStoreMessagebox.CONTENT_TYPE_HEADER);
+    if (contentType == null) {
+      return RDFFormat.TURTLE;
+    }
+    return Rio.getParserFormatForMIMEType(contentType)
+              .filter(REPRESENTATION_FORMATS::contains)
+              .orElseThrow(() -> new IllegalArgumentException(
+                  "Unsupported content type: " + contentType
+              ));
+  }
+
+  private Model parse(final String representation, final IRI baseIri) {
+    return this.parse(representation, baseIri, RDFFormat.TURTLE);
+  }
+
+  private Model parse(final String representation, final IRI baseIri, final RDFFormat format) {
+    try {
+      return RdfModelUtils.stringToModel(representation, baseIri, format);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Model parse(final Buffer representation, final IRI baseIri, final RDFFormat format) {
+    try {
+      return RdfModelUtils.bufferToModel(representation, baseIri, format);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   private void replyWithPayload(final Message<RdfStoreMessage> message, final String payload) {
     message.reply(payload);
   }
 
+  private void replyWithRepresentation(
+      final Message<RdfStoreMessage> message,
+      final RepresentationCache.Representation representation
+  ) {
+    this.replyWithRepresentation(message, representation, Optional.empty());
+  }
+
+  /**
+   * Sends a representation, together with the link to the next page of the representation, if
+   * any, which is sent as a Link header.
+   */
+  private void replyWithRepresentation(
+      final Message<RdfStoreMessage> message,
+      final RepresentationCache.Representation representation,
+      final Optional<IRI> nextPage
+  ) {
+    final var options =
+        new DeliveryOptions().addHeader(HttpHeaders.ETAG, representation.entityTag());
+    nextPage.ifPresent(
+        p -> options.addHeader("Link", "<" + p.stringValue() + ">; rel=\"next\"")
+    );
+    // The senders not negotiating the representation expect it as a string of Turtle
+    if (message.headers().contains(RdfStoreMessagebox.ACCEPT_HEADER)) {
+      message.reply(
+          representation.payload(),
+          options.addHeader(HttpHeaders.CONTENT_TYPE, representation.format().getDefaultMIMEType())
+      );
+    } else {
+      message.reply(representation.payload().toString(StandardCharsets.UTF_8), options);
+    }
+  }
+
+  private void replyError(final Message<RdfStoreMessage> message, final Throwable error) {
+    LOGGER.error(error);
+    if (error instanceof IllegalArgumentException) {
+      this.replyBadRequest(message);
+    } else if (error instanceof QueryTimeoutException) {
+      message.fail(HttpStatus.SC_SERVICE_UNAVAILABLE, "Query timed out.");
+    } else if (error instanceof QueryResultLimitException) {
+      message.fail(HttpStatus.SC_SERVICE_UNAVAILABLE, "Query has too many results.");
+    } else {
+      this.replyFailed(message);
+    }
+  }
+
   private void replyFailed(final Message<RdfStoreMessage> message) {
     message.fail(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Store request failed.");
   }
@@ -1005,7 +1574,7 @@ public class RdfStoreVerticle extends AbstractVerticle {
   }
 
 
-  private String handleGetEntityIri(final String requestIri, final String hint) throws IOException {
+  private Future<String> handleGetEntityIri(final String requestIri, final String hint) {
     final var fullRequestIri = !requestIri.endsWith("/") ? requestIri.concat("/") : requestIri;
     final var optHint = Optional.ofNullable(hint).filter(s -> !s.isEmpty());
     final String regexPattern = "(?<!:)//";
@@ -1014,10 +1583,10 @@ public class RdfStoreVerticle extends AbstractVerticle {
     if (optHint.isPresent()) {
       final var candidateIri = fullRequestIri.concat(optHint.get()).replaceAll(regexPattern, "/");
 
-      if (!this.store.containsEntityModel(RdfModelUtils.createIri(candidateIri))) {
-        return hint;
-      }
+      return this.store
+          .containsEntityModel(RdfModelUtils.createIri(candidateIri))
+          .map(exists -> exists ? UUID.randomUUID().toString() : hint);
     }
-    return UUID.randomUUID().toString();
+    return Future.succeededFuture(UUID.randomUUID().toString());
   }
 }
@@ -0,0 +1,171 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.buffer.Buffer;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * Keeps the serialized representations of the entities in the store, so that unchanged entities
+ * can be sent again without reading their models and serializing them. Each entity is tagged with
+ * a version that increases every time its model is changed, from which the entity tag of its
+ * representations is derived.
+ *
+ * <p>Only the versions of the entities changed since the cache was created are recorded, the
+ * other entities sharing a base version, so that reading entities, whether they exist or not,
+ * never grows the cache. The recorded versions are bounded like the representations: when the
+ * least recently used one is dropped, the base version is moved forward, so that the entity whose
+ * version is dropped is never given a tag it had before it was changed.</p>
+ *
+ * <p>The triple pattern fragments, whose triples can come from any entity, are keyed on the IRI
+ * of their page and tagged with the version of the whole store, which increases every time any
+ * entity is changed.</p>
+ */
+final class RepresentationCache {
+  private final boolean enabled;
+  private final int maxEntries;
+  // Drawn for each cache, so that the versions counted again after a restart get other tags
+  private final String epoch;
+  private final AtomicLong versionSequence;
+  private final LinkedHashMap<IRI, Long> versions;
+  private final LinkedHashMap<Key, Representation> representations;
+  private long baseVersion;
+  private long storeVersion;
+
+  RepresentationCache(final boolean enabled, final int maxEntries) {
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+    this.epoch = Long.toHexString(new SecureRandom().nextLong());
+    this.versionSequence = new AtomicLong();
+    this.versions = new LinkedHashMap<>(16, 0.75f, true);
+    this.representations = new LinkedHashMap<>(16, 0.75f, true);
+    this.baseVersion = this.versionSequence.incrementAndGet();
+    this.storeVersion = this.baseVersion;
+  }
+
+  /**
+   * Returns the current version of the entity, which is to be read before the model of the entity
+   * is, so that a representation built on a model changed in the meantime is never cached.
+   */
+  synchronized long getVersion(final IRI entityIri) {
+    return this.versions.getOrDefault(RdfModelUtils.fixEntityIri(entityIri), this.baseVersion);
+  }
+
+  /**
+   * Returns the current version of the whole store, which is to be read before any triple pattern
+   * fragment is, so that a fragment read from a store changed in the meantime is never cached.
+   */
+  synchronized long getStoreVersion() {
+    return this.storeVersion;
+  }
+
+  synchronized Optional<Representation> get(
+      final IRI entityIri,
+      final View view,
+      final RDFFormat format
+  ) {
+    if (!this.enabled) {
+      return Optional.empty();
+    }
+    final var key = new Key(fixKeyIri(entityIri, view), view, format);
+    final var representation = this.representations.get(key);
+    if (representation == null) {
+      return Optional.empty();
+    }
+    if (representation.version() != this.getVersion(key)) {
+      // Built before the last change of its entity, it can never be sent again
+      this.representations.remove(key);
+      return Optional.empty();
+    }
+    return Optional.of(representation);
+  }
+
+  synchronized Representation put(
+      final IRI entityIri,
+      final View view,
+      final RDFFormat format,
+      final Buffer payload,
+      final long version
+  ) {
+    final var key = new Key(fixKeyIri(entityIri, view), view, format);
+    final var representation = this.createRepresentation(payload, format, version);
+    if (this.enabled && version == this.getVersion(key)) {
+      this.representations.put(key, representation);
+      final var iterator = this.representations.values().iterator();
+      while (iterator.hasNext() && this.representations.size() > this.maxEntries) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+    return representation;
+  }
+
+  /**
+   * Gives a new version to a changed entity, and to the whole store. The representations built
+   * from the previous versions are no longer sent, and are dropped when they are next requested
+   * or when they are the least recently used.
+   */
+  synchronized void invalidate(final IRI entityIri) {
+    this.versions.put(
+        RdfModelUtils.fixEntityIri(entityIri),
+        this.versionSequence.incrementAndGet()
+    );
+    this.storeVersion = this.versionSequence.incrementAndGet();
+    final var iterator = this.versions.values().iterator();
+    while (iterator.hasNext() && this.versions.size() > this.maxEntries) {
+      iterator.next();
+      iterator.remove();
+      this.baseVersion = this.versionSequence.incrementAndGet();
+    }
+  }
+
+  /**
+   * Creates a representation that is not cached, tagged like the cached ones.
+   */
+  Representation createRepresentation(
+      final Buffer payload,
+      final RDFFormat format,
+      final long version
+  ) {
+    return new Representation(payload, format, this.epoch, version);
+  }
+
+  private static IRI fixKeyIri(final IRI iri, final View view) {
+    return view == View.FRAGMENT ? iri : RdfModelUtils.fixEntityIri(iri);
+  }
+
+  private long getVersion(final Key key) {
+    return key.view() == View.FRAGMENT ? this.storeVersion : this.getVersion(key.entityIri());
+  }
+
+  /**
+   * The views of an entity that can be requested to the store.
+   */
+  enum View {
+    ENTITY,
+    WORKSPACES,
+    ARTIFACTS,
+    FRAGMENT
+  }
+
+  /**
+   * A serialized representation of an entity, together with its format and the version of the
+   * entity it was built from, counted since the cache with the given epoch was created.
+   */
+  record Representation(Buffer payload, RDFFormat format, String epoch, long version) {
+    String entityTag() {
+      // The representations of an entity in different formats have different tags
+      final var tag = this.format.equals(RDFFormat.TURTLE)
+          ? this.epoch + "-" + Long.toHexString(this.version)
+          : this.epoch + "-" + Long.toHexString(this.version) + "-"
+            + this.format.getDefaultFileExtension();
+      return "\"" + tag + "\"";
+    }
+  }
+
+  private record Key(IRI entityIri, View view, RDFFormat format) {}
+}
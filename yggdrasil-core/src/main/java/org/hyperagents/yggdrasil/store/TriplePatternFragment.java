@@ -0,0 +1,26 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.util.List;
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * A page of the triples in the store matching a triple pattern, whatever the named graphs of the
+ * entities they belong to, a triple in several graphs being listed and counted once.
+ *
+ * @param triples        the matching triples on the page, without their named graphs
+ * @param estimatedCount an estimate of the number of matching triples in the whole store, exact
+ *                       unless more triples match than can be counted for a single page
+ * @param hasNext        true if more matching triples follow the ones on the page
+ */
+public record TriplePatternFragment(List<Statement> triples, long estimatedCount, boolean hasNext) {
+  /**
+   * Creates a page of the triples matching a triple pattern.
+   *
+   * @param triples        the matching triples on the page, without their named graphs
+   * @param estimatedCount an estimate of the number of matching triples in the whole store
+   * @param hasNext        true if more matching triples follow the ones on the page
+   */
+  public TriplePatternFragment {
+    triples = List.copyOf(triples);
+  }
+}
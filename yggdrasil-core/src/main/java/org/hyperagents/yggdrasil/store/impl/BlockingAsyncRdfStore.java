@@ -0,0 +1,160 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.hyperagents.yggdrasil.store.AsyncRdfStore;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+
+/**
+ * An {@link AsyncRdfStore} that runs the operations of a synchronous {@link RdfStore} on the
+ * worker pool of Vert.x. The changes requested from the same context are run one at a time and in
+ * the order in which they were requested, while reads are run in parallel with each other and
+ * with the changes, so the underlying store must support concurrent access. A read is only
+ * guaranteed to see the changes that were completed before it was requested.
+ */
+public class BlockingAsyncRdfStore implements AsyncRdfStore {
+  private final Vertx vertx;
+  private final RdfStore store;
+
+  BlockingAsyncRdfStore(final Vertx vertx, final RdfStore store) {
+    this.vertx = vertx;
+    this.store = store;
+  }
+
+  @Override
+  public Future<Boolean> containsEntityModel(final IRI entityIri) {
+    return this.vertx.executeBlocking(() -> this.store.containsEntityModel(entityIri), false);
+  }
+
+  @Override
+  public Future<Optional<Model>> getEntityModel(final IRI entityIri) {
+    return this.vertx.executeBlocking(() -> this.store.getEntityModel(entityIri), false);
+  }
+
+  @Override
+  public Future<Void> addEntityModel(final IRI entityIri, final Model entityModel) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.addEntityModel(entityIri, entityModel);
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<Void> replaceEntityModel(final IRI entityIri, final Model entityModel) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.replaceEntityModel(entityIri, entityModel);
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<Void> removeStatements(final IRI entityIri, final Model statements) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.removeStatements(entityIri, statements);
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<Void> removeEntityModel(final IRI entityIri) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.removeEntityModel(entityIri);
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<Void> applyChanges(final List<EntityChange> changes) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.applyChanges(changes);
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<Void> close() {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.close();
+          return null;
+        },
+        true
+    );
+  }
+
+  @Override
+  public Future<String> queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) {
+    return this.vertx.executeBlocking(
+        () -> this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType),
+        false
+    );
+  }
+
+  @Override
+  public Future<Void> queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) {
+    return this.vertx.executeBlocking(
+        () -> {
+          this.store.queryGraph(
+              query,
+              defaultGraphUris,
+              namedGraphUris,
+              responseContentType,
+              out,
+              snapshotTaken
+          );
+          return null;
+        },
+        false
+    );
+  }
+
+  @Override
+  public Future<TriplePatternFragment> getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) {
+    return this.vertx.executeBlocking(
+        () -> this.store.getFragment(subject, predicate, object, offset, limit),
+        false
+    );
+  }
+}
@@ -0,0 +1,278 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A decorator of an {@link RdfStore} that keeps immutable snapshots of the most recently used
+ * entity models, so that repeated reads of the same entity do not go through the underlying
+ * repository. The cache is bounded both in number of entities and in their approximate size in
+ * bytes, evicting the least recently used entities first. Every mutation of an entity invalidates
+ * its snapshot once the underlying store has been updated.
+ */
+public class CachingRdfStore implements RdfStore {
+  private static final Logger LOGGER = LogManager.getLogger(CachingRdfStore.class);
+  private static final long STATEMENT_OVERHEAD_BYTES = 64;
+
+  private final RdfStore store;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LinkedHashMap<IRI, CachedModel> cache;
+  private final AtomicLong hitCount;
+  private final AtomicLong missCount;
+  private final AtomicLong evictionCount;
+  private long cachedBytes;
+  private long generation;
+
+  CachingRdfStore(final RdfStore store, final int maxEntries, final long maxBytes) {
+    this.store = store;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.hitCount = new AtomicLong();
+    this.missCount = new AtomicLong();
+    this.evictionCount = new AtomicLong();
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    synchronized (this.cache) {
+      if (this.cache.containsKey(RdfModelUtils.fixEntityIri(entityIri))) {
+        return true;
+      }
+    }
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(entityIri);
+    synchronized (this.cache) {
+      final var cachedModel = this.cache.get(fixedEntityIri);
+      if (cachedModel != null) {
+        this.hitCount.incrementAndGet();
+        // Callers are free to modify the returned model, the snapshot must stay untouched
+        return Optional.of(new LinkedHashModel(cachedModel.model()));
+      }
+    }
+    this.missCount.incrementAndGet();
+    final long generation;
+    synchronized (this.cache) {
+      generation = this.generation;
+    }
+    final var result = this.store.getEntityModel(fixedEntityIri);
+    result.ifPresent(m -> this.put(fixedEntityIri, m, generation));
+    return result;
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.addEntityModel(entityIri, entityModel);
+    } finally {
+      this.invalidate(entityIri);
+    }
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.replaceEntityModel(entityIri, entityModel);
+    } finally {
+      this.invalidate(entityIri);
+    }
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    try {
+      this.store.removeStatements(entityIri, statements);
+    } finally {
+      this.invalidate(entityIri);
+    }
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    try {
+      this.store.removeEntityModel(entityIri);
+    } finally {
+      this.invalidate(entityIri);
+    }
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    try {
+      this.store.applyChanges(changes);
+    } finally {
+      changes.forEach(c -> this.invalidate(c.entityIri()));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    LOGGER.info(
+        "Entity cache closed after {} hits, {} misses and {} evictions",
+        this.hitCount.get(),
+        this.missCount.get(),
+        this.evictionCount.get()
+    );
+    synchronized (this.cache) {
+      this.cache.clear();
+      this.cachedBytes = 0;
+    }
+    this.store.close();
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the number of entity reads that were answered from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getHitCount() {
+    return this.hitCount.get();
+  }
+
+  /**
+   * Returns the number of entity reads that had to be forwarded to the underlying store.
+   *
+   * @return the number of cache misses
+   */
+  public long getMissCount() {
+    return this.missCount.get();
+  }
+
+  /**
+   * Returns the number of entity snapshots evicted to respect the bounds of the cache.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return this.evictionCount.get();
+  }
+
+  /**
+   * Returns the number of entity snapshots currently held by the cache.
+   *
+   * @return the number of cached entities
+   */
+  public int getSize() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+
+  private void put(final IRI fixedEntityIri, final Model model, final long readGeneration) {
+    final var snapshot = new LinkedHashModel(model).unmodifiable();
+    final var size = estimateSize(snapshot);
+    if (size > this.maxBytes) {
+      return;
+    }
+    synchronized (this.cache) {
+      // A mutation happened while the model was being read, the model could be stale
+      if (readGeneration != this.generation) {
+        return;
+      }
+      final var previous = this.cache.put(fixedEntityIri, new CachedModel(snapshot, size));
+      if (previous != null) {
+        this.cachedBytes -= previous.size();
+      }
+      this.cachedBytes += size;
+      final var iterator = this.cache.values().iterator();
+      while (
+          iterator.hasNext()
+          && (this.cache.size() > this.maxEntries || this.cachedBytes > this.maxBytes)
+      ) {
+        this.cachedBytes -= iterator.next().size();
+        iterator.remove();
+        this.evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  private void invalidate(final IRI entityIri) {
+    synchronized (this.cache) {
+      this.generation++;
+      final var removed = this.cache.remove(RdfModelUtils.fixEntityIri(entityIri));
+      if (removed != null) {
+        this.cachedBytes -= removed.size();
+      }
+    }
+  }
+
+  static long estimateSize(final Model model) {
+    long size = 0;
+    for (final Statement statement : model) {
+      size += STATEMENT_OVERHEAD_BYTES
+          + 2L * (statement.getSubject().stringValue().length()
+                  + statement.getPredicate().stringValue().length()
+                  + statement.getObject().stringValue().length());
+    }
+    return size;
+  }
+
+  private record CachedModel(Model model, long size) {}
+}
@@ -0,0 +1,201 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * An append-only file of the changes applied to a store, one record per transaction. Every record
+ * holds the length and the checksum of its content, so a record left incomplete by a crash is
+ * detected and ends the replay of the file. The records are appended to a {@link LogFile}, from
+ * which a record that fails to be written, or whose changes fail to be applied, is removed.
+ */
+class ChangeLog implements Closeable {
+  private static final Logger LOGGER = LogManager.getLogger(ChangeLog.class);
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+  private static final byte ADD = 0;
+  private static final byte REMOVE_STATEMENTS = 1;
+  private static final byte REPLACE = 2;
+  private static final byte REMOVE = 3;
+
+  private final LogFile file;
+  private final boolean forceSync;
+  private long recordCount;
+
+  ChangeLog(final Path file, final boolean forceSync) throws IOException {
+    this.file = new LogFile(file);
+    this.forceSync = forceSync;
+  }
+
+  /**
+   * Appends the given changes as a single record.
+   *
+   * @param changes the changes applied in a single transaction
+   * @throws IOException if the record cannot be written
+   */
+  void append(final List<EntityChange> changes) throws IOException {
+    final var content = encode(changes);
+    final var checksum = new CRC32();
+    checksum.update(content);
+    final var record = ByteBuffer.allocate(HEADER_BYTES + content.length);
+    record.putInt(content.length).putLong(checksum.getValue()).put(content).flip();
+    this.file.append(record);
+    this.recordCount++;
+    if (this.forceSync) {
+      this.file.force();
+    }
+  }
+
+  /**
+   * Removes the last appended record, whose changes could not be applied.
+   *
+   * @throws IOException if the record cannot be removed
+   */
+  void discardLastRecord() throws IOException {
+    this.file.discardLastRecord();
+    this.recordCount--;
+  }
+
+  /**
+   * Returns the number of records appended since this log was opened.
+   *
+   * @return the number of appended records
+   */
+  long getRecordCount() {
+    return this.recordCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.file.close();
+  }
+
+  /**
+   * Applies the records of the given file, in order, to the given store. The replay stops at the
+   * first incomplete or corrupted record.
+   *
+   * @param file  the change log file
+   * @param store the store to which the changes are applied
+   * @return the number of records applied
+   * @throws IOException if the file cannot be read or the store cannot be accessed
+   */
+  static long replay(final Path file, final RdfStore store) throws IOException {
+    long records = 0;
+    try (var in = new DataInputStream(Files.newInputStream(file))) {
+      while (true) {
+        final byte[] content;
+        try {
+          final var length = in.readInt();
+          final var expectedChecksum = in.readLong();
+          content = in.readNBytes(Math.max(length, 0));
+          final var checksum = new CRC32();
+          checksum.update(content);
+          if (content.length != length || checksum.getValue() != expectedChecksum) {
+            LOGGER.warn("Ignoring the incomplete record at the end of {}", file);
+            return records;
+          }
+        } catch (final EOFException e) {
+          // Either the end of the file or a header cut short by a crash
+          return records;
+        }
+        store.applyChanges(decode(content));
+        records++;
+      }
+    }
+  }
+
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  private static byte[] encode(final List<EntityChange> changes) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(changes.size());
+      for (final var change : changes) {
+        switch (change) {
+          case EntityChange.Add add ->
+              writeChange(out, ADD, add.entityIri(), add.entityModel());
+          case EntityChange.RemoveStatements remove ->
+              writeChange(out, REMOVE_STATEMENTS, remove.entityIri(), remove.statements());
+          case EntityChange.Replace replace ->
+              writeChange(out, REPLACE, replace.entityIri(), replace.entityModel());
+          case EntityChange.Remove remove -> {
+            out.writeByte(REMOVE);
+            out.writeUTF(remove.entityIri().toString());
+          }
+        }
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeChange(
+      final DataOutputStream out,
+      final byte type,
+      final IRI entityIri,
+      final Model model
+  ) throws IOException {
+    out.writeByte(type);
+    out.writeUTF(entityIri.toString());
+    final var bytes = new ByteArrayOutputStream();
+    Rio.write(model, bytes, RDFFormat.BINARY);
+    out.writeInt(bytes.size());
+    bytes.writeTo(out);
+  }
+
+  private static List<EntityChange> decode(final byte[] content) throws IOException {
+    try (var in = new DataInputStream(new ByteArrayInputStream(content))) {
+      final var size = in.readInt();
+      final var changes = new ArrayList<EntityChange>(size);
+      for (int i = 0; i < size; i++) {
+        final var type = in.readByte();
+        final var entityIri = RdfModelUtils.createIri(in.readUTF());
+        changes.add(switch (type) {
+          case ADD -> new EntityChange.Add(entityIri, readModel(in));
+          case REMOVE_STATEMENTS -> new EntityChange.RemoveStatements(entityIri, readModel(in));
+          case REPLACE -> new EntityChange.Replace(entityIri, readModel(in));
+          case REMOVE -> new EntityChange.Remove(entityIri);
+          default -> throw new IOException("Unknown change type in the change log: " + type);
+        });
+      }
+      return changes;
+    }
+  }
+
+  private static Model readModel(final DataInputStream in) throws IOException {
+    final var bytes = in.readNBytes(in.readInt());
+    final var model = new LinkedHashModel();
+    final var parser = Rio.createParser(RDFFormat.BINARY);
+    // The blank nodes keep the identifiers they have in the store, so a change already in the
+    // snapshot leaves the store unchanged instead of adding copies of its blank nodes
+    parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+    parser.setRDFHandler(new StatementCollector(model));
+    try {
+      parser.parse(new ByteArrayInputStream(bytes));
+    } catch (final RDFParseException e) {
+      throw new IOException(e);
+    }
+    return model;
+  }
+}
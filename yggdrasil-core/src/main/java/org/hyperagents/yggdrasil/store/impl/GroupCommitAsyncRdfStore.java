@@ -0,0 +1,278 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.hyperagents.yggdrasil.store.AsyncRdfStore;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A decorator of an {@link AsyncRdfStore} that commits the changes requested while a previous
+ * commit is still in progress together, in a single transaction of the underlying store, so that
+ * bursts of changes cost a single synchronization of the store rather than one for each change.
+ *
+ * <p>The changes are staged as soon as they are requested, so the entity models read through this
+ * store already reflect them, while the future returned for a list of changes is only completed
+ * once the transaction containing them has been committed. If a commit fails, all the staged
+ * changes are discarded and the futures of all the changes not yet committed are failed, because
+ * they could depend on the discarded ones. The store must be used from a single Vert.x context.</p>
+ */
+public class GroupCommitAsyncRdfStore implements AsyncRdfStore {
+  private final AsyncRdfStore store;
+  private final Map<IRI, StagedModel> stagedModels;
+  private List<EntityChange> pendingChanges;
+  private Promise<Void> pendingCommit;
+  private Future<Void> lastCommit;
+  private boolean committing;
+  private long batch;
+
+  GroupCommitAsyncRdfStore(final AsyncRdfStore store) {
+    this.store = store;
+    this.stagedModels = new HashMap<>();
+    this.pendingChanges = new ArrayList<>();
+    this.lastCommit = Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Boolean> containsEntityModel(final IRI entityIri) {
+    final var stagedModel = this.stagedModels.get(RdfModelUtils.fixEntityIri(entityIri));
+    if (stagedModel == null) {
+      return this.store.containsEntityModel(entityIri);
+    }
+    if (stagedModel.complete() || !stagedModel.model().isEmpty()) {
+      return Future.succeededFuture(!stagedModel.model().isEmpty());
+    }
+    if (stagedModel.removedStatements().isEmpty()) {
+      return this.store.containsEntityModel(entityIri);
+    }
+    return this.getEntityModel(entityIri).map(Optional::isPresent);
+  }
+
+  @Override
+  public Future<Optional<Model>> getEntityModel(final IRI entityIri) {
+    final var stagedModel = this.stagedModels.get(RdfModelUtils.fixEntityIri(entityIri));
+    if (stagedModel == null) {
+      return this.store.getEntityModel(entityIri);
+    }
+    if (stagedModel.complete()) {
+      return Future.succeededFuture(
+          Optional.<Model>of(new LinkedHashModel(stagedModel.model())).filter(m -> !m.isEmpty())
+      );
+    }
+    // Adding and removing triples is idempotent, so the staged changes can be applied again to a
+    // model already reflecting them, if their commit completes while reading the stored model
+    return this.store.getEntityModel(entityIri).map(storedModel -> {
+      final var model = storedModel.orElseGet(LinkedHashModel::new);
+      removeTriples(model, stagedModel.removedStatements());
+      addTriples(model, stagedModel.model());
+      stagedModel.model().getNamespaces().forEach(model::setNamespace);
+      return Optional.of(model).filter(m -> !m.isEmpty());
+    });
+  }
+
+  @Override
+  public Future<Void> addEntityModel(final IRI entityIri, final Model entityModel) {
+    return this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+  }
+
+  @Override
+  public Future<Void> replaceEntityModel(final IRI entityIri, final Model entityModel) {
+    return this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
+
+  @Override
+  public Future<Void> removeStatements(final IRI entityIri, final Model statements) {
+    return this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+  }
+
+  @Override
+  public Future<Void> removeEntityModel(final IRI entityIri) {
+    return this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
+
+  @Override
+  public Future<Void> applyChanges(final List<EntityChange> changes) {
+    changes.forEach(this::stage);
+    this.pendingChanges.addAll(changes);
+    if (this.pendingCommit == null) {
+      this.pendingCommit = Promise.promise();
+    }
+    final var committed = this.pendingCommit.future();
+    if (!this.committing) {
+      this.commit();
+    }
+    return committed;
+  }
+
+  @Override
+  public Future<Void> close() {
+    return this.whenCommitted().transform(r -> this.store.close());
+  }
+
+  @Override
+  public Future<String> queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) {
+    // Queries are evaluated by the underlying store, so they can only see committed changes
+    return this.whenCommitted().transform(r -> this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType
+    ));
+  }
+
+  @Override
+  public Future<Void> queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) {
+    return this.whenCommitted().transform(r -> this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    ));
+  }
+
+  @Override
+  public Future<TriplePatternFragment> getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) {
+    // Like queries, fragments are read from the underlying store
+    return this.whenCommitted().transform(
+        r -> this.store.getFragment(subject, predicate, object, offset, limit)
+    );
+  }
+
+  private Future<Void> whenCommitted() {
+    return this.pendingCommit != null ? this.pendingCommit.future() : this.lastCommit;
+  }
+
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  private void stage(final EntityChange change) {
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(change.entityIri());
+    final var previous = this.stagedModels.get(fixedEntityIri);
+    final var stagedModel = switch (change) {
+      case EntityChange.Add add -> {
+        final var model = previous == null
+            ? new StagedModel(new LinkedHashModel(), new LinkedHashModel(), false)
+            : previous.copy();
+        removeTriples(model.removedStatements(), add.entityModel());
+        model.model().addAll(add.entityModel());
+        add.entityModel().getNamespaces().forEach(model.model()::setNamespace);
+        yield model;
+      }
+      case EntityChange.RemoveStatements remove -> {
+        final var model = previous == null
+            ? new StagedModel(new LinkedHashModel(), new LinkedHashModel(), false)
+            : previous.copy();
+        removeTriples(model.model(), remove.statements());
+        if (!model.complete()) {
+          model.removedStatements().addAll(remove.statements());
+        }
+        yield model;
+      }
+      case EntityChange.Replace replace ->
+          new StagedModel(new LinkedHashModel(replace.entityModel()), new LinkedHashModel(), true);
+      case EntityChange.Remove remove ->
+          new StagedModel(new LinkedHashModel(), new LinkedHashModel(), true);
+    };
+    this.stagedModels.put(fixedEntityIri, stagedModel.inBatch(this.batch));
+  }
+
+  /**
+   * Adds the triples of the given statements to a model unless they are already in it in another
+   * context, since the statements read from the store are in the named graph of their entity.
+   */
+  private static void addTriples(final Model model, final Model statements) {
+    statements
+        .stream()
+        .filter(s -> !model.contains(s.getSubject(), s.getPredicate(), s.getObject()))
+        .forEach(model::add);
+  }
+
+  /**
+   * Removes the triples of the given statements from a model whatever their context.
+   */
+  private static void removeTriples(final Model model, final Model statements) {
+    statements.forEach(s -> model.remove(s.getSubject(), s.getPredicate(), s.getObject()));
+  }
+
+  private void commit() {
+    final var changes = this.pendingChanges;
+    final var promise = this.pendingCommit;
+    final var committedBatch = this.batch++;
+    this.pendingChanges = new ArrayList<>();
+    this.pendingCommit = null;
+    this.committing = true;
+    this.lastCommit = promise.future();
+    this.store.applyChanges(changes).onComplete(r -> {
+      this.committing = false;
+      if (r.succeeded()) {
+        this.stagedModels.values().removeIf(s -> s.batch() == committedBatch);
+        promise.complete();
+      } else {
+        final var discardedCommit = this.pendingCommit;
+        this.stagedModels.clear();
+        this.pendingChanges = new ArrayList<>();
+        this.pendingCommit = null;
+        promise.fail(r.cause());
+        if (discardedCommit != null) {
+          discardedCommit.fail(r.cause());
+        }
+      }
+      if (this.pendingCommit != null) {
+        this.commit();
+      }
+    });
+  }
+
+  /**
+   * The model of an entity as changed by the staged changes, which is either the complete model
+   * of the entity or the statements added to and removed from the model in the store.
+   */
+  private record StagedModel(Model model, Model removedStatements, boolean complete, long batch) {
+    StagedModel(final Model model, final Model removedStatements, final boolean complete) {
+      this(model, removedStatements, complete, 0);
+    }
+
+    StagedModel copy() {
+      return new StagedModel(
+          new LinkedHashModel(this.model),
+          new LinkedHashModel(this.removedStatements),
+          this.complete,
+          this.batch
+      );
+    }
+
+    StagedModel inBatch(final long batch) {
+      return new StagedModel(this.model, this.removedStatements, this.complete, batch);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A file of a log to which records are only appended, shared by the {@link ChangeLog} and the
+ * {@link WriteAheadLog}. A record is either written whole or not at all: a record that fails to be
+ * written is removed from the end of the file, as is the last record when its changes could not be
+ * applied, so that the records appended after it can still be read. A log is split into files
+ * numbered in the order in which they are written, which are listed by {@link #listSequences}.
+ */
+final class LogFile implements Closeable {
+  private final FileChannel channel;
+  private long lastRecordStart;
+
+  /**
+   * Creates a new file for a log, replacing any file with the same name, which can only hold
+   * records left incomplete by a crash.
+   *
+   * @param file the path of the file
+   * @throws IOException if the file cannot be created
+   */
+  LogFile(final Path file) throws IOException {
+    this.channel = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING
+    );
+  }
+
+  /**
+   * Appends a record to the file, without synchronizing it to the disk.
+   *
+   * @param record the bytes of the record
+   * @throws IOException if the record cannot be written, in which case it is not in the file
+   */
+  void append(final ByteBuffer record) throws IOException {
+    final var recordStart = this.channel.position();
+    try {
+      while (record.hasRemaining()) {
+        this.channel.write(record);
+      }
+    } catch (final IOException e) {
+      this.truncate(recordStart);
+      throw e;
+    }
+    this.lastRecordStart = recordStart;
+  }
+
+  /**
+   * Removes the last appended record from the file, and synchronizes the file, with its new size,
+   * to the disk.
+   *
+   * @throws IOException if the record cannot be removed
+   */
+  void discardLastRecord() throws IOException {
+    this.truncate(this.lastRecordStart);
+    this.channel.force(true);
+  }
+
+  /**
+   * Returns the size of the records appended to the file.
+   *
+   * @return the size of the file in bytes
+   * @throws IOException if the file is closed
+   */
+  long size() throws IOException {
+    return this.channel.position();
+  }
+
+  /**
+   * Synchronizes the records appended to the file to the disk.
+   *
+   * @throws IOException if the file cannot be synchronized, e.g. because it is closed
+   */
+  void force() throws IOException {
+    this.channel.force(false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.force();
+    this.channel.close();
+  }
+
+  private void truncate(final long size) throws IOException {
+    this.channel.truncate(size);
+    this.channel.position(size);
+  }
+
+  /**
+   * Returns the numbers of the files of a log in the given directory, in increasing order.
+   *
+   * @param directory the directory of the log
+   * @param prefix    the name of the files of the log before their number
+   * @param suffix    the name of the files of the log after their number
+   * @return the numbers of the files of the log
+   * @throws IOException if the directory cannot be listed
+   */
+  static List<Long> listSequences(final Path directory, final String prefix, final String suffix)
+      throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.map(f -> f.getFileName().toString())
+                  .filter(n -> n.startsWith(prefix) && n.endsWith(suffix))
+                  .map(n -> n.substring(prefix.length(), n.length() - suffix.length()))
+                  .filter(n -> !n.isEmpty() && n.chars().allMatch(Character::isDigit))
+                  .map(Long::valueOf)
+                  .sorted()
+                  .toList();
+    }
+  }
+}
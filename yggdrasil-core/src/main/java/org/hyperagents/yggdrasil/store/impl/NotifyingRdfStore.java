@@ -0,0 +1,134 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+
+/**
+ * A decorator of an {@link RdfStore} that informs a listener about the IRI of every entity whose
+ * model has been changed, once the underlying store has been updated.
+ */
+public class NotifyingRdfStore implements RdfStore {
+  private final RdfStore store;
+  private final Consumer<IRI> mutationListener;
+
+  NotifyingRdfStore(final RdfStore store, final Consumer<IRI> mutationListener) {
+    this.store = store;
+    this.mutationListener = mutationListener;
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    return this.store.getEntityModel(entityIri);
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.addEntityModel(entityIri, entityModel);
+    } finally {
+      this.mutationListener.accept(entityIri);
+    }
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.replaceEntityModel(entityIri, entityModel);
+    } finally {
+      this.mutationListener.accept(entityIri);
+    }
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    try {
+      this.store.removeStatements(entityIri, statements);
+    } finally {
+      this.mutationListener.accept(entityIri);
+    }
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    try {
+      this.store.removeEntityModel(entityIri);
+    } finally {
+      this.mutationListener.accept(entityIri);
+    }
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    try {
+      this.store.applyChanges(changes);
+    } finally {
+      changes.forEach(c -> this.mutationListener.accept(c.entityIri()));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.store.close();
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+}
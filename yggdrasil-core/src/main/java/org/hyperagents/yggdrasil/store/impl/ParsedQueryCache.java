@@ -0,0 +1,101 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.Query;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.sail.SailBooleanQuery;
+import org.eclipse.rdf4j.repository.sail.SailGraphQuery;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+
+/**
+ * Keeps the parsed models of the most recently sent SPARQL queries, and prepares them for the
+ * connections evaluating them, as the connections would do for the text of the queries.
+ *
+ * <p>A connection can only prepare a query from its text, so the parsed models are turned into
+ * queries through the constructors of the Sail queries, which only the graph and boolean queries
+ * keep protected. The subclasses below do nothing but give access to these constructors.</p>
+ */
+final class ParsedQueryCache {
+  private final Map<String, ParsedQuery> parsedQueries;
+
+  /**
+   * Creates a cache of parsed queries.
+   *
+   * @param maxEntries the maximum number of parsed queries kept, 0 to parse every query again
+   */
+  ParsedQueryCache(final int maxEntries) {
+    this.parsedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, ParsedQuery> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the parsed model of a query, parsing the query only if it is not already known. The
+   * parsed model is never changed by the evaluation, which works on a copy of it.
+   *
+   * @param query the text of the SPARQL query
+   * @return the parsed model of the query
+   * @throws MalformedQueryException if the query is not valid
+   */
+  ParsedQuery parse(final String query) throws MalformedQueryException {
+    synchronized (this.parsedQueries) {
+      final var parsedQuery = this.parsedQueries.get(query);
+      if (parsedQuery != null) {
+        return parsedQuery;
+      }
+    }
+    final var parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+    synchronized (this.parsedQueries) {
+      this.parsedQueries.put(query, parsedQuery);
+    }
+    return parsedQuery;
+  }
+
+  /**
+   * Prepares a parsed query for the given connection.
+   *
+   * @param connection  the connection evaluating the query
+   * @param parsedQuery the parsed model of the query
+   * @return the query ready to be evaluated on the connection
+   */
+  static Query prepare(
+      final SailRepositoryConnection connection,
+      final ParsedQuery parsedQuery
+  ) {
+    return switch (parsedQuery) {
+      case ParsedTupleQuery tupleQuery -> new SailTupleQuery(tupleQuery, connection);
+      case ParsedGraphQuery graphQuery -> new PreparedGraphQuery(graphQuery, connection);
+      case ParsedBooleanQuery booleanQuery -> new PreparedBooleanQuery(booleanQuery, connection);
+      default -> throw new IllegalArgumentException("Unsupported query type");
+    };
+  }
+
+  private static final class PreparedGraphQuery extends SailGraphQuery {
+    PreparedGraphQuery(
+        final ParsedGraphQuery graphQuery,
+        final SailRepositoryConnection connection
+    ) {
+      super(graphQuery, connection);
+    }
+  }
+
+  private static final class PreparedBooleanQuery extends SailBooleanQuery {
+    PreparedBooleanQuery(
+        final ParsedBooleanQuery booleanQuery,
+        final SailRepositoryConnection connection
+    ) {
+      super(booleanQuery, connection);
+    }
+  }
+}
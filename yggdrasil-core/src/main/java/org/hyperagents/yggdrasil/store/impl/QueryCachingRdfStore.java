@@ -0,0 +1,527 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.BNodeGenerator;
+import org.eclipse.rdf4j.query.algebra.FunctionCall;
+import org.eclipse.rdf4j.query.algebra.Service;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A decorator of an {@link RdfStore} that keeps the serialized results of the most recently
+ * evaluated SPARQL queries, so that repeated queries are neither planned nor evaluated again. The
+ * results are keyed on the text of the query with its whitespace normalized, on its dataset and on
+ * the content type of the response. The cache is bounded both in number of results and in their
+ * size in bytes, evicting the least recently used results first.
+ *
+ * <p>The results of a query are dropped whenever one of the named graphs the query can read is
+ * changed. A query only reads the graphs listed in its dataset if it lists default graphs and
+ * either lists named graphs or does not match any named graph, otherwise it reads all the graphs
+ * and its results are dropped on any change. The results of queries calling remote services or
+ * non-deterministic functions are never cached.</p>
+ */
+public class QueryCachingRdfStore implements RdfStore {
+  private static final Logger LOGGER = LogManager.getLogger(QueryCachingRdfStore.class);
+  private static final Set<String> NON_DETERMINISTIC_FUNCTIONS =
+      Set.of("NOW", "RAND", "UUID", "STRUUID");
+
+  private final RdfStore store;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LinkedHashMap<QueryKey, CachedResult> cache;
+  private final AtomicLong hitCount;
+  private final AtomicLong missCount;
+  private final AtomicLong evictionCount;
+  private long cachedBytes;
+  private long generation;
+
+  QueryCachingRdfStore(final RdfStore store, final int maxEntries, final long maxBytes) {
+    this.store = store;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.hitCount = new AtomicLong();
+    this.missCount = new AtomicLong();
+    this.evictionCount = new AtomicLong();
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    return this.store.getEntityModel(entityIri);
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.addEntityModel(entityIri, entityModel);
+    } finally {
+      this.invalidate(List.of(entityIri));
+    }
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    try {
+      this.store.replaceEntityModel(entityIri, entityModel);
+    } finally {
+      this.invalidate(List.of(entityIri));
+    }
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    try {
+      this.store.removeStatements(entityIri, statements);
+    } finally {
+      this.invalidate(List.of(entityIri));
+    }
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    try {
+      this.store.removeEntityModel(entityIri);
+    } finally {
+      this.invalidate(List.of(entityIri));
+    }
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    try {
+      this.store.applyChanges(changes);
+    } finally {
+      this.invalidate(changes.stream().map(EntityChange::entityIri).toList());
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    LOGGER.info(
+        "Query cache closed after {} hits, {} misses, a hit ratio of {} and {} evictions",
+        this.hitCount.get(),
+        this.missCount.get(),
+        this.getHitRatio(),
+        this.evictionCount.get()
+    );
+    synchronized (this.cache) {
+      this.cache.clear();
+      this.cachedBytes = 0;
+    }
+    this.store.close();
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    final var key = new QueryKey(
+        normalizeQuery(query),
+        List.copyOf(defaultGraphUris),
+        List.copyOf(namedGraphUris),
+        responseContentType
+    );
+    final var cachedResult = this.get(key);
+    if (cachedResult.isPresent()) {
+      return new String(cachedResult.get(), StandardCharsets.UTF_8);
+    }
+    final long generation = this.getGeneration();
+    final var result =
+        this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+    this.put(key, query, result.getBytes(StandardCharsets.UTF_8), generation);
+    return result;
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    final var key = new QueryKey(
+        normalizeQuery(query),
+        List.copyOf(defaultGraphUris),
+        List.copyOf(namedGraphUris),
+        responseContentType
+    );
+    final var cachedResult = this.get(key);
+    if (cachedResult.isPresent()) {
+      snapshotTaken.run();
+      out.write(cachedResult.get());
+      out.flush();
+      return;
+    }
+    final long generation = this.getGeneration();
+    final var capturingOut = new CapturingOutputStream(out, this.maxBytes);
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        capturingOut,
+        snapshotTaken
+    );
+    capturingOut.getCaptured().ifPresent(r -> this.put(key, query, r, generation));
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the number of queries that were answered from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getHitCount() {
+    return this.hitCount.get();
+  }
+
+  /**
+   * Returns the number of queries that had to be evaluated by the underlying store.
+   *
+   * @return the number of cache misses
+   */
+  public long getMissCount() {
+    return this.missCount.get();
+  }
+
+  /**
+   * Returns the fraction of the queries that were answered from the cache.
+   *
+   * @return the hit ratio of the cache, 0 if no query has been sent yet
+   */
+  public double getHitRatio() {
+    final long hits = this.hitCount.get();
+    final long total = hits + this.missCount.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Returns the number of query results evicted to respect the bounds of the cache.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return this.evictionCount.get();
+  }
+
+  /**
+   * Returns the number of query results currently held by the cache.
+   *
+   * @return the number of cached query results
+   */
+  public int getSize() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+
+  private Optional<byte[]> get(final QueryKey key) {
+    synchronized (this.cache) {
+      final var cachedResult = this.cache.get(key);
+      if (cachedResult != null) {
+        this.hitCount.incrementAndGet();
+        return Optional.of(cachedResult.result());
+      }
+    }
+    this.missCount.incrementAndGet();
+    return Optional.empty();
+  }
+
+  private long getGeneration() {
+    synchronized (this.cache) {
+      return this.generation;
+    }
+  }
+
+  private void put(
+      final QueryKey key,
+      final String query,
+      final byte[] result,
+      final long readGeneration
+  ) {
+    if (result.length > this.maxBytes) {
+      return;
+    }
+    final ParsedQuery parsedQuery;
+    try {
+      parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+    } catch (final MalformedQueryException e) {
+      return;
+    }
+    final var visitor = new QueryFeaturesVisitor();
+    parsedQuery.getTupleExpr().visit(visitor);
+    if (visitor.isNonDeterministic()) {
+      return;
+    }
+    final var readGraphs = getReadGraphs(
+        parsedQuery,
+        visitor.isMatchingNamedGraphs(),
+        key.defaultGraphUris(),
+        key.namedGraphUris()
+    );
+    synchronized (this.cache) {
+      // A mutation happened while the query was being evaluated, the result could be stale
+      if (readGeneration != this.generation) {
+        return;
+      }
+      final var previous = this.cache.put(key, new CachedResult(result, readGraphs));
+      if (previous != null) {
+        this.cachedBytes -= previous.result().length;
+      }
+      this.cachedBytes += result.length;
+      final var iterator = this.cache.values().iterator();
+      while (
+          iterator.hasNext()
+          && (this.cache.size() > this.maxEntries || this.cachedBytes > this.maxBytes)
+      ) {
+        this.cachedBytes -= iterator.next().result().length;
+        iterator.remove();
+        this.evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  private void invalidate(final List<IRI> entityIris) {
+    final var changedGraphs = entityIris.stream().map(RdfModelUtils::fixEntityIri).toList();
+    synchronized (this.cache) {
+      this.generation++;
+      final var iterator = this.cache.values().iterator();
+      while (iterator.hasNext()) {
+        final var cachedResult = iterator.next();
+        if (
+            cachedResult.readGraphs().isEmpty()
+            || changedGraphs.stream().anyMatch(cachedResult.readGraphs()::contains)
+        ) {
+          this.cachedBytes -= cachedResult.result().length;
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the graphs a query can read among the graphs in its dataset, or an empty set if it can
+   * read all the graphs in the store.
+   */
+  private static Set<IRI> getReadGraphs(
+      final ParsedQuery parsedQuery,
+      final boolean matchingNamedGraphs,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris
+  ) {
+    final var dataset = Optional.ofNullable(parsedQuery.getDataset());
+    final var defaultGraphs = !defaultGraphUris.isEmpty()
+        ? defaultGraphUris.stream().map(RdfModelUtils::createIri).toList()
+        : dataset.map(d -> List.copyOf(d.getDefaultGraphs())).orElse(List.of());
+    final var namedGraphs = !namedGraphUris.isEmpty()
+        ? namedGraphUris.stream().map(RdfModelUtils::createIri).toList()
+        : dataset.map(d -> List.copyOf(d.getNamedGraphs())).orElse(List.of());
+    // Without default graphs the default graph is the union of all the graphs, and without named
+    // graphs all the graphs can be matched as named graphs
+    if (defaultGraphs.isEmpty() || (namedGraphs.isEmpty() && matchingNamedGraphs)) {
+      return Set.of();
+    }
+    final Set<IRI> readGraphs = new HashSet<>(defaultGraphs);
+    readGraphs.addAll(namedGraphs);
+    return readGraphs;
+  }
+
+  /**
+   * Collapses the whitespace outside of the string literals of a query, so that queries only
+   * differing in their layout share the same results.
+   */
+  static String normalizeQuery(final String query) {
+    final var normalized = new StringBuilder(query.length());
+    char quote = 0;
+    boolean longQuote = false;
+    boolean whitespace = false;
+    for (int i = 0; i < query.length(); i++) {
+      final char c = query.charAt(i);
+      if (quote != 0) {
+        normalized.append(c);
+        if (c == '\\' && i + 1 < query.length()) {
+          normalized.append(query.charAt(++i));
+        } else if (c == quote && (!longQuote || query.startsWith(String.valueOf(c).repeat(3), i))) {
+          if (longQuote) {
+            normalized.append(c).append(c);
+            i += 2;
+          }
+          quote = 0;
+        }
+      } else if (Character.isWhitespace(c)) {
+        whitespace = true;
+      } else {
+        if (whitespace && !normalized.isEmpty()) {
+          normalized.append(' ');
+        }
+        whitespace = false;
+        normalized.append(c);
+        if (c == '"' || c == '\'') {
+          quote = c;
+          longQuote = query.startsWith(String.valueOf(c).repeat(3), i);
+          if (longQuote) {
+            normalized.append(c).append(c);
+            i += 2;
+          }
+        }
+      }
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Finds whether a query matches named graphs and whether its results can change without any
+   * change to the store, i.e. whether it calls remote services or non-deterministic functions.
+   */
+  private static final class QueryFeaturesVisitor
+      extends AbstractQueryModelVisitor<RuntimeException> {
+    private boolean matchingNamedGraphs;
+    private boolean nonDeterministic;
+
+    @Override
+    public void meet(final StatementPattern node) {
+      if (node.getScope() == StatementPattern.Scope.NAMED_CONTEXTS) {
+        this.matchingNamedGraphs = true;
+      }
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(final Service node) {
+      this.nonDeterministic = true;
+    }
+
+    @Override
+    public void meet(final FunctionCall node) {
+      if (NON_DETERMINISTIC_FUNCTIONS.contains(node.getURI())) {
+        this.nonDeterministic = true;
+      }
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(final BNodeGenerator node) {
+      this.nonDeterministic = true;
+      super.meet(node);
+    }
+
+    boolean isMatchingNamedGraphs() {
+      return this.matchingNamedGraphs;
+    }
+
+    boolean isNonDeterministic() {
+      return this.nonDeterministic;
+    }
+  }
+
+  /**
+   * An output stream writing to another one while keeping a copy of what is written to it, as
+   * long as the copy is not larger than the given bound.
+   */
+  private static final class CapturingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final long maxBytes;
+    private ByteArrayOutputStream captured;
+
+    CapturingOutputStream(final OutputStream out, final long maxBytes) {
+      super();
+      this.out = out;
+      this.maxBytes = maxBytes;
+      this.captured = new ByteArrayOutputStream();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      this.out.write(b);
+      this.capture(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      this.out.write(b, off, len);
+      this.capture(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      this.out.flush();
+    }
+
+    Optional<byte[]> getCaptured() {
+      return Optional.ofNullable(this.captured).map(ByteArrayOutputStream::toByteArray);
+    }
+
+    private void capture(final byte[] b, final int off, final int len) {
+      if (this.captured == null) {
+        return;
+      }
+      if (this.captured.size() + len > this.maxBytes) {
+        this.captured = null;
+      } else {
+        this.captured.write(b, off, len);
+      }
+    }
+  }
+
+  private record QueryKey(
+      String query,
+      List<String> defaultGraphUris,
+      List<String> namedGraphUris,
+      String responseContentType
+  ) {}
+
+  /**
+   * The results of a query, together with the graphs the query can read, which are empty if it can
+   * read all the graphs.
+   */
+  private record CachedResult(byte[] result, Set<IRI> readGraphs) {}
+}
@@ -0,0 +1,13 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+/**
+ * The bounds put on the evaluation of the SPARQL queries sent to a store.
+ *
+ * @param timeout            the time in seconds after which a query is interrupted, 0 for never
+ * @param maxResults         the number of solutions or statements beyond which a query fails, 0
+ *                           for never
+ * @param slowQueryThreshold the duration in milliseconds from which a query is logged as slow
+ */
+record QueryLimits(int timeout, long maxResults, long slowQueryThreshold) {
+  static final QueryLimits NONE = new QueryLimits(0, 0, Long.MAX_VALUE);
+}
@@ -2,21 +2,37 @@ package org.hyperagents.yggdrasil.store.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
 import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
-import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
 import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLBooleanJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLBooleanXMLWriter;
@@ -24,62 +40,104 @@ import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
 import org.eclipse.rdf4j.query.resultio.text.BooleanTextWriter;
 import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter;
 import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter;
-import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
 import org.eclipse.rdf4j.sail.Sail;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.QueryResultLimitException;
+import org.hyperagents.yggdrasil.store.QueryTimeoutException;
 import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
 import org.hyperagents.yggdrasil.utils.RdfModelUtils;
 
 /**
  * Provides access to the rdfstore.
+ *
+ * <p>Reads are run on a pool of connections, each one inside a snapshot-isolated transaction, so
+ * that many of them can run in parallel and none of them sees a change half-way through. All the
+ * changes go through a single writing connection, one transaction at a time.</p>
+ *
+ * <p>SPARQL queries are bounded by the given {@link QueryLimits}: queries running longer than the
+ * timeout are interrupted, including the time spent waiting for their results to be consumed,
+ * and queries with more results than the maximum fail, instead of silently returning only part of
+ * their results. Queries taking longer than the slow query
+ * threshold are logged together with their duration and the number of their results.</p>
+ *
+ * <p>The parsed models of the most recently sent queries are kept, so that a query sent again is
+ * only prepared for the connection evaluating it, without being parsed again. The dataset given
+ * with each query is applied on top of the dataset of the parsed model, which is never
+ * changed.</p>
  */
 public class Rdf4jStore implements RdfStore {
-  private final Repository repository;
-  private final RepositoryConnection connection;
+  private static final Logger LOGGER = LogManager.getLogger(Rdf4jStore.class);
+  private static final int DEFAULT_PARSED_QUERY_CACHE_SIZE = 256;
+  // The matching triples beyond the ones listed are only counted up to this number
+  private static final long MAX_COUNTED_TRIPLES = 10_000;
 
-  Rdf4jStore(final Sail store) {
-    this.repository = new SailRepository(store);
-    this.repository.init();
-    this.connection = this.repository.getConnection();
+  private final SailRepository repository;
+  private final RepositoryConnection writeConnection;
+  private final BlockingQueue<SailRepositoryConnection> readConnections;
+  private final QueryLimits queryLimits;
+  private final ParsedQueryCache parsedQueries;
+  private final AtomicLong timedOutQueryCount;
+  private final AtomicLong exceededQueryCount;
+
+  Rdf4jStore(final Sail store, final int readConnections) {
+    this(store, readConnections, QueryLimits.NONE, DEFAULT_PARSED_QUERY_CACHE_SIZE);
   }
 
-  private IRI fixEntityIri(final IRI entityIri) {
-    final String entityIriString = entityIri.toString();
-    final String fixedIri = entityIriString.endsWith("/") ? entityIriString : entityIriString + "/";
-    return RdfModelUtils.createIri(fixedIri);
+  Rdf4jStore(
+      final Sail store,
+      final int readConnections,
+      final QueryLimits queryLimits,
+      final int parsedQueryCacheSize
+  ) {
+    this.queryLimits = queryLimits;
+    this.timedOutQueryCount = new AtomicLong();
+    this.exceededQueryCount = new AtomicLong();
+    this.parsedQueries = new ParsedQueryCache(parsedQueryCacheSize);
+    this.repository = new SailRepository(store);
+    this.repository.init();
+    this.writeConnection = this.repository.getConnection();
+    this.readConnections = new ArrayBlockingQueue<>(readConnections);
+    for (int i = 0; i < readConnections; i++) {
+      this.readConnections.add(this.repository.getConnection());
+    }
   }
 
   @Override
   public boolean containsEntityModel(final IRI entityIri) throws IOException {
-    final var fixedEntityIri = fixEntityIri(entityIri);
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(entityIri);
 
-    try {
-      return this.connection.hasStatement(
-        null,
-        null,
-        null,
-        false,
-        fixedEntityIri
-      );
-    } catch (final RepositoryException e) {
-      throw new IOException(e);
-    }
+    return this.read(connection -> connection.hasStatement(
+      null,
+      null,
+      null,
+      false,
+      fixedEntityIri
+    ));
   }
 
   @Override
   public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
-    final var fixedEntityIri = fixEntityIri(entityIri);
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(entityIri);
 
-    try {
+    return this.read(connection -> {
       final Model model =
           QueryResults.asModel(
-              this.connection.getStatements(null, null, null, fixedEntityIri));
+              connection.getStatements(null, null, null, fixedEntityIri));
       final var connectionNamespaces = new HashMap<String, Namespace>();
 
-      for (final Namespace namespace : this.connection.getNamespaces()) {
+      for (final Namespace namespace : connection.getNamespaces()) {
         connectionNamespaces.put(namespace.getName(), namespace);
       }
 
@@ -91,47 +149,134 @@ public class Rdf4jStore implements RdfStore {
         }
       }
       return Optional.of(model).filter(r -> !r.isEmpty());
-    } catch (final RepositoryException e) {
-      throw new IOException(e);
-    }
+    });
   }
 
   @Override
   public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
-    final var fixedEntityIri = fixEntityIri(entityIri);
-
-    try {
-      this.connection.add(entityModel, fixedEntityIri);
-      entityModel.getNamespaces().forEach(
-          namespace -> this.connection.setNamespace(namespace.getPrefix(), namespace.getName()));
-    } catch (final RepositoryException e) {
-      throw new IOException(e);
-    }
+    this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
   }
 
   @Override
   public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
-    final var fixedEntityIri = fixEntityIri(entityIri);
+    this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
 
-    this.removeEntityModel(fixedEntityIri);
-    this.addEntityModel(fixedEntityIri, entityModel);
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
   }
 
   @Override
   public void removeEntityModel(final IRI entityIri) throws IOException {
-    final var fixedEntityIri = fixEntityIri(entityIri);
+    this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
 
-    try {
-      this.connection.clear(fixedEntityIri);
-    } catch (final RepositoryException e) {
-      throw new IOException(e);
-    }
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    this.write(connection -> changes.forEach(change -> {
+      final var fixedEntityIri = RdfModelUtils.fixEntityIri(change.entityIri());
+      switch (change) {
+        case EntityChange.Add add -> this.add(connection, fixedEntityIri, add.entityModel());
+        case EntityChange.RemoveStatements remove ->
+            connection.remove(remove.statements(), fixedEntityIri);
+        // Both changes are committed together, so no read sees the entity missing
+        case EntityChange.Replace replace -> {
+          connection.clear(fixedEntityIri);
+          this.add(connection, fixedEntityIri, replace.entityModel());
+        }
+        case EntityChange.Remove remove -> connection.clear(fixedEntityIri);
+      }
+    }));
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.read(connection -> {
+      try {
+        connection.export(handler);
+      } catch (final RDFHandlerException e) {
+        throw new IOException(e);
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.read(connection -> {
+      final var valueFactory = connection.getValueFactory();
+      final var triples = new ArrayList<Statement>();
+      // The same triple can be in the graphs of several entities, but is only listed once
+      final var seenTriples = new HashSet<Statement>();
+      long count = 0;
+      var hasNext = false;
+      try (var statements = connection.getStatements(subject, predicate, object, false)) {
+        while (statements.hasNext()) {
+          if (count >= offset + limit && count >= MAX_COUNTED_TRIPLES) {
+            hasNext = true;
+            break;
+          }
+          final var statement = statements.next();
+          final var triple = valueFactory.createStatement(
+              statement.getSubject(),
+              statement.getPredicate(),
+              statement.getObject()
+          );
+          if (!seenTriples.add(triple)) {
+            continue;
+          }
+          if (count >= offset && triples.size() < limit) {
+            triples.add(triple);
+          }
+          count++;
+        }
+      }
+      return new TriplePatternFragment(triples, count, hasNext || count > offset + limit);
+    });
+  }
+
+  /**
+   * Adds the statements read from the given stream, with their named graphs, in a single
+   * transaction. The blank nodes keep their identifiers, which the changes applied afterwards may
+   * refer to.
+   *
+   * @param in     the stream from which the statements are read
+   * @param format the format of the statements
+   * @throws IOException if the statements cannot be read or the store cannot be accessed
+   */
+  void importStatements(final InputStream in, final RDFFormat format) throws IOException {
+    this.write(connection -> {
+      connection.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+      try {
+        connection.add(in, format);
+      } catch (final RDFParseException e) {
+        throw new IOException(e);
+      }
+    });
   }
 
   @Override
   public void close() throws IOException {
+    LOGGER.info(
+        "Store closed after {} timed out queries and {} queries exceeding the result limit",
+        this.timedOutQueryCount.get(),
+        this.exceededQueryCount.get()
+    );
     try {
-      this.connection.close();
+      for (final var connection : this.readConnections) {
+        connection.close();
+      }
+      synchronized (this.writeConnection) {
+        this.writeConnection.close();
+      }
       this.repository.shutDown();
     } catch (final RepositoryException e) {
       throw new IOException(e);
@@ -145,62 +290,253 @@ public class Rdf4jStore implements RdfStore {
       final List<String> namedGraphUris,
       final String responseContentType
   ) throws IllegalArgumentException, IOException {
-    try (var out = new ByteArrayOutputStream()) {
-      final var preparedQuery = this.connection.prepareQuery(query);
-      final var originalQueryDataset =
-          Optional.ofNullable(preparedQuery.getDataset()).orElse(new SimpleDataset());
-      final var queryDataset = new SimpleDataset();
-      originalQueryDataset
-          .getDefaultRemoveGraphs()
-          .forEach(queryDataset::addDefaultRemoveGraph);
-      queryDataset.setDefaultInsertGraph(originalQueryDataset.getDefaultInsertGraph());
-      if (!defaultGraphUris.isEmpty()) {
-        defaultGraphUris.forEach(s -> queryDataset.addDefaultGraph(RdfModelUtils.createIri(s)));
-      } else {
-        originalQueryDataset.getDefaultGraphs().forEach(queryDataset::addDefaultGraph);
-      }
-      if (!namedGraphUris.isEmpty()) {
-        namedGraphUris.forEach(s -> queryDataset.addNamedGraph(RdfModelUtils.createIri(s)));
-      } else {
-        originalQueryDataset.getNamedGraphs().forEach(queryDataset::addNamedGraph);
+    final var out = new ByteArrayOutputStream();
+    this.read(connection -> {
+      this.evaluateQuery(
+          connection,
+          query,
+          defaultGraphUris,
+          namedGraphUris,
+          responseContentType,
+          out
+      );
+      return null;
+    });
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    // The results are written at the pace of their consumer, so the query is evaluated on a
+    // connection of its own, not to keep one of the pooled connections from the other reads
+    try (var queryConnection = this.repository.getConnection()) {
+      read(queryConnection, connection -> {
+        // The snapshot of the transaction is only taken when the store is first read from
+        connection.hasStatement(null, null, null, false);
+        snapshotTaken.run();
+        this.evaluateQuery(
+            connection,
+            query,
+            defaultGraphUris,
+            namedGraphUris,
+            responseContentType,
+            out
+        );
+        return null;
+      });
+    } catch (final RepositoryException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private void evaluateQuery(
+      final SailRepositoryConnection connection,
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out
+  ) throws IllegalArgumentException, IOException {
+    final long start = System.nanoTime();
+    long resultCount = 0;
+    try {
+      final var parsedQuery = this.parsedQueries.parse(query);
+      final var preparedQuery = ParsedQueryCache.prepare(connection, parsedQuery);
+      // The dataset of the query only has to be rebuilt when some of its graphs are overridden
+      if (!defaultGraphUris.isEmpty() || !namedGraphUris.isEmpty()) {
+        final var originalQueryDataset =
+            Optional.ofNullable(parsedQuery.getDataset()).orElse(new SimpleDataset());
+        final var queryDataset = new SimpleDataset();
+        if (!defaultGraphUris.isEmpty()) {
+          defaultGraphUris.forEach(s -> queryDataset.addDefaultGraph(RdfModelUtils.createIri(s)));
+        } else {
+          originalQueryDataset.getDefaultGraphs().forEach(queryDataset::addDefaultGraph);
+        }
+        if (!namedGraphUris.isEmpty()) {
+          namedGraphUris.forEach(s -> queryDataset.addNamedGraph(RdfModelUtils.createIri(s)));
+        } else {
+          originalQueryDataset.getNamedGraphs().forEach(queryDataset::addNamedGraph);
+        }
+        preparedQuery.setDataset(queryDataset);
       }
-      preparedQuery.setDataset(queryDataset);
+      preparedQuery.setMaxExecutionTime(this.queryLimits.timeout());
       switch (preparedQuery) {
-        case TupleQuery preparedTupleQuery -> preparedTupleQuery.evaluate(
-                    responseContentType.equals("application/sparql-results+xml")
-                            ? new SPARQLResultsXMLWriter(out)
-                            : (responseContentType.equals("application/sparql-results+json")
-                            ? new SPARQLResultsJSONWriter(out)
-                            : (responseContentType.equals("text/tab-separated-values")
-                            ? new SPARQLResultsTSVWriter(out)
-                            : new SPARQLResultsCSVWriter(out)
-                    )
-                    )
-            );
-        case BooleanQuery preparedBooleanQuery -> (
-                    responseContentType.equals("application/sparql-results+xml")
-                            ? new SPARQLBooleanXMLWriter(out)
-                            : (responseContentType.equals("application/sparql-results+json")
-                            ? new SPARQLBooleanJSONWriter(out)
-                            : new BooleanTextWriter(out)
-                    )
-            )
-                    .handleBoolean(preparedBooleanQuery.evaluate());
-        case GraphQuery preparedGraphQuery -> out.writeBytes(
-                 RdfModelUtils.modelToString(QueryResults.asModel(preparedGraphQuery.evaluate()),
-                                 RDFFormat.TURTLE, null)
-                         .getBytes(StandardCharsets.UTF_8)
-         );
+        case TupleQuery preparedTupleQuery -> {
+          final TupleQueryResultWriter writer =
+              responseContentType.equals("application/sparql-results+xml")
+              ? new SPARQLResultsXMLWriter(out)
+              : (responseContentType.equals("application/sparql-results+json")
+              ? new SPARQLResultsJSONWriter(out)
+              : (responseContentType.equals("text/tab-separated-values")
+              ? new SPARQLResultsTSVWriter(out)
+              : new SPARQLResultsCSVWriter(out)
+              )
+              );
+          try (var result = preparedTupleQuery.evaluate()) {
+            writer.startQueryResult(result.getBindingNames());
+            while (result.hasNext()) {
+              this.checkResultLimit(resultCount, query);
+              writer.handleSolution(result.next());
+              resultCount++;
+            }
+            writer.endQueryResult();
+          }
+        }
+        case BooleanQuery preparedBooleanQuery -> {
+          (
+              responseContentType.equals("application/sparql-results+xml")
+              ? new SPARQLBooleanXMLWriter(out)
+              : (responseContentType.equals("application/sparql-results+json")
+              ? new SPARQLBooleanJSONWriter(out)
+              : new BooleanTextWriter(out)
+              )
+          )
+              .handleBoolean(preparedBooleanQuery.evaluate());
+          resultCount = 1;
+        }
+        case GraphQuery preparedGraphQuery -> {
+          // Blank nodes are not inlined, since that would require buffering the whole graph
+          final var writer = Rio.createWriter(RDFFormat.TURTLE, out);
+          writer.getWriterConfig()
+                .set(BasicWriterSettings.PRETTY_PRINT, true)
+                .set(BasicWriterSettings.RDF_LANGSTRING_TO_LANG_LITERAL, true)
+                .set(BasicWriterSettings.XSD_STRING_TO_PLAIN_LITERAL, true);
+          try (var result = preparedGraphQuery.evaluate()) {
+            writer.startRDF();
+            result.getNamespaces().forEach(writer::handleNamespace);
+            while (result.hasNext()) {
+              this.checkResultLimit(resultCount, query);
+              writer.handleStatement(result.next());
+              resultCount++;
+            }
+            writer.endRDF();
+          }
+        }
         default -> {
         }
       }
-      return out.toString(StandardCharsets.UTF_8);
+      out.flush();
     } catch (final MalformedQueryException e) {
       throw new IllegalArgumentException(e);
+    } catch (final QueryInterruptedException e) {
+      this.timedOutQueryCount.incrementAndGet();
+      LOGGER.warn("Query timed out after {} s: {}", this.queryLimits.timeout(), query);
+      throw new QueryTimeoutException("The query timed out", e);
     } catch (final RepositoryException
                    | QueryEvaluationException
-                   | TupleQueryResultHandlerException e) {
+                   | QueryResultHandlerException
+                   | RDFHandlerException e) {
       throw new IOException(e);
+    } finally {
+      final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      if (duration >= this.queryLimits.slowQueryThreshold()) {
+        LOGGER.warn("Slow query took {} ms for {} results: {}", duration, resultCount, query);
+      }
     }
   }
+
+  private void checkResultLimit(final long resultCount, final String query)
+      throws QueryResultLimitException {
+    if (this.queryLimits.maxResults() > 0 && resultCount >= this.queryLimits.maxResults()) {
+      this.exceededQueryCount.incrementAndGet();
+      LOGGER.warn(
+          "Query has more than {} results: {}",
+          this.queryLimits.maxResults(),
+          query
+      );
+      throw new QueryResultLimitException("The query has too many results");
+    }
+  }
+
+  /**
+   * Returns the number of queries that were interrupted for running longer than their timeout.
+   *
+   * @return the number of timed out queries
+   */
+  public long getTimedOutQueryCount() {
+    return this.timedOutQueryCount.get();
+  }
+
+  /**
+   * Returns the number of queries that failed for having more results than the maximum.
+   *
+   * @return the number of queries exceeding the result limit
+   */
+  public long getExceededQueryCount() {
+    return this.exceededQueryCount.get();
+  }
+
+  private void add(
+      final RepositoryConnection connection,
+      final IRI fixedEntityIri,
+      final Model entityModel
+  ) {
+    connection.add(entityModel, fixedEntityIri);
+    entityModel.getNamespaces().forEach(
+        namespace -> connection.setNamespace(namespace.getPrefix(), namespace.getName()));
+  }
+
+  private <T> T read(final ReadOperation<T> operation) throws IOException {
+    final SailRepositoryConnection connection;
+    try {
+      connection = this.readConnections.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    try {
+      return read(connection, operation);
+    } finally {
+      this.readConnections.add(connection);
+    }
+  }
+
+  private static <T> T read(
+      final SailRepositoryConnection connection,
+      final ReadOperation<T> operation
+  ) throws IOException {
+    try {
+      connection.begin(IsolationLevels.SNAPSHOT);
+      try {
+        return operation.apply(connection);
+      } finally {
+        connection.rollback();
+      }
+    } catch (final RepositoryException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private void write(final WriteOperation operation) throws IOException {
+    synchronized (this.writeConnection) {
+      try {
+        this.writeConnection.begin();
+        operation.apply(this.writeConnection);
+        this.writeConnection.commit();
+      } catch (final RepositoryException e) {
+        throw new IOException(e);
+      } finally {
+        if (this.writeConnection.isActive()) {
+          this.writeConnection.rollback();
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ReadOperation<T> {
+    T apply(SailRepositoryConnection connection) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface WriteOperation {
+    void apply(RepositoryConnection connection) throws IOException;
+  }
 }
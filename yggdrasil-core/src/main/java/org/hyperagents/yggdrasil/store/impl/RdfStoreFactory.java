@@ -1,22 +1,443 @@
 package org.hyperagents.yggdrasil.store.impl;
 
+import io.vertx.core.Vertx;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.sail.Sail;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
+import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.eclipse.rdf4j.sail.lucene.LuceneSail;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+import org.hyperagents.yggdrasil.store.AsyncRdfStore;
 import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfStoreConfig;
 
 /**
  * Factory class to get an RDFStore.
  */
 public final class RdfStoreFactory {
+  private static final Logger LOGGER = LogManager.getLogger(RdfStoreFactory.class);
+  // The entities are read and cleared by named graph, so an index starting with the context is kept
+  private static final String DEFAULT_TRIPLE_INDEXES = "spoc,posc,cspo";
+  // Where the native store records the indexes it was created with
+  private static final String TRIPLE_PROPERTIES_FILE = "triples.prop";
+  private static final String TRIPLE_INDEXES_PROPERTY = "triple-indexes";
+  private static final String WRITE_AHEAD_LOG_DIRECTORY = "wal";
+  private static final String FULL_TEXT_INDEX_DIRECTORY = "lucene";
 
   private RdfStoreFactory() {}
 
+  /**
+   * Creates the store described by the given configuration.
+   *
+   * @param config the rdf-store configuration
+   * @return the configured store
+   * @throws IOException if the content of the store cannot be recovered from its snapshots or its
+   *                     write-ahead log
+   */
+  public static RdfStore createStore(final RdfStoreConfig config) throws IOException {
+    final var queryLimits = new QueryLimits(
+        config.getQueryTimeout(),
+        config.getQueryMaxResults(),
+        config.getSlowQueryThreshold()
+    );
+    final Sail backendSail = switch (config.getBackend()) {
+      case MEMORY -> new MemoryStore();
+      case NATIVE -> createNativeStore(
+          config.getStorePath(),
+          config.isForceSyncEnabled(),
+          config.getNativeTripleIndexes()
+      );
+      case LMDB -> createLmdbSail(
+          config.getStorePath(),
+          config.isForceSyncEnabled(),
+          config.getLmdbTripleIndexes(),
+          config.getLmdbTripleDbSize(),
+          config.getLmdbValueDbSize()
+      );
+    };
+    // An in-memory store is indexed again as it is loaded, so its index is kept in memory as well
+    final var fullTextIndexPath =
+        config.getBackend() == RdfStoreConfig.Backend.MEMORY
+        ? null
+        : Path.of(config.getStorePath(), FULL_TEXT_INDEX_DIRECTORY);
+    final var rebuildFullTextIndex =
+        config.isFullTextSearchRebuildEnabled()
+        || fullTextIndexPath != null && !Files.isDirectory(fullTextIndexPath);
+    final var sail = config.isFullTextSearchEnabled()
+        ? createFullTextSearchSail(backendSail, fullTextIndexPath)
+        : backendSail;
+    final var rdf4jStore = new Rdf4jStore(
+        sail,
+        config.getReadConnections(),
+        queryLimits,
+        config.getParsedQueryCacheSize()
+    );
+    if (sail instanceof LuceneSail luceneSail && rebuildFullTextIndex) {
+      rebuildFullTextIndex(luceneSail, config.getStorePath());
+    }
+    // The persistent backends already survive restarts
+    final RdfStore store =
+        config.isSnapshotEnabled() && config.getBackend() == RdfStoreConfig.Backend.MEMORY
+        ? new SnapshottingRdfStore(
+            rdf4jStore,
+            Path.of(config.getStorePath()),
+            config.getSnapshotInterval(),
+            config.isForceSyncEnabled()
+          )
+        : rdf4jStore;
+    // The content of an in-memory store is only recovered from its snapshots, since the log could
+    // never be checkpointed and would be replayed on top of the last snapshot
+    if (config.isWriteAheadLogEnabled() && config.getBackend() == RdfStoreConfig.Backend.MEMORY) {
+      LOGGER.warn("The write-ahead log is ignored, the memory backend relies on its snapshots");
+    }
+    final var loggedStore =
+        config.isWriteAheadLogEnabled() && config.getBackend() != RdfStoreConfig.Backend.MEMORY
+        ? createWriteAheadLogStore(
+            store,
+            Path.of(config.getStorePath(), WRITE_AHEAD_LOG_DIRECTORY).toString(),
+            config.getWriteAheadLogSegmentSize(),
+            true,
+            config.isWriteBehindEnabled()
+          )
+        : store;
+    // An in-memory store has nothing to gain from a hot tier
+    final var tieredStore =
+        config.isHotTierEnabled() && config.getBackend() != RdfStoreConfig.Backend.MEMORY
+        ? createTieredStore(
+            loggedStore,
+            config.getHotTierMaxEntries(),
+            config.getHotTierMaxBytes()
+          )
+        : loggedStore;
+    final var entityCachingStore = config.isEntityCacheEnabled()
+        ? createCachingStore(
+            tieredStore,
+            config.getEntityCacheMaxEntries(),
+            config.getEntityCacheMaxBytes()
+          )
+        : tieredStore;
+    return config.isQueryCacheEnabled()
+        ? createQueryCachingStore(
+            entityCachingStore,
+            config.getQueryCacheMaxEntries(),
+            config.getQueryCacheMaxBytes()
+          )
+        : entityCachingStore;
+  }
+
   public static RdfStore createInMemoryStore() {
-    return new Rdf4jStore(new MemoryStore());
+    return createInMemoryStore(Runtime.getRuntime().availableProcessors());
+  }
+
+  public static RdfStore createInMemoryStore(final int readConnections) {
+    return new Rdf4jStore(new MemoryStore(), readConnections);
+  }
+
+  /**
+   * Creates an in-memory store whose content is periodically written to snapshots in the given
+   * directory, with the changes committed in between appended to a change log. The content
+   * found in the directory is loaded first.
+   *
+   * @param readConnections  the number of connections reading the store in parallel
+   * @param snapshotPath     the directory of the snapshots and change logs
+   * @param snapshotInterval the number of seconds between two snapshots, 0 for none until closing
+   * @param forceSync        whether every change log record is synchronized to the disk
+   * @return the in-memory store
+   * @throws IOException if the content of the directory cannot be loaded
+   */
+  public static RdfStore createInMemoryStore(
+      final int readConnections,
+      final String snapshotPath,
+      final long snapshotInterval,
+      final boolean forceSync
+  ) throws IOException {
+    return new SnapshottingRdfStore(
+        new Rdf4jStore(new MemoryStore(), readConnections),
+        Path.of(snapshotPath),
+        snapshotInterval,
+        forceSync
+    );
   }
 
   public static RdfStore createFilesystemStore(final String storePath) {
-    return new Rdf4jStore(new NativeStore(new File(storePath)));
+    return createFilesystemStore(storePath, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static RdfStore createFilesystemStore(final String storePath, final int readConnections) {
+    return createFilesystemStore(storePath, readConnections, false);
+  }
+
+  /**
+   * Creates a store persisted on the filesystem.
+   *
+   * @param storePath       the directory of the store
+   * @param readConnections the number of connections reading the store in parallel
+   * @param forceSync       whether every commit is synchronized to the disk before completing
+   * @return the filesystem store
+   */
+  public static RdfStore createFilesystemStore(
+      final String storePath,
+      final int readConnections,
+      final boolean forceSync
+  ) {
+    return createFilesystemStore(storePath, readConnections, forceSync, DEFAULT_TRIPLE_INDEXES);
+  }
+
+  /**
+   * Creates a store persisted on the filesystem with the given statement indexes, rebuilding the
+   * indexes of an existing store if they differ.
+   *
+   * @param storePath       the directory of the store
+   * @param readConnections the number of connections reading the store in parallel
+   * @param forceSync       whether every commit is synchronized to the disk before completing
+   * @param tripleIndexes   the comma-separated indexes of the statements, e.g. "spoc,posc,cspo"
+   * @return the filesystem store
+   */
+  public static RdfStore createFilesystemStore(
+      final String storePath,
+      final int readConnections,
+      final boolean forceSync,
+      final String tripleIndexes
+  ) {
+    return new Rdf4jStore(createNativeStore(storePath, forceSync, tripleIndexes), readConnections);
+  }
+
+  /**
+   * Creates a store persisted on the filesystem in LMDB databases.
+   *
+   * @param storePath       the directory of the store
+   * @param readConnections the number of connections reading the store in parallel
+   * @param forceSync       whether every commit is synchronized to the disk before completing
+   * @param tripleIndexes   the comma-separated indexes of the statements, e.g. "spoc,posc"
+   * @param tripleDbSize    the initial size in bytes of the memory map of the statements
+   * @param valueDbSize     the initial size in bytes of the memory map of the values
+   * @return the LMDB store
+   */
+  public static RdfStore createLmdbStore(
+      final String storePath,
+      final int readConnections,
+      final boolean forceSync,
+      final String tripleIndexes,
+      final long tripleDbSize,
+      final long valueDbSize
+  ) {
+    return new Rdf4jStore(
+        createLmdbSail(storePath, forceSync, tripleIndexes, tripleDbSize, valueDbSize),
+        readConnections
+    );
+  }
+
+  private static LmdbStore createLmdbSail(
+      final String storePath,
+      final boolean forceSync,
+      final String tripleIndexes,
+      final long tripleDbSize,
+      final long valueDbSize
+  ) {
+    // The memory maps grow when full, the sizes only avoid growing them for small stores
+    final var lmdbConfig = new LmdbStoreConfig(tripleIndexes);
+    lmdbConfig.setForceSync(forceSync);
+    lmdbConfig.setTripleDBSize(tripleDbSize);
+    lmdbConfig.setValueDBSize(valueDbSize);
+    lmdbConfig.setAutoGrow(true);
+    return new LmdbStore(new File(storePath), lmdbConfig);
+  }
+
+  private static NativeStore createNativeStore(
+      final String storePath,
+      final boolean forceSync,
+      final String tripleIndexes
+  ) {
+    logIndexMigration(storePath, tripleIndexes);
+    final var nativeStore = new NativeStore(new File(storePath), tripleIndexes);
+    nativeStore.setForceSync(forceSync);
+    return nativeStore;
+  }
+
+  /**
+   * Stacks a full-text index of the literals on the given backend, which is updated in the same
+   * transactions as the statements. The index is kept in the given directory, or in memory if
+   * there is none.
+   */
+  private static LuceneSail createFullTextSearchSail(final Sail backendSail, final Path indexPath) {
+    final var luceneSail = new LuceneSail();
+    if (indexPath == null) {
+      luceneSail.setParameter(LuceneSail.LUCENE_RAMDIR_KEY, Boolean.TRUE.toString());
+    } else {
+      luceneSail.setParameter(LuceneSail.LUCENE_DIR_KEY, indexPath.toString());
+    }
+    luceneSail.setBaseSail(backendSail);
+    return luceneSail;
+  }
+
+  // The whole store is read again to rebuild the index, which is worth announcing on large stores
+  private static void rebuildFullTextIndex(final LuceneSail luceneSail, final String storePath)
+      throws IOException {
+    LOGGER.info("Rebuilding the full-text index of the store in {}", storePath);
+    try {
+      luceneSail.reindex();
+    } catch (final SailException e) {
+      throw new IOException(e);
+    }
+  }
+
+  // The native store rebuilds the indexes of an existing store on startup when they differ from
+  // the configured ones, which can take a while on large stores, so it is worth announcing
+  private static void logIndexMigration(final String storePath, final String tripleIndexes) {
+    final var propertiesFile = Path.of(storePath, TRIPLE_PROPERTIES_FILE);
+    if (!Files.isRegularFile(propertiesFile)) {
+      return;
+    }
+    final var properties = new Properties();
+    try (InputStream in = Files.newInputStream(propertiesFile)) {
+      properties.load(in);
+    } catch (final IOException e) {
+      LOGGER.warn("Could not read the indexes of the store in {}: {}", storePath, e.getMessage());
+      return;
+    }
+    final var existingIndexes = properties.getProperty(TRIPLE_INDEXES_PROPERTY);
+    if (existingIndexes != null
+        && !parseTripleIndexes(existingIndexes).equals(parseTripleIndexes(tripleIndexes))) {
+      LOGGER.info(
+          "Rebuilding the indexes of the store in {} from \"{}\" to \"{}\"",
+          storePath,
+          existingIndexes,
+          tripleIndexes
+      );
+    }
+  }
+
+  private static Set<String> parseTripleIndexes(final String tripleIndexes) {
+    return Arrays.stream(tripleIndexes.split(","))
+                 .map(String::trim)
+                 .filter(s -> !s.isEmpty())
+                 .collect(Collectors.toSet());
+  }
+
+  /**
+   * Creates a store appending every transaction to a write-ahead log in the given directory before
+   * applying it to the given store. The transactions found in the log are replayed first.
+   *
+   * @param store           the store to which the transactions are applied
+   * @param logPath         the directory of the log segments
+   * @param segmentSize     the size in bytes above which a new log segment is started
+   * @param persistentStore whether the store keeps its content across restarts, in which case
+   *                        only the transactions following the last checkpoint are replayed
+   * @param writeBehind     whether transactions are acknowledged once logged and applied to the
+   *                        store later, on a background thread
+   * @return the logging store
+   * @throws IOException if the log cannot be opened or replayed
+   */
+  public static RdfStore createWriteAheadLogStore(
+      final RdfStore store,
+      final String logPath,
+      final long segmentSize,
+      final boolean persistentStore,
+      final boolean writeBehind
+  ) throws IOException {
+    return new WriteAheadLogRdfStore(
+        store,
+        new WriteAheadLog(Path.of(logPath), segmentSize),
+        persistentStore,
+        writeBehind
+    );
+  }
+
+  /**
+   * Creates a store keeping the most recently read entity graphs of the given persistent store in
+   * an in-memory hot tier, to which changes are written through.
+   *
+   * @param store      the persistent store holding all the entity graphs
+   * @param maxEntries the maximum number of entity graphs in the hot tier
+   * @param maxBytes   the approximate maximum size in bytes of the entity graphs in the hot tier
+   * @return the tiered store
+   */
+  public static RdfStore createTieredStore(
+      final RdfStore store,
+      final int maxEntries,
+      final long maxBytes
+  ) {
+    return new TieredRdfStore(store, createInMemoryStore(), maxEntries, maxBytes);
+  }
+
+  public static RdfStore createCachingStore(
+      final RdfStore store,
+      final int maxEntries,
+      final long maxBytes
+  ) {
+    return new CachingRdfStore(store, maxEntries, maxBytes);
+  }
+
+  public static RdfStore createQueryCachingStore(
+      final RdfStore store,
+      final int maxEntries,
+      final long maxBytes
+  ) {
+    return new QueryCachingRdfStore(store, maxEntries, maxBytes);
+  }
+
+  public static RdfStore createNotifyingStore(
+      final RdfStore store,
+      final Consumer<IRI> mutationListener
+  ) {
+    return new NotifyingRdfStore(store, mutationListener);
+  }
+
+  public static AsyncRdfStore createAsyncStore(final Vertx vertx, final RdfStore store) {
+    return new BlockingAsyncRdfStore(vertx, store);
+  }
+
+  public static AsyncRdfStore createGroupCommitStore(final AsyncRdfStore store) {
+    return new GroupCommitAsyncRdfStore(store);
+  }
+
+  public static ReplicatingRdfStore createReplicatingStore(final RdfStore store) {
+    return new ReplicatingRdfStore(store);
+  }
+
+  /**
+   * Creates a server streaming the transactions committed to the given store to its followers.
+   *
+   * @param vertx             the Vert.x instance on which the server runs
+   * @param store             the store whose transactions are streamed
+   * @param heartbeatInterval the number of milliseconds between two heartbeats
+   * @return the replication server, which is to be started
+   */
+  public static ReplicationServer createReplicationServer(
+      final Vertx vertx,
+      final ReplicatingRdfStore store,
+      final long heartbeatInterval
+  ) {
+    return new ReplicationServer(vertx, store, heartbeatInterval);
+  }
+
+  /**
+   * Creates a client applying the transactions streamed by a primary to the given store.
+   *
+   * @param vertx             the Vert.x instance on which the client runs
+   * @param store             the store to which the transactions are applied
+   * @param reconnectInterval the number of milliseconds before connecting again to the primary
+   * @return the replication client, which is to be connected
+   */
+  public static ReplicationClient createReplicationClient(
+      final Vertx vertx,
+      final RdfStore store,
+      final long reconnectInterval
+  ) {
+    return new ReplicationClient(vertx, store, reconnectInterval);
   }
 }
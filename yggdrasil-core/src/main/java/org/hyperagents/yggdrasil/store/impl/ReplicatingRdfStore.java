@@ -0,0 +1,157 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+
+/**
+ * A decorator of an {@link RdfStore} numbering the transactions committed to the underlying store
+ * and passing them, in order, to the listeners feeding the followers of the store. A listener
+ * receives all the transactions following the sequence number returned when it subscribed.
+ */
+public class ReplicatingRdfStore implements RdfStore {
+  private final RdfStore store;
+  private final List<TransactionListener> listeners;
+  private volatile long sequence;
+
+  ReplicatingRdfStore(final RdfStore store) {
+    this.store = store;
+    // A listener may unsubscribe while receiving a transaction
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    return this.store.getEntityModel(entityIri);
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
+
+  @Override
+  public synchronized void applyChanges(final List<EntityChange> changes) throws IOException {
+    this.store.applyChanges(changes);
+    this.sequence++;
+    this.listeners.forEach(l -> l.onTransaction(this.sequence, changes));
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.store.close();
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the sequence number of the last committed transaction, without waiting for the
+   * transaction being committed, if any.
+   *
+   * @return the sequence number of the last transaction, 0 if none
+   */
+  public long getSequence() {
+    return this.sequence;
+  }
+
+  /**
+   * Registers a listener receiving the transactions committed from now on. The statements exported
+   * afterwards may already include some of these transactions, but replaying all of them on the
+   * export still gives the state of the store: every change sets the statements it adds or
+   * removes, whatever they were before, and the blank nodes keep their identifiers in the export
+   * and in the transactions, as long as both are written as by {@link WriteAheadLog}.
+   *
+   * @param listener the listener receiving the transactions
+   * @return the sequence number of the last transaction not passed to the listener
+   */
+  synchronized long subscribe(final TransactionListener listener) {
+    this.listeners.add(listener);
+    return this.sequence;
+  }
+
+  void unsubscribe(final TransactionListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Receives the transactions committed to the store, on the thread committing them, so it must
+   * not block.
+   */
+  @FunctionalInterface
+  interface TransactionListener {
+    void onTransaction(long sequence, List<EntityChange> changes);
+  }
+}
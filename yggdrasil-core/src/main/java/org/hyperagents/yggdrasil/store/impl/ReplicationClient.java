@@ -0,0 +1,348 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.parsetools.RecordParser;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleNamespace;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+
+/**
+ * Follows the stream of transactions sent by the {@link ReplicationServer} of a primary store and
+ * applies them, in order, to a store only read otherwise. The snapshot received when connecting
+ * replaces every entity graph of the primary and removes the others, so a follower catches up
+ * whatever it missed while disconnected, after which it reconnects on its own.
+ *
+ * <p>The snapshot is parsed and applied in batches of statements as it is received, the stream
+ * being paused while a batch is applied, so that it is never held in memory as a whole. A graph is
+ * replaced by the statements of the first batch containing it, and the statements of the next
+ * batches are added to it, so the follower is only consistent with the primary once the whole
+ * snapshot has been applied.</p>
+ *
+ * <p>The follower is caught up with the primary when it has applied all the transactions committed
+ * before the last heartbeat it received, and its lag is the time since the reception of that
+ * heartbeat, measured on its own clock.</p>
+ */
+public class ReplicationClient {
+  private static final Logger LOGGER = LogManager.getLogger(ReplicationClient.class);
+  private static final int SNAPSHOT_BATCH_SIZE = 1000;
+
+  private final Vertx vertx;
+  private final RdfStore store;
+  private final long reconnectInterval;
+  private final AtomicLong appliedTransactionCount;
+  private final AtomicLong snapshotCount;
+  private NetClient client;
+  private NetSocket socket;
+  private String host;
+  private int port;
+  private boolean closed;
+  private Future<Void> lastApplied;
+  private RecordParser parser;
+  private WriteAheadLog.TransactionReader transactionReader;
+  private long snapshotSequence;
+  private List<String> snapshotBatch;
+  private List<Namespace> snapshotNamespaces;
+  private Set<IRI> snapshotEntityIris;
+  private long receivedSequence;
+  private long appliedSequence;
+  private long heartbeatSequence;
+  private long heartbeatReceivedAt;
+  private volatile long caughtUpAt;
+
+  ReplicationClient(final Vertx vertx, final RdfStore store, final long reconnectInterval) {
+    this.vertx = vertx;
+    this.store = store;
+    this.reconnectInterval = reconnectInterval;
+    this.appliedTransactionCount = new AtomicLong();
+    this.snapshotCount = new AtomicLong();
+    this.lastApplied = Future.succeededFuture();
+    this.receivedSequence = -1;
+    this.appliedSequence = -1;
+    this.caughtUpAt = -1;
+  }
+
+  /**
+   * Starts following the primary, connecting to it again every time the connection is lost.
+   *
+   * @param host the host of the replication server of the primary
+   * @param port the port of the replication server of the primary
+   */
+  public void connect(final String host, final int port) {
+    this.host = host;
+    this.port = port;
+    this.client = this.vertx.createNetClient();
+    this.connectToPrimary();
+  }
+
+  /**
+   * Stops following the primary.
+   *
+   * @return a future completed once the transactions received have been applied
+   */
+  public Future<Void> close() {
+    this.closed = true;
+    if (this.socket != null) {
+      this.socket.close();
+    }
+    final var closing = this.client == null ? Future.<Void>succeededFuture() : this.client.close();
+    return closing.transform(r -> this.lastApplied.otherwiseEmpty());
+  }
+
+  /**
+   * Returns the number of milliseconds since the follower was last known to be caught up with the
+   * primary.
+   *
+   * @return the replication lag in milliseconds, {@link Long#MAX_VALUE} if the follower has never
+   *     been caught up
+   */
+  public long getLag() {
+    final var lastCaughtUp = this.caughtUpAt;
+    return lastCaughtUp < 0 ? Long.MAX_VALUE : System.currentTimeMillis() - lastCaughtUp;
+  }
+
+  /**
+   * Returns the number of transactions of the primary applied since the follower was created.
+   *
+   * @return the number of applied transactions
+   */
+  public long getAppliedTransactionCount() {
+    return this.appliedTransactionCount.get();
+  }
+
+  /**
+   * Returns the number of snapshots of the primary applied since the follower was created.
+   *
+   * @return the number of applied snapshots
+   */
+  public long getSnapshotCount() {
+    return this.snapshotCount.get();
+  }
+
+  private void connectToPrimary() {
+    if (this.closed) {
+      return;
+    }
+    this.client.connect(this.port, this.host).onSuccess(this::follow).onFailure(e -> {
+      LOGGER.warn(
+          "Could not connect to the primary at {}:{}: {}",
+          this.host,
+          this.port,
+          e.getMessage()
+      );
+      this.vertx.setTimer(this.reconnectInterval, id -> this.connectToPrimary());
+    });
+  }
+
+  private void follow(final NetSocket socket) {
+    LOGGER.info("Following the primary at {}:{}", this.host, this.port);
+    this.socket = socket;
+    this.transactionReader = new WriteAheadLog.TransactionReader();
+    this.snapshotBatch = null;
+    // The sequence numbers start over when the primary restarts
+    this.receivedSequence = -1;
+    this.appliedSequence = -1;
+    this.heartbeatReceivedAt = 0;
+    // Parsed from the socket itself, so that pausing the parser also stops reading from the socket
+    this.parser = RecordParser.newDelimited("\n", socket);
+    this.parser.handler(line -> this.handleLine(socket, line.toString(StandardCharsets.UTF_8)));
+    socket.closeHandler(v -> {
+      this.socket = null;
+      if (!this.closed) {
+        LOGGER.warn("Lost the connection to the primary at {}:{}", this.host, this.port);
+        this.vertx.setTimer(this.reconnectInterval, id -> this.connectToPrimary());
+      }
+    });
+  }
+
+  private void handleLine(final NetSocket socket, final String line) {
+    if (this.snapshotBatch != null) {
+      if (line.startsWith(ReplicationServer.END_SNAPSHOT)) {
+        final var sequence = parseSequence(line, ReplicationServer.END_SNAPSHOT);
+        final var statements = this.snapshotBatch;
+        final var namespaces = this.snapshotNamespaces;
+        final var entityIris = this.snapshotEntityIris;
+        this.snapshotBatch = null;
+        this.receivedSequence = sequence;
+        this.apply(socket, sequence, () -> {
+          final var changes = diffSnapshotBatch(statements, namespaces, entityIris);
+          changes.addAll(this.removeMissingEntities(entityIris));
+          return changes;
+        }).onSuccess(v -> {
+          if (socket == this.socket) {
+            this.snapshotCount.incrementAndGet();
+            LOGGER.info("Applied the snapshot of the primary at transaction {}", sequence);
+            this.onApplied(sequence);
+          }
+        });
+      } else if (line.startsWith(ReplicationServer.PREFIX)) {
+        final var separator = line.indexOf(": <");
+        this.snapshotNamespaces.add(new SimpleNamespace(
+            line.substring(ReplicationServer.PREFIX.length(), separator),
+            line.substring(separator + 3, line.length() - 1)
+        ));
+      } else {
+        this.snapshotBatch.add(line);
+        if (this.snapshotBatch.size() >= SNAPSHOT_BATCH_SIZE) {
+          final var statements = this.snapshotBatch;
+          final var namespaces = List.copyOf(this.snapshotNamespaces);
+          final var entityIris = this.snapshotEntityIris;
+          final var parser = this.parser;
+          this.snapshotBatch = new ArrayList<>();
+          // No more of the snapshot is read until this batch has been applied
+          parser.pause();
+          this.apply(
+              socket,
+              this.snapshotSequence,
+              () -> diffSnapshotBatch(statements, namespaces, entityIris)
+          ).onSuccess(v -> parser.resume());
+        }
+      }
+    } else if (line.startsWith(ReplicationServer.SNAPSHOT)) {
+      this.snapshotSequence = parseSequence(line, ReplicationServer.SNAPSHOT);
+      this.snapshotBatch = new ArrayList<>();
+      this.snapshotNamespaces = new ArrayList<>();
+      this.snapshotEntityIris = new HashSet<>();
+    } else if (line.startsWith(ReplicationServer.HEARTBEAT)) {
+      this.heartbeatSequence = parseSequence(line, ReplicationServer.HEARTBEAT);
+      this.heartbeatReceivedAt = System.currentTimeMillis();
+      if (this.appliedSequence >= this.heartbeatSequence) {
+        this.caughtUpAt = this.heartbeatReceivedAt;
+      }
+    } else {
+      final WriteAheadLog.Transaction transaction;
+      try {
+        transaction = this.transactionReader.readLine(line);
+      } catch (final IOException | RuntimeException e) {
+        LOGGER.error("Could not read a transaction from the primary: {}", e.getMessage());
+        socket.close();
+        return;
+      }
+      if (transaction == null || transaction.sequence() <= this.receivedSequence) {
+        return;
+      }
+      if (this.receivedSequence < 0 || transaction.sequence() != this.receivedSequence + 1) {
+        // Starting over from a new snapshot is the only way to recover the missing transactions
+        LOGGER.error("Missing transactions before transaction {}", transaction.sequence());
+        socket.close();
+        return;
+      }
+      this.receivedSequence = transaction.sequence();
+      this.apply(socket, transaction.sequence(), transaction::changes).onSuccess(v -> {
+        if (socket == this.socket) {
+          this.appliedTransactionCount.incrementAndGet();
+          this.onApplied(transaction.sequence());
+        }
+      });
+    }
+  }
+
+  /**
+   * Applies changes to the store after the ones received before them, on a worker thread.
+   */
+  private Future<Void> apply(
+      final NetSocket socket,
+      final long sequence,
+      final Callable<List<EntityChange>> changes
+  ) {
+    this.lastApplied = this.lastApplied
+        .transform(r -> this.vertx.<Void>executeBlocking(() -> {
+          this.store.applyChanges(changes.call());
+          return null;
+        }))
+        .onFailure(e -> {
+          LOGGER.error(
+              "Could not apply transaction {} of the primary: {}",
+              sequence,
+              e.getMessage()
+          );
+          socket.close();
+        });
+    return this.lastApplied;
+  }
+
+  /**
+   * Replaces the graphs of the entities a batch of the snapshot starts, and adds the statements of
+   * the batch to the graphs started by the previous ones.
+   */
+  private static List<EntityChange> diffSnapshotBatch(
+      final List<String> statements,
+      final List<Namespace> namespaces,
+      final Set<IRI> entityIris
+  ) throws IOException {
+    final Model batchModel = new LinkedHashModel();
+    // The blank nodes are sent as IRIs, so the ones of a graph split over several batches, or of
+    // a transaction already in the snapshot, are the same blank nodes
+    final var parser = Rio.createParser(RDFFormat.NQUADS);
+    parser.setRDFHandler(WriteAheadLog.readBlankNodesFromIris(new StatementCollector(batchModel)));
+    try {
+      parser.parse(new StringReader(String.join("\n", statements)));
+    } catch (final RDFParseException e) {
+      throw new IOException(e);
+    }
+    final var changes = new ArrayList<EntityChange>();
+    batchModel.contexts().forEach(c -> {
+      if (c instanceof IRI entityIri) {
+        final var entityModel =
+            new LinkedHashModel(batchModel.filter(null, null, null, entityIri));
+        namespaces.forEach(entityModel::setNamespace);
+        changes.add(
+            entityIris.add(entityIri)
+                ? new EntityChange.Replace(entityIri, entityModel)
+                : new EntityChange.Add(entityIri, entityModel)
+        );
+      }
+    });
+    return changes;
+  }
+
+  /**
+   * Removes the entities removed from the primary while the follower was not connected.
+   */
+  private List<EntityChange> removeMissingEntities(final Set<IRI> entityIris) throws IOException {
+    final var removedEntityIris = new HashSet<IRI>();
+    this.store.exportStatements(new AbstractRDFHandler() {
+      @Override
+      public void handleStatement(final Statement statement) {
+        if (statement.getContext() instanceof IRI entityIri && !entityIris.contains(entityIri)) {
+          removedEntityIris.add(entityIri);
+        }
+      }
+    });
+    return removedEntityIris.stream().<EntityChange>map(EntityChange.Remove::new).toList();
+  }
+
+  private void onApplied(final long sequence) {
+    this.appliedSequence = sequence;
+    if (this.heartbeatReceivedAt > 0 && sequence >= this.heartbeatSequence) {
+      this.caughtUpAt = this.heartbeatReceivedAt;
+    }
+  }
+
+  private static long parseSequence(final String line, final String prefix) {
+    return Long.parseLong(line.substring(prefix.length()).trim());
+  }
+}
@@ -0,0 +1,266 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
+import org.hyperagents.yggdrasil.store.EntityChange;
+
+/**
+ * Streams the transactions committed to a {@link ReplicatingRdfStore} to the followers connected
+ * over TCP. The stream is made of lines: a follower first receives a snapshot of the store, i.e.
+ * its namespaces and statements as N-Quads between a {@code # snapshot N} and a
+ * {@code # end-snapshot N} line, N being the sequence number of the last transaction it includes,
+ * the namespaces coming first so the statements can be applied as they are received, then every
+ * transaction committed
+ * after it, encoded as in the write-ahead log. Every so often, a {@code # heartbeat N} line gives
+ * the sequence number of the last committed transaction, from which the followers measure how far
+ * behind they are.
+ */
+public class ReplicationServer {
+  static final String SNAPSHOT = "# snapshot ";
+  static final String END_SNAPSHOT = "# end-snapshot ";
+  static final String HEARTBEAT = "# heartbeat ";
+  static final String PREFIX = "# prefix ";
+
+  private static final Logger LOGGER = LogManager.getLogger(ReplicationServer.class);
+  private static final int CHUNK_SIZE = 64 * 1024;
+  // A follower further behind than this is disconnected, and sent a new snapshot when it is back
+  private static final int MAX_QUEUED_BYTES = 64 * 1024 * 1024;
+
+  private final Vertx vertx;
+  private final ReplicatingRdfStore store;
+  private final long heartbeatInterval;
+  private final Set<Follower> followers;
+  private NetServer server;
+  private long heartbeatTimer;
+  private long lastFrameSequence;
+  private Buffer lastFrame;
+
+  ReplicationServer(
+      final Vertx vertx,
+      final ReplicatingRdfStore store,
+      final long heartbeatInterval
+  ) {
+    this.vertx = vertx;
+    this.store = store;
+    this.heartbeatInterval = heartbeatInterval;
+    this.followers = new HashSet<>();
+    this.heartbeatTimer = -1;
+  }
+
+  /**
+   * Starts accepting the connections of the followers.
+   *
+   * @param host the host on which the server listens
+   * @param port the port on which the server listens, 0 for any free port
+   * @return a future completed with the port on which the server listens
+   */
+  public Future<Integer> listen(final String host, final int port) {
+    this.server = this.vertx.createNetServer().connectHandler(this::handleFollower);
+    this.heartbeatTimer =
+        this.vertx.setPeriodic(this.heartbeatInterval, id -> this.sendHeartbeats());
+    return this.server
+        .listen(port, host)
+        .map(NetServer::actualPort)
+        .onSuccess(p -> LOGGER.info("Replication server listening on {}:{}", host, p));
+  }
+
+  /**
+   * Disconnects the followers and stops accepting connections.
+   *
+   * @return a future completed once the server is closed
+   */
+  public Future<Void> close() {
+    this.vertx.cancelTimer(this.heartbeatTimer);
+    this.followers.forEach(this.store::unsubscribe);
+    return this.server == null ? Future.succeededFuture() : this.server.close();
+  }
+
+  /**
+   * Returns the number of followers currently connected.
+   *
+   * @return the number of followers
+   */
+  public int getFollowerCount() {
+    return this.followers.size();
+  }
+
+  private void handleFollower(final NetSocket socket) {
+    final var follower = new Follower(socket);
+    socket.setWriteQueueMaxSize(MAX_QUEUED_BYTES);
+    socket.closeHandler(v -> {
+      this.followers.remove(follower);
+      this.store.unsubscribe(follower);
+      LOGGER.info("Follower {} disconnected", socket.remoteAddress());
+    });
+    socket.exceptionHandler(e -> LOGGER.warn(
+        "Replication to {} failed: {}",
+        socket.remoteAddress(),
+        e.getMessage()
+    ));
+    this.followers.add(follower);
+    LOGGER.info("Follower {} connected", socket.remoteAddress());
+    // Subscribing waits for the transaction being committed, if any
+    this.vertx
+        .executeBlocking(() -> {
+          follower.sendSnapshot(this.store.subscribe(follower));
+          return null;
+        }, false)
+        .onFailure(e -> {
+          LOGGER.error(
+              "Could not send a snapshot to {}: {}",
+              socket.remoteAddress(),
+              e.getMessage()
+          );
+          socket.close();
+        });
+  }
+
+  private void sendHeartbeats() {
+    final var heartbeat = Buffer.buffer(HEARTBEAT + this.store.getSequence() + "\n");
+    this.followers.forEach(f -> f.sendHeartbeat(heartbeat));
+  }
+
+  /**
+   * Encodes a transaction, only once for all the followers, which receive it one after the other.
+   */
+  private synchronized Buffer encode(final long sequence, final List<EntityChange> changes) {
+    if (this.lastFrame == null || this.lastFrameSequence != sequence) {
+      this.lastFrame = Buffer.buffer(WriteAheadLog.encodeTransaction(sequence, changes));
+      this.lastFrameSequence = sequence;
+    }
+    return this.lastFrame;
+  }
+
+  /**
+   * A connected follower, whose transactions are held back until its snapshot has been sent.
+   */
+  private final class Follower implements ReplicatingRdfStore.TransactionListener {
+    private final NetSocket socket;
+    private List<Buffer> pendingTransactions;
+
+    Follower(final NetSocket socket) {
+      this.socket = socket;
+      this.pendingTransactions = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized void onTransaction(final long sequence, final List<EntityChange> changes) {
+      final var transaction = ReplicationServer.this.encode(sequence, changes);
+      if (this.pendingTransactions != null) {
+        this.pendingTransactions.add(transaction);
+      } else if (this.socket.writeQueueFull()) {
+        LOGGER.warn("Follower {} is too far behind, disconnecting it", this.socket.remoteAddress());
+        ReplicationServer.this.store.unsubscribe(this);
+        this.socket.close();
+      } else {
+        this.socket.write(transaction);
+      }
+    }
+
+    synchronized void sendHeartbeat(final Buffer heartbeat) {
+      // The snapshot tells how far the follower is
+      if (this.pendingTransactions == null) {
+        this.socket.write(heartbeat);
+      }
+    }
+
+    void sendSnapshot(final long sequence) throws IOException {
+      try (var out = new SocketOutputStream(this.socket)) {
+        out.write((SNAPSHOT + sequence + "\n").getBytes(StandardCharsets.UTF_8));
+        ReplicationServer.this.store.exportStatements(
+            new RDFHandlerWrapper(
+                WriteAheadLog.writeBlankNodesAsIris(Rio.createWriter(RDFFormat.NQUADS, out))
+            ) {
+              // The namespaces are exported before any statement is written
+              @Override
+              public void handleNamespace(final String prefix, final String uri) {
+                try {
+                  out.write(
+                      (PREFIX + prefix + ": <" + uri + ">\n").getBytes(StandardCharsets.UTF_8)
+                  );
+                } catch (final IOException e) {
+                  throw new RDFHandlerException(e);
+                }
+              }
+            }
+        );
+        out.write((END_SNAPSHOT + sequence + "\n").getBytes(StandardCharsets.UTF_8));
+      }
+      synchronized (this) {
+        this.pendingTransactions.forEach(this.socket::write);
+        this.pendingTransactions = null;
+      }
+    }
+  }
+
+  /**
+   * An output stream writing to a socket in chunks, each one written before more data is
+   * accepted, so that the snapshot is exported at the pace of the follower. Since writing to this
+   * stream blocks, it must only be written from threads allowed to block.
+   */
+  private static final class SocketOutputStream extends OutputStream {
+    private final NetSocket socket;
+    private Buffer chunk;
+
+    SocketOutputStream(final NetSocket socket) {
+      super();
+      this.socket = socket;
+      this.chunk = Buffer.buffer(CHUNK_SIZE);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      this.chunk.appendByte((byte) b);
+      if (this.chunk.length() >= CHUNK_SIZE) {
+        this.flush();
+      }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      this.chunk.appendBytes(b, off, len);
+      if (this.chunk.length() >= CHUNK_SIZE) {
+        this.flush();
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (this.chunk.length() == 0) {
+        return;
+      }
+      final var sentChunk = this.chunk;
+      this.chunk = Buffer.buffer(CHUNK_SIZE);
+      try {
+        this.socket.write(sentChunk).toCompletionStage().toCompletableFuture().get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (final ExecutionException e) {
+        throw new IOException(e.getCause());
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.flush();
+    }
+  }
+}
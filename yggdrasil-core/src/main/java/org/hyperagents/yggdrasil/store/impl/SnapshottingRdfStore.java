@@ -0,0 +1,317 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.Rio;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+
+/**
+ * A decorator of an in-memory {@link Rdf4jStore} whose content survives restarts. A snapshot of
+ * the whole store is periodically written in the binary RDF format on a background thread, from a
+ * snapshot of the store, so changes keep being committed in the meantime. Every transaction is
+ * appended to a change log before being committed, and the change log is rotated when a snapshot
+ * starts and deleted once the snapshot is complete. When the store is created, the last snapshot
+ * is loaded and the remaining change logs are replayed in order. The changes committed after the
+ * change log was rotated may also be in the snapshot, which is read afterwards. Replaying them is
+ * harmless: every change sets the statements it adds or removes, whatever they were before, and
+ * the blank nodes keep their identifiers in the snapshot and in the change log, so replaying the
+ * changes already in the snapshot, followed by the later ones, ends in the same graphs.
+ */
+public class SnapshottingRdfStore implements RdfStore {
+  private static final Logger LOGGER = LogManager.getLogger(SnapshottingRdfStore.class);
+  private static final String SNAPSHOT_FILE = "snapshot.brf";
+  private static final String TEMPORARY_SNAPSHOT_FILE = "snapshot.brf.tmp";
+  private static final String CHANGE_LOG_PREFIX = "changes-";
+  private static final String CHANGE_LOG_SUFFIX = ".log";
+
+  private final Rdf4jStore store;
+  private final Path directory;
+  private final boolean forceSync;
+  private final Optional<ScheduledExecutorService> scheduler;
+  private final Object snapshotLock;
+  private final Object changeLogLock;
+  private final AtomicLong snapshotCount;
+  private final AtomicLong loggedTransactionCount;
+  private ChangeLog changeLog;
+  private long changeLogSequence;
+
+  SnapshottingRdfStore(
+      final Rdf4jStore store,
+      final Path directory,
+      final long snapshotInterval,
+      final boolean forceSync
+  ) throws IOException {
+    this.store = store;
+    this.directory = directory;
+    this.forceSync = forceSync;
+    this.snapshotLock = new Object();
+    this.changeLogLock = new Object();
+    this.snapshotCount = new AtomicLong();
+    this.loggedTransactionCount = new AtomicLong();
+    Files.createDirectories(directory);
+    this.recover();
+    // The last change log may end with an incomplete record, so it is never appended to
+    this.changeLog = new ChangeLog(this.getChangeLogFile(++this.changeLogSequence), forceSync);
+    if (snapshotInterval > 0) {
+      final var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final var thread = new Thread(r, "rdf-store-snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.scheduleWithFixedDelay(
+          this::takeScheduledSnapshot,
+          snapshotInterval,
+          snapshotInterval,
+          TimeUnit.SECONDS
+      );
+      this.scheduler = Optional.of(executor);
+    } else {
+      this.scheduler = Optional.empty();
+    }
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    return this.store.getEntityModel(entityIri);
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    synchronized (this.changeLogLock) {
+      // The changes are logged before being committed, so that no committed change is ever missing
+      // from the log, and a transaction failing to commit is removed from the log
+      this.changeLog.append(changes);
+      try {
+        this.store.applyChanges(changes);
+      } catch (final IOException | RuntimeException e) {
+        this.changeLog.discardLastRecord();
+        throw e;
+      }
+      this.loggedTransactionCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.scheduler.ifPresent(ScheduledExecutorService::shutdown);
+    try {
+      for (final var executor : this.scheduler.stream().toList()) {
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          LOGGER.warn("The snapshot in progress did not complete before closing the store");
+        }
+      }
+      this.takeSnapshot();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      LOGGER.info(
+          "Snapshotting store closed after {} snapshots and {} logged transactions",
+          this.snapshotCount.get(),
+          this.loggedTransactionCount.get()
+      );
+      synchronized (this.changeLogLock) {
+        this.changeLog.close();
+      }
+      this.store.close();
+    }
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the number of snapshots written since the store was created.
+   *
+   * @return the number of snapshots
+   */
+  public long getSnapshotCount() {
+    return this.snapshotCount.get();
+  }
+
+  /**
+   * Returns the number of transactions appended to the change logs since the store was created.
+   *
+   * @return the number of logged transactions
+   */
+  public long getLoggedTransactionCount() {
+    return this.loggedTransactionCount.get();
+  }
+
+  /**
+   * Writes a snapshot of the store and deletes the change logs it makes useless, unless nothing
+   * changed since the last snapshot.
+   *
+   * @throws IOException if the snapshot cannot be written
+   */
+  void takeSnapshot() throws IOException {
+    synchronized (this.snapshotLock) {
+      final long firstKeptSequence;
+      synchronized (this.changeLogLock) {
+        if (
+            this.changeLog.getRecordCount() == 0
+            && this.getChangeLogSequences().equals(List.of(this.changeLogSequence))
+        ) {
+          return;
+        }
+        this.changeLog.close();
+        this.changeLog =
+            new ChangeLog(this.getChangeLogFile(++this.changeLogSequence), this.forceSync);
+        firstKeptSequence = this.changeLogSequence;
+      }
+      final var start = System.nanoTime();
+      final var temporarySnapshot = this.directory.resolve(TEMPORARY_SNAPSHOT_FILE);
+      try (var out = new BufferedOutputStream(Files.newOutputStream(temporarySnapshot))) {
+        this.store.exportStatements(Rio.createWriter(RDFFormat.BINARY, out));
+      }
+      try (var channel = FileChannel.open(temporarySnapshot, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(
+          temporarySnapshot,
+          this.directory.resolve(SNAPSHOT_FILE),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE
+      );
+      for (final var sequence : this.getChangeLogSequences()) {
+        if (sequence < firstKeptSequence) {
+          Files.delete(this.getChangeLogFile(sequence));
+        }
+      }
+      this.snapshotCount.incrementAndGet();
+      LOGGER.info(
+          "Snapshot of the store written to {} in {} ms",
+          this.directory,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+      );
+    }
+  }
+
+  private void takeScheduledSnapshot() {
+    try {
+      this.takeSnapshot();
+    } catch (final IOException | RuntimeException e) {
+      // The change logs are kept, so nothing is lost until the next snapshot succeeds
+      LOGGER.error("Could not write a snapshot of the store: {}", e.getMessage());
+    }
+  }
+
+  private void recover() throws IOException {
+    final var start = System.nanoTime();
+    final var snapshot = this.directory.resolve(SNAPSHOT_FILE);
+    if (Files.isRegularFile(snapshot)) {
+      try (var in = new BufferedInputStream(Files.newInputStream(snapshot))) {
+        this.store.importStatements(in, RDFFormat.BINARY);
+      }
+    }
+    long records = 0;
+    for (final var sequence : this.getChangeLogSequences()) {
+      records += ChangeLog.replay(this.getChangeLogFile(sequence), this.store);
+      this.changeLogSequence = sequence;
+    }
+    LOGGER.info(
+        "Store recovered from {} in {} ms, replaying {} logged transactions",
+        this.directory,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+        records
+    );
+  }
+
+  private Path getChangeLogFile(final long sequence) {
+    return this.directory.resolve(CHANGE_LOG_PREFIX + sequence + CHANGE_LOG_SUFFIX);
+  }
+
+  private List<Long> getChangeLogSequences() throws IOException {
+    return LogFile.listSequences(this.directory, CHANGE_LOG_PREFIX, CHANGE_LOG_SUFFIX);
+  }
+}
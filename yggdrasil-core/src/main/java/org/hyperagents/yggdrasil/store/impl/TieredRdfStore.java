@@ -0,0 +1,366 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * An {@link RdfStore} made of two tiers: a persistent cold tier holding all the entity graphs and
+ * an in-memory hot tier holding the graphs of the most recently read entities. Reads of hot
+ * entities are answered by the hot tier, reads of cold entities by the cold tier, after which the
+ * entity is promoted to the hot tier. Changes are written through to the cold tier first and then
+ * applied to the graphs of the hot entities they concern. The hot tier is bounded both in number
+ * of entities and in their approximate size in bytes, demoting the least recently read entities
+ * first. Queries need all the graphs, so they are always evaluated on the cold tier.
+ */
+public class TieredRdfStore implements RdfStore {
+  private static final Logger LOGGER = LogManager.getLogger(TieredRdfStore.class);
+
+  private final RdfStore coldStore;
+  private final RdfStore hotStore;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LinkedHashMap<IRI, Long> hotEntities;
+  private final AtomicLong hotHitCount;
+  private final AtomicLong coldHitCount;
+  private final AtomicLong promotionCount;
+  private final AtomicLong demotionCount;
+  private long hotBytes;
+  private long generation;
+
+  TieredRdfStore(
+      final RdfStore coldStore,
+      final RdfStore hotStore,
+      final int maxEntries,
+      final long maxBytes
+  ) {
+    this.coldStore = coldStore;
+    this.hotStore = hotStore;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.hotEntities = new LinkedHashMap<>(16, 0.75f, true);
+    this.hotHitCount = new AtomicLong();
+    this.coldHitCount = new AtomicLong();
+    this.promotionCount = new AtomicLong();
+    this.demotionCount = new AtomicLong();
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    synchronized (this.hotEntities) {
+      if (this.hotEntities.containsKey(RdfModelUtils.fixEntityIri(entityIri))) {
+        return true;
+      }
+    }
+    return this.coldStore.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(entityIri);
+    final boolean hot;
+    final long generation;
+    synchronized (this.hotEntities) {
+      // Reading the entry also makes the entity the most recently used one
+      hot = this.hotEntities.get(fixedEntityIri) != null;
+      generation = this.generation;
+    }
+    if (hot) {
+      final var result = this.hotStore.getEntityModel(fixedEntityIri);
+      // The entity may have been demoted in the meantime, in which case the cold tier is read
+      if (result.isPresent()) {
+        this.hotHitCount.incrementAndGet();
+        return result;
+      }
+    }
+    this.coldHitCount.incrementAndGet();
+    final var result = this.coldStore.getEntityModel(fixedEntityIri);
+    if (result.isPresent()) {
+      this.promote(fixedEntityIri, result.get(), generation);
+    }
+    return result;
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    try {
+      this.coldStore.applyChanges(changes);
+    } catch (final IOException | RuntimeException e) {
+      // The hot graphs cannot be told apart from stale ones anymore, they are read again later
+      this.demote(changes.stream().map(c -> RdfModelUtils.fixEntityIri(c.entityIri())).toList());
+      throw e;
+    }
+    this.writeThrough(changes);
+  }
+
+  @Override
+  public void close() throws IOException {
+    LOGGER.info(
+        "Tiered store closed after {} hot hits, {} cold hits, {} promotions and {} demotions",
+        this.hotHitCount.get(),
+        this.coldHitCount.get(),
+        this.promotionCount.get(),
+        this.demotionCount.get()
+    );
+    synchronized (this.hotEntities) {
+      this.hotEntities.clear();
+      this.hotBytes = 0;
+    }
+    try {
+      this.hotStore.close();
+    } finally {
+      this.coldStore.close();
+    }
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    return this.coldStore.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.coldStore.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.coldStore.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    return this.coldStore.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the number of entity reads that were answered by the hot tier.
+   *
+   * @return the number of hot tier hits
+   */
+  public long getHotHitCount() {
+    return this.hotHitCount.get();
+  }
+
+  /**
+   * Returns the number of entity reads that had to be answered by the cold tier.
+   *
+   * @return the number of cold tier hits
+   */
+  public long getColdHitCount() {
+    return this.coldHitCount.get();
+  }
+
+  /**
+   * Returns the ratio of entity reads answered by the hot tier, or 0 if nothing was read yet.
+   *
+   * @return the hit ratio of the hot tier
+   */
+  public double getHotHitRatio() {
+    final var hotHits = this.hotHitCount.get();
+    final var reads = hotHits + this.coldHitCount.get();
+    return reads == 0 ? 0 : (double) hotHits / reads;
+  }
+
+  /**
+   * Returns the number of entities copied to the hot tier after being read from the cold tier.
+   *
+   * @return the number of promotions
+   */
+  public long getPromotionCount() {
+    return this.promotionCount.get();
+  }
+
+  /**
+   * Returns the number of entities dropped from the hot tier, either to respect its bounds or
+   * because a change could not be written through to them.
+   *
+   * @return the number of demotions
+   */
+  public long getDemotionCount() {
+    return this.demotionCount.get();
+  }
+
+  /**
+   * Returns the number of entities currently held by the hot tier.
+   *
+   * @return the number of hot entities
+   */
+  public int getSize() {
+    synchronized (this.hotEntities) {
+      return this.hotEntities.size();
+    }
+  }
+
+  private void promote(final IRI fixedEntityIri, final Model model, final long readGeneration) {
+    final var size = CachingRdfStore.estimateSize(model);
+    if (size > this.maxBytes) {
+      return;
+    }
+    synchronized (this.hotEntities) {
+      // A change happened while the model was being read, the model could be stale
+      if (readGeneration != this.generation || this.hotEntities.containsKey(fixedEntityIri)) {
+        return;
+      }
+      try {
+        this.hotStore.replaceEntityModel(fixedEntityIri, model);
+      } catch (final IOException e) {
+        LOGGER.warn("Could not promote {} to the hot tier: {}", fixedEntityIri, e.getMessage());
+        return;
+      }
+      this.hotEntities.put(fixedEntityIri, size);
+      this.hotBytes += size;
+      this.promotionCount.incrementAndGet();
+      this.demoteLeastRecentlyUsed();
+    }
+  }
+
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  private void writeThrough(final List<EntityChange> changes) {
+    synchronized (this.hotEntities) {
+      this.generation++;
+      final var hotChanges = new ArrayList<EntityChange>();
+      for (final var change : changes) {
+        final var fixedEntityIri = RdfModelUtils.fixEntityIri(change.entityIri());
+        final var size = this.hotEntities.get(fixedEntityIri);
+        if (size == null) {
+          continue;
+        }
+        hotChanges.add(change);
+        final long newSize = switch (change) {
+          case EntityChange.Add add -> size + CachingRdfStore.estimateSize(add.entityModel());
+          case EntityChange.RemoveStatements remove ->
+              Math.max(0, size - CachingRdfStore.estimateSize(remove.statements()));
+          case EntityChange.Replace replace -> CachingRdfStore.estimateSize(replace.entityModel());
+          case EntityChange.Remove remove -> 0;
+        };
+        this.hotBytes += newSize - size;
+        if (change instanceof EntityChange.Remove) {
+          this.hotEntities.remove(fixedEntityIri);
+        } else {
+          this.hotEntities.put(fixedEntityIri, newSize);
+        }
+      }
+      if (hotChanges.isEmpty()) {
+        return;
+      }
+      try {
+        this.hotStore.applyChanges(hotChanges);
+      } catch (final IOException e) {
+        LOGGER.warn("Could not write changes through to the hot tier: {}", e.getMessage());
+        this.demote(
+            hotChanges.stream().map(c -> RdfModelUtils.fixEntityIri(c.entityIri())).toList()
+        );
+        return;
+      }
+      this.demoteLeastRecentlyUsed();
+    }
+  }
+
+  private void demoteLeastRecentlyUsed() {
+    final var demotedEntityIris = new ArrayList<IRI>();
+    synchronized (this.hotEntities) {
+      final var iterator = this.hotEntities.entrySet().iterator();
+      while (
+          iterator.hasNext()
+          && (this.hotEntities.size() > this.maxEntries || this.hotBytes > this.maxBytes)
+      ) {
+        final var entry = iterator.next();
+        demotedEntityIris.add(entry.getKey());
+        this.hotBytes -= entry.getValue();
+        iterator.remove();
+      }
+      this.removeFromHotStore(demotedEntityIris);
+    }
+  }
+
+  private void demote(final List<IRI> fixedEntityIris) {
+    synchronized (this.hotEntities) {
+      this.generation++;
+      final var demotedEntityIris = new ArrayList<IRI>();
+      for (final var fixedEntityIri : fixedEntityIris) {
+        final var size = this.hotEntities.remove(fixedEntityIri);
+        if (size != null) {
+          this.hotBytes -= size;
+          demotedEntityIris.add(fixedEntityIri);
+        }
+      }
+      this.removeFromHotStore(demotedEntityIris);
+    }
+  }
+
+  private void removeFromHotStore(final List<IRI> fixedEntityIris) {
+    if (fixedEntityIris.isEmpty()) {
+      return;
+    }
+    this.demotionCount.addAndGet(fixedEntityIris.size());
+    try {
+      this.hotStore.applyChanges(
+          fixedEntityIris.stream().<EntityChange>map(EntityChange.Remove::new).toList()
+      );
+    } catch (final IOException e) {
+      // The graphs are no longer reachable, they only take some memory until being promoted again
+      LOGGER.warn("Could not remove demoted entities from the hot tier: {}", e.getMessage());
+    }
+  }
+}
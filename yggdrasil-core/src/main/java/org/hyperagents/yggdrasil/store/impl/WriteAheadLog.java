@@ -0,0 +1,482 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * An append-only log of the transactions applied to a store, split into segments of about the
+ * same size. Every transaction gets the next sequence number and is written as N-Quads, the
+ * statements of each change being in the named graph of its entity, between comment lines giving
+ * the sequence number of the transaction, the kind of each change and the namespaces of its model,
+ * so a segment remains a valid N-Quads document:
+ *
+ * <pre>
+ * # transaction 42
+ * # add &lt;http://localhost:8080/workspaces/test/&gt;
+ * # prefix hmas: &lt;https://purl.org/hmas/&gt;
+ * &lt;...#workspace&gt; &lt;...#type&gt; &lt;https://purl.org/hmas/Workspace&gt; &lt;...test/&gt; .
+ * # commit 42
+ * </pre>
+ *
+ * <p>A transaction without its commit line, e.g. because of a crash, is ignored. Appending a
+ * transaction does not wait for it to be synchronized to the disk, which is done by
+ * {@link #sync(long)}, so that many transactions appended at the same time only cost a single
+ * synchronization. A checkpoint records the sequence number up to which the transactions are known
+ * to be in the store, and deletes the segments that only hold earlier transactions.</p>
+ */
+class WriteAheadLog implements Closeable {
+  private static final Logger LOGGER = LogManager.getLogger(WriteAheadLog.class);
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".nq";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final String TEMPORARY_CHECKPOINT_FILE = "checkpoint.tmp";
+  private static final String TRANSACTION = "# transaction ";
+  private static final String COMMIT = "# commit ";
+  private static final String PREFIX = "# prefix ";
+  private static final String ADD = "add";
+  private static final String REMOVE_STATEMENTS = "remove-statements";
+  private static final String REPLACE = "replace";
+  private static final String REMOVE = "remove";
+  private static final String BLANK_NODE_NAMESPACE = "urn:yggdrasil:blank-node:";
+  private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
+  private final Path directory;
+  private final long segmentSize;
+  private final Object syncLock;
+  private LogFile segment;
+  private long lastSequence;
+  private long syncedSequence;
+  private long checkpoint;
+
+  WriteAheadLog(final Path directory, final long segmentSize) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.syncLock = new Object();
+    Files.createDirectories(directory);
+    final var checkpointFile = directory.resolve(CHECKPOINT_FILE);
+    this.checkpoint = Files.isRegularFile(checkpointFile)
+        ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim())
+        : 0;
+    this.lastSequence = this.checkpoint;
+    final var segments = this.getSegmentSequences();
+    if (!segments.isEmpty()) {
+      // A segment starts with the transaction following the last one of the previous segment
+      final long firstSequence = segments.get(segments.size() - 1);
+      this.lastSequence = Math.max(this.lastSequence, firstSequence - 1);
+      readSegment(this.getSegmentFile(firstSequence), 0, (sequence, changes) -> {
+        this.lastSequence = Math.max(this.lastSequence, sequence);
+      });
+    }
+    this.syncedSequence = this.lastSequence;
+    // The last segment may end with an incomplete transaction, so it is never appended to
+    this.openSegment();
+  }
+
+  /**
+   * Appends a transaction to the log, without synchronizing it to the disk.
+   *
+   * @param changes the changes of the transaction
+   * @return the sequence number of the transaction
+   * @throws IOException if the transaction cannot be written
+   */
+  synchronized long append(final List<EntityChange> changes) throws IOException {
+    if (this.segment.size() >= this.segmentSize) {
+      this.segment.close();
+      this.openSegment();
+    }
+    final var sequence = this.lastSequence + 1;
+    this.segment.append(
+        ByteBuffer.wrap(encodeTransaction(sequence, changes).getBytes(StandardCharsets.UTF_8))
+    );
+    this.lastSequence = sequence;
+    return sequence;
+  }
+
+  /**
+   * Removes the last appended transaction from the log, e.g. because it could not be applied to
+   * the store.
+   *
+   * @param sequence the sequence number of the last appended transaction
+   * @throws IOException if the transaction cannot be removed
+   */
+  synchronized void discard(final long sequence) throws IOException {
+    if (sequence != this.lastSequence) {
+      throw new IllegalStateException("Only the last transaction of the log can be discarded");
+    }
+    this.segment.discardLastRecord();
+    this.lastSequence--;
+  }
+
+  /**
+   * Synchronizes the log to the disk up to at least the given transaction. A single
+   * synchronization covers all the transactions appended before it started, so threads calling
+   * this method at the same time share it.
+   *
+   * @param sequence the sequence number of the transaction
+   * @throws IOException if the log cannot be synchronized
+   */
+  void sync(final long sequence) throws IOException {
+    synchronized (this.syncLock) {
+      if (this.syncedSequence >= sequence) {
+        return;
+      }
+      final LogFile lastSegment;
+      final long appendedSequence;
+      synchronized (this) {
+        lastSegment = this.segment;
+        appendedSequence = this.lastSequence;
+      }
+      try {
+        lastSegment.force();
+      } catch (final ClosedChannelException e) {
+        // The segment has been synchronized when it was closed
+      }
+      this.syncedSequence = appendedSequence;
+    }
+  }
+
+  /**
+   * Records that the transactions up to the given one are in the store, so the segments only
+   * holding earlier transactions are deleted.
+   *
+   * @param sequence the sequence number of the last transaction in the store
+   * @throws IOException if the checkpoint cannot be written
+   */
+  synchronized void checkpoint(final long sequence) throws IOException {
+    if (sequence <= this.checkpoint) {
+      return;
+    }
+    final var temporaryCheckpoint = this.directory.resolve(TEMPORARY_CHECKPOINT_FILE);
+    Files.writeString(temporaryCheckpoint, Long.toString(sequence), StandardCharsets.UTF_8);
+    Files.move(
+        temporaryCheckpoint,
+        this.directory.resolve(CHECKPOINT_FILE),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE
+    );
+    this.checkpoint = sequence;
+    final var segments = this.getSegmentSequences();
+    for (int i = 0; i < segments.size() - 1; i++) {
+      if (segments.get(i + 1) - 1 <= sequence) {
+        Files.deleteIfExists(this.getSegmentFile(segments.get(i)));
+      }
+    }
+  }
+
+  /**
+   * Returns the sequence number of the last transaction recorded by a checkpoint.
+   *
+   * @return the sequence number of the last checkpoint, 0 if none
+   */
+  synchronized long getCheckpoint() {
+    return this.checkpoint;
+  }
+
+  /**
+   * Returns the sequence number of the last transaction appended to the log.
+   *
+   * @return the sequence number of the last transaction, 0 if none
+   */
+  synchronized long getLastSequence() {
+    return this.lastSequence;
+  }
+
+  /**
+   * Reads the complete transactions following the given one, in order.
+   *
+   * @param afterSequence the sequence number after which the transactions are read
+   * @param handler       the handler receiving every transaction
+   * @return the number of transactions read
+   * @throws IOException if the log cannot be read or the handler fails
+   */
+  long replay(final long afterSequence, final TransactionHandler handler) throws IOException {
+    long transactions = 0;
+    for (final var segment : this.getSegmentSequences()) {
+      try {
+        transactions += readSegment(this.getSegmentFile(segment), afterSequence, handler);
+      } catch (final NoSuchFileException e) {
+        // The segment has been deleted by a checkpoint in the meantime
+        LOGGER.debug("Skipping the deleted segment {}", segment);
+      }
+    }
+    return transactions;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.segment.close();
+  }
+
+  private void openSegment() throws IOException {
+    // Any transaction in an existing segment starting with the next transaction is incomplete
+    this.segment = new LogFile(this.getSegmentFile(this.lastSequence + 1));
+  }
+
+  private Path getSegmentFile(final long firstSequence) {
+    return this.directory.resolve(
+        SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX
+    );
+  }
+
+  private List<Long> getSegmentSequences() throws IOException {
+    return LogFile.listSequences(this.directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+  }
+
+  /**
+   * Encodes a transaction as it is written to the log, which is a valid N-Quads document.
+   *
+   * @param sequence the sequence number of the transaction
+   * @param changes  the changes of the transaction
+   * @return the encoded transaction, ending with a line break
+   */
+  @SuppressWarnings("PMD.SwitchStmtsShouldHaveDefault")
+  static String encodeTransaction(final long sequence, final List<EntityChange> changes) {
+    final var out = new StringWriter();
+    out.append(TRANSACTION).append(Long.toString(sequence)).append('\n');
+    for (final var change : changes) {
+      final var fixedEntityIri = RdfModelUtils.fixEntityIri(change.entityIri());
+      switch (change) {
+        case EntityChange.Add add -> writeChange(out, ADD, fixedEntityIri, add.entityModel());
+        case EntityChange.RemoveStatements remove ->
+            writeChange(out, REMOVE_STATEMENTS, fixedEntityIri, remove.statements());
+        case EntityChange.Replace replace ->
+            writeChange(out, REPLACE, fixedEntityIri, replace.entityModel());
+        case EntityChange.Remove remove -> writeChange(out, REMOVE, fixedEntityIri, null);
+      }
+    }
+    out.append(COMMIT).append(Long.toString(sequence)).append('\n');
+    return out.toString();
+  }
+
+  private static void writeChange(
+      final StringWriter out,
+      final String kind,
+      final IRI fixedEntityIri,
+      final Model model
+  ) {
+    out.append("# ").append(kind).append(" <").append(fixedEntityIri.toString()).append(">\n");
+    if (model == null) {
+      return;
+    }
+    model.getNamespaces().forEach(n -> out.append(PREFIX)
+                                          .append(n.getPrefix())
+                                          .append(": <")
+                                          .append(n.getName())
+                                          .append(">\n"));
+    final var writer = writeBlankNodesAsIris(Rio.createWriter(RDFFormat.NQUADS, out));
+    writer.startRDF();
+    model.forEach(s -> writer.handleStatement(VALUE_FACTORY.createStatement(
+        s.getSubject(),
+        s.getPredicate(),
+        s.getObject(),
+        fixedEntityIri
+    )));
+    writer.endRDF();
+  }
+
+  /**
+   * Wraps a handler writing N-Quads so that it writes the blank nodes as IRIs holding their
+   * identifiers, since the N-Quads writer renames the identifiers it cannot write as they are.
+   * Read back by {@link #readBlankNodesFromIris(RDFHandler)}, the blank nodes keep the identifiers
+   * they have in the store, so a change applied again leaves the store unchanged instead of adding
+   * copies of its blank nodes.
+   *
+   * @param handler the handler writing the statements
+   * @return the handler to which the statements are given
+   */
+  static RDFHandler writeBlankNodesAsIris(final RDFHandler handler) {
+    return new RDFHandlerWrapper(handler) {
+      @Override
+      public void handleStatement(final Statement statement) {
+        super.handleStatement(VALUE_FACTORY.createStatement(
+            (Resource) toIri(statement.getSubject()),
+            statement.getPredicate(),
+            toIri(statement.getObject()),
+            (Resource) toIri(statement.getContext())
+        ));
+      }
+    };
+  }
+
+  /**
+   * Wraps a handler of parsed N-Quads so that it gets the blank nodes written by
+   * {@link #writeBlankNodesAsIris(RDFHandler)} back.
+   *
+   * @param handler the handler of the statements
+   * @return the handler to which the parsed statements are given
+   */
+  static RDFHandler readBlankNodesFromIris(final RDFHandler handler) {
+    return new RDFHandlerWrapper(handler) {
+      @Override
+      public void handleStatement(final Statement statement) {
+        super.handleStatement(VALUE_FACTORY.createStatement(
+            (Resource) toBlankNode(statement.getSubject()),
+            statement.getPredicate(),
+            toBlankNode(statement.getObject()),
+            (Resource) toBlankNode(statement.getContext())
+        ));
+      }
+    };
+  }
+
+  private static Value toIri(final Value value) {
+    return value instanceof BNode blankNode
+        ? VALUE_FACTORY.createIRI(
+            BLANK_NODE_NAMESPACE + URLEncoder.encode(blankNode.getID(), StandardCharsets.UTF_8)
+          )
+        : value;
+  }
+
+  private static Value toBlankNode(final Value value) {
+    return value instanceof IRI iri && iri.stringValue().startsWith(BLANK_NODE_NAMESPACE)
+        ? VALUE_FACTORY.createBNode(URLDecoder.decode(
+            iri.stringValue().substring(BLANK_NODE_NAMESPACE.length()),
+            StandardCharsets.UTF_8
+          ))
+        : value;
+  }
+
+  private static long readSegment(
+      final Path segment,
+      final long afterSequence,
+      final TransactionHandler handler
+  ) throws IOException {
+    long transactions = 0;
+    try (var in = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+      final var reader = new TransactionReader();
+      String line;
+      while ((line = in.readLine()) != null) {
+        final var transaction = reader.readLine(line);
+        if (transaction != null && transaction.sequence() > afterSequence) {
+          handler.apply(transaction.sequence(), transaction.changes());
+          transactions++;
+        }
+      }
+    }
+    return transactions;
+  }
+
+  /**
+   * Receives the transactions read from the log.
+   */
+  @FunctionalInterface
+  interface TransactionHandler {
+    void apply(long sequence, List<EntityChange> changes) throws IOException;
+  }
+
+  /**
+   * A transaction read from the log.
+   *
+   * @param sequence the sequence number of the transaction
+   * @param changes  the changes of the transaction
+   */
+  record Transaction(long sequence, List<EntityChange> changes) {}
+
+  /**
+   * Rebuilds encoded transactions from their lines.
+   */
+  static final class TransactionReader {
+    private long sequence = -1;
+    private List<EntityChange> changes = new ArrayList<>();
+    private String kind;
+    private IRI entityIri;
+    private final List<String[]> namespaces = new ArrayList<>();
+    private final StringBuilder quads = new StringBuilder();
+
+    /**
+     * Reads a line, returning the transaction it completes, if any.
+     */
+    Transaction readLine(final String line) throws IOException {
+      if (line.startsWith(TRANSACTION)) {
+        // Starting over discards the transaction left incomplete before, if any
+        this.sequence = Long.parseLong(line.substring(TRANSACTION.length()).trim());
+        this.changes = new ArrayList<>();
+        this.kind = null;
+        this.namespaces.clear();
+        this.quads.setLength(0);
+      } else if (this.sequence < 0) {
+        return null;
+      } else if (line.startsWith(COMMIT)) {
+        final var committedSequence = Long.parseLong(line.substring(COMMIT.length()).trim());
+        this.endChange();
+        final var transaction = committedSequence == this.sequence
+            ? new Transaction(this.sequence, this.changes)
+            : null;
+        this.sequence = -1;
+        return transaction;
+      } else if (line.startsWith(PREFIX)) {
+        final var separator = line.indexOf(": <");
+        this.namespaces.add(new String[] {
+            line.substring(PREFIX.length(), separator),
+            line.substring(separator + 3, line.length() - 1)
+        });
+      } else if (line.startsWith("# ")) {
+        this.endChange();
+        final var separator = line.indexOf(" <");
+        this.kind = line.substring(2, separator);
+        this.entityIri = RdfModelUtils.createIri(line.substring(separator + 2, line.length() - 1));
+      } else if (this.kind != null) {
+        this.quads.append(line).append('\n');
+      }
+      return null;
+    }
+
+    private void endChange() throws IOException {
+      if (this.kind == null) {
+        return;
+      }
+      final Model model = new LinkedHashModel();
+      final var parser = Rio.createParser(RDFFormat.NQUADS);
+      parser.setRDFHandler(readBlankNodesFromIris(new StatementCollector(model)));
+      try {
+        parser.parse(new StringReader(this.quads.toString()));
+      } catch (final RDFParseException e) {
+        throw new IOException(e);
+      }
+      this.namespaces.forEach(n -> model.setNamespace(n[0], n[1]));
+      this.changes.add(switch (this.kind) {
+        case ADD -> new EntityChange.Add(this.entityIri, model);
+        case REMOVE_STATEMENTS -> new EntityChange.RemoveStatements(this.entityIri, model);
+        case REPLACE -> new EntityChange.Replace(this.entityIri, model);
+        case REMOVE -> new EntityChange.Remove(this.entityIri);
+        default -> throw new IOException("Unknown change in the write-ahead log: " + this.kind);
+      });
+      this.kind = null;
+      this.namespaces.clear();
+      this.quads.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,385 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+
+/**
+ * A decorator of a store appending every transaction to a {@link WriteAheadLog} before applying
+ * it, so the transactions acknowledged before a crash are replayed when the store is created
+ * again. The transactions of a persistent store are checkpointed once they are applied, so only
+ * the ones following the last checkpoint are replayed, while the whole log is replayed into an
+ * in-memory store. Most of the replayed transactions may already be in a persistent store, which
+ * they leave unchanged, since their blank nodes are read back from the log with the identifiers
+ * they have in the store.
+ *
+ * <p>In write-behind mode, a transaction is acknowledged as soon as it is in the log, and applied
+ * to the store later on a background thread, together with the other transactions logged in the
+ * meantime. Reading an entity with changes not yet applied, or querying the store while some
+ * changes are not yet applied, waits for them, so reads never see an older state. If a batch of
+ * transactions cannot be applied, the store stops accepting changes, and the reads waiting for
+ * the transactions left unapplied fail, until the store is created again and the log replayed.</p>
+ */
+public class WriteAheadLogRdfStore implements RdfStore {
+  private static final Logger LOGGER = LogManager.getLogger(WriteAheadLogRdfStore.class);
+  // A checkpoint deletes segments, so it is only written after this many applied transactions
+  private static final long CHECKPOINT_INTERVAL = 1000;
+  private static final int REPLAY_BATCH_SIZE = 1000;
+
+  private final RdfStore store;
+  private final WriteAheadLog log;
+  private final boolean persistentStore;
+  private final Optional<ExecutorService> writeBehindExecutor;
+  private final LinkedBlockingQueue<LoggedTransaction> writeBehindQueue;
+  private final Map<IRI, Integer> pendingEntities;
+  private final Object writeLock;
+  private final Object checkpointLock;
+  private final AtomicLong loggedTransactionCount;
+  private final AtomicLong writeBehindBatchCount;
+  private final long replayedTransactionCount;
+  private long pendingTransactionCount;
+  private long appliedSequence;
+  private long checkpointSequence;
+  private volatile boolean failed;
+
+  WriteAheadLogRdfStore(
+      final RdfStore store,
+      final WriteAheadLog log,
+      final boolean persistentStore,
+      final boolean writeBehind
+  ) throws IOException {
+    this.store = store;
+    this.log = log;
+    this.persistentStore = persistentStore;
+    this.writeBehindQueue = new LinkedBlockingQueue<>();
+    this.pendingEntities = new HashMap<>();
+    this.writeLock = new Object();
+    this.checkpointLock = new Object();
+    this.loggedTransactionCount = new AtomicLong();
+    this.writeBehindBatchCount = new AtomicLong();
+    this.checkpointSequence = persistentStore ? log.getCheckpoint() : 0;
+    this.replayedTransactionCount = this.replay();
+    this.writeBehindExecutor = writeBehind
+        ? Optional.of(Executors.newSingleThreadExecutor(r -> {
+            final var thread = new Thread(r, "rdf-store-write-behind");
+            thread.setDaemon(true);
+            return thread;
+          }))
+        : Optional.empty();
+  }
+
+  @Override
+  public boolean containsEntityModel(final IRI entityIri) throws IOException {
+    this.awaitEntity(entityIri);
+    return this.store.containsEntityModel(entityIri);
+  }
+
+  @Override
+  public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+    this.awaitEntity(entityIri);
+    return this.store.getEntityModel(entityIri);
+  }
+
+  @Override
+  public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+  }
+
+  @Override
+  public void replaceEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+  }
+
+  @Override
+  public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+    this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+  }
+
+  @Override
+  public void removeEntityModel(final IRI entityIri) throws IOException {
+    this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+  }
+
+  @Override
+  public void applyChanges(final List<EntityChange> changes) throws IOException {
+    final long sequence;
+    // The transactions are applied in the order of the log, so replaying it gives the same state
+    synchronized (this.writeLock) {
+      if (this.failed) {
+        throw new IOException("The logged transactions could not all be applied to the store");
+      }
+      sequence = this.log.append(changes);
+      if (this.writeBehindExecutor.isPresent()) {
+        this.enqueue(new LoggedTransaction(sequence, changes));
+      } else {
+        try {
+          this.store.applyChanges(changes);
+        } catch (final IOException | RuntimeException e) {
+          this.log.discard(sequence);
+          throw e;
+        }
+      }
+    }
+    // Outside of the lock, so that concurrent transactions share a single synchronization
+    this.log.sync(sequence);
+    this.loggedTransactionCount.incrementAndGet();
+    if (this.writeBehindExecutor.isEmpty()) {
+      this.onApplied(sequence);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.writeBehindExecutor.ifPresent(ExecutorService::shutdown);
+      for (final var executor : this.writeBehindExecutor.stream().toList()) {
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+          LOGGER.warn("The logged transactions were not all applied before closing the store");
+        }
+      }
+      synchronized (this.checkpointLock) {
+        if (this.persistentStore && !this.failed) {
+          this.log.checkpoint(this.appliedSequence);
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      LOGGER.info(
+          "Write-ahead log closed after {} logged transactions, applied in {} write-behind batches",
+          this.loggedTransactionCount.get(),
+          this.writeBehindBatchCount.get()
+      );
+      this.log.close();
+      this.store.close();
+    }
+  }
+
+  @Override
+  public String queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType
+  ) throws IllegalArgumentException, IOException {
+    this.awaitAllEntities();
+    return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+  }
+
+  @Override
+  public void queryGraph(
+      final String query,
+      final List<String> defaultGraphUris,
+      final List<String> namedGraphUris,
+      final String responseContentType,
+      final OutputStream out,
+      final Runnable snapshotTaken
+  ) throws IllegalArgumentException, IOException {
+    this.awaitAllEntities();
+    this.store.queryGraph(
+        query,
+        defaultGraphUris,
+        namedGraphUris,
+        responseContentType,
+        out,
+        snapshotTaken
+    );
+  }
+
+  @Override
+  public void exportStatements(final RDFHandler handler) throws IOException {
+    this.awaitAllEntities();
+    this.store.exportStatements(handler);
+  }
+
+  @Override
+  public TriplePatternFragment getFragment(
+      final Resource subject,
+      final IRI predicate,
+      final Value object,
+      final long offset,
+      final int limit
+  ) throws IOException {
+    this.awaitAllEntities();
+    return this.store.getFragment(subject, predicate, object, offset, limit);
+  }
+
+  /**
+   * Returns the number of transactions appended to the log since the store was created.
+   *
+   * @return the number of logged transactions
+   */
+  public long getLoggedTransactionCount() {
+    return this.loggedTransactionCount.get();
+  }
+
+  /**
+   * Returns the number of transactions replayed from the log when the store was created.
+   *
+   * @return the number of replayed transactions
+   */
+  public long getReplayedTransactionCount() {
+    return this.replayedTransactionCount;
+  }
+
+  /**
+   * Returns the number of batches in which the logged transactions have been applied to the store
+   * in write-behind mode.
+   *
+   * @return the number of write-behind batches
+   */
+  public long getWriteBehindBatchCount() {
+    return this.writeBehindBatchCount.get();
+  }
+
+  private long replay() throws IOException {
+    final var start = System.nanoTime();
+    final var batch = new ArrayList<EntityChange>();
+    final var transactions = this.log.replay(this.checkpointSequence, (sequence, changes) -> {
+      batch.addAll(changes);
+      if (batch.size() >= REPLAY_BATCH_SIZE) {
+        this.store.applyChanges(batch);
+        batch.clear();
+      }
+    });
+    if (!batch.isEmpty()) {
+      this.store.applyChanges(batch);
+    }
+    this.appliedSequence = this.log.getLastSequence();
+    if (this.persistentStore && transactions > 0) {
+      this.log.checkpoint(this.appliedSequence);
+      this.checkpointSequence = this.appliedSequence;
+    }
+    LOGGER.info(
+        "Replayed {} transactions of the write-ahead log in {} ms",
+        transactions,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+    );
+    return transactions;
+  }
+
+  private void enqueue(final LoggedTransaction transaction) {
+    synchronized (this.pendingEntities) {
+      transaction.changes().forEach(c -> this.pendingEntities.merge(
+          RdfModelUtils.fixEntityIri(c.entityIri()),
+          1,
+          Integer::sum
+      ));
+      this.pendingTransactionCount++;
+    }
+    this.writeBehindQueue.add(transaction);
+    this.writeBehindExecutor.orElseThrow().execute(this::applyLoggedTransactions);
+  }
+
+  private void applyLoggedTransactions() {
+    final var transactions = new ArrayList<LoggedTransaction>();
+    this.writeBehindQueue.drainTo(transactions);
+    if (transactions.isEmpty()) {
+      // Already applied along with a previous transaction
+      return;
+    }
+    final var changes = transactions.stream().flatMap(t -> t.changes().stream()).toList();
+    // Once a batch has failed, the following ones are not applied either, to keep the log order
+    boolean applied = false;
+    if (!this.failed) {
+      try {
+        this.store.applyChanges(changes);
+        this.writeBehindBatchCount.incrementAndGet();
+        this.onApplied(transactions.get(transactions.size() - 1).sequence());
+        applied = true;
+      } catch (final IOException | RuntimeException e) {
+        // The transactions are kept in the log from now on, so they are replayed on restart
+        synchronized (this.checkpointLock) {
+          this.failed = true;
+        }
+        LOGGER.error(
+            "Could not apply {} logged transactions to the store: {}",
+            transactions.size(),
+            e.getMessage()
+        );
+      }
+    }
+    synchronized (this.pendingEntities) {
+      // The changes not applied stay pending, so that their entities are never read without them
+      if (applied) {
+        changes.forEach(c -> this.pendingEntities.computeIfPresent(
+            RdfModelUtils.fixEntityIri(c.entityIri()),
+            (k, v) -> v > 1 ? v - 1 : null
+        ));
+        this.pendingTransactionCount -= transactions.size();
+      }
+      this.pendingEntities.notifyAll();
+    }
+  }
+
+  private void onApplied(final long sequence) {
+    synchronized (this.checkpointLock) {
+      this.appliedSequence = Math.max(this.appliedSequence, sequence);
+      if (
+          this.persistentStore
+          && !this.failed
+          && this.appliedSequence - this.checkpointSequence >= CHECKPOINT_INTERVAL
+      ) {
+        try {
+          this.log.checkpoint(this.appliedSequence);
+          this.checkpointSequence = this.appliedSequence;
+        } catch (final IOException e) {
+          // The segments are kept, so the next checkpoint only has more to delete
+          LOGGER.warn("Could not checkpoint the write-ahead log: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  private void awaitEntity(final IRI entityIri) throws IOException {
+    final var fixedEntityIri = RdfModelUtils.fixEntityIri(entityIri);
+    synchronized (this.pendingEntities) {
+      while (this.pendingEntities.containsKey(fixedEntityIri)) {
+        this.awaitPendingChanges();
+      }
+    }
+  }
+
+  private void awaitAllEntities() throws IOException {
+    synchronized (this.pendingEntities) {
+      while (this.pendingTransactionCount > 0) {
+        this.awaitPendingChanges();
+      }
+    }
+  }
+
+  private void awaitPendingChanges() throws IOException {
+    if (this.failed) {
+      throw new IOException("The pending changes could not be applied to the store");
+    }
+    try {
+      this.pendingEntities.wait();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  private record LoggedTransaction(long sequence, List<EntityChange> changes) {}
+}
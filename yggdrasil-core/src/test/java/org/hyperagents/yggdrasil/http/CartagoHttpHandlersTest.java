@@ -58,8 +58,10 @@ public class CartagoHttpHandlersTest {
   private static final String FOCUS_PATH = MAIN_WORKSPACE_PATH + "/focus";
   private static final String ARTIFACTS_PATH = "/artifacts/";
   private static final String MAIN_ARTIFACTS_PATH = MAIN_WORKSPACE_PATH + ARTIFACTS_PATH;
+  private static final String FIND_ARTIFACTS_PATH = "/artifacts";
   private static final String COUNTER_ARTIFACT_NAME = "c0";
   private static final String CALLBACK_IRI = "http://localhost:8080/callback";
+  private static final String INCREMENT_ACTION_TYPE = "http://example.org/Increment";
   private static final String TEXT_TURTLE = "text/turtle";
   private static final String NAMES_EQUAL_MESSAGE = "The names should be equal";
   private static final String URIS_EQUAL_MESSAGE = "The URIs should be equal";
@@ -919,4 +921,66 @@ public class CartagoHttpHandlersTest {
             .toBuffer()
     );
   }
+
+  @Test
+  public void testGetArtifactsByActionTypeSucceeds(final VertxTestContext ctx)
+      throws InterruptedException {
+    final var artifactsRepresentation =
+        "<workspaces/test/artifacts/c0#artifact> a <https://purl.org/hmas/Artifact> .\n";
+    final var request = this.client.get(TEST_PORT, TEST_HOST, FIND_ARTIFACTS_PATH)
+        .addQueryParam("action", INCREMENT_ACTION_TYPE)
+        .addQueryParam("workspace", MAIN_WORKSPACE_NAME)
+        .send();
+    final var message = this.cartagoMessageQueue.take();
+    final var findArtifactsMessage = (CartagoMessage.FindArtifacts) message.body();
+    Assertions.assertEquals(
+        MAIN_WORKSPACE_NAME,
+        findArtifactsMessage.workspaceName(),
+        NAMES_EQUAL_MESSAGE
+    );
+    Assertions.assertEquals(
+        Optional.of(INCREMENT_ACTION_TYPE),
+        findArtifactsMessage.actionType(),
+        URIS_EQUAL_MESSAGE
+    );
+    Assertions.assertEquals(
+        Optional.empty(),
+        findArtifactsMessage.artifactType(),
+        URIS_EQUAL_MESSAGE
+    );
+    message.reply(artifactsRepresentation);
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(
+              HttpStatus.SC_OK,
+              r.statusCode(),
+              OK_STATUS_MESSAGE
+          );
+          Assertions.assertEquals(
+              artifactsRepresentation,
+              r.bodyAsString(),
+              TDS_EQUAL_MESSAGE
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetArtifactsFailsWithoutTypes(final VertxTestContext ctx) {
+    this.client.get(TEST_PORT, TEST_HOST, FIND_ARTIFACTS_PATH)
+        .addQueryParam("workspace", MAIN_WORKSPACE_NAME)
+        .send()
+        .onSuccess(r -> {
+          Assertions.assertEquals(
+              HttpStatus.SC_BAD_REQUEST,
+              r.statusCode(),
+              BAD_REQUEST_ERROR_STATUS_MESSAGE
+          );
+          Assertions.assertTrue(
+              this.cartagoMessageQueue.isEmpty(),
+              "No message should have been sent"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
 }
@@ -3,6 +3,7 @@ package org.hyperagents.yggdrasil.http;
 import com.google.common.net.HttpHeaders;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
@@ -124,6 +125,81 @@ public class DefaultHttpHandlersTest {
     this.helper.testGetResourceSucceeds(ctx, TEST_WORKSPACE_FILE, MAIN_WORKSPACE_PATH);
   }
 
+  @Test
+  public void testGetWorkspaceNegotiatesContentType(final VertxTestContext ctx)
+      throws InterruptedException {
+    final var representation =
+        "<http://localhost:8080/workspaces/test#workspace> "
+        + "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type> "
+        + "<https://purl.org/hmas/Workspace> .\n";
+    final var request = this.client.get(TEST_PORT, TEST_HOST, MAIN_WORKSPACE_PATH)
+        .putHeader(
+            HttpHeaders.ACCEPT,
+            "application/rdf+xml, application/n-triples;q=0.9, */*;q=0.1"
+        )
+        .send();
+    final var message = this.storeMessageQueue.take();
+    Assertions.assertEquals(
+        "application/n-triples",
+        message.headers().get(RdfStoreMessagebox.ACCEPT_HEADER),
+        "The store should be asked for the preferred supported content type"
+    );
+    message.reply(
+        Buffer.buffer(representation),
+        new DeliveryOptions().addHeader(HttpHeaders.CONTENT_TYPE, "application/n-triples")
+    );
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(HttpStatus.SC_OK, r.statusCode(), "Status code should be OK");
+          Assertions.assertEquals(
+              "application/n-triples",
+              r.getHeader(HttpHeaders.CONTENT_TYPE),
+              "The content type should be the negotiated one"
+          );
+          Assertions.assertEquals(
+              HttpHeaders.ACCEPT,
+              r.getHeader(HttpHeaders.VARY),
+              "The response should vary with the accepted content types"
+          );
+          Assertions.assertEquals(
+              representation,
+              r.bodyAsString(),
+              "The representation should be sent as replied by the store"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetArtifactsSendsCursorAndNextLink(final VertxTestContext ctx)
+      throws InterruptedException {
+    final var cursor = "http://localhost:8080/workspaces/test/artifacts/c0#artifact";
+    final var nextLink =
+        "<http://localhost:8080/workspaces/test/artifacts?cursor=c1>; rel=\"next\"";
+    final var request = this.client.get(TEST_PORT, TEST_HOST, MAIN_WORKSPACE_PATH + "/artifacts")
+        .addQueryParam("cursor", cursor)
+        .send();
+    final var message = this.storeMessageQueue.take();
+    Assertions.assertEquals(
+        new RdfStoreMessage.GetArtifacts(MAIN_WORKSPACE_NAME, Optional.of(cursor)),
+        message.body(),
+        "The store should be asked for the page after the cursor"
+    );
+    message.reply(
+        "<http://localhost:8080/workspaces/test#workspace> a <https://purl.org/hmas/Workspace> .",
+        new DeliveryOptions().addHeader("Link", nextLink)
+    );
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(HttpStatus.SC_OK, r.statusCode(), "Status code should be OK");
+          Assertions.assertTrue(
+              r.headers().getAll("Link").contains(nextLink),
+              "The link to the next page should be sent as replied by the store"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testGetWorkspaceRedirectsWithSlash(final VertxTestContext ctx) {
     this.helper.testResourceRequestRedirectsWithAddedSlash(
@@ -172,6 +248,92 @@ public class DefaultHttpHandlersTest {
     );
   }
 
+  @Test
+  public void testGetFragmentSendsPattern(final VertxTestContext ctx)
+      throws InterruptedException {
+    final var representation =
+        "<http://localhost:8080/#platform> a <https://purl.org/hmas/HypermediaMASPlatform> .";
+    final var request = this.client.get(TEST_PORT, TEST_HOST, "/fragments")
+        .addQueryParam("predicate", "http://www.w3.org/1999/02/22-rdf-syntax-ns#type")
+        .addQueryParam("object", "?o")
+        .addQueryParam("page", "2")
+        .send();
+    final var message = this.storeMessageQueue.take();
+    Assertions.assertEquals(
+        new RdfStoreMessage.GetFragment(
+            "",
+            "http://www.w3.org/1999/02/22-rdf-syntax-ns#type",
+            "?o",
+            2
+        ),
+        message.body(),
+        "The store should be asked for the requested page of the pattern"
+    );
+    message.reply(representation);
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(HttpStatus.SC_OK, r.statusCode(), "Status code should be OK");
+          Assertions.assertEquals(
+              representation,
+              r.bodyAsString(),
+              "The fragment should be sent as replied by the store"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetFragmentFailsWithBadPage(final VertxTestContext ctx) {
+    this.client.get(TEST_PORT, TEST_HOST, "/fragments")
+        .addQueryParam("page", "first")
+        .send()
+        .onSuccess(r -> Assertions.assertEquals(
+            HttpStatus.SC_BAD_REQUEST,
+            r.statusCode(),
+            "Status code should be BAD REQUEST"
+        ))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testSearchEntitiesSendsQuery(final VertxTestContext ctx)
+      throws InterruptedException {
+    final var representation =
+        "<http://localhost:8080/search?q=test> a <http://www.w3.org/ns/hydra/core#Collection> .";
+    final var request = this.client.get(TEST_PORT, TEST_HOST, "/search")
+        .addQueryParam("q", "test")
+        .send();
+    final var message = this.storeMessageQueue.take();
+    Assertions.assertEquals(
+        new RdfStoreMessage.SearchEntities("test"),
+        message.body(),
+        "The store should be asked for the entities matching the query"
+    );
+    message.reply(representation);
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(HttpStatus.SC_OK, r.statusCode(), "Status code should be OK");
+          Assertions.assertEquals(
+              representation,
+              r.bodyAsString(),
+              "The results should be sent as replied by the store"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testSearchEntitiesFailsWithoutQuery(final VertxTestContext ctx) {
+    this.client.get(TEST_PORT, TEST_HOST, "/search")
+        .send()
+        .onSuccess(r -> Assertions.assertEquals(
+            HttpStatus.SC_BAD_REQUEST,
+            r.statusCode(),
+            "Status code should be BAD REQUEST"
+        ))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testPostTurtleWorkspacesSucceeds(final VertxTestContext ctx)
       throws InterruptedException, URISyntaxException, IOException {
@@ -383,7 +545,7 @@ public class DefaultHttpHandlersTest {
     final var updateResourceMessage = (RdfStoreMessage.UpdateEntity) secondMessage.body();
     Assertions.assertEquals(
         input,
-        updateResourceMessage.entityRepresentation(),
+        updateResourceMessage.entityRepresentation().toString(),
         TDS_EQUAL_MESSAGE
     );
     Assertions.assertEquals(
@@ -503,6 +665,59 @@ public class DefaultHttpHandlersTest {
     );
   }
 
+  @Test
+  public void testPutBinaryRdfArtifactSucceeds(final VertxTestContext ctx)
+      throws URISyntaxException, IOException, InterruptedException {
+    final var turtleRepresentation = Files.readString(
+        Path.of(ClassLoader.getSystemResource(COUNTER_ARTIFACT_FILE).toURI()),
+        StandardCharsets.UTF_8
+    );
+    // Not a valid binary RDF representation, but one with bytes that are not UTF-8 characters
+    final var binaryRepresentation = new byte[] {'B', 'R', 'D', 'F', 0, 0, 0, 1, -1, -128, 127};
+    final var request = this.client.put(TEST_PORT, TEST_HOST, COUNTER_ARTIFACT_PATH)
+        .putHeader(AGENT_WEBID, TEST_AGENT_ID)
+        .putHeader(HttpHeaders.CONTENT_TYPE, "application/x-binary-rdf")
+        .sendBuffer(Buffer.buffer(binaryRepresentation));
+    final var message = this.storeMessageQueue.take();
+    Assertions.assertEquals(
+        "application/x-binary-rdf",
+        message.headers().get(RdfStoreMessagebox.CONTENT_TYPE_HEADER),
+        "The store should be told the content type of the representation"
+    );
+    Assertions.assertArrayEquals(
+        binaryRepresentation,
+        ((RdfStoreMessage.ReplaceEntity) message.body())
+            .entityRepresentation()
+            .getBytes(),
+        "The representation should be sent to the store byte for byte"
+    );
+    message.reply(turtleRepresentation);
+    request
+        .onSuccess(r -> {
+          Assertions.assertEquals(HttpStatus.SC_OK, r.statusCode(), "Status code should be OK");
+          Assertions.assertEquals(
+              TURTLE_CONTENT_TYPE,
+              r.getHeader(HttpHeaders.CONTENT_TYPE),
+              "The updated representation should be sent back in Turtle"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testPutRdfXmlArtifactFailsWithUnsupportedMediaType(final VertxTestContext ctx) {
+    this.client.put(TEST_PORT, TEST_HOST, COUNTER_ARTIFACT_PATH)
+        .putHeader(AGENT_WEBID, TEST_AGENT_ID)
+        .putHeader(HttpHeaders.CONTENT_TYPE, "application/rdf+xml")
+        .sendBuffer(Buffer.buffer("<rdf:RDF/>"))
+        .onSuccess(r -> Assertions.assertEquals(
+            HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE,
+            r.statusCode(),
+            "Status code should be UNSUPPORTED MEDIA TYPE"
+        ))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testPutTurtleArtifactFailsWithNotFound(final VertxTestContext ctx)
       throws URISyntaxException, IOException, InterruptedException {
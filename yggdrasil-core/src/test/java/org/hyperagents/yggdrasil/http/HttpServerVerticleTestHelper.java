@@ -197,7 +197,7 @@ public final class HttpServerVerticleTestHelper {
     );
     Assertions.assertEquals(
         expectedRepresentation,
-        updateResourceMessage.entityRepresentation(),
+        updateResourceMessage.entityRepresentation().toString(),
         TDS_EQUAL_MESSAGE
     );
     message.reply(expectedRepresentation);
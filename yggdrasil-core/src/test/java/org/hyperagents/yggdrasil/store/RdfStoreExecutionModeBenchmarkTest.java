@@ -0,0 +1,190 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
+import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
+import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
+import org.hyperagents.yggdrasil.utils.RdfStoreConfig;
+import org.hyperagents.yggdrasil.utils.WebSubConfig;
+import org.hyperagents.yggdrasil.utils.impl.EnvironmentConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.HttpInterfaceConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.WebSubConfigImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the latency of concurrent GETs on a filesystem store for every execution mode of the
+ * store verticle. A single event loop is used, so that the store operations run in the
+ * event-loop mode delay the replies and any other handler on that loop, which is measured by
+ * echoing messages on the same loop while the GETs are in flight.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class RdfStoreExecutionModeBenchmarkTest {
+  private static final String DEFAULT_CONFIG_VALUE = "default";
+  private static final String PING_ADDRESS = "benchmark.ping";
+  private static final int ARTIFACTS = 200;
+  private static final int REQUESTS = 10_000;
+  private static final int CONCURRENCY = 64;
+  private static final int PING_INTERVAL = 10;
+
+  @Test
+  public void testConcurrentGetLatency(@TempDir final Path storeDirectory) throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    for (final var mode : RdfStoreConfig.ExecutionMode.values()) {
+      final var result = this.runBenchmark(
+          mode,
+          Files.createDirectory(storeDirectory.resolve(mode.name())),
+          artifactInput
+      );
+      System.out.printf(
+          "%s: GET p50 %d us, p99 %d us; co-located handler p99 %d us%n",
+          mode,
+          percentile(result.latencies(), 0.5) / 1000,
+          percentile(result.latencies(), 0.99) / 1000,
+          percentile(result.pingLatencies(), 0.99) / 1000
+      );
+      Assertions.assertEquals(0, result.failures(), "All the GETs should succeed in " + mode);
+    }
+  }
+
+  private BenchmarkResult runBenchmark(
+      final RdfStoreConfig.ExecutionMode mode,
+      final Path storePath,
+      final String artifactInput
+  ) throws InterruptedException, IOException, URISyntaxException {
+    final var vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+    try {
+      this.setUpSharedData(vertx);
+      final var config = JsonObject.of(
+          "rdf-store",
+          JsonObject.of(
+              "in-memory", false,
+              "store-path", storePath.toString(),
+              "execution-mode", mode.name(),
+              "representation-cache", JsonObject.of("enabled", false)
+          )
+      );
+      await(vertx.deployVerticle(
+          new RdfStoreVerticle(),
+          RdfStoreVerticle.getDeploymentOptions(config)
+      ));
+      vertx.eventBus().<String>consumer(PING_ADDRESS, m -> m.reply(m.body()));
+
+      final var storeMessagebox = new RdfStoreMessagebox(vertx.eventBus());
+      await(storeMessagebox.sendMessage(new RdfStoreMessage.CreateWorkspace(
+          "http://localhost:8080/workspaces/",
+          "test",
+          Optional.empty(),
+          Files.readString(
+              Path.of(ClassLoader.getSystemResource("test_workspace_td.ttl").toURI()),
+              StandardCharsets.UTF_8
+          )
+      )));
+      for (int i = 0; i < ARTIFACTS; i++) {
+        await(storeMessagebox.sendMessage(new RdfStoreMessage.CreateArtifact(
+            "http://localhost:8080/workspaces/test/artifacts/",
+            "test",
+            "c" + i,
+            artifactInput.replace("artifacts/c0", "artifacts/c" + i)
+        )));
+      }
+
+      final var latencies = new long[REQUESTS];
+      final var pingLatencies = new long[REQUESTS / PING_INTERVAL];
+      final var failures = new AtomicInteger();
+      final var inFlight = new Semaphore(CONCURRENCY);
+      final var done = new CountDownLatch(REQUESTS + pingLatencies.length);
+      for (int i = 0; i < REQUESTS; i++) {
+        inFlight.acquire();
+        final var request = i;
+        final var start = System.nanoTime();
+        storeMessagebox
+            .sendMessage(new RdfStoreMessage.GetEntity(
+                "http://localhost:8080/workspaces/test/artifacts/c" + (i % ARTIFACTS)
+            ))
+            .onComplete(r -> {
+              latencies[request] = System.nanoTime() - start;
+              if (r.failed()) {
+                failures.incrementAndGet();
+              }
+              inFlight.release();
+              done.countDown();
+            });
+        if (i % PING_INTERVAL == 0) {
+          vertx.eventBus()
+               .request(PING_ADDRESS, "ping")
+               .onComplete(r -> {
+                 pingLatencies[request / PING_INTERVAL] = System.nanoTime() - start;
+                 done.countDown();
+               });
+        }
+      }
+      Assertions.assertTrue(done.await(5, TimeUnit.MINUTES), "The benchmark should complete");
+      return new BenchmarkResult(latencies, pingLatencies, failures.get());
+    } finally {
+      await(vertx.close());
+    }
+  }
+
+  private void setUpSharedData(final Vertx vertx) {
+    vertx.sharedData()
+         .getLocalMap("environment-config")
+         .put(
+             DEFAULT_CONFIG_VALUE,
+             new EnvironmentConfigImpl(JsonObject.of(
+                 "environment-config",
+                 JsonObject.of("enabled", true, "ontology", "td")
+             ))
+         );
+    final var httpConfig = new HttpInterfaceConfigImpl(JsonObject.of());
+    vertx.sharedData()
+         .<String, HttpInterfaceConfig>getLocalMap("http-config")
+         .put(DEFAULT_CONFIG_VALUE, httpConfig);
+    vertx.sharedData()
+         .<String, WebSubConfig>getLocalMap("notification-config")
+         .put(DEFAULT_CONFIG_VALUE, new WebSubConfigImpl(JsonObject.of(), httpConfig));
+  }
+
+  private static <T> T await(final Future<T> future) throws InterruptedException {
+    final var latch = new CountDownLatch(1);
+    future.onComplete(r -> latch.countDown());
+    Assertions.assertTrue(latch.await(1, TimeUnit.MINUTES), "The operation should complete");
+    Assertions.assertTrue(
+        future.succeeded(),
+        () -> "The operation should succeed, but failed with " + future.cause()
+    );
+    return future.result();
+  }
+
+  private static long percentile(final long[] latencies, final double percentile) {
+    return latencies[(int) Math.ceil(percentile * latencies.length) - 1];
+  }
+
+  private record BenchmarkResult(long[] latencies, long[] pingLatencies, int failures) {
+    BenchmarkResult {
+      Arrays.sort(latencies);
+      Arrays.sort(pingLatencies);
+    }
+  }
+}
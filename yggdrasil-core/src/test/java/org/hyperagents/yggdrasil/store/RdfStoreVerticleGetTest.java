@@ -5,14 +5,25 @@ import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.http.HttpHeaders;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messages.HttpNotificationDispatcherMessage;
@@ -43,6 +54,8 @@ public class RdfStoreVerticleGetTest {
   private static final String TEST_WORKSPACE_TTL = "test_workspace_td.ttl";
   private static final String TEST_GETENTITYIRI_TTL = "test_getEntityIri_testWorkspace_td.ttl";
   private static final String REPRESENTATION_EQUAL = "Representations should be equal";
+  private static final String BASE_URI = "http://localhost:8080/";
+  private static final String PLATFORM_TYPE = "https://purl.org/hmas/HypermediaMASPlatform";
 
 
 
@@ -352,6 +365,96 @@ public class RdfStoreVerticleGetTest {
         .onComplete(ctx.succeedingThenComplete());
   }
 
+  @Test
+  public void testGetPlatformResourceInNTriples(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var expectedPlatformModel = Rio.parse(
+        new StringReader(Files.readString(
+            Path.of(ClassLoader.getSystemResource("platform_td.ttl").toURI()),
+            StandardCharsets.UTF_8
+        )),
+        "http://localhost:8080/",
+        RDFFormat.TURTLE
+    );
+    final var turtleTag = new AtomicReference<String>();
+
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetEntity("http://localhost:8080/"), "text/turtle")
+        .onSuccess(r -> turtleTag.set(r.headers().get(HttpHeaders.ETAG)));
+    this.storeMessagebox
+        .sendMessage(
+            new RdfStoreMessage.GetEntity("http://localhost:8080/"),
+            "application/n-triples"
+        )
+        .onSuccess(r -> {
+          Assertions.assertEquals(
+              "application/n-triples",
+              r.headers().get(HttpHeaders.CONTENT_TYPE),
+              "The representation should be in the requested content type"
+          );
+          Assertions.assertNotEquals(
+              turtleTag.get(),
+              r.headers().get(HttpHeaders.ETAG),
+              "The representations in different formats should have different entity tags"
+          );
+          try {
+            Assertions.assertTrue(
+                Models.isomorphic(
+                    expectedPlatformModel,
+                    Rio.parse(
+                        new StringReader(r.body().toString(StandardCharsets.UTF_8)),
+                        RDFFormat.NTRIPLES
+                    )
+                ),
+                REPRESENTATION_EQUAL
+            );
+          } catch (final IOException e) {
+            Assertions.fail(e);
+          }
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetPlatformResourceInBinaryRdf(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var expectedPlatformModel = Rio.parse(
+        new StringReader(Files.readString(
+            Path.of(ClassLoader.getSystemResource("platform_td.ttl").toURI()),
+            StandardCharsets.UTF_8
+        )),
+        "http://localhost:8080/",
+        RDFFormat.TURTLE
+    );
+    this.storeMessagebox
+        .sendMessage(
+            new RdfStoreMessage.GetEntity("http://localhost:8080/"),
+            "application/x-binary-rdf"
+        )
+        .onSuccess(r -> {
+          Assertions.assertEquals(
+              "application/x-binary-rdf",
+              r.headers().get(HttpHeaders.CONTENT_TYPE),
+              "The representation should be in the requested content type"
+          );
+          try {
+            Assertions.assertTrue(
+                Models.isomorphic(
+                    expectedPlatformModel,
+                    Rio.parse(
+                        new ByteArrayInputStream(r.body().getBytes()),
+                        RDFFormat.BINARY
+                    )
+                ),
+                REPRESENTATION_EQUAL
+            );
+          } catch (final IOException e) {
+            Assertions.fail(e);
+          }
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testGetMissingEntity(final VertxTestContext ctx) {
     this.storeMessagebox
@@ -473,4 +576,173 @@ public class RdfStoreVerticleGetTest {
 
     ctx.completeNow();
   }
+
+  @Test
+  public void testGetWorkspacesEntityTagChangesWithContent(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var workspaceInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource(TEST_WORKSPACE_TTL).toURI()),
+        StandardCharsets.UTF_8
+    );
+    final var firstTag = new AtomicReference<String>();
+
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces("http://localhost:8080/"))
+        .onSuccess(r -> firstTag.set(r.headers().get(HttpHeaders.ETAG)));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces("http://localhost:8080/"))
+        .onSuccess(r -> Assertions.assertEquals(
+            firstTag.get(),
+            r.headers().get(HttpHeaders.ETAG),
+            "The entity tag should not change if the workspaces did not"
+        ));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME,
+            Optional.empty(),
+            workspaceInput
+        ));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces("http://localhost:8080/"))
+        .onSuccess(r -> {
+          Assertions.assertNotNull(firstTag.get(), "The entity tag should be present");
+          Assertions.assertNotEquals(
+              firstTag.get(),
+              r.headers().get(HttpHeaders.ETAG),
+              "The entity tag should change if the workspaces did"
+          );
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetSubWorkspacesAfterDeletingSubWorkspace(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var workspaceInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource(TEST_WORKSPACE_TTL).toURI()),
+        StandardCharsets.UTF_8
+    );
+    final var oneContainedWorkspace = "@base<http://localhost:8080/>."
+        + "@prefixhmas:<https://purl.org/hmas/>."
+        + "<workspaces/test#workspace>ahmas:Workspace;"
+        + "hmas:contains<workspaces/test2#workspace>."
+        + "<workspaces/test2#workspace>ahmas:Workspace.";
+
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME,
+            Optional.empty(),
+            workspaceInput
+        ));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME + "2",
+            Optional.of(WORKSPACES_URI + WORKSPACE_NAME),
+            "<#workspace> a <https://purl.org/hmas/Workspace> ."
+        ));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME + "3",
+            Optional.of(WORKSPACES_URI + WORKSPACE_NAME),
+            "<#workspace> a <https://purl.org/hmas/Workspace> ."
+        ));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces(WORKSPACES_URI + WORKSPACE_NAME));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.DeleteEntity(WORKSPACE_NAME + "3", null));
+
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces(WORKSPACES_URI + WORKSPACE_NAME))
+        .onSuccess(r -> ctx.verify(() -> Assertions.assertEquals(
+            oneContainedWorkspace,
+            r.body().replaceAll("\\s", ""),
+            REPRESENTATION_EQUAL
+        )))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetFragmentChangesWithStore(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var workspaceInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource(TEST_WORKSPACE_TTL).toURI()),
+        StandardCharsets.UTF_8
+    );
+    final var fragmentIri = Values.iri(
+        BASE_URI + "fragments?predicate="
+        + URLEncoder.encode(RDF.TYPE.stringValue(), StandardCharsets.UTF_8)
+    );
+    final var workspaceType = Values.iri("https://purl.org/hmas/Workspace");
+    final var firstTag = new AtomicReference<String>();
+    final var fragment = new RdfStoreMessage.GetFragment("", RDF.TYPE.stringValue(), "", 1);
+
+    this.storeMessagebox
+        .sendMessage(fragment)
+        .onSuccess(r -> ctx.verify(() -> {
+          firstTag.set(r.headers().get(HttpHeaders.ETAG));
+          final var model = Rio.parse(new StringReader(r.body()), BASE_URI, RDFFormat.TURTLE);
+          Assertions.assertTrue(
+              model.contains(null, RDF.TYPE, Values.iri(PLATFORM_TYPE)),
+              "The fragment should hold the matching triples"
+          );
+          Assertions.assertFalse(
+              model.contains(null, RDF.TYPE, workspaceType),
+              "The fragment should not hold triples not in the store"
+          );
+          Assertions.assertTrue(
+              model.contains(fragmentIri, HYDRA.FIRST, fragmentIri),
+              "The fragment should link to its first page"
+          );
+          Assertions.assertFalse(
+              model.contains(fragmentIri, HYDRA.NEXT, null),
+              "The only page of the fragment should not link to a next one"
+          );
+          Assertions.assertTrue(
+              model.contains(null, HYDRA.TEMPLATE, null),
+              "The fragment should describe how to request other fragments"
+          );
+        }));
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME,
+            Optional.empty(),
+            workspaceInput
+        ));
+    this.storeMessagebox
+        .sendMessage(fragment)
+        .onSuccess(r -> ctx.verify(() -> {
+          Assertions.assertNotEquals(
+              firstTag.get(),
+              r.headers().get(HttpHeaders.ETAG),
+              "The entity tag should change if the store did"
+          );
+          Assertions.assertTrue(
+              Rio.parse(new StringReader(r.body()), BASE_URI, RDFFormat.TURTLE)
+                 .contains(null, RDF.TYPE, workspaceType),
+              "The fragment should hold the triples of the created workspace"
+          );
+        }))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetFragmentWithLiteralSubject(final VertxTestContext ctx) {
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetFragment("\"test\"", "", "", 1))
+        .onFailure(RdfStoreVerticleTestHelpers::assertBadRequest)
+        .onComplete(ctx.failingThenComplete());
+  }
+
+  @Test
+  public void testSearchEntitiesFailsWhenDisabled(final VertxTestContext ctx) {
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.SearchEntities("test"))
+        .onFailure(RdfStoreVerticleTestHelpers::assertNotFound)
+        .onComplete(ctx.failingThenComplete());
+  }
 }
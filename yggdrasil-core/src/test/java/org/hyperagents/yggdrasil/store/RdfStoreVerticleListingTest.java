@@ -0,0 +1,200 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
+import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
+import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
+import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
+import org.hyperagents.yggdrasil.utils.WebSubConfig;
+import org.hyperagents.yggdrasil.utils.impl.EnvironmentConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.HttpInterfaceConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.WebSubConfigImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * testclass.
+ */
+@SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+@ExtendWith(VertxExtension.class)
+public class RdfStoreVerticleListingTest {
+  private static final String BASE_URI = "http://localhost:8080/";
+  private static final String WORKSPACES_URI = BASE_URI + "workspaces/";
+  private static final IRI PLATFORM = Values.iri(BASE_URI + "#platform");
+  private static final IRI HOSTS = Values.iri("https://purl.org/hmas/hosts");
+  private static final IRI FIRST_PAGE = Values.iri(BASE_URI + "workspaces");
+  private static final String CURSOR = WORKSPACES_URI + "b#workspace";
+  private static final IRI SECOND_PAGE = Values.iri(
+      BASE_URI + "workspaces?cursor=" + URLEncoder.encode(CURSOR, StandardCharsets.UTF_8)
+  );
+
+  private RdfStoreMessagebox storeMessagebox;
+
+  /**
+   * setup method.
+   *
+   * @param vertx vertx
+   * @param ctx   ctx
+   */
+  @BeforeEach
+  public void setUp(final Vertx vertx, final VertxTestContext ctx) {
+    vertx.sharedData()
+        .getLocalMap("environment-config")
+        .put("default",
+            new EnvironmentConfigImpl(JsonObject.of(
+                "environment-config",
+                JsonObject.of(
+                    "enabled",
+                    true,
+                    "ontology",
+                    "td"
+                )
+            )));
+    final var httpConfig = new HttpInterfaceConfigImpl(JsonObject.of());
+    vertx.sharedData()
+        .<String, HttpInterfaceConfig>getLocalMap("http-config")
+        .put("default", httpConfig);
+    final var notificationConfig = new WebSubConfigImpl(
+        JsonObject.of(
+            "notification-config",
+            JsonObject.of("enabled", true)
+        ),
+        httpConfig
+    );
+    vertx.sharedData()
+        .<String, WebSubConfig>getLocalMap("notification-config")
+        .put("default", notificationConfig);
+    new HttpNotificationDispatcherMessagebox(vertx.eventBus(), notificationConfig).init();
+    this.storeMessagebox = new RdfStoreMessagebox(vertx.eventBus());
+    vertx.deployVerticle(
+        new RdfStoreVerticle(),
+        new DeploymentOptions().setConfig(JsonObject.of(
+            "rdf-store",
+            JsonObject.of("listings", JsonObject.of("page-size", 2))
+        )),
+        ctx.succeedingThenComplete()
+    );
+  }
+
+  @AfterEach
+  public void tearDown(final Vertx vertx, final VertxTestContext ctx) {
+    vertx.close(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetWorkspacesPages(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var workspaceRepresentation = Files.readString(
+        Path.of(ClassLoader.getSystemResource("test_workspace_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    // Created out of order, to be listed in the order of their IRIs
+    this.createWorkspace("c", workspaceRepresentation)
+        .compose(r -> this.createWorkspace("a", workspaceRepresentation))
+        .compose(r -> this.createWorkspace("b", workspaceRepresentation))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.GetWorkspaces(BASE_URI)
+        ))
+        .onSuccess(r -> ctx.verify(() -> {
+          final var model = parse(r.body());
+          Assertions.assertTrue(
+              model.contains(PLATFORM, HOSTS, workspace("a"))
+              && model.contains(PLATFORM, HOSTS, workspace("b")),
+              "The first workspaces should be on the first page"
+          );
+          Assertions.assertFalse(
+              model.contains(PLATFORM, HOSTS, workspace("c")),
+              "The last workspace should not be on the first page"
+          );
+          Assertions.assertTrue(
+              model.contains(FIRST_PAGE, HYDRA.NEXT, SECOND_PAGE),
+              "The first page should link to the next one"
+          );
+          Assertions.assertEquals(
+              "<" + SECOND_PAGE + ">; rel=\"next\"",
+              r.headers().get("Link"),
+              "The link to the next page should be sent with the first page"
+          );
+        }))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.GetWorkspaces(BASE_URI, Optional.of(CURSOR))
+        ))
+        .onSuccess(r -> ctx.verify(() -> {
+          final var model = parse(r.body());
+          Assertions.assertEquals(
+              1,
+              model.filter(PLATFORM, HOSTS, null).size(),
+              "Only the last workspace should be on the last page"
+          );
+          Assertions.assertTrue(
+              model.contains(PLATFORM, HOSTS, workspace("c")),
+              "The last workspace should be on the last page"
+          );
+          Assertions.assertTrue(
+              model.contains(SECOND_PAGE, HYDRA.FIRST, FIRST_PAGE),
+              "The last page should link to the first one"
+          );
+          Assertions.assertFalse(
+              model.contains(SECOND_PAGE, HYDRA.NEXT, null),
+              "The last page should not link to a next page"
+          );
+          Assertions.assertNull(r.headers().get("Link"), "No next page should be linked");
+        }))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testGetArtifactsOfUnknownWorkspaceFails(final VertxTestContext ctx) {
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetArtifacts("unknown", Optional.of(CURSOR)))
+        .onFailure(RdfStoreVerticleTestHelpers::assertNotFound)
+        .onComplete(ctx.failingThenComplete());
+  }
+
+  @Test
+  public void testGetWorkspacesFailsWithBadCursor(final VertxTestContext ctx) {
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.GetWorkspaces(BASE_URI, Optional.of("last")))
+        .onFailure(RdfStoreVerticleTestHelpers::assertBadRequest)
+        .onComplete(ctx.failingThenComplete());
+  }
+
+  private Future<?> createWorkspace(final String name, final String representation) {
+    return this.storeMessagebox.sendMessage(new RdfStoreMessage.CreateWorkspace(
+        WORKSPACES_URI,
+        name,
+        Optional.empty(),
+        representation
+    ));
+  }
+
+  private static IRI workspace(final String name) {
+    return Values.iri(WORKSPACES_URI + name + "#workspace");
+  }
+
+  private static Model parse(final String representation) throws IOException {
+    return Rio.parse(new StringReader(representation), BASE_URI, RDFFormat.TURTLE);
+  }
+}
@@ -2,6 +2,7 @@ package org.hyperagents.yggdrasil.store;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.json.Json;
@@ -619,6 +620,70 @@ public class RdfStoreVerticleQueryTest {
         ));
   }
 
+  @Test
+  public void testStreamedTupleQueryRequest(final VertxTestContext ctx) {
+    final var results = Buffer.buffer();
+    this.messagebox
+        .sendQueryMessage(
+            new RdfStoreMessage.QueryKnowledgeGraph(
+                """
+                PREFIX hmas: <https://purl.org/hmas/>
+
+                SELECT DISTINCT ?workspace
+                WHERE {
+                    ?workspace a hmas:Workspace.
+                }
+                ORDER BY ?workspace
+                """,
+                List.of(),
+                List.of(),
+                CSV_MIME_TYPE
+            ),
+            chunk -> {
+              results.appendBuffer(chunk);
+              return Future.succeededFuture();
+            }
+        )
+        .onSuccess(r -> ctx.verify(() -> {
+          Assertions.assertEquals("", r.body(), "The reply should not contain the results");
+          Assertions.assertEquals(
+              "workspace\r\n"
+              + SUB_WORKSPACE_URI.substring(0, SUB_WORKSPACE_URI.length() - 1)
+              + "#workspace\r\n"
+              + TEST_WORKSPACE_URI
+              + "#workspace\r\n",
+              results.toString(StandardCharsets.UTF_8),
+              CONTENTS_EQUAL_MESSAGE
+          );
+        }))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testChangesDoNotWaitForStreamedResults(final VertxTestContext ctx) {
+    this.messagebox
+        .sendQueryMessage(
+            new RdfStoreMessage.QueryKnowledgeGraph(
+                """
+                PREFIX hmas: <https://purl.org/hmas/>
+
+                SELECT DISTINCT ?workspace
+                WHERE {
+                    ?workspace a hmas:Workspace.
+                }
+                """,
+                List.of(),
+                List.of(),
+                CSV_MIME_TYPE
+            ),
+            // The results are only acknowledged once a change has been made to the store
+            chunk -> this.messagebox
+                .sendMessage(new RdfStoreMessage.DeleteEntity("sub", "c0"))
+                .mapEmpty()
+        )
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
   @Test
   public void testQueryRequestWithMalformedQuery(final VertxTestContext ctx) {
     this.messagebox
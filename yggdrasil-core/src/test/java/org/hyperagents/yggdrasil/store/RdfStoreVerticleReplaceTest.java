@@ -14,11 +14,13 @@ import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
 import org.hyperagents.yggdrasil.eventbus.messages.HttpNotificationDispatcherMessage;
 import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
 import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
 import org.hyperagents.yggdrasil.utils.impl.EnvironmentConfigImpl;
 import org.hyperagents.yggdrasil.utils.impl.HttpInterfaceConfigImpl;
 import org.hyperagents.yggdrasil.utils.impl.WebSubConfigImpl;
@@ -233,6 +235,69 @@ public class RdfStoreVerticleReplaceTest {
         .onComplete(ctx.succeedingThenComplete());
   }
 
+  @Test
+  public void testUpdateArtifactInBinaryRdf(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var artifactUri = "http://localhost:8080/workspaces/sub/artifacts/c0";
+    final var updatedArtifactDescription =
+        Files.readString(
+            Path.of(ClassLoader.getSystemResource("updated_counter_artifact_td.ttl").toURI()),
+            StandardCharsets.UTF_8
+        );
+    final var binaryArtifactDescription = RdfModelUtils.modelToBuffer(
+        RdfModelUtils.stringToModel(
+            updatedArtifactDescription,
+            RdfModelUtils.createIri(artifactUri),
+            RDFFormat.TURTLE
+        ),
+        RDFFormat.BINARY,
+        null
+    );
+    this.assertWorkspaceTreeCreated(ctx)
+        .compose(r -> this.storeMessagebox.sendWriteMessage(
+            new RdfStoreMessage.ReplaceEntity(artifactUri, binaryArtifactDescription),
+            RDFFormat.BINARY.getDefaultMIMEType()
+        ))
+        .onSuccess(r -> {
+          // The representation is sent back, and to the subscribers, in Turtle
+          RdfStoreVerticleTestHelpers.assertEqualsThingDescriptions(
+              updatedArtifactDescription,
+              r.body()
+          );
+          try {
+            final var updateMessage =
+                (HttpNotificationDispatcherMessage.EntityChanged) this.notificationQueue.take();
+            RdfStoreVerticleTestHelpers.assertEqualsThingDescriptions(
+                updatedArtifactDescription,
+                updateMessage.content()
+            );
+          } catch (final Exception e) {
+            ctx.failNow(e);
+          }
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testUpdateInUnsupportedFormat(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var updatedWorkspaceDescription =
+        Files.readString(
+            Path.of(ClassLoader.getSystemResource("updated_test_workspace_td.ttl").toURI()),
+            StandardCharsets.UTF_8
+        );
+    this.assertWorkspaceTreeCreated(ctx)
+        .compose(r -> this.storeMessagebox.sendWriteMessage(
+            new RdfStoreMessage.ReplaceEntity(
+                "http://localhost:8080/workspaces/test",
+                updatedWorkspaceDescription
+            ),
+            "application/rdf+xml"
+        ))
+        .onFailure(RdfStoreVerticleTestHelpers::assertBadRequest)
+        .onComplete(ctx.failingThenComplete());
+  }
+
   @Test
   public void testUpdateAndGetBody(final VertxTestContext ctx)
       throws URISyntaxException, IOException {
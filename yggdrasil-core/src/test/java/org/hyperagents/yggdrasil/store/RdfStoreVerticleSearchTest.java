@@ -0,0 +1,222 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.HYDRA;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.hyperagents.yggdrasil.eventbus.messageboxes.HttpNotificationDispatcherMessagebox;
+import org.hyperagents.yggdrasil.eventbus.messageboxes.RdfStoreMessagebox;
+import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
+import org.hyperagents.yggdrasil.store.impl.RdfStoreFactory;
+import org.hyperagents.yggdrasil.utils.HttpInterfaceConfig;
+import org.hyperagents.yggdrasil.utils.WebSubConfig;
+import org.hyperagents.yggdrasil.utils.impl.EnvironmentConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.HttpInterfaceConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.RdfStoreConfigImpl;
+import org.hyperagents.yggdrasil.utils.impl.WebSubConfigImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * testclass.
+ */
+@SuppressWarnings("PMD.JUnitTestsShouldIncludeAssert")
+@ExtendWith(VertxExtension.class)
+public class RdfStoreVerticleSearchTest {
+  private static final String BASE_URI = "http://localhost:8080/";
+  private static final String SEARCH_URI = BASE_URI + "search";
+  private static final String WORKSPACES_URI = BASE_URI + "workspaces/";
+  private static final String WORKSPACE_NAME = "test";
+  private static final IRI WORKSPACE_IRI = Values.iri(WORKSPACES_URI + WORKSPACE_NAME + "/");
+  private static final String SEARCHED_WORD = "sheep";
+  private static final IRI SEARCH_IRI = Values.iri(SEARCH_URI + "?q=" + SEARCHED_WORD);
+  private static final String ADDITIONAL_METADATA =
+      "<" + WORKSPACES_URI + WORKSPACE_NAME + "#workspace> <" + RDFS.COMMENT
+      + "> \"A workspace for counting sheep\" .";
+
+  private RdfStoreMessagebox storeMessagebox;
+
+  /**
+   * setup method.
+   *
+   * @param vertx vertx
+   * @param ctx   ctx
+   */
+  @BeforeEach
+  public void setUp(final Vertx vertx, final VertxTestContext ctx) {
+    vertx.sharedData()
+        .getLocalMap("environment-config")
+        .put("default",
+            new EnvironmentConfigImpl(JsonObject.of(
+                "environment-config",
+                JsonObject.of(
+                    "enabled",
+                    true,
+                    "ontology",
+                    "td"
+                )
+            )));
+    final var httpConfig = new HttpInterfaceConfigImpl(JsonObject.of());
+    vertx.sharedData()
+        .<String, HttpInterfaceConfig>getLocalMap("http-config")
+        .put("default", httpConfig);
+    final var notificationConfig = new WebSubConfigImpl(
+        JsonObject.of(
+            "notification-config",
+            JsonObject.of("enabled", true)
+        ),
+        httpConfig
+    );
+    vertx.sharedData()
+        .<String, WebSubConfig>getLocalMap("notification-config")
+        .put("default", notificationConfig);
+    new HttpNotificationDispatcherMessagebox(vertx.eventBus(), notificationConfig).init();
+    this.storeMessagebox = new RdfStoreMessagebox(vertx.eventBus());
+    vertx.deployVerticle(
+        new RdfStoreVerticle(),
+        new DeploymentOptions().setConfig(JsonObject.of(
+            "rdf-store",
+            JsonObject.of("full-text-search", JsonObject.of("enabled", true))
+        )),
+        ctx.succeedingThenComplete()
+    );
+  }
+
+  @AfterEach
+  public void tearDown(final Vertx vertx, final VertxTestContext ctx) {
+    vertx.close(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testSearchFollowsEntityChanges(final VertxTestContext ctx)
+      throws URISyntaxException, IOException {
+    final var workspaceRepresentation = Files.readString(
+        Path.of(ClassLoader.getSystemResource("test_workspace_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.CreateWorkspace(
+            WORKSPACES_URI,
+            WORKSPACE_NAME,
+            Optional.empty(),
+            workspaceRepresentation
+        ))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.SearchEntities(SEARCHED_WORD)
+        ))
+        .onSuccess(r -> ctx.verify(() -> {
+          final var model = parse(r.body());
+          Assertions.assertTrue(
+              model.contains(SEARCH_IRI, null, HYDRA.COLLECTION),
+              "The search results should be a collection"
+          );
+          Assertions.assertFalse(
+              model.contains(SEARCH_IRI, HYDRA.MEMBER, WORKSPACE_IRI),
+              "The workspace should not be found before it is described as searched"
+          );
+        }))
+        .compose(r -> this.storeMessagebox.sendMessage(new RdfStoreMessage.UpdateEntity(
+            WORKSPACES_URI + WORKSPACE_NAME,
+            ADDITIONAL_METADATA
+        )))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.SearchEntities(SEARCHED_WORD)
+        ))
+        .onSuccess(r -> ctx.verify(() -> Assertions.assertTrue(
+            parse(r.body()).contains(SEARCH_IRI, HYDRA.MEMBER, WORKSPACE_IRI),
+            "The updated workspace should be found"
+        )))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.DeleteEntity(WORKSPACE_NAME, null)
+        ))
+        .compose(r -> this.storeMessagebox.sendMessage(
+            new RdfStoreMessage.SearchEntities(SEARCHED_WORD)
+        ))
+        .onSuccess(r -> ctx.verify(() -> Assertions.assertFalse(
+            parse(r.body()).contains(SEARCH_IRI, HYDRA.MEMBER, WORKSPACE_IRI),
+            "The deleted workspace should not be found"
+        )))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testSearchFailsWithEmptyQuery(final VertxTestContext ctx) {
+    this.storeMessagebox
+        .sendMessage(new RdfStoreMessage.SearchEntities(" "))
+        .onFailure(RdfStoreVerticleTestHelpers::assertBadRequest)
+        .onComplete(ctx.failingThenComplete());
+  }
+
+  @Test
+  public void testFullTextIndexIsRebuiltFromStore(@TempDir final Path storePath)
+      throws IOException {
+    final var config = new RdfStoreConfigImpl(JsonObject.of(
+        "rdf-store",
+        JsonObject.of(
+            "backend",
+            "native",
+            "store-path",
+            storePath.toString(),
+            "full-text-search",
+            JsonObject.of("enabled", true)
+        )
+    ));
+    final var entityModel = new LinkedHashModel();
+    entityModel.add(
+        Values.iri(WORKSPACES_URI + WORKSPACE_NAME + "#workspace"),
+        RDFS.COMMENT,
+        Values.literal("A workspace for counting sheep"),
+        WORKSPACE_IRI
+    );
+    final var store = RdfStoreFactory.createStore(config);
+    store.addEntityModel(WORKSPACE_IRI, entityModel);
+    store.close();
+
+    // The index is lost, but the statements are still in the store
+    try (var indexFiles = Files.walk(storePath.resolve("lucene"))) {
+      for (final var file : indexFiles.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+    final var reopenedStore = RdfStoreFactory.createStore(config);
+    try {
+      Assertions.assertTrue(
+          parse(reopenedStore.queryGraph(
+              new EntitySearch(SEARCH_URI, SEARCHED_WORD, 10).toSparqlQuery(),
+              List.of(),
+              List.of(),
+              "text/turtle"
+          )).contains(SEARCH_IRI, HYDRA.MEMBER, WORKSPACE_IRI),
+          "The entity should be found in the rebuilt index"
+      );
+    } finally {
+      reopenedStore.close();
+    }
+  }
+
+  private static Model parse(final String representation) throws IOException {
+    return Rio.parse(new StringReader(representation), BASE_URI, RDFFormat.TURTLE);
+  }
+}
@@ -0,0 +1,90 @@
+package org.hyperagents.yggdrasil.store;
+
+import io.vertx.core.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures how many artifact descriptions can be written and read per second in each of the
+ * formats in which representations are exchanged, the written ones as sent to the clients and the
+ * read ones as received by the store.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class RepresentationFormatBenchmarkTest {
+  private static final String BASE_URI = "http://localhost:8080/";
+  private static final String ARTIFACT_URI = BASE_URI + "workspaces/test/artifacts/c0/";
+  private static final List<RDFFormat> FORMATS =
+      List.of(RDFFormat.TURTLE, RDFFormat.NTRIPLES, RDFFormat.JSONLD, RDFFormat.BINARY);
+  private static final int WARMUP_RUNS = 2_000;
+  private static final int RUNS = 10_000;
+
+  @Test
+  public void testFormatThroughput() throws Exception {
+    final var artifactIri = RdfModelUtils.createIri(ARTIFACT_URI);
+    final var model = RdfModelUtils.stringToModel(
+        Files.readString(
+            Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+            StandardCharsets.UTF_8
+        ),
+        artifactIri,
+        RDFFormat.TURTLE
+    );
+    for (final var format : FORMATS) {
+      this.runWrites(model, format, WARMUP_RUNS);
+      var start = System.nanoTime();
+      final var representation = this.runWrites(model, format, RUNS);
+      final var writeElapsed = System.nanoTime() - start;
+
+      this.runReads(representation, artifactIri, format, WARMUP_RUNS);
+      start = System.nanoTime();
+      this.runReads(representation, artifactIri, format, RUNS);
+      final var readElapsed = System.nanoTime() - start;
+      System.out.printf(
+          "%s: %d writes/s, %d reads/s, %d bytes%n",
+          format.getName(),
+          RUNS * TimeUnit.SECONDS.toNanos(1) / writeElapsed,
+          RUNS * TimeUnit.SECONDS.toNanos(1) / readElapsed,
+          representation.length()
+      );
+    }
+  }
+
+  /**
+   * Writes the model as many times as asked, returning the last representation as received by the
+   * store.
+   */
+  private Buffer runWrites(final Model model, final RDFFormat format, final int runs)
+      throws Exception {
+    Buffer representation = null;
+    for (int i = 0; i < runs; i++) {
+      representation = RdfModelUtils.modelToBuffer(
+          model,
+          format,
+          format.equals(RDFFormat.TURTLE) ? BASE_URI : null
+      );
+    }
+    return representation;
+  }
+
+  private void runReads(
+      final Buffer representation,
+      final IRI artifactIri,
+      final RDFFormat format,
+      final int runs
+  ) throws Exception {
+    for (int i = 0; i < runs; i++) {
+      RdfModelUtils.bufferToModel(representation, artifactIri, format);
+    }
+  }
+}
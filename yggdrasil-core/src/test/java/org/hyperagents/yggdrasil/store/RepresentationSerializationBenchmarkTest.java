@@ -0,0 +1,86 @@
+package org.hyperagents.yggdrasil.store;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the time taken and the memory allocated to serialize the representation of a large
+ * entity as pretty-printed Turtle, as Turtle written without pretty-printing, and as N-Triples.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class RepresentationSerializationBenchmarkTest {
+  private static final String BASE_URI = "http://localhost:8080/";
+  private static final String ARTIFACTS_URI = BASE_URI + "workspaces/test/artifacts/";
+  private static final int ARTIFACTS = 100;
+  private static final int WARMUP_SERIALIZATIONS = 200;
+  private static final int SERIALIZATIONS = 1_000;
+
+  @Test
+  public void testSerializationProfiles() throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    // A description as large as the one of a workspace hosting many artifacts
+    final var model = new LinkedHashModel();
+    for (int i = 0; i < ARTIFACTS; i++) {
+      final var artifactIri = RdfModelUtils.createIri(ARTIFACTS_URI + "c" + i + "/");
+      model.addAll(RdfModelUtils.stringToModel(
+          artifactInput.replace("artifacts/c0", "artifacts/c" + i),
+          artifactIri,
+          RDFFormat.TURTLE
+      ));
+    }
+    for (final var profile : Profile.values()) {
+      this.runSerializations(model, profile, WARMUP_SERIALIZATIONS);
+      final var threadBean =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      final var threadId = Thread.currentThread().threadId();
+      final var allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+      final var start = System.nanoTime();
+      final var bytes = this.runSerializations(model, profile, SERIALIZATIONS);
+      final var elapsed = System.nanoTime() - start;
+      final var allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      System.out.printf(
+          "%s: %d us/serialization, %d bytes allocated/serialization, %d bytes sent%n",
+          profile,
+          TimeUnit.NANOSECONDS.toMicros(elapsed) / SERIALIZATIONS,
+          allocated / SERIALIZATIONS,
+          bytes / SERIALIZATIONS
+      );
+    }
+  }
+
+  private long runSerializations(final Model model, final Profile profile, final int runs)
+      throws Exception {
+    long bytes = 0;
+    for (int i = 0; i < runs; i++) {
+      bytes += switch (profile) {
+        case PRETTY_TURTLE -> RdfModelUtils.modelToString(model, RDFFormat.TURTLE, BASE_URI)
+                                           .getBytes(StandardCharsets.UTF_8)
+                                           .length;
+        case FAST_TURTLE -> RdfModelUtils.modelToBuffer(model, RDFFormat.TURTLE, BASE_URI)
+                                         .length();
+        case NTRIPLES -> RdfModelUtils.modelToBuffer(model, RDFFormat.NTRIPLES, null).length();
+      };
+    }
+    return bytes;
+  }
+
+  private enum Profile {
+    PRETTY_TURTLE,
+    FAST_TURTLE,
+    NTRIPLES
+  }
+}
@@ -0,0 +1,95 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import java.io.IOException;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * testclass.
+ */
+public class CachingRdfStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+  private static final String HITS_MESSAGE = "The number of hits should be equal";
+  private static final String MISSES_MESSAGE = "The number of misses should be equal";
+
+  private CachingRdfStore store;
+
+  @BeforeEach
+  public void setUp() {
+    this.store = (CachingRdfStore) RdfStoreFactory.createCachingStore(
+        RdfStoreFactory.createInMemoryStore(),
+        1,
+        Long.MAX_VALUE
+    );
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    this.store.close();
+  }
+
+  @Test
+  public void testRepeatedGetIsServedFromCache() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    this.store.addEntityModel(entityIri, model);
+
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(1, this.store.getMissCount(), MISSES_MESSAGE);
+    Assertions.assertEquals(1, this.store.getHitCount(), HITS_MESSAGE);
+  }
+
+  @Test
+  public void testReturnedModelDoesNotAlterSnapshot() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    this.store.addEntityModel(entityIri, model);
+    this.store.getEntityModel(entityIri);
+
+    this.store.getEntityModel(entityIri).orElseThrow().clear();
+
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+  }
+
+  @Test
+  public void testMutationsInvalidateSnapshot() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    this.store.addEntityModel(entityIri, createModel(ENTITY_URI, "first"));
+    this.store.getEntityModel(entityIri);
+
+    final var replacingModel = createModel(ENTITY_URI, "second");
+    this.store.replaceEntityModel(entityIri, replacingModel);
+    assertSameTriples(replacingModel, this.store.getEntityModel(entityIri).orElseThrow());
+
+    this.store.removeEntityModel(entityIri);
+    Assertions.assertTrue(this.store.getEntityModel(entityIri).isEmpty(),
+        "The entity should not be found");
+    Assertions.assertFalse(this.store.containsEntityModel(entityIri),
+        "The entity should not be found");
+    Assertions.assertEquals(0, this.store.getHitCount(), HITS_MESSAGE);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntityIsEvicted() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    this.store.addEntityModel(entityIri, createModel(ENTITY_URI, "first"));
+    this.store.addEntityModel(otherEntityIri, createModel(OTHER_ENTITY_URI, "first"));
+
+    this.store.getEntityModel(entityIri);
+    this.store.getEntityModel(otherEntityIri);
+    this.store.getEntityModel(entityIri);
+
+    Assertions.assertEquals(1, this.store.getSize(), "Only one entity should be cached");
+    Assertions.assertEquals(2, this.store.getEvictionCount(), "Two entities should be evicted");
+    Assertions.assertEquals(3, this.store.getMissCount(), MISSES_MESSAGE);
+  }
+}
@@ -0,0 +1,95 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the memory allocated and the time taken to store a created artifact when the null
+ * relative IRIs of its representation are replaced before parsing it into an indexed model, and
+ * when they are resolved by the parser into a model only indexed on demand.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class EntityIngestionBenchmarkTest {
+  private static final String ARTIFACTS_URI = "http://localhost:8080/workspaces/test/artifacts/";
+  private static final int WARMUP_CREATES = 2_000;
+  private static final int CREATES = 10_000;
+
+  @Test
+  public void testCreateAllocation() throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    // The representations sent by clients refer to the created artifact with relative IRIs
+    final var representation =
+        artifactInput.replace("<" + ARTIFACTS_URI + "c0#artifact>", "<#artifact>")
+        + "<> <https://purl.org/hmas/isProfileOf> <#artifact> .\n";
+    for (final var streaming : new boolean[] {false, true}) {
+      final var store = new Rdf4jStore(new MemoryStore(), 1, QueryLimits.NONE, 0);
+      try {
+        this.runCreates(store, representation, streaming, WARMUP_CREATES);
+        final var threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var threadId = Thread.currentThread().threadId();
+        final var allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        final var start = System.nanoTime();
+        this.runCreates(store, representation, streaming, CREATES);
+        final var elapsed = System.nanoTime() - start;
+        final var allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf(
+            "%s: %d bytes/create, %d us/create%n",
+            streaming ? "resolved by the parser" : "replaced before parsing",
+            allocated / CREATES,
+            TimeUnit.NANOSECONDS.toMicros(elapsed) / CREATES
+        );
+      } finally {
+        store.close();
+      }
+    }
+  }
+
+  private void runCreates(
+      final Rdf4jStore store,
+      final String representation,
+      final boolean streaming,
+      final int creates
+  ) throws Exception {
+    for (int i = 0; i < creates; i++) {
+      final var artifactUri = ARTIFACTS_URI + "c" + (i % 100) + "/";
+      final var artifactIri = RdfModelUtils.createIri(artifactUri);
+      final Model model = streaming
+          ? RdfModelUtils.stringToModel(representation, artifactIri, RDFFormat.TURTLE)
+          : parseReplacingNullIris(representation, artifactUri, artifactIri);
+      store.replaceEntityModel(artifactIri, model);
+    }
+  }
+
+  private static Model parseReplacingNullIris(
+      final String representation,
+      final String artifactUri,
+      final IRI artifactIri
+  ) throws Exception {
+    final var model = new LinkedHashModel();
+    RdfModelUtils.parse(
+        representation.replaceAll("<>", "<" + artifactUri + ">"),
+        artifactIri,
+        RDFFormat.TURTLE,
+        new StatementCollector(model)
+    );
+    return model;
+  }
+}
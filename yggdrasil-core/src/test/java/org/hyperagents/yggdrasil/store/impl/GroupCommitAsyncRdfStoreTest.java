@@ -0,0 +1,270 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.hyperagents.yggdrasil.store.AsyncRdfStore;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.store.TriplePatternFragment;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * testclass.
+ */
+@ExtendWith(VertxExtension.class)
+public class GroupCommitAsyncRdfStoreTest {
+  private static final String WORKSPACE_URI = "http://localhost:8080/workspaces/test/";
+  private static final String ARTIFACT_URI = WORKSPACE_URI + "artifacts/c0/";
+
+  private CountingRdfStore countingStore;
+  private AsyncRdfStore store;
+
+  @BeforeEach
+  public void setUp(final Vertx vertx) {
+    this.countingStore = new CountingRdfStore(RdfStoreFactory.createInMemoryStore());
+    this.store = RdfStoreFactory.createGroupCommitStore(
+        RdfStoreFactory.createAsyncStore(vertx, this.countingStore)
+    );
+  }
+
+  @AfterEach
+  public void tearDown(final VertxTestContext ctx) {
+    this.store.close().onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testChangesRequestedDuringCommitAreGrouped(final VertxTestContext ctx) {
+    final var workspaceIri = RdfModelUtils.createIri(WORKSPACE_URI);
+    final var artifactIri = RdfModelUtils.createIri(ARTIFACT_URI);
+    final var workspaceModel = createModel(WORKSPACE_URI, "first");
+    final var updatedWorkspaceModel = createModel(WORKSPACE_URI, "second");
+    final var artifactModel = createModel(ARTIFACT_URI, "first");
+    final var expectedWorkspaceModel = new LinkedHashModel(updatedWorkspaceModel);
+    expectedWorkspaceModel.addAll(artifactModel);
+
+    final var firstCommit = this.store.addEntityModel(workspaceIri, workspaceModel);
+    final var secondCommit = this.store.applyChanges(List.of(
+        new EntityChange.Replace(workspaceIri, updatedWorkspaceModel),
+        new EntityChange.Add(artifactIri, artifactModel)
+    ));
+    final var thirdCommit = this.store.addEntityModel(workspaceIri, artifactModel);
+    this.store
+        .getEntityModel(workspaceIri)
+        .onSuccess(m -> ctx.verify(() -> assertSameTriples(
+            expectedWorkspaceModel,
+            m.orElseThrow()
+        )))
+        .compose(m -> Future.all(firstCommit, secondCommit, thirdCommit))
+        .onSuccess(r -> ctx.verify(() -> Assertions.assertEquals(
+            2,
+            this.countingStore.getTransactions(),
+            "The changes requested during the first commit should be committed together"
+        )))
+        .compose(r -> this.store.getEntityModel(workspaceIri))
+        .onSuccess(m -> ctx.verify(() -> assertSameTriples(
+            expectedWorkspaceModel,
+            m.orElseThrow()
+        )))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testStagedStatementChangesAreAppliedToStoredModel(final VertxTestContext ctx) {
+    final var workspaceIri = RdfModelUtils.createIri(WORKSPACE_URI);
+    final var workspaceModel = createModel(WORKSPACE_URI, "first");
+    final var addedStatements = createModel(ARTIFACT_URI, "first");
+    final var removedStatements = new LinkedHashModel();
+    removedStatements.add(
+        RdfModelUtils.createIri(WORKSPACE_URI + "#workspace"),
+        RDFS.LABEL,
+        RdfModelUtils.createIri(WORKSPACE_URI + "first")
+    );
+    final var expectedWorkspaceModel = new LinkedHashModel(workspaceModel);
+    expectedWorkspaceModel.removeAll(removedStatements);
+    expectedWorkspaceModel.addAll(addedStatements);
+
+    this.store
+        .addEntityModel(workspaceIri, workspaceModel)
+        .compose(r -> {
+          final var commit = this.store.applyChanges(List.of(
+              new EntityChange.RemoveStatements(workspaceIri, removedStatements),
+              new EntityChange.Add(workspaceIri, addedStatements)
+          ));
+          return this.store
+              .getEntityModel(workspaceIri)
+              .onSuccess(m -> ctx.verify(() -> assertSameTriples(
+                  expectedWorkspaceModel,
+                  m.orElseThrow()
+              )))
+              .compose(m -> commit);
+        })
+        .compose(r -> this.store.getEntityModel(workspaceIri))
+        .onSuccess(m -> ctx.verify(() -> assertSameTriples(
+            expectedWorkspaceModel,
+            m.orElseThrow()
+        )))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @Test
+  public void testFailedCommitDiscardsStagedChanges(final VertxTestContext ctx) {
+    final var workspaceIri = RdfModelUtils.createIri(WORKSPACE_URI);
+    final var artifactIri = RdfModelUtils.createIri(ARTIFACT_URI);
+    this.countingStore.failCommits(true);
+
+    final var firstCommit =
+        this.store.addEntityModel(workspaceIri, createModel(WORKSPACE_URI, "first"));
+    final var secondCommit =
+        this.store.addEntityModel(artifactIri, createModel(ARTIFACT_URI, "first"));
+    firstCommit
+        .transform(r -> {
+          ctx.verify(() -> Assertions.assertTrue(r.failed(), "The commit should fail"));
+          return secondCommit;
+        })
+        .transform(r -> {
+          ctx.verify(() -> Assertions.assertTrue(
+              r.failed(),
+              "The changes staged after the failed ones should be discarded"
+          ));
+          return this.store.containsEntityModel(artifactIri);
+        })
+        .onSuccess(exists -> ctx.verify(() -> Assertions.assertFalse(
+            exists,
+            "The discarded changes should not be visible"
+        )))
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  private static final class CountingRdfStore implements RdfStore {
+    private final RdfStore store;
+    private final AtomicInteger transactions;
+    private final AtomicBoolean failCommits;
+
+    CountingRdfStore(final RdfStore store) {
+      this.store = store;
+      this.transactions = new AtomicInteger();
+      this.failCommits = new AtomicBoolean();
+    }
+
+    int getTransactions() {
+      return this.transactions.get();
+    }
+
+    void failCommits(final boolean failCommits) {
+      this.failCommits.set(failCommits);
+    }
+
+    @Override
+    public boolean containsEntityModel(final IRI entityIri) throws IOException {
+      return this.store.containsEntityModel(entityIri);
+    }
+
+    @Override
+    public Optional<Model> getEntityModel(final IRI entityIri) throws IOException {
+      return this.store.getEntityModel(entityIri);
+    }
+
+    @Override
+    public void addEntityModel(final IRI entityIri, final Model entityModel) throws IOException {
+      this.applyChanges(List.of(new EntityChange.Add(entityIri, entityModel)));
+    }
+
+    @Override
+    public void replaceEntityModel(final IRI entityIri, final Model entityModel)
+        throws IOException {
+      this.applyChanges(List.of(new EntityChange.Replace(entityIri, entityModel)));
+    }
+
+    @Override
+    public void removeStatements(final IRI entityIri, final Model statements) throws IOException {
+      this.applyChanges(List.of(new EntityChange.RemoveStatements(entityIri, statements)));
+    }
+
+    @Override
+    public void removeEntityModel(final IRI entityIri) throws IOException {
+      this.applyChanges(List.of(new EntityChange.Remove(entityIri)));
+    }
+
+    @Override
+    public void applyChanges(final List<EntityChange> changes) throws IOException {
+      this.transactions.incrementAndGet();
+      if (this.failCommits.get()) {
+        throw new IOException("The commit failed");
+      }
+      this.store.applyChanges(changes);
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.store.close();
+    }
+
+    @Override
+    public String queryGraph(
+        final String query,
+        final List<String> defaultGraphUris,
+        final List<String> namedGraphUris,
+        final String responseContentType
+    ) throws IOException {
+      return this.store.queryGraph(query, defaultGraphUris, namedGraphUris, responseContentType);
+    }
+
+    @Override
+    public void queryGraph(
+        final String query,
+        final List<String> defaultGraphUris,
+        final List<String> namedGraphUris,
+        final String responseContentType,
+        final OutputStream out,
+        final Runnable snapshotTaken
+    ) throws IOException {
+      this.store.queryGraph(
+          query,
+          defaultGraphUris,
+          namedGraphUris,
+          responseContentType,
+          out,
+          snapshotTaken
+      );
+    }
+
+    @Override
+    public void exportStatements(final RDFHandler handler) throws IOException {
+      this.store.exportStatements(handler);
+    }
+
+    @Override
+    public TriplePatternFragment getFragment(
+        final Resource subject,
+        final IRI predicate,
+        final Value object,
+        final long offset,
+        final int limit
+    ) throws IOException {
+      return this.store.getFragment(subject, predicate, object, offset, limit);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the latency of getting entities from native stores of 10k and 100k entities with the
+ * default RDF4J indexes and with an index starting with the context.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class NativeStoreIndexBenchmarkTest {
+  private static final String ARTIFACTS_URI = "http://localhost:8080/workspaces/test/artifacts/";
+  private static final List<Integer> ENTITIES = List.of(10_000, 100_000);
+  private static final List<String> TRIPLE_INDEXES = List.of("spoc,posc", "spoc,posc,cspo");
+  private static final int BATCH_SIZE = 1_000;
+  private static final int WARMUP_GETS = 100;
+  private static final int GETS = 1_000;
+
+  @Test
+  public void testGetLatency(@TempDir final Path storeDirectory) throws IOException {
+    for (final var entities : ENTITIES) {
+      for (final var tripleIndexes : TRIPLE_INDEXES) {
+        final var store = RdfStoreFactory.createFilesystemStore(
+            storeDirectory.resolve(entities + "-" + tripleIndexes.replace(',', '-')).toString(),
+            1,
+            false,
+            tripleIndexes
+        );
+        try {
+          this.loadEntities(store, entities);
+          this.getEntities(store, entities, WARMUP_GETS);
+          final var elapsed = this.getEntities(store, entities, GETS);
+          System.out.printf(
+              "%d entities, %s: %d us/get%n",
+              entities,
+              tripleIndexes,
+              TimeUnit.NANOSECONDS.toMicros(elapsed) / GETS
+          );
+        } finally {
+          store.close();
+        }
+      }
+    }
+  }
+
+  private void loadEntities(final RdfStore store, final int entities) throws IOException {
+    final var changes = new ArrayList<EntityChange>(BATCH_SIZE);
+    for (int i = 0; i < entities; i++) {
+      final var artifactUri = ARTIFACTS_URI + "c" + i + "/";
+      changes.add(new EntityChange.Add(
+          RdfModelUtils.createIri(artifactUri),
+          createModel(artifactUri, i)
+      ));
+      if (changes.size() == BATCH_SIZE) {
+        store.applyChanges(changes);
+        changes.clear();
+      }
+    }
+    if (!changes.isEmpty()) {
+      store.applyChanges(changes);
+    }
+  }
+
+  private static Model createModel(final String artifactUri, final int index) {
+    final var model = new LinkedHashModel();
+    final var artifactIri = RdfModelUtils.createIri(artifactUri + "#artifact");
+    model.add(artifactIri, RDF.TYPE, RdfModelUtils.createIri("https://purl.org/hmas/Artifact"));
+    model.add(artifactIri, RDF.TYPE, RdfModelUtils.createIri("http://example.org/Counter"));
+    model.add(artifactIri, RDFS.LABEL, RdfModelUtils.createIri(artifactUri + "c" + index));
+    model.add(
+        artifactIri,
+        RdfModelUtils.createIri("https://purl.org/hmas/isContainedIn"),
+        RdfModelUtils.createIri("http://localhost:8080/workspaces/test/#workspace")
+    );
+    return model;
+  }
+
+  private long getEntities(final RdfStore store, final int entities, final int gets)
+      throws IOException {
+    final var random = new Random(entities);
+    final var start = System.nanoTime();
+    for (int i = 0; i < gets; i++) {
+      Assertions.assertTrue(
+          store.getEntityModel(
+              RdfModelUtils.createIri(ARTIFACTS_URI + "c" + random.nextInt(entities) + "/")
+          ).isPresent(),
+          "The artifact should be read"
+      );
+    }
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,129 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * testclass.
+ */
+public class QueryCachingRdfStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+  private static final String LABELS_QUERY =
+      "SELECT ?label WHERE { ?s <" + RDFS.LABEL + "> ?label }";
+  private static final String ENTITY_LABELS_QUERY =
+      "SELECT ?label FROM <" + ENTITY_URI + "> WHERE { ?s <" + RDFS.LABEL + "> ?label }";
+  private static final String CSV_MIME_TYPE = "text/csv";
+  private static final String HITS_MESSAGE = "The number of hits should be equal";
+  private static final String RESULTS_EQUAL_MESSAGE = "The results should be equal";
+
+  private QueryCachingRdfStore store;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    this.store = (QueryCachingRdfStore) RdfStoreFactory.createQueryCachingStore(
+        RdfStoreFactory.createInMemoryStore(),
+        16,
+        Long.MAX_VALUE
+    );
+    this.store.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), createModel(ENTITY_URI, "a"));
+    this.store.addEntityModel(
+        RdfModelUtils.createIri(OTHER_ENTITY_URI),
+        createModel(OTHER_ENTITY_URI, "b")
+    );
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    this.store.close();
+  }
+
+  private String query(final String query) throws IOException {
+    return this.store.queryGraph(query, List.of(), List.of(), CSV_MIME_TYPE);
+  }
+
+  @Test
+  public void testRepeatedQueryIsServedFromCache() throws IOException {
+    final var result = this.query(LABELS_QUERY);
+    Assertions.assertEquals(0, this.store.getHitCount(), HITS_MESSAGE);
+    Assertions.assertEquals(result, this.query(LABELS_QUERY), RESULTS_EQUAL_MESSAGE);
+    Assertions.assertEquals(
+        result,
+        this.query("SELECT ?label\n  WHERE {\n    ?s <" + RDFS.LABEL + "> ?label\n  }\n"),
+        RESULTS_EQUAL_MESSAGE
+    );
+    Assertions.assertEquals(2, this.store.getHitCount(), HITS_MESSAGE);
+    Assertions.assertEquals(1, this.store.getMissCount(), "There should be a single miss");
+    Assertions.assertEquals(2.0 / 3, this.store.getHitRatio(), "The hit ratio should be 2/3");
+  }
+
+  @Test
+  public void testStreamedQueryIsServedFromCache() throws IOException {
+    final var result = this.query(LABELS_QUERY);
+    final var out = new ByteArrayOutputStream();
+    this.store.queryGraph(LABELS_QUERY, List.of(), List.of(), CSV_MIME_TYPE, out, () -> { });
+    Assertions.assertEquals(result, out.toString(StandardCharsets.UTF_8), RESULTS_EQUAL_MESSAGE);
+    Assertions.assertEquals(1, this.store.getHitCount(), HITS_MESSAGE);
+  }
+
+  @Test
+  public void testChangeInvalidatesQueriesOnAllGraphs() throws IOException {
+    this.query(LABELS_QUERY);
+    this.store.addEntityModel(
+        RdfModelUtils.createIri(OTHER_ENTITY_URI),
+        createModel(OTHER_ENTITY_URI, "c")
+    );
+    Assertions.assertTrue(
+        this.query(LABELS_QUERY).contains(OTHER_ENTITY_URI + "c"),
+        "The results should reflect the change"
+    );
+    Assertions.assertEquals(0, this.store.getHitCount(), HITS_MESSAGE);
+  }
+
+  @Test
+  public void testChangeOnlyInvalidatesQueriesReadingTheChangedGraph() throws IOException {
+    this.query(ENTITY_LABELS_QUERY);
+    this.store.removeEntityModel(RdfModelUtils.createIri(OTHER_ENTITY_URI));
+    this.query(ENTITY_LABELS_QUERY);
+    Assertions.assertEquals(1, this.store.getHitCount(), HITS_MESSAGE);
+    this.store.replaceEntityModel(
+        RdfModelUtils.createIri(ENTITY_URI),
+        createModel(ENTITY_URI, "c")
+    );
+    Assertions.assertTrue(
+        this.query(ENTITY_LABELS_QUERY).contains(ENTITY_URI + "c"),
+        "The results should reflect the change"
+    );
+    Assertions.assertEquals(1, this.store.getHitCount(), HITS_MESSAGE);
+  }
+
+  @Test
+  public void testNonDeterministicQueryIsNotCached() throws IOException {
+    final var query = "SELECT ?now WHERE { BIND(NOW() AS ?now) }";
+    this.query(query);
+    this.query(query);
+    Assertions.assertEquals(0, this.store.getHitCount(), HITS_MESSAGE);
+    Assertions.assertEquals(0, this.store.getSize(), "The cache should be empty");
+  }
+
+  @Test
+  public void testNormalizationKeepsWhitespaceInLiterals() {
+    Assertions.assertEquals(
+        "SELECT * WHERE { ?s ?p \"a  b\" , '''c\n d''' }",
+        QueryCachingRdfStore.normalizeQuery(
+            "  SELECT *\n WHERE {\t?s ?p \"a  b\" ,   '''c\n d'''\n}\n"
+        ),
+        "Only the whitespace outside of literals should be collapsed"
+    );
+  }
+}
@@ -0,0 +1,110 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the latency of typical discovery queries when they are parsed on every evaluation and
+ * when their parsed models are kept between evaluations.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class Rdf4jStoreQueryPreparationBenchmarkTest {
+  private static final String ARTIFACTS_URI = "http://localhost:8080/workspaces/test/artifacts/";
+  private static final int ARTIFACTS = 50;
+  private static final int WARMUP_QUERIES = 2_000;
+  private static final int QUERIES = 10_000;
+  private static final List<String> DISCOVERY_QUERIES = List.of(
+      """
+      PREFIX hmas: <https://purl.org/hmas/>
+      SELECT ?workspace ?artifact
+      WHERE {
+          ?workspace a hmas:Workspace;
+                     hmas:contains ?artifact.
+          ?artifact a hmas:Artifact.
+      }
+      LIMIT 10
+      """,
+      """
+      PREFIX td: <https://www.w3.org/2019/wot/td#>
+      PREFIX hctl: <https://www.w3.org/2019/wot/hypermedia#>
+      SELECT ?artifact ?action ?target
+      WHERE {
+          ?artifact td:hasActionAffordance ?action.
+          ?action td:name "inc";
+                  td:hasForm ?form.
+          ?form hctl:hasTarget ?target.
+      }
+      LIMIT 10
+      """,
+      """
+      PREFIX hmas: <https://purl.org/hmas/>
+      ASK {
+          ?artifact a hmas:Artifact, <http://example.org/Counter>.
+      }
+      """
+  );
+
+  @Test
+  public void testQueryPreparationLatency() throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    for (final var parsedQueryCacheSize : List.of(0, 256)) {
+      final var store = new Rdf4jStore(
+          new MemoryStore(),
+          1,
+          QueryLimits.NONE,
+          parsedQueryCacheSize
+      );
+      try {
+        for (int i = 0; i < ARTIFACTS; i++) {
+          final var artifactIri = RdfModelUtils.createIri(ARTIFACTS_URI + "c" + i + "/");
+          store.addEntityModel(
+              artifactIri,
+              RdfModelUtils.stringToModel(
+                  artifactInput.replace("artifacts/c0", "artifacts/c" + i),
+                  artifactIri,
+                  RDFFormat.TURTLE
+              )
+          );
+        }
+        this.runQueries(store, WARMUP_QUERIES);
+        final var elapsed = this.runQueries(store, QUERIES);
+        System.out.printf(
+            "%s: %d us/query%n",
+            parsedQueryCacheSize == 0 ? "cold preparation" : "warm preparation",
+            TimeUnit.NANOSECONDS.toMicros(elapsed) / QUERIES
+        );
+      } finally {
+        store.close();
+      }
+    }
+  }
+
+  private long runQueries(final Rdf4jStore store, final int queries) throws Exception {
+    final var start = System.nanoTime();
+    for (int i = 0; i < queries; i++) {
+      store.queryGraph(
+          DISCOVERY_QUERIES.get(i % DISCOVERY_QUERIES.size()),
+          List.of(),
+          List.of(),
+          "application/sparql-results+json",
+          OutputStream.nullOutputStream(),
+          () -> { }
+      );
+    }
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,97 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures the throughput of entity reads on a filesystem store as the number of reading threads,
+ * and of read connections, grows up to the number of available cores.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class Rdf4jStoreReadBenchmarkTest {
+  private static final String ARTIFACTS_URI = "http://localhost:8080/workspaces/test/artifacts/";
+  private static final int ARTIFACTS = 200;
+  private static final int READS_PER_THREAD = 5_000;
+
+  @Test
+  public void testReadThroughput(@TempDir final Path storeDirectory) throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    final var store = RdfStoreFactory.createFilesystemStore(
+        storeDirectory.toString(),
+        Runtime.getRuntime().availableProcessors()
+    );
+    try {
+      final var artifactIris = new ArrayList<IRI>();
+      for (int i = 0; i < ARTIFACTS; i++) {
+        final var artifactIri = RdfModelUtils.createIri(ARTIFACTS_URI + "c" + i + "/");
+        store.addEntityModel(
+            artifactIri,
+            RdfModelUtils.stringToModel(
+                artifactInput.replace("artifacts/c0", "artifacts/c" + i),
+                artifactIri,
+                RDFFormat.TURTLE
+            )
+        );
+        artifactIris.add(artifactIri);
+      }
+      for (int threads = 1;
+           threads <= Runtime.getRuntime().availableProcessors();
+           threads *= 2) {
+        final var elapsed = this.runReads(store, artifactIris, threads);
+        System.out.printf(
+            "%d threads: %d reads/s%n",
+            threads,
+            threads * READS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / elapsed
+        );
+      }
+    } finally {
+      store.close();
+    }
+  }
+
+  private long runReads(final RdfStore store, final List<IRI> artifactIris, final int threads)
+      throws Exception {
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var readers = new ArrayList<Callable<Void>>();
+      for (int t = 0; t < threads; t++) {
+        final var offset = t;
+        readers.add(() -> {
+          for (int i = 0; i < READS_PER_THREAD; i++) {
+            Assertions.assertTrue(
+                store.getEntityModel(artifactIris.get((offset + i) % ARTIFACTS)).isPresent(),
+                "The artifact should be read"
+            );
+          }
+          return null;
+        });
+      }
+      final var start = System.nanoTime();
+      for (final var result : executor.invokeAll(readers)) {
+        result.get();
+      }
+      return System.nanoTime() - start;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.hyperagents.yggdrasil.store.QueryResultLimitException;
+import org.hyperagents.yggdrasil.store.QueryTimeoutException;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * testclass.
+ */
+public class Rdf4jStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final int READERS = 4;
+  private static final int REPLACEMENTS = 200;
+  private static final int LABELS = 10;
+
+  private RdfStore store;
+
+  @BeforeEach
+  public void setUp() {
+    this.store = RdfStoreFactory.createInMemoryStore(READERS);
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    this.store.close();
+  }
+
+  private static Model createModel(final int version) {
+    final var model = new LinkedHashModel();
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI + "#workspace");
+    model.add(entityIri, RDF.TYPE, RdfModelUtils.createIri("https://purl.org/hmas/Workspace"));
+    for (int i = 0; i < LABELS; i++) {
+      model.add(entityIri, RDFS.LABEL, RdfModelUtils.createIri(ENTITY_URI + version + "/" + i));
+    }
+    return model;
+  }
+
+  @Test
+  public void testConcurrentReadsNeverSeePartialReplacements()
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    this.store.addEntityModel(entityIri, createModel(0));
+
+    final var executor = Executors.newFixedThreadPool(READERS);
+    try {
+      final var writing = new AtomicBoolean(true);
+      final var readers = new ArrayList<Future<?>>();
+      for (int i = 0; i < READERS; i++) {
+        readers.add(executor.submit(() -> {
+          while (writing.get()) {
+            final var model = this.store.getEntityModel(entityIri);
+            Assertions.assertTrue(model.isPresent(), "The entity should always be present");
+            Assertions.assertEquals(
+                LABELS + 1,
+                model.get().size(),
+                "The entity should be read either before or after a replacement"
+            );
+          }
+          return null;
+        }));
+      }
+      for (int i = 1; i <= REPLACEMENTS; i++) {
+        this.store.replaceEntityModel(entityIri, createModel(i));
+      }
+      writing.set(false);
+      for (final var reader : readers) {
+        reader.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    final var storedModel = this.store.getEntityModel(entityIri).orElseThrow();
+    Assertions.assertEquals(
+        LABELS + 1,
+        storedModel.size(),
+        "The last replacement should be stored"
+    );
+    createModel(REPLACEMENTS).forEach(s -> Assertions.assertTrue(
+        storedModel.contains(s.getSubject(), s.getPredicate(), s.getObject()),
+        "The last replacement should be stored"
+    ));
+  }
+
+  @Test
+  public void testQueriesWithTooManyResultsFail() throws IOException {
+    final var limitedStore = new Rdf4jStore(
+        new MemoryStore(),
+        READERS,
+        new QueryLimits(0, 3, 0),
+        0
+    );
+    try {
+      limitedStore.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), createModel(0));
+      Assertions.assertThrows(
+          QueryResultLimitException.class,
+          () -> limitedStore.queryGraph(
+              "SELECT ?label WHERE { ?s <" + RDFS.LABEL + "> ?label }",
+              List.of(),
+              List.of(),
+              "text/csv"
+          ),
+          "The query should fail instead of returning part of its results"
+      );
+      Assertions.assertEquals(
+          1,
+          limitedStore.getExceededQueryCount(),
+          "The query exceeding the result limit should be counted"
+      );
+    } finally {
+      limitedStore.close();
+    }
+  }
+
+  @Test
+  public void testLongQueriesTimeOut() throws IOException {
+    final var limitedStore = new Rdf4jStore(
+        new MemoryStore(),
+        READERS,
+        new QueryLimits(1, 0, Long.MAX_VALUE),
+        0
+    );
+    try {
+      limitedStore.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), createModel(0));
+      Assertions.assertThrows(
+          QueryTimeoutException.class,
+          () -> limitedStore.queryGraph(
+              "SELECT * WHERE { ?a ?b ?c . ?d ?e ?f . ?g ?h ?i . ?j ?k ?l . ?m ?n ?o . ?p ?q ?r }",
+              List.of(),
+              List.of(),
+              "text/csv",
+              OutputStream.nullOutputStream(),
+              () -> { }
+          ),
+          "The cross product should time out"
+      );
+      Assertions.assertEquals(
+          1,
+          limitedStore.getTimedOutQueryCount(),
+          "The timeout should be counted"
+      );
+    } finally {
+      limitedStore.close();
+    }
+  }
+
+  @Test
+  public void testDatasetOverridesDoNotChangeCachedQueries() throws IOException {
+    final var otherEntityUri = "http://localhost:8080/workspaces/other/";
+    this.store.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), createModel(0));
+    this.store.addEntityModel(RdfModelUtils.createIri(otherEntityUri), createModel(1));
+    final var query = "SELECT ?label WHERE { ?s <" + RDFS.LABEL + "> ?label }";
+    Assertions.assertEquals(
+        LABELS + 1,
+        this.store.queryGraph(query, List.of(ENTITY_URI), List.of(), "text/csv").lines().count(),
+        "The query should only read the overriding default graph"
+    );
+    Assertions.assertEquals(
+        2 * LABELS + 1,
+        this.store.queryGraph(query, List.of(), List.of(), "text/csv").lines().count(),
+        "The query should read all the graphs without the override"
+    );
+    Assertions.assertEquals(
+        LABELS + 1,
+        this.store.queryGraph(
+            "SELECT ?label FROM <" + otherEntityUri + "> WHERE { ?s <" + RDFS.LABEL + "> ?label }",
+            List.of(),
+            List.of(),
+            "text/csv"
+        ).lines().count(),
+        "The query should read the graph of its dataset"
+    );
+  }
+
+  @Test
+  public void testFragmentsArePagedAcrossEntities() throws IOException {
+    final var otherEntityUri = "http://localhost:8080/workspaces/other/";
+    this.store.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), createModel(0));
+    this.store.addEntityModel(RdfModelUtils.createIri(otherEntityUri), createModel(1));
+    final var firstPage = this.store.getFragment(null, RDFS.LABEL, null, 0, LABELS + 5);
+    Assertions.assertEquals(
+        LABELS + 5,
+        firstPage.triples().size(),
+        "The page should be filled with the triples of both entities"
+    );
+    Assertions.assertEquals(
+        2 * LABELS,
+        firstPage.estimatedCount(),
+        "All the matching triples should be counted"
+    );
+    Assertions.assertTrue(firstPage.hasNext(), "The first page should be followed by another");
+    final var lastPage = this.store.getFragment(null, RDFS.LABEL, null, LABELS + 5, LABELS + 5);
+    Assertions.assertEquals(
+        LABELS - 5,
+        lastPage.triples().size(),
+        "The last page should hold the remaining triples"
+    );
+    Assertions.assertFalse(lastPage.hasNext(), "The last page should not be followed by another");
+    Assertions.assertTrue(
+        lastPage.triples().stream().allMatch(t -> t.getContext() == null),
+        "The triples should not keep the named graphs of their entities"
+    );
+    Assertions.assertEquals(
+        0,
+        this.store.getFragment(
+            RdfModelUtils.createIri(ENTITY_URI + "#workspace"),
+            RDF.TYPE,
+            RdfModelUtils.createIri("https://purl.org/hmas/Artifact"),
+            0,
+            LABELS
+        ).estimatedCount(),
+        "No triple should match the pattern"
+    );
+  }
+
+  @Test
+  public void testFragmentsListTriplesInSeveralGraphsOnce() throws IOException {
+    final var otherEntityUri = "http://localhost:8080/workspaces/other/";
+    final var artifactIri = RdfModelUtils.createIri(ENTITY_URI + "#artifact");
+    final var artifactType = RdfModelUtils.createIri("https://purl.org/hmas/Artifact");
+    // Like the type of an artifact, stored in its graph and in the one of its workspace
+    final var model = new LinkedHashModel();
+    model.add(artifactIri, RDF.TYPE, artifactType);
+    this.store.addEntityModel(RdfModelUtils.createIri(ENTITY_URI), model);
+    this.store.addEntityModel(RdfModelUtils.createIri(otherEntityUri), model);
+    final var fragment = this.store.getFragment(null, RDF.TYPE, artifactType, 0, LABELS);
+    Assertions.assertEquals(
+        1,
+        fragment.triples().size(),
+        "The triple should only be listed once"
+    );
+    Assertions.assertEquals(1, fragment.estimatedCount(), "The triple should only be counted once");
+    Assertions.assertFalse(fragment.hasNext(), "The page should not be followed by another");
+  }
+}
@@ -0,0 +1,139 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares the latency of creating, getting, replacing and querying entities on the in-memory,
+ * native and LMDB stores.
+ *
+ * <p>Run with {@code ./gradlew :yggdrasil-core:benchmark}.</p>
+ */
+@Tag("benchmark")
+public class RdfStoreBackendBenchmarkTest {
+  private static final String ARTIFACTS_URI = "http://localhost:8080/workspaces/test/artifacts/";
+  private static final int ARTIFACTS = 500;
+  private static final int QUERIES = 500;
+  private static final String QUERY = """
+      PREFIX td: <https://www.w3.org/2019/wot/td#>
+      SELECT ?artifact ?action
+      WHERE {
+          ?artifact td:hasActionAffordance ?action.
+          ?action td:name "inc".
+      }
+      """;
+
+  @Test
+  public void testBackendLatency(@TempDir final Path storeDirectory) throws Exception {
+    final var artifactInput = Files.readString(
+        Path.of(ClassLoader.getSystemResource("c0_counter_artifact_td.ttl").toURI()),
+        StandardCharsets.UTF_8
+    );
+    final var readConnections = Runtime.getRuntime().availableProcessors();
+    this.runOperations(
+        "memory",
+        RdfStoreFactory.createInMemoryStore(readConnections),
+        artifactInput
+    );
+    this.runOperations(
+        "native",
+        RdfStoreFactory.createFilesystemStore(
+            storeDirectory.resolve("native").toString(),
+            readConnections
+        ),
+        artifactInput
+    );
+    this.runOperations(
+        "lmdb",
+        RdfStoreFactory.createLmdbStore(
+            storeDirectory.resolve("lmdb").toString(),
+            readConnections,
+            false,
+            "spoc,posc",
+            64L * 1024 * 1024,
+            64L * 1024 * 1024
+        ),
+        artifactInput
+    );
+  }
+
+  private void runOperations(
+      final String backend,
+      final RdfStore store,
+      final String artifactInput
+  ) throws IOException {
+    try {
+      final var artifactIris = new ArrayList<IRI>();
+      final var artifactModels = new ArrayList<Model>();
+      for (int i = 0; i < ARTIFACTS; i++) {
+        final var artifactIri = RdfModelUtils.createIri(ARTIFACTS_URI + "c" + i + "/");
+        artifactIris.add(artifactIri);
+        artifactModels.add(RdfModelUtils.stringToModel(
+            artifactInput.replace("artifacts/c0", "artifacts/c" + i),
+            artifactIri,
+            RDFFormat.TURTLE
+        ));
+      }
+
+      var start = System.nanoTime();
+      for (int i = 0; i < ARTIFACTS; i++) {
+        store.addEntityModel(artifactIris.get(i), artifactModels.get(i));
+      }
+      final var create = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (final var artifactIri : artifactIris) {
+        Assertions.assertTrue(
+            store.getEntityModel(artifactIri).isPresent(),
+            "The artifact should be read"
+        );
+      }
+      final var get = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < ARTIFACTS; i++) {
+        store.replaceEntityModel(artifactIris.get(i), artifactModels.get(i));
+      }
+      final var replace = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < QUERIES; i++) {
+        store.queryGraph(
+            QUERY,
+            List.of(),
+            List.of(),
+            "application/sparql-results+json",
+            OutputStream.nullOutputStream(),
+            () -> { }
+        );
+      }
+      final var query = System.nanoTime() - start;
+
+      System.out.printf(
+          "%s: create %d us, get %d us, replace %d us, query %d us%n",
+          backend,
+          TimeUnit.NANOSECONDS.toMicros(create) / ARTIFACTS,
+          TimeUnit.NANOSECONDS.toMicros(get) / ARTIFACTS,
+          TimeUnit.NANOSECONDS.toMicros(replace) / ARTIFACTS,
+          TimeUnit.NANOSECONDS.toMicros(query) / QUERIES
+      );
+    } finally {
+      store.close();
+    }
+  }
+}
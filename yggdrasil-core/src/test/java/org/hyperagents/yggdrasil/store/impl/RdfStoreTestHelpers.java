@@ -0,0 +1,34 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * test helperclass.
+ */
+final class RdfStoreTestHelpers {
+  private static final String MODELS_EQUAL_MESSAGE = "The models should be equal";
+
+  private RdfStoreTestHelpers() {
+  }
+
+  static Model createModel(final String entityUri, final String label) {
+    final var model = new LinkedHashModel();
+    final var entityIri = RdfModelUtils.createIri(entityUri + "#workspace");
+    model.add(entityIri, RDF.TYPE, RdfModelUtils.createIri("https://purl.org/hmas/Workspace"));
+    model.add(entityIri, RDFS.LABEL, RdfModelUtils.createIri(entityUri + label));
+    return model;
+  }
+
+  static void assertSameTriples(final Model expected, final Model actual) {
+    Assertions.assertEquals(expected.size(), actual.size(), MODELS_EQUAL_MESSAGE);
+    expected.forEach(s -> Assertions.assertTrue(
+        actual.contains(s.getSubject(), s.getPredicate(), s.getObject()),
+        MODELS_EQUAL_MESSAGE
+    ));
+  }
+}
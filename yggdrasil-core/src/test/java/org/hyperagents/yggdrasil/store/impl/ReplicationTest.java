@@ -0,0 +1,225 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.hyperagents.yggdrasil.store.RdfStore;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * testclass.
+ */
+@ExtendWith(VertxExtension.class)
+public class ReplicationTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+  private static final long HEARTBEAT_INTERVAL = 50;
+  private static final long POLL_INTERVAL = 10;
+  private static final long POLL_TIMEOUT = 5000;
+
+  private ReplicatingRdfStore primaryStore;
+  private RdfStore followerStore;
+  private ReplicationServer server;
+  private ReplicationClient client;
+  private int port;
+
+  @BeforeEach
+  public void setUp(final Vertx vertx, final VertxTestContext ctx) {
+    this.primaryStore =
+        RdfStoreFactory.createReplicatingStore(RdfStoreFactory.createInMemoryStore());
+    this.followerStore = RdfStoreFactory.createInMemoryStore();
+    this.server =
+        RdfStoreFactory.createReplicationServer(vertx, this.primaryStore, HEARTBEAT_INTERVAL);
+    this.client = RdfStoreFactory.createReplicationClient(vertx, this.followerStore, 100);
+    this.server
+        .listen("localhost", 0)
+        .onSuccess(p -> this.port = p)
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  @AfterEach
+  public void tearDown(final VertxTestContext ctx) {
+    this.client
+        .close()
+        .compose(v -> this.server.close())
+        .onSuccess(v -> {
+          try {
+            this.primaryStore.close();
+            this.followerStore.close();
+          } catch (final IOException e) {
+            ctx.failNow(e);
+          }
+        })
+        .onComplete(ctx.succeedingThenComplete());
+  }
+
+  /**
+   * Completes once the condition holds, checking it every few milliseconds.
+   */
+  private static Future<Void> eventually(final Vertx vertx, final Callable<Boolean> condition) {
+    final Promise<Void> promise = Promise.promise();
+    final var deadline = System.currentTimeMillis() + POLL_TIMEOUT;
+    vertx.setPeriodic(POLL_INTERVAL, id -> {
+      try {
+        if (condition.call()) {
+          vertx.cancelTimer(id);
+          promise.complete();
+        } else if (System.currentTimeMillis() > deadline) {
+          vertx.cancelTimer(id);
+          promise.fail("The condition did not hold in time");
+        }
+      } catch (final Exception e) {
+        vertx.cancelTimer(id);
+        promise.fail(e);
+      }
+    });
+    return promise.future();
+  }
+
+  @Test
+  public void testFollowerReceivesSnapshotThenTransactions(
+      final Vertx vertx,
+      final VertxTestContext ctx
+  ) throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var otherModel = createModel(OTHER_ENTITY_URI, "first");
+    this.primaryStore.addEntityModel(entityIri, model);
+
+    this.client.connect("localhost", this.port);
+    eventually(vertx, () -> this.client.getSnapshotCount() == 1)
+        .compose(v -> {
+          ctx.verify(() -> assertSameTriples(
+              model,
+              this.followerStore.getEntityModel(entityIri).orElseThrow()
+          ));
+          return vertx.executeBlocking(() -> {
+            this.primaryStore.addEntityModel(otherEntityIri, otherModel);
+            this.primaryStore.removeEntityModel(entityIri);
+            return null;
+          });
+        })
+        .compose(v -> eventually(vertx, () -> this.client.getAppliedTransactionCount() == 2))
+        .onComplete(ctx.succeeding(v -> ctx.verify(() -> {
+          assertSameTriples(
+              otherModel,
+              this.followerStore.getEntityModel(otherEntityIri).orElseThrow()
+          );
+          Assertions.assertFalse(
+              this.followerStore.containsEntityModel(entityIri),
+              "The removed entity should be removed from the follower"
+          );
+          ctx.completeNow();
+        })));
+  }
+
+  @Test
+  public void testSnapshotRemovesEntitiesMissingFromPrimary(
+      final Vertx vertx,
+      final VertxTestContext ctx
+  ) throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "second");
+    // The follower still has the state of the primary before it was disconnected
+    this.followerStore.addEntityModel(entityIri, createModel(ENTITY_URI, "first"));
+    this.followerStore.addEntityModel(otherEntityIri, createModel(OTHER_ENTITY_URI, "first"));
+    this.primaryStore.addEntityModel(entityIri, model);
+
+    this.client.connect("localhost", this.port);
+    eventually(vertx, () -> this.client.getSnapshotCount() == 1)
+        .onComplete(ctx.succeeding(v -> ctx.verify(() -> {
+          assertSameTriples(model, this.followerStore.getEntityModel(entityIri).orElseThrow());
+          Assertions.assertFalse(
+              this.followerStore.containsEntityModel(otherEntityIri),
+              "The entity missing from the primary should be removed from the follower"
+          );
+          ctx.completeNow();
+        })));
+  }
+
+  @Test
+  public void testSnapshotLargerThanBatchIsApplied(
+      final Vertx vertx,
+      final VertxTestContext ctx
+  ) throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    // Enough statements for the snapshot to be applied in several batches
+    for (var i = 0; i < 2500; i++) {
+      model.add(
+          RdfModelUtils.createIri(ENTITY_URI + "#item" + i),
+          RDFS.LABEL,
+          Values.literal("item " + i)
+      );
+    }
+    this.followerStore.addEntityModel(entityIri, createModel(ENTITY_URI, "stale"));
+    this.primaryStore.addEntityModel(entityIri, model);
+
+    this.client.connect("localhost", this.port);
+    eventually(vertx, () -> this.client.getSnapshotCount() == 1)
+        .onComplete(ctx.succeeding(v -> ctx.verify(() -> {
+          assertSameTriples(model, this.followerStore.getEntityModel(entityIri).orElseThrow());
+          ctx.completeNow();
+        })));
+  }
+
+  @Test
+  public void testBlankNodesSpanningBatchesAreNotSplit(
+      final Vertx vertx,
+      final VertxTestContext ctx
+  ) throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var items = Values.bnode();
+    model.add(RdfModelUtils.createIri(ENTITY_URI + "#workspace"), RDFS.MEMBER, items);
+    // Enough statements about the blank node for it to be in several batches of the snapshot
+    for (var i = 0; i < 2500; i++) {
+      model.add(items, RDFS.MEMBER, Values.literal("item " + i));
+    }
+    this.primaryStore.addEntityModel(entityIri, model);
+
+    this.client.connect("localhost", this.port);
+    eventually(vertx, () -> this.client.getSnapshotCount() == 1)
+        .onComplete(ctx.succeeding(v -> ctx.verify(() -> {
+          // The blank node keeps its identifier, so its statements are found on the follower
+          assertSameTriples(model, this.followerStore.getEntityModel(entityIri).orElseThrow());
+          ctx.completeNow();
+        })));
+  }
+
+  @Test
+  public void testLagIsKnownOnceCaughtUp(final Vertx vertx, final VertxTestContext ctx) {
+    Assertions.assertEquals(
+        Long.MAX_VALUE,
+        this.client.getLag(),
+        "The lag should be unknown before following the primary"
+    );
+
+    this.client.connect("localhost", this.port);
+    eventually(vertx, () -> this.client.getLag() < POLL_TIMEOUT)
+        .onComplete(ctx.succeeding(v -> ctx.verify(() -> {
+          Assertions.assertEquals(
+              1,
+              this.server.getFollowerCount(),
+              "The follower should be connected"
+          );
+          ctx.completeNow();
+        })));
+  }
+}
@@ -0,0 +1,197 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * testclass.
+ */
+public class SnapshottingRdfStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+
+  @TempDir
+  private Path storeDirectory;
+
+  private SnapshottingRdfStore createStore() throws IOException {
+    return new SnapshottingRdfStore(
+        new Rdf4jStore(new MemoryStore(), 1),
+        this.storeDirectory,
+        0,
+        false
+    );
+  }
+
+  private List<Path> listChangeLogs() throws IOException {
+    try (var files = Files.list(this.storeDirectory)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(".log")).sorted().toList();
+    }
+  }
+
+  @Test
+  public void testChangesAreRecoveredFromChangeLog() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "second");
+    // The store is never closed, as if the process had crashed
+    final var crashedStore = this.createStore();
+    crashedStore.applyChanges(List.of(
+        new EntityChange.Add(entityIri, createModel(ENTITY_URI, "first")),
+        new EntityChange.Add(otherEntityIri, createModel(OTHER_ENTITY_URI, "first"))
+    ));
+    crashedStore.replaceEntityModel(entityIri, model);
+    crashedStore.removeEntityModel(otherEntityIri);
+    Assertions.assertEquals(
+        3,
+        crashedStore.getLoggedTransactionCount(),
+        "The number of logged transactions should be equal"
+    );
+
+    final var store = this.createStore();
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      Assertions.assertFalse(
+          store.containsEntityModel(otherEntityIri),
+          "The removed entity should not be recovered"
+      );
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testChangesAreRecoveredFromSnapshotAndChangeLog() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var otherModel = createModel(OTHER_ENTITY_URI, "first");
+    final var crashedStore = this.createStore();
+    crashedStore.addEntityModel(entityIri, model);
+    crashedStore.takeSnapshot();
+    crashedStore.addEntityModel(otherEntityIri, otherModel);
+    Assertions.assertEquals(1, crashedStore.getSnapshotCount(), "A snapshot should be written");
+    Assertions.assertEquals(1, this.listChangeLogs().size(), "The older logs should be deleted");
+
+    final var store = this.createStore();
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      assertSameTriples(otherModel, store.getEntityModel(otherEntityIri).orElseThrow());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testChangesInSnapshotAndChangeLogDoNotDuplicateBlankNodes() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = Rio.parse(
+        new StringReader(
+            "@prefix ex: <http://example.org/> .\n<#workspace> ex:form [ ex:target ex:t ] .\n"
+        ),
+        ENTITY_URI,
+        RDFFormat.TURTLE
+    );
+    final var crashedStore = this.createStore();
+    crashedStore.addEntityModel(entityIri, model);
+    crashedStore.takeSnapshot();
+    // Adding the model again leaves the store unchanged, as if the change had been committed
+    // between the rotation of the change log and the start of the snapshot
+    crashedStore.addEntityModel(entityIri, model);
+
+    final var store = this.createStore();
+    try {
+      final var storedModel = store.getEntityModel(entityIri).orElseThrow();
+      Assertions.assertEquals(2, storedModel.size(), "The blank node should not be duplicated");
+      Assertions.assertTrue(Models.isomorphic(model, storedModel), "The models should be equal");
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testIncompleteRecordIsIgnored() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var crashedStore = this.createStore();
+    crashedStore.addEntityModel(entityIri, model);
+    Files.write(
+        this.listChangeLogs().get(0),
+        new byte[] {0, 0, 1, 0, 0, 0},
+        StandardOpenOption.APPEND
+    );
+
+    final var store = this.createStore();
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testFailedChangesAreNotRecovered() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var failingStore = new Rdf4jStore(new MemoryStore(), 1);
+    final var crashedStore =
+        new SnapshottingRdfStore(failingStore, this.storeDirectory, 0, false);
+    crashedStore.addEntityModel(entityIri, model);
+    failingStore.close();
+    Assertions.assertThrows(
+        IllegalStateException.class,
+        () -> crashedStore.addEntityModel(
+            otherEntityIri,
+            createModel(OTHER_ENTITY_URI, "first")
+        ),
+        "The change should fail once the underlying store is closed"
+    );
+
+    final var store = this.createStore();
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      Assertions.assertFalse(
+          store.containsEntityModel(otherEntityIri),
+          "The failed change should not be recovered"
+      );
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testCloseWritesSnapshot() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var closedStore = this.createStore();
+    closedStore.addEntityModel(entityIri, model);
+    closedStore.close();
+    Assertions.assertEquals(1, closedStore.getSnapshotCount(), "A snapshot should be written");
+    final var changeLogs = this.listChangeLogs();
+    Assertions.assertEquals(1, changeLogs.size(), "Only the last change log should be kept");
+    Assertions.assertEquals(0, Files.size(changeLogs.get(0)), "The log should be empty");
+
+    final var store = this.createStore();
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+    } finally {
+      store.close();
+    }
+  }
+}
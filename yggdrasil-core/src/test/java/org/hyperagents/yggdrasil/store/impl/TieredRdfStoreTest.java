@@ -0,0 +1,119 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * testclass.
+ */
+public class TieredRdfStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+  private static final String HOT_HITS_MESSAGE = "The number of hot tier hits should be equal";
+  private static final String COLD_HITS_MESSAGE = "The number of cold tier hits should be equal";
+
+  @TempDir
+  private Path storeDirectory;
+  private TieredRdfStore store;
+
+  @BeforeEach
+  public void setUp() {
+    this.store = (TieredRdfStore) RdfStoreFactory.createTieredStore(
+        RdfStoreFactory.createFilesystemStore(this.storeDirectory.toString(), 1),
+        1,
+        Long.MAX_VALUE
+    );
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    this.store.close();
+  }
+
+  @Test
+  public void testRepeatedGetIsServedFromHotTier() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    this.store.addEntityModel(entityIri, model);
+
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(1, this.store.getColdHitCount(), COLD_HITS_MESSAGE);
+    Assertions.assertEquals(1, this.store.getHotHitCount(), HOT_HITS_MESSAGE);
+    Assertions.assertEquals(0.5, this.store.getHotHitRatio(), "The hit ratio should be 1/2");
+    Assertions.assertEquals(1, this.store.getPromotionCount(), "The entity should be promoted");
+  }
+
+  @Test
+  public void testChangesAreWrittenThroughToHotTier() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    this.store.addEntityModel(entityIri, createModel(ENTITY_URI, "first"));
+    this.store.getEntityModel(entityIri);
+
+    final var replacement = createModel(ENTITY_URI, "second");
+    this.store.replaceEntityModel(entityIri, replacement);
+    assertSameTriples(replacement, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(1, this.store.getHotHitCount(), HOT_HITS_MESSAGE);
+
+    final var addition = createModel(ENTITY_URI, "third");
+    this.store.applyChanges(List.of(new EntityChange.Add(entityIri, addition)));
+    final var expected = new LinkedHashModel(replacement);
+    expected.addAll(addition);
+    assertSameTriples(expected, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(2, this.store.getHotHitCount(), HOT_HITS_MESSAGE);
+
+    this.store.removeEntityModel(entityIri);
+    Assertions.assertTrue(
+        this.store.getEntityModel(entityIri).isEmpty(),
+        "The removed entity should not be read"
+    );
+    Assertions.assertEquals(0, this.store.getSize(), "The hot tier should be empty");
+  }
+
+  @Test
+  public void testLeastRecentlyReadEntityIsDemoted() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    this.store.addEntityModel(entityIri, model);
+    this.store.addEntityModel(otherEntityIri, createModel(OTHER_ENTITY_URI, "first"));
+
+    this.store.getEntityModel(entityIri);
+    this.store.getEntityModel(otherEntityIri);
+    Assertions.assertEquals(1, this.store.getDemotionCount(), "The first entity should be demoted");
+    Assertions.assertEquals(1, this.store.getSize(), "The hot tier should hold a single entity");
+
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(3, this.store.getColdHitCount(), COLD_HITS_MESSAGE);
+    Assertions.assertEquals(0, this.store.getHotHitCount(), HOT_HITS_MESSAGE);
+  }
+
+  @Test
+  public void testChangesAreWrittenToColdTier() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    this.store.addEntityModel(entityIri, model);
+    this.store.getEntityModel(entityIri);
+    this.store.close();
+
+    this.store = (TieredRdfStore) RdfStoreFactory.createTieredStore(
+        RdfStoreFactory.createFilesystemStore(this.storeDirectory.toString(), 1),
+        1,
+        Long.MAX_VALUE
+    );
+    assertSameTriples(model, this.store.getEntityModel(entityIri).orElseThrow());
+    Assertions.assertEquals(1, this.store.getColdHitCount(), COLD_HITS_MESSAGE);
+  }
+}
@@ -0,0 +1,307 @@
+package org.hyperagents.yggdrasil.store.impl;
+
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.assertSameTriples;
+import static org.hyperagents.yggdrasil.store.impl.RdfStoreTestHelpers.createModel;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.hyperagents.yggdrasil.store.EntityChange;
+import org.hyperagents.yggdrasil.utils.RdfModelUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * testclass.
+ */
+public class WriteAheadLogRdfStoreTest {
+  private static final String ENTITY_URI = "http://localhost:8080/workspaces/test/";
+  private static final String OTHER_ENTITY_URI = "http://localhost:8080/workspaces/other/";
+  private static final String REPLAYED_MESSAGE =
+      "The number of replayed transactions should be equal";
+
+  @TempDir
+  private Path storeDirectory;
+
+  private WriteAheadLogRdfStore createInMemoryStore(final boolean writeBehind) throws IOException {
+    return (WriteAheadLogRdfStore) RdfStoreFactory.createWriteAheadLogStore(
+        RdfStoreFactory.createInMemoryStore(1),
+        this.getLogDirectory().toString(),
+        Long.MAX_VALUE,
+        false,
+        writeBehind
+    );
+  }
+
+  private WriteAheadLogRdfStore createFilesystemStore(final long segmentSize) throws IOException {
+    return (WriteAheadLogRdfStore) RdfStoreFactory.createWriteAheadLogStore(
+        RdfStoreFactory.createFilesystemStore(this.storeDirectory.resolve("store").toString(), 1),
+        this.getLogDirectory().toString(),
+        segmentSize,
+        true,
+        false
+    );
+  }
+
+  private Path getLogDirectory() {
+    return this.storeDirectory.resolve("wal");
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (var files = Files.list(this.getLogDirectory())) {
+      return files.filter(f -> f.getFileName().toString().endsWith(".nq")).sorted().toList();
+    }
+  }
+
+  @Test
+  public void testTransactionsAreReplayedIntoInMemoryStore() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "second");
+    // The store is never closed, as if the process had crashed
+    final var crashedStore = this.createInMemoryStore(false);
+    crashedStore.applyChanges(List.of(
+        new EntityChange.Add(entityIri, createModel(ENTITY_URI, "first")),
+        new EntityChange.Add(otherEntityIri, createModel(OTHER_ENTITY_URI, "first"))
+    ));
+    crashedStore.replaceEntityModel(entityIri, model);
+    crashedStore.removeEntityModel(otherEntityIri);
+    Assertions.assertEquals(
+        3,
+        crashedStore.getLoggedTransactionCount(),
+        "The number of logged transactions should be equal"
+    );
+
+    final var store = this.createInMemoryStore(false);
+    try {
+      Assertions.assertEquals(3, store.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      Assertions.assertFalse(
+          store.containsEntityModel(otherEntityIri),
+          "The removed entity should not be replayed"
+      );
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testSegmentsAreNQuadsDocuments() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var store = this.createInMemoryStore(false);
+    store.addEntityModel(entityIri, model);
+    store.close();
+
+    final var segment = this.listSegments().get(0);
+    final var content = Files.readString(segment, StandardCharsets.UTF_8);
+    Assertions.assertTrue(content.startsWith("# transaction 1\n"), "The sequence should be logged");
+    Assertions.assertTrue(content.endsWith("# commit 1\n"), "The commit should be logged");
+    try (var in = Files.newInputStream(segment)) {
+      final var quads = Rio.parse(in, RDFFormat.NQUADS);
+      assertSameTriples(model, quads.filter(null, null, null, entityIri));
+    }
+  }
+
+  @Test
+  public void testIncompleteTransactionIsIgnored() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var crashedStore = this.createInMemoryStore(false);
+    crashedStore.addEntityModel(entityIri, model);
+    Files.writeString(
+        this.listSegments().get(0),
+        "# transaction 2\n# remove <" + ENTITY_URI + ">\n",
+        StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND
+    );
+
+    final var store = this.createInMemoryStore(false);
+    try {
+      Assertions.assertEquals(1, store.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      store.removeEntityModel(entityIri);
+    } finally {
+      store.close();
+    }
+
+    final var reopenedStore = this.createInMemoryStore(false);
+    try {
+      Assertions.assertEquals(2, reopenedStore.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+      Assertions.assertFalse(
+          reopenedStore.containsEntityModel(entityIri),
+          "The removed entity should not be replayed"
+      );
+    } finally {
+      reopenedStore.close();
+    }
+  }
+
+  @Test
+  public void testIncompleteTransactionIsNotMixedWithNextOne() throws IOException {
+    final var model = createModel(OTHER_ENTITY_URI, "second");
+    final var incompleteTransaction = WriteAheadLog.encodeTransaction(1, List.of(
+        new EntityChange.Add(
+            RdfModelUtils.createIri(ENTITY_URI),
+            createModel(ENTITY_URI, "first")
+        )
+    ));
+    final var lines = new ArrayList<>(incompleteTransaction.lines().toList());
+    // The transaction is cut short by a crash before its commit line
+    lines.remove(lines.size() - 1);
+    lines.addAll(WriteAheadLog.encodeTransaction(2, List.of(
+        new EntityChange.Add(RdfModelUtils.createIri(OTHER_ENTITY_URI), model)
+    )).lines().toList());
+    final var reader = new WriteAheadLog.TransactionReader();
+    final var transactions = new ArrayList<WriteAheadLog.Transaction>();
+    for (final var line : lines) {
+      final var transaction = reader.readLine(line);
+      if (transaction != null) {
+        transactions.add(transaction);
+      }
+    }
+    Assertions.assertEquals(1, transactions.size(), "Only the complete transaction should be read");
+    assertSameTriples(
+        model,
+        ((EntityChange.Add) transactions.get(0).changes().get(0)).entityModel()
+    );
+  }
+
+  @Test
+  public void testCheckpointDeletesAppliedSegments() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var otherEntityIri = RdfModelUtils.createIri(OTHER_ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var otherModel = createModel(OTHER_ENTITY_URI, "first");
+    final var closedStore = this.createFilesystemStore(1);
+    closedStore.addEntityModel(entityIri, model);
+    closedStore.addEntityModel(otherEntityIri, otherModel);
+    Assertions.assertEquals(2, this.listSegments().size(), "Every transaction should be a segment");
+    closedStore.close();
+    Assertions.assertEquals(1, this.listSegments().size(), "Only the last segment should be kept");
+
+    final var store = this.createFilesystemStore(1);
+    try {
+      Assertions.assertEquals(0, store.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      assertSameTriples(otherModel, store.getEntityModel(otherEntityIri).orElseThrow());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testReplayedBlankNodesAreNotDuplicated() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = Rio.parse(
+        new StringReader(
+            "@prefix ex: <http://example.org/> .\n<#workspace> ex:form [ ex:target ex:t ] .\n"
+        ),
+        ENTITY_URI,
+        RDFFormat.TURTLE
+    );
+    final var crashedBackend = RdfStoreFactory.createFilesystemStore(
+        this.storeDirectory.resolve("store").toString(),
+        1
+    );
+    final var crashedStore = RdfStoreFactory.createWriteAheadLogStore(
+        crashedBackend,
+        this.getLogDirectory().toString(),
+        Long.MAX_VALUE,
+        true,
+        false
+    );
+    crashedStore.addEntityModel(entityIri, model);
+    // The process crashes after the transaction is applied, but before it is checkpointed
+    crashedBackend.close();
+
+    final var store = this.createFilesystemStore(Long.MAX_VALUE);
+    try {
+      Assertions.assertEquals(1, store.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+      final var storedModel = store.getEntityModel(entityIri).orElseThrow();
+      Assertions.assertEquals(2, storedModel.size(), "The blank node should not be duplicated");
+      Assertions.assertTrue(Models.isomorphic(model, storedModel), "The models should be equal");
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testWriteBehindChangesAreRead() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var closedStore = this.createInMemoryStore(true);
+    for (int i = 0; i < 100; i++) {
+      closedStore.replaceEntityModel(entityIri, createModel(ENTITY_URI, "label" + i));
+      assertSameTriples(
+          createModel(ENTITY_URI, "label" + i),
+          closedStore.getEntityModel(entityIri).orElseThrow()
+      );
+    }
+    closedStore.replaceEntityModel(entityIri, model);
+    Assertions.assertTrue(
+        closedStore.queryGraph(
+            "ASK { <" + ENTITY_URI + "#workspace> ?p <" + ENTITY_URI + "first> }",
+            List.of(),
+            List.of(),
+            "application/sparql-results+json"
+        ).contains("true"),
+        "The query should see the last change"
+    );
+    closedStore.close();
+
+    final var store = this.createInMemoryStore(false);
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testWriteBehindFailureRejectsChanges() throws IOException {
+    final var entityIri = RdfModelUtils.createIri(ENTITY_URI);
+    final var model = createModel(ENTITY_URI, "first");
+    final var failingStore = RdfStoreFactory.createInMemoryStore(1);
+    final var crashedStore = (WriteAheadLogRdfStore) RdfStoreFactory.createWriteAheadLogStore(
+        failingStore,
+        this.getLogDirectory().toString(),
+        Long.MAX_VALUE,
+        false,
+        true
+    );
+    failingStore.close();
+    // Acknowledged once logged, but never applied to the closed store
+    crashedStore.addEntityModel(entityIri, model);
+    Assertions.assertThrows(
+        IOException.class,
+        () -> crashedStore.getEntityModel(entityIri),
+        "The entity should not be read without its logged changes"
+    );
+    Assertions.assertThrows(
+        IOException.class,
+        () -> crashedStore.addEntityModel(
+            RdfModelUtils.createIri(OTHER_ENTITY_URI),
+            createModel(OTHER_ENTITY_URI, "first")
+        ),
+        "The changes should be rejected once logged changes could not be applied"
+    );
+
+    final var store = this.createInMemoryStore(false);
+    try {
+      assertSameTriples(model, store.getEntityModel(entityIri).orElseThrow());
+      Assertions.assertEquals(1, store.getReplayedTransactionCount(), REPLAYED_MESSAGE);
+    } finally {
+      store.close();
+    }
+  }
+}
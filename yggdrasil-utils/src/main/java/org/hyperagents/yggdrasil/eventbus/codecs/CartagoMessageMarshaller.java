@@ -77,6 +77,17 @@ public class CartagoMessageMarshaller
         jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).getAsString(),
         jsonObject.get(MessageFields.REQUEST_URI.getName()).getAsString()
       );
+      case FIND_ARTIFACTS -> new CartagoMessage.FindArtifacts(
+        jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).isJsonNull()
+          ? null
+          : jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).getAsString(),
+        jsonObject.get(MessageFields.ACTION_TYPE.getName()).isJsonNull()
+          ? Optional.empty()
+          : Optional.of(jsonObject.get(MessageFields.ACTION_TYPE.getName()).getAsString()),
+        jsonObject.get(MessageFields.ARTIFACT_TYPE.getName()).isJsonNull()
+          ? Optional.empty()
+          : Optional.of(jsonObject.get(MessageFields.ARTIFACT_TYPE.getName()).getAsString())
+      );
       default -> throw new JsonParseException("The request method is not valid");
     };
   }
@@ -157,6 +168,14 @@ public class CartagoMessageMarshaller
         );
         json.addProperty(MessageFields.REQUEST_URI.getName(), m.requestUri());
       }
+      case CartagoMessage.FindArtifacts m -> {
+        json.addProperty(
+            MessageFields.REQUEST_METHOD.getName(),
+            MessageRequestMethods.FIND_ARTIFACTS.getName()
+        );
+        json.addProperty(MessageFields.ACTION_TYPE.getName(), m.actionType().orElse(null));
+        json.addProperty(MessageFields.ARTIFACT_TYPE.getName(), m.artifactType().orElse(null));
+      }
     }
     return json;
   }
@@ -21,7 +21,14 @@ enum MessageFields {
   CONTENT_TYPE("contentType"),
   CALLBACK_IRI("callbackIri"),
   STORE_RESPONSE("storeResponse"),
-  CONTEXT("context"),;
+  CONTEXT("context"),
+  SUBJECT("subject"),
+  PREDICATE("predicate"),
+  OBJECT("object"),
+  PAGE("page"),
+  CURSOR("cursor"),
+  ACTION_TYPE("actionType"),
+  ARTIFACT_TYPE("artifactType"),;
 
 
   private static final String PREFIX = "org.hyperagents.yggdrasil.eventbus.fields.";
@@ -17,8 +17,11 @@ enum MessageRequestMethods {
   CREATE_ARTIFACT("createArtifact"),
   CREATE_BODY("createBody"),
   DO_ACTION("performAction"),
+  FIND_ARTIFACTS("findArtifacts"),
   GET_WORKSPACES("GetWorkspaces"),
     GET_ARTIFACTS("GetArtifacts"),
+  GET_FRAGMENT("getFragment"),
+  SEARCH_ENTITIES("searchEntities"),
   QUERY("query");
 
   private static final String PREFIX = "org.hyperagents.yggdrasil.eventbus.methods.";
@@ -8,7 +8,9 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import io.vertx.core.buffer.Buffer;
 import java.lang.reflect.Type;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -80,38 +82,72 @@ public class RdfStoreMessageMarshaller
         );
       }
 
-      case RdfStoreMessage.ReplaceEntity(String requestUri, String entityRepresentation) -> {
+      case RdfStoreMessage.ReplaceEntity(String requestUri, Buffer entityRepresentation) -> {
         json.addProperty(MessageFields.REQUEST_URI.getName(), requestUri);
         json.addProperty(
             MessageFields.REQUEST_METHOD.getName(),
             MessageRequestMethods.UPDATE_ENTITY.getName()
         );
-        json.addProperty(MessageFields.ENTITY_REPRESENTATION.getName(), entityRepresentation);
+        // The representation may be in a binary format
+        json.addProperty(
+            MessageFields.ENTITY_REPRESENTATION.getName(),
+            Base64.getEncoder().encodeToString(entityRepresentation.getBytes())
+        );
       }
 
-      case RdfStoreMessage.UpdateEntity(String requestUri, String entityRepresentation) -> {
+      case RdfStoreMessage.UpdateEntity(String requestUri, Buffer entityRepresentation) -> {
         json.addProperty(MessageFields.REQUEST_URI.getName(), requestUri);
         json.addProperty(
             MessageFields.REQUEST_URI.getName(),
             MessageRequestMethods.PATCH_ENTITY.getName()
         );
-        json.addProperty(MessageFields.ENTITY_REPRESENTATION.getName(), entityRepresentation);
+        // The representation may be in a binary format
+        json.addProperty(
+            MessageFields.ENTITY_REPRESENTATION.getName(),
+            Base64.getEncoder().encodeToString(entityRepresentation.getBytes())
+        );
       }
 
-      case RdfStoreMessage.GetWorkspaces(String containerWorkspace) -> {
+      case RdfStoreMessage.GetWorkspaces(String containerWorkspace, Optional<String> cursor) -> {
         json.addProperty(
             MessageFields.REQUEST_METHOD.getName(),
             MessageRequestMethods.GET_WORKSPACES.getName()
         );
         json.addProperty(MessageFields.REQUEST_URI.getName(), containerWorkspace);
+        json.addProperty(MessageFields.CURSOR.getName(), cursor.orElse(null));
       }
 
-      case RdfStoreMessage.GetArtifacts(String workspaceName) -> {
+      case RdfStoreMessage.GetArtifacts(String workspaceName, Optional<String> cursor) -> {
         json.addProperty(
             MessageFields.REQUEST_METHOD.getName(),
             MessageRequestMethods.GET_ARTIFACTS.getName()
         );
         json.addProperty(MessageFields.WORKSPACE_NAME.getName(), workspaceName);
+        json.addProperty(MessageFields.CURSOR.getName(), cursor.orElse(null));
+      }
+
+      case RdfStoreMessage.GetFragment(
+          String subject,
+          String predicate,
+          String object,
+          long page
+        ) -> {
+        json.addProperty(
+            MessageFields.REQUEST_METHOD.getName(),
+            MessageRequestMethods.GET_FRAGMENT.getName()
+        );
+        json.addProperty(MessageFields.SUBJECT.getName(), subject);
+        json.addProperty(MessageFields.PREDICATE.getName(), predicate);
+        json.addProperty(MessageFields.OBJECT.getName(), object);
+        json.addProperty(MessageFields.PAGE.getName(), page);
+      }
+
+      case RdfStoreMessage.SearchEntities(String query) -> {
+        json.addProperty(
+            MessageFields.REQUEST_METHOD.getName(),
+            MessageRequestMethods.SEARCH_ENTITIES.getName()
+        );
+        json.addProperty(MessageFields.QUERY.getName(), query);
       }
 
       case RdfStoreMessage.QueryKnowledgeGraph(
@@ -191,21 +227,40 @@ public class RdfStoreMessageMarshaller
       );
       case UPDATE_ENTITY -> new RdfStoreMessage.ReplaceEntity(
         jsonObject.get(MessageFields.REQUEST_URI.getName()).getAsString(),
-        jsonObject.get(MessageFields.ENTITY_REPRESENTATION.getName()).getAsString()
+        Buffer.buffer(Base64.getDecoder().decode(
+          jsonObject.get(MessageFields.ENTITY_REPRESENTATION.getName()).getAsString()
+        ))
       );
       case PATCH_ENTITY -> new RdfStoreMessage.UpdateEntity(
         jsonObject.get(MessageFields.REQUEST_URI.getName()).getAsString(),
-        jsonObject.get(MessageFields.ENTITY_REPRESENTATION.getName()).getAsString()
+        Buffer.buffer(Base64.getDecoder().decode(
+          jsonObject.get(MessageFields.ENTITY_REPRESENTATION.getName()).getAsString()
+        ))
       );
       case DELETE_ENTITY -> new RdfStoreMessage.DeleteEntity(
           jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).getAsString(),
           jsonObject.get(MessageFields.ARTIFACT_NAME.getName()).getAsString()
       );
       case GET_WORKSPACES -> new RdfStoreMessage.GetWorkspaces(
-        jsonObject.get(MessageFields.REQUEST_URI.getName()).getAsString()
+        jsonObject.get(MessageFields.REQUEST_URI.getName()).getAsString(),
+        jsonObject.get(MessageFields.CURSOR.getName()).isJsonNull()
+        ? Optional.empty()
+        : Optional.of(jsonObject.get(MessageFields.CURSOR.getName()).getAsString())
       );
       case GET_ARTIFACTS -> new RdfStoreMessage.GetArtifacts(
-        jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).getAsString()
+        jsonObject.get(MessageFields.WORKSPACE_NAME.getName()).getAsString(),
+        jsonObject.get(MessageFields.CURSOR.getName()).isJsonNull()
+        ? Optional.empty()
+        : Optional.of(jsonObject.get(MessageFields.CURSOR.getName()).getAsString())
+      );
+      case GET_FRAGMENT -> new RdfStoreMessage.GetFragment(
+        jsonObject.get(MessageFields.SUBJECT.getName()).getAsString(),
+        jsonObject.get(MessageFields.PREDICATE.getName()).getAsString(),
+        jsonObject.get(MessageFields.OBJECT.getName()).getAsString(),
+        jsonObject.get(MessageFields.PAGE.getName()).getAsLong()
+      );
+      case SEARCH_ENTITIES -> new RdfStoreMessage.SearchEntities(
+        jsonObject.get(MessageFields.QUERY.getName()).getAsString()
       );
       case QUERY -> new RdfStoreMessage.QueryKnowledgeGraph(
         jsonObject.get(MessageFields.QUERY.getName()).getAsString(),
@@ -85,6 +85,13 @@ public class CartagoMessagebox implements Messagebox<CartagoMessage> {
             new CartagoMessageMarshaller()
         )
       );
+      this.eventBus.registerDefaultCodec(
+          CartagoMessage.FindArtifacts.class,
+          new GenericMessageCodec<>(
+            CartagoMessage.FindArtifacts.class,
+            new CartagoMessageMarshaller()
+          )
+      );
     } else {
       LOGGER.warn("Dynamic environments are not enabled, message exchange will not be initialized");
     }
@@ -1,9 +1,15 @@
 package org.hyperagents.yggdrasil.eventbus.messageboxes;
 
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
+import java.net.HttpURLConnection;
+import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import org.hyperagents.yggdrasil.eventbus.codecs.GenericMessageCodec;
 import org.hyperagents.yggdrasil.eventbus.codecs.RdfStoreMessageMarshaller;
 import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
@@ -14,6 +20,22 @@ import org.hyperagents.yggdrasil.eventbus.messages.RdfStoreMessage;
  * sending messages, and receiving messages.
  */
 public class RdfStoreMessagebox implements Messagebox<RdfStoreMessage> {
+  /**
+   * The header of a query message carrying the address to which its results are to be streamed.
+   */
+  public static final String QUERY_RESULTS_ADDRESS_HEADER = "query-results-address";
+
+  /**
+   * The header of a read message carrying the content type in which the representation is
+   * requested.
+   */
+  public static final String ACCEPT_HEADER = "Accept";
+
+  /**
+   * The header of a write message carrying the content type of the representation it holds.
+   */
+  public static final String CONTENT_TYPE_HEADER = "Content-Type";
+
   private final EventBus eventBus;
 
   public RdfStoreMessagebox(final EventBus eventBus) {
@@ -89,6 +111,20 @@ public class RdfStoreMessagebox implements Messagebox<RdfStoreMessage> {
           new RdfStoreMessageMarshaller()
         )
     );
+    this.eventBus.registerDefaultCodec(
+        RdfStoreMessage.GetFragment.class,
+        new GenericMessageCodec<>(
+          RdfStoreMessage.GetFragment.class,
+          new RdfStoreMessageMarshaller()
+        )
+    );
+    this.eventBus.registerDefaultCodec(
+        RdfStoreMessage.SearchEntities.class,
+        new GenericMessageCodec<>(
+          RdfStoreMessage.SearchEntities.class,
+          new RdfStoreMessageMarshaller()
+        )
+    );
     this.eventBus.registerDefaultCodec(
         RdfStoreMessage.QueryKnowledgeGraph.class,
         new GenericMessageCodec<>(
@@ -103,6 +139,84 @@ public class RdfStoreMessagebox implements Messagebox<RdfStoreMessage> {
     return this.eventBus.request(MessageAddresses.RDF_STORE.getName(), message);
   }
 
+  /**
+   * Sends a read to the store asking for the representation it returns in the given content type.
+   * The store replies with a buffer holding the representation, and a {@code Content-Type} header
+   * giving its actual content type, which is Turtle if the requested one is not supported.
+   *
+   * @param message     the read to send
+   * @param contentType the requested content type of the representation
+   * @return a future completed with the reply of the store
+   */
+  public Future<Message<Buffer>> sendMessage(
+      final RdfStoreMessage message,
+      final String contentType
+  ) {
+    return this.eventBus.request(
+        MessageAddresses.RDF_STORE.getName(),
+        message,
+        new DeliveryOptions().addHeader(ACCEPT_HEADER, contentType)
+    );
+  }
+
+  /**
+   * Sends a write to the store holding a representation in the given content type rather than in
+   * Turtle, the bytes of which are held by the message.
+   *
+   * @param message     the write to send
+   * @param contentType the content type of the representation held by the message
+   * @return a future completed with the reply of the store
+   */
+  public Future<Message<String>> sendWriteMessage(
+      final RdfStoreMessage message,
+      final String contentType
+  ) {
+    return this.eventBus.request(
+        MessageAddresses.RDF_STORE.getName(),
+        message,
+        new DeliveryOptions().addHeader(CONTENT_TYPE_HEADER, contentType)
+    );
+  }
+
+  /**
+   * Sends a query to the store asking for its results to be streamed back in chunks rather than
+   * sent as a whole in the reply. Each chunk is passed to the given handler, and the store only
+   * sends the next chunk once the future returned by the handler for the previous one has
+   * succeeded, so that the results are not produced faster than they are consumed. If the future
+   * fails, the evaluation of the query is aborted.
+   *
+   * @param message        the query to send
+   * @param resultsHandler the handler of the chunks of the results
+   * @return a future completed with the reply of the store once all the results have been sent
+   */
+  public Future<Message<String>> sendQueryMessage(
+      final RdfStoreMessage.QueryKnowledgeGraph message,
+      final Function<Buffer, Future<Void>> resultsHandler
+  ) {
+    final var resultsAddress =
+        MessageAddresses.RDF_STORE.getName() + ".results." + UUID.randomUUID();
+    final var consumer = this.eventBus.<Buffer>consumer(
+        resultsAddress,
+        chunk -> resultsHandler.apply(chunk.body()).onComplete(r -> {
+          if (r.succeeded()) {
+            chunk.reply(null);
+          } else {
+            chunk.fail(HttpURLConnection.HTTP_INTERNAL_ERROR, r.cause().getMessage());
+          }
+        })
+    );
+    final Promise<Void> registered = Promise.promise();
+    consumer.completionHandler(registered);
+    return registered
+        .future()
+        .compose(v -> this.eventBus.<String>request(
+            MessageAddresses.RDF_STORE.getName(),
+            message,
+            new DeliveryOptions().addHeader(QUERY_RESULTS_ADDRESS_HEADER, resultsAddress)
+        ))
+        .onComplete(r -> consumer.unregister());
+  }
+
   @Override
   public void receiveMessages(final Consumer<Message<RdfStoreMessage>> messageHandler) {
     this.eventBus.consumer(MessageAddresses.RDF_STORE.getName(), messageHandler::accept);
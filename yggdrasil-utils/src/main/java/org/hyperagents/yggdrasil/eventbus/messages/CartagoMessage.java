@@ -135,4 +135,20 @@ public sealed interface CartagoMessage {
       String requestUri
   ) implements CartagoMessage {
   }
+
+  /**
+   * A record representing a request to find the artifacts offering an action of a given semantic
+   * type, or being of a given semantic type, or both.
+   *
+   * @param workspaceName The name of the workspace whose artifacts are searched, or null to search
+   *                      the artifacts of all the workspaces.
+   * @param actionType    The semantic type of the action the artifacts must offer, if any.
+   * @param artifactType  The semantic type the artifacts must have, if any.
+   */
+  record FindArtifacts(
+      String workspaceName,
+      Optional<String> actionType,
+      Optional<String> artifactType
+  ) implements CartagoMessage {
+  }
 }
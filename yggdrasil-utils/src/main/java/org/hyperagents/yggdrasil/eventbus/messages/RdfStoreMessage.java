@@ -1,5 +1,6 @@
 package org.hyperagents.yggdrasil.eventbus.messages;
 
+import io.vertx.core.buffer.Buffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -34,18 +35,24 @@ public sealed interface RdfStoreMessage {
    * A record representing a request to update an entity in the RDF store.
    *
    * @param requestUri           The URI of the request to update the entity.
-   * @param entityRepresentation The string representation of the entity to be updated.
+   * @param entityRepresentation The bytes of the representation of the entity to be updated.
    */
-  record ReplaceEntity(String requestUri, String entityRepresentation) implements RdfStoreMessage {
+  record ReplaceEntity(String requestUri, Buffer entityRepresentation) implements RdfStoreMessage {
+    public ReplaceEntity(final String requestUri, final String entityRepresentation) {
+      this(requestUri, Buffer.buffer(entityRepresentation));
+    }
   }
 
   /**
    * A record representing a request to update an entity in the RDF store.
    *
    * @param requestUri           The URI of the request to update the entity.
-   * @param entityRepresentation The string representation of the entity to be updated.
+   * @param entityRepresentation The bytes of the representation of the entity to be updated.
    */
-  record UpdateEntity(String requestUri, String entityRepresentation) implements RdfStoreMessage {
+  record UpdateEntity(String requestUri, Buffer entityRepresentation) implements RdfStoreMessage {
+    public UpdateEntity(final String requestUri, final String entityRepresentation) {
+      this(requestUri, Buffer.buffer(entityRepresentation));
+    }
   }
 
   /**
@@ -103,19 +110,55 @@ public sealed interface RdfStoreMessage {
   }
 
   /**
-   * A record representing a request to get the workspaces from the RDF store.
+   * A record representing a request to get a page of the workspaces from the RDF store.
    *
    * @param containerWorkspace The name of the container workspace.
+   * @param cursor             The IRI of the last workspace on the previous page, empty for the
+   *                           first page.
    */
-  record GetWorkspaces(String containerWorkspace) implements RdfStoreMessage {
+  record GetWorkspaces(String containerWorkspace, Optional<String> cursor)
+      implements RdfStoreMessage {
+    public GetWorkspaces(final String containerWorkspace) {
+      this(containerWorkspace, Optional.empty());
+    }
   }
 
   /**
-   * A record representing a request to get the artifacts from the RDF store.
+   * A record representing a request to get a page of the artifacts from the RDF store.
    *
    * @param workspaceName The name of the workspace.
+   * @param cursor        The IRI of the last artifact on the previous page, empty for the first
+   *                      page.
+   */
+  record GetArtifacts(String workspaceName, Optional<String> cursor) implements RdfStoreMessage {
+    public GetArtifacts(final String workspaceName) {
+      this(workspaceName, Optional.empty());
+    }
+  }
+
+  /**
+   * A record representing a request to get a page of the triples matching a triple pattern from
+   * the RDF store.
+   *
+   * @param subject   The subject of the pattern, empty to match any subject.
+   * @param predicate The predicate of the pattern, empty to match any predicate.
+   * @param object    The object of the pattern, empty to match any object.
+   * @param page      The number of the requested page, starting from 1.
+   */
+  record GetFragment(
+      String subject,
+      String predicate,
+      String object,
+      long page
+  ) implements RdfStoreMessage {
+  }
+
+  /**
+   * A record representing a request to find the entities whose literals match a full-text query.
+   *
+   * @param query The full-text query, in the syntax of Lucene queries.
    */
-  record GetArtifacts(String workspaceName) implements RdfStoreMessage {
+  record SearchEntities(String query) implements RdfStoreMessage {
   }
 
   /**
@@ -36,6 +36,22 @@ public final class JsonObjectUtils {
     return getValue(jsonObject, key, JsonObject::getInteger, logger);
   }
 
+  /**
+   * Retrieves an optional long value from a JSON object based on the specified key.
+   *
+   * @param jsonObject the JSON object to retrieve the value from
+   * @param key the key of the value to retrieve
+   * @param logger a consumer for logging any exceptions that occur
+   * @return an optional long value
+   */
+  public static Optional<Long> getLong(
+      final JsonObject jsonObject,
+      final String key,
+      final Consumer<String> logger
+  ) {
+    return getValue(jsonObject, key, JsonObject::getLong, logger);
+  }
+
   /**
    * Retrieves an optional string value from a JSON object based on the specified key.
    *
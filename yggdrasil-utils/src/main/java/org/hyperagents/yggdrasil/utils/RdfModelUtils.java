@@ -1,7 +1,13 @@
 package org.hyperagents.yggdrasil.utils;
 
+import io.vertx.core.buffer.Buffer;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -10,9 +16,10 @@ import java.util.Set;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Statement;
-import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.DynamicModelFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.RDFWriter;
@@ -44,18 +51,7 @@ public final class RdfModelUtils {
       throws IllegalArgumentException, IOException {
     final var test = new ByteArrayOutputStream();
 
-    final RDFWriter writer;
-    try {
-      if (base == null) {
-        writer = Rio.createWriter(format, test);
-      } else {
-        writer = Rio.createWriter(format, test, base);
-      }
-    } catch (final UnsupportedRDFormatException e) {
-      throw new IllegalArgumentException("Unsupported RDF syntax: " + e.getMessage());
-    } catch (final URISyntaxException e) {
-      throw new IllegalArgumentException("Cannot create URI: " + e.getMessage());
-    }
+    final RDFWriter writer = createWriter(format, test, base);
 
     if (format.equals(RDFFormat.JSONLD)) {
       writer.getWriterConfig()
@@ -70,6 +66,58 @@ public final class RdfModelUtils {
       .set(BasicWriterSettings.XSD_STRING_TO_PLAIN_LITERAL, true)
         .set(BasicWriterSettings.INLINE_BLANK_NODES, true);
 
+    writeModel(model, writer);
+    return test.toString(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Converts a given RDF model to a buffer holding its representation in the specified format,
+   * without pretty-printing it. The statements are written to the buffer as they are iterated
+   * over, instead of being first grouped by subject and searched for inlinable blank nodes, which
+   * makes this conversion much cheaper for large models.
+   *
+   * @param model  the RDF model to convert
+   * @param format the format in which the model should be serialized
+   * @param base   the base for the model, or null
+   * @return the buffer holding the representation of the RDF model
+   * @throws IllegalArgumentException if the RDF format is not supported
+   * @throws IOException              if an I/O error occurs during serialization
+   */
+  public static Buffer modelToBuffer(final Model model, final RDFFormat format, final String base)
+      throws IllegalArgumentException, IOException {
+    final var buffer = Buffer.buffer();
+    final var writer = createWriter(format, new BufferOutputStream(buffer), base);
+    writer.getWriterConfig()
+          .set(BasicWriterSettings.PRETTY_PRINT, false)
+          .set(BasicWriterSettings.INLINE_BLANK_NODES, false)
+          .set(BasicWriterSettings.RDF_LANGSTRING_TO_LANG_LITERAL, true)
+          .set(BasicWriterSettings.XSD_STRING_TO_PLAIN_LITERAL, true);
+    writeModel(model, writer);
+    return buffer;
+  }
+
+  private static RDFWriter createWriter(
+      final RDFFormat format,
+      final OutputStream out,
+      final String base
+  ) throws IllegalArgumentException {
+    try {
+      if (!format.equals(RDFFormat.NTRIPLES) && !format.equals(RDFFormat.NQUADS)) {
+        return base == null ? Rio.createWriter(format, out) : Rio.createWriter(format, out, base);
+      }
+      // Unlike the other writers, the N-Triples and N-Quads ones write char by char to the stream
+      final var writer = new BufferedWriter(new OutputStreamWriter(out, format.getCharset()));
+      return base == null
+             ? Rio.createWriter(format, writer)
+             : Rio.createWriter(format, writer, base);
+    } catch (final UnsupportedRDFormatException e) {
+      throw new IllegalArgumentException("Unsupported RDF syntax: " + e.getMessage());
+    } catch (final URISyntaxException e) {
+      throw new IllegalArgumentException("Cannot create URI: " + e.getMessage());
+    }
+  }
+
+  private static void writeModel(final Model model, final RDFWriter writer) throws IOException {
     try {
       writer.startRDF();
       model.getNamespaces().forEach(namespace ->
@@ -79,12 +127,11 @@ public final class RdfModelUtils {
     } catch (RDFHandlerException e) {
       throw new IOException("RDF handler exception: " + e.getMessage());
     }
-    return test.toString(StandardCharsets.UTF_8);
   }
 
-
   /**
-   * Converts a string representation of an RDF graph to an RDF model.
+   * Converts a string representation of an RDF graph to an RDF model. The statements of the model
+   * are only indexed once it is first filtered, since most parsed models are only iterated over.
    *
    * @param graphString the string representation of the RDF graph
    * @param baseIri     the base IRI for resolving relative IRIs
@@ -98,12 +145,93 @@ public final class RdfModelUtils {
       final IRI baseIri,
       final RDFFormat format
   ) throws IllegalArgumentException, IOException {
-    try (var stringReader = new StringReader(graphString)) {
+    final var model = new DynamicModelFactory().createEmptyModel();
+    parse(graphString, baseIri, format, new StatementCollector(model));
+    return model;
+  }
+
+  /**
+   * Converts a buffer holding the representation of an RDF graph, in any format including the
+   * binary ones, to an RDF model. The representation is parsed from a stream over its bytes.
+   *
+   * @param graphBuffer the buffer holding the representation of the RDF graph
+   * @param baseIri     the base IRI for resolving relative IRIs
+   * @param format      the format of the RDF graph
+   * @return the RDF model
+   * @throws IllegalArgumentException if RDF format is not supported / the graph is invalid
+   * @throws IOException              if an I/O error occurs during parsing
+   */
+  public static Model bufferToModel(
+      final Buffer graphBuffer,
+      final IRI baseIri,
+      final RDFFormat format
+  ) throws IllegalArgumentException, IOException {
+    final var model = new DynamicModelFactory().createEmptyModel();
+    parse(
+        new ByteArrayInputStream(graphBuffer.getBytes()),
+        baseIri,
+        format,
+        new StatementCollector(model)
+    );
+    return model;
+  }
+
+  /**
+   * Parses a string representation of an RDF graph, passing its statements to the given handler as
+   * they are read. The empty relative IRI {@code <>} is resolved to the base IRI, as are the other
+   * relative IRIs. The binary formats have no string representation, and are parsed from a stream
+   * instead.
+   *
+   * @param graphString the string representation of the RDF graph
+   * @param baseIri     the base IRI for resolving relative IRIs
+   * @param format      the format of the RDF graph
+   * @param handler     the handler receiving the statements
+   * @throws IllegalArgumentException if RDF format is not supported / the graph string is invalid
+   * @throws IOException              if an I/O error occurs during parsing
+   */
+  public static void parse(
+      final String graphString,
+      final IRI baseIri,
+      final RDFFormat format,
+      final RDFHandler handler
+  ) throws IllegalArgumentException, IOException {
+    try {
       final var rdfParser = Rio.createParser(format);
-      final var model = new LinkedHashModel();
-      rdfParser.setRDFHandler(new StatementCollector(model));
-      rdfParser.parse(stringReader, baseIri.stringValue());
-      return model;
+      rdfParser.setRDFHandler(handler);
+      rdfParser.parse(new StringReader(graphString), baseIri.stringValue());
+    } catch (final UnsupportedRDFormatException | UnsupportedOperationException e) {
+      throw new IllegalArgumentException("Unsupported RDF syntax: " + e.getMessage());
+    } catch (final RDFParseException e) {
+      throw new IllegalArgumentException("RDF parse error: " + e.getMessage());
+    } catch (final RDFHandlerException e) {
+      throw new IOException("RDF handler exception: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parses a stream of bytes representing an RDF graph, passing its statements to the given
+   * handler as they are read. The empty relative IRI {@code <>} is resolved to the base IRI, as are
+   * the other relative IRIs.
+   *
+   * @param graphStream the stream of bytes of the RDF graph
+   * @param baseIri     the base IRI for resolving relative IRIs
+   * @param format      the format of the RDF graph
+   * @param handler     the handler receiving the statements
+   * @throws IllegalArgumentException if RDF format is not supported / the graph is invalid
+   * @throws IOException              if an I/O error occurs during parsing
+   */
+  public static void parse(
+      final InputStream graphStream,
+      final IRI baseIri,
+      final RDFFormat format,
+      final RDFHandler handler
+  ) throws IllegalArgumentException, IOException {
+    try {
+      final var rdfParser = Rio.createParser(format);
+      rdfParser.setRDFHandler(handler);
+      rdfParser.parse(graphStream, baseIri.stringValue());
+    } catch (final UnsupportedRDFormatException e) {
+      throw new IllegalArgumentException("Unsupported RDF syntax: " + e.getMessage());
     } catch (final RDFParseException e) {
       throw new IllegalArgumentException("RDF parse error: " + e.getMessage());
     } catch (final RDFHandlerException e) {
@@ -122,6 +250,19 @@ public final class RdfModelUtils {
     return SimpleValueFactory.getInstance().createIRI(iriString);
   }
 
+  /**
+   * Returns the IRI of the named graph of an entity, which always ends with a slash, whether or
+   * not the given IRI of the entity does.
+   *
+   * @param entityIri the IRI of the entity
+   * @return the IRI of the named graph of the entity
+   */
+  public static IRI fixEntityIri(final IRI entityIri) {
+    final String entityIriString = entityIri.toString();
+    final String fixedIri = entityIriString.endsWith("/") ? entityIriString : entityIriString + "/";
+    return createIri(fixedIri);
+  }
+
   /**
    * Given a model return all namespaces.
    *
@@ -148,5 +289,25 @@ public final class RdfModelUtils {
     return iris;
   }
 
+  /**
+   * An output stream appending the bytes written to it to a buffer.
+   */
+  private static final class BufferOutputStream extends OutputStream {
+    private final Buffer buffer;
 
+    BufferOutputStream(final Buffer buffer) {
+      super();
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(final int b) {
+      this.buffer.appendByte((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      this.buffer.appendBytes(b, off, len);
+    }
+  }
 }
@@ -0,0 +1,375 @@
+package org.hyperagents.yggdrasil.utils;
+
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * Represents the configuration for the RDF store, read from the "rdf-store" block.
+ */
+public interface RdfStoreConfig extends Shareable {
+
+  /**
+   * Checks if the store should be kept in memory.
+   *
+   * @return true if the store is kept in memory, false if it is persisted on the filesystem.
+   */
+  boolean isInMemory();
+
+  /**
+   * Gets the backend in which the entity graphs are stored.
+   *
+   * @return the backend of the store
+   */
+  Backend getBackend();
+
+  /**
+   * Gets the path of the directory used by the filesystem store.
+   *
+   * @return the store path
+   */
+  String getStorePath();
+
+  /**
+   * Gets the number of connections that can read the store at the same time. Every read runs on
+   * a snapshot of the store, while all the changes go through a single writing connection.
+   *
+   * @return the number of read connections
+   */
+  int getReadConnections();
+
+  /**
+   * Checks if every commit to the filesystem store is synchronized to the disk before completing.
+   *
+   * @return true if the commits are synchronized to the disk, false otherwise.
+   */
+  boolean isForceSyncEnabled();
+
+  /**
+   * Gets the indexes of the statements kept by the native store, as a comma-separated list of
+   * orderings of the subject, predicate, object and context, e.g. "spoc,posc,cspo". The indexes of
+   * an existing store are rebuilt when they differ from these ones.
+   *
+   * @return the triple indexes of the native store
+   */
+  String getNativeTripleIndexes();
+
+  /**
+   * Gets the indexes of the statements kept by the LMDB store, as a comma-separated list of
+   * orderings of the subject, predicate, object and context, e.g. "spoc,posc".
+   *
+   * @return the triple indexes of the LMDB store
+   */
+  String getLmdbTripleIndexes();
+
+  /**
+   * Gets the initial size of the memory map of the statements of the LMDB store.
+   *
+   * @return the size of the triple database in bytes
+   */
+  long getLmdbTripleDbSize();
+
+  /**
+   * Gets the initial size of the memory map of the values of the LMDB store.
+   *
+   * @return the size of the value database in bytes
+   */
+  long getLmdbValueDbSize();
+
+  /**
+   * Checks if the in-memory store is periodically written to snapshots in the store path, with
+   * the changes committed in between appended to a change log, so it survives restarts.
+   *
+   * @return true if snapshots are enabled, false otherwise.
+   */
+  boolean isSnapshotEnabled();
+
+  /**
+   * Gets the number of seconds between two snapshots of the in-memory store, 0 meaning that a
+   * snapshot is only written when the store is closed.
+   *
+   * @return the snapshot interval in seconds
+   */
+  long getSnapshotInterval();
+
+  /**
+   * Checks if every transaction is appended to a write-ahead log in the store path before being
+   * applied, so the acknowledged transactions are replayed after a crash.
+   *
+   * @return true if the write-ahead log is enabled, false otherwise.
+   */
+  boolean isWriteAheadLogEnabled();
+
+  /**
+   * Gets the size in bytes above which a new segment of the write-ahead log is started.
+   *
+   * @return the segment size in bytes
+   */
+  long getWriteAheadLogSegmentSize();
+
+  /**
+   * Checks if the transactions are acknowledged once in the write-ahead log, and applied to the
+   * store later on a background thread.
+   *
+   * @return true if write-behind is enabled, false otherwise.
+   */
+  boolean isWriteBehindEnabled();
+
+  /**
+   * Gets the part played by the store in the replication of its content to other processes.
+   *
+   * @return the replication role of the store
+   */
+  ReplicationRole getReplicationRole();
+
+  /**
+   * Gets the host on which a primary accepts the connections of its followers, or the host of the
+   * primary a follower connects to.
+   *
+   * @return the replication host
+   */
+  String getReplicationHost();
+
+  /**
+   * Gets the port on which a primary accepts the connections of its followers, or the port of the
+   * primary a follower connects to.
+   *
+   * @return the replication port
+   */
+  int getReplicationPort();
+
+  /**
+   * Gets the number of milliseconds a follower can be behind its primary before refusing to
+   * answer reads.
+   *
+   * @return the maximum replication lag in milliseconds
+   */
+  long getReplicationMaxLag();
+
+  /**
+   * Gets the number of milliseconds between two heartbeats sent by a primary to its followers,
+   * from which they measure their replication lag.
+   *
+   * @return the heartbeat interval in milliseconds
+   */
+  long getReplicationHeartbeatInterval();
+
+  /**
+   * Checks if the changes requested while a commit is in progress are committed together, in a
+   * single transaction.
+   *
+   * @return true if group commit is enabled, false otherwise.
+   */
+  boolean isGroupCommitEnabled();
+
+  /**
+   * Checks if the parsed-entity cache in front of the store is enabled.
+   *
+   * @return true if the entity cache is enabled, false otherwise.
+   */
+  boolean isEntityCacheEnabled();
+
+  /**
+   * Gets the maximum number of entity models kept in the entity cache.
+   *
+   * @return the maximum number of cached entities
+   */
+  int getEntityCacheMaxEntries();
+
+  /**
+   * Gets the approximate maximum number of bytes the entity cache can retain.
+   *
+   * @return the maximum size of the entity cache in bytes
+   */
+  long getEntityCacheMaxBytes();
+
+  /**
+   * Checks if the most recently read entity graphs of a persistent store are also kept in an
+   * in-memory tier.
+   *
+   * @return true if the hot tier is enabled, false otherwise.
+   */
+  boolean isHotTierEnabled();
+
+  /**
+   * Gets the maximum number of entity graphs kept in the hot tier.
+   *
+   * @return the maximum number of entities in the hot tier
+   */
+  int getHotTierMaxEntries();
+
+  /**
+   * Gets the approximate maximum number of bytes of entity graphs kept in the hot tier.
+   *
+   * @return the maximum size of the hot tier in bytes
+   */
+  long getHotTierMaxBytes();
+
+  /**
+   * Checks if the cache of serialized entity representations is enabled.
+   *
+   * @return true if the representation cache is enabled, false otherwise.
+   */
+  boolean isRepresentationCacheEnabled();
+
+  /**
+   * Gets the maximum number of serialized representations kept in the representation cache.
+   *
+   * @return the maximum number of cached representations
+   */
+  int getRepresentationCacheMaxEntries();
+
+  /**
+   * Gets the way the representations of entities are serialized when they are sent as Turtle.
+   *
+   * @return the serialization profile of the Turtle representations
+   */
+  SerializationProfile getSerializationProfile();
+
+  /**
+   * Gets the number of triples on each page of the triple pattern fragments served by the store.
+   *
+   * @return the page size of the triple pattern fragments
+   */
+  int getFragmentPageSize();
+
+  /**
+   * Gets the maximum number of workspaces or artifacts on each page of the listings of the
+   * entities contained in the platform and the workspaces.
+   *
+   * @return the page size of the listings
+   */
+  int getListingPageSize();
+
+  /**
+   * Checks if the literals of the entities are indexed for full-text search.
+   *
+   * @return true if full-text search is enabled, false otherwise
+   */
+  boolean isFullTextSearchEnabled();
+
+  /**
+   * Checks if the full-text index is rebuilt from the content of the store when it is created,
+   * which it always is when a persistent store has no index yet.
+   *
+   * @return true if the full-text index is rebuilt on startup, false otherwise
+   */
+  boolean isFullTextSearchRebuildEnabled();
+
+  /**
+   * Gets the maximum number of entities returned by a full-text search.
+   *
+   * @return the maximum number of search results
+   */
+  int getFullTextSearchMaxResults();
+
+  /**
+   * Checks if the cache of SPARQL query results in front of the store is enabled.
+   *
+   * @return true if the query cache is enabled, false otherwise.
+   */
+  boolean isQueryCacheEnabled();
+
+  /**
+   * Gets the maximum number of query results kept in the query cache.
+   *
+   * @return the maximum number of cached query results
+   */
+  int getQueryCacheMaxEntries();
+
+  /**
+   * Gets the maximum number of bytes of query results the query cache can retain.
+   *
+   * @return the maximum size of the query cache in bytes
+   */
+  long getQueryCacheMaxBytes();
+
+  /**
+   * Gets the maximum time a SPARQL query can run before being interrupted.
+   *
+   * @return the query timeout in seconds, or 0 if queries are not interrupted
+   */
+  int getQueryTimeout();
+
+  /**
+   * Gets the maximum number of solutions or statements returned for a SPARQL query, beyond which
+   * the query fails.
+   *
+   * @return the maximum number of query results, or 0 if the results are not bounded
+   */
+  long getQueryMaxResults();
+
+  /**
+   * Gets the duration from which a SPARQL query is logged as slow.
+   *
+   * @return the slow query threshold in milliseconds
+   */
+  long getSlowQueryThreshold();
+
+  /**
+   * Gets the number of parsed SPARQL queries kept, so that queries sent again are not parsed again.
+   *
+   * @return the size of the parsed query cache, 0 if queries are always parsed
+   */
+  int getParsedQueryCacheSize();
+
+  /**
+   * Gets the kind of threads on which the store operations are run.
+   *
+   * @return the execution mode of the store
+   */
+  ExecutionMode getExecutionMode();
+
+  /**
+   * Gets the number of threads of the worker pool used when the execution mode is
+   * {@link ExecutionMode#WORKER}.
+   *
+   * @return the size of the worker pool of the store
+   */
+  int getWorkerPoolSize();
+
+  /**
+   * The backends in which the entity graphs can be stored.
+   */
+  enum Backend {
+    /** The graphs are kept in memory and lost on shutdown. */
+    MEMORY,
+    /** The graphs are persisted on the filesystem by the RDF4J native store. */
+    NATIVE,
+    /** The graphs are persisted on the filesystem in LMDB memory-mapped databases. */
+    LMDB
+  }
+
+  /**
+   * The parts a store can play in the replication of its content to other processes.
+   */
+  enum ReplicationRole {
+    /** The content of the store is not replicated. */
+    NONE,
+    /** The transactions committed to the store are streamed to its followers. */
+    PRIMARY,
+    /** The store only applies the transactions of its primary, and only answers reads. */
+    FOLLOWER
+  }
+
+  /**
+   * The ways in which the representations of entities can be serialized.
+   */
+  enum SerializationProfile {
+    /** The statements are grouped and indented, and the blank nodes are inlined, for humans. */
+    PRETTY,
+    /** The statements are written as soon as they are read, for machine clients. */
+    FAST
+  }
+
+  /**
+   * The kinds of threads on which the requests to the store are handled. Whatever the mode, the
+   * requests see the changes made by the ones received before them.
+   */
+  enum ExecutionMode {
+    /** The operations are run on the event loop thread of the store verticle. */
+    EVENT_LOOP,
+    /** The operations are run on a dedicated, bounded worker pool. */
+    WORKER,
+    /** The operations are run on virtual threads. */
+    VIRTUAL_THREAD
+  }
+}
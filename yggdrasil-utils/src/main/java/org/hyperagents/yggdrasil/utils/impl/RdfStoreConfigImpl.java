@@ -0,0 +1,555 @@
+package org.hyperagents.yggdrasil.utils.impl;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hyperagents.yggdrasil.utils.JsonObjectUtils;
+import org.hyperagents.yggdrasil.utils.RdfStoreConfig;
+
+/**
+ * Implementation of the RdfStoreConfig interface.
+ * This class reads the "rdf-store" block of the configuration, which selects the backend used
+ * for storing the entity graphs and the caches placed in front of it.
+ */
+public class RdfStoreConfigImpl implements RdfStoreConfig {
+  private static final Logger LOGGER = LogManager.getLogger(RdfStoreConfigImpl.class);
+  private static final String IN_MEMORY_KEY = "in-memory";
+  private static final int DEFAULT_ENTITY_CACHE_MAX_ENTRIES = 1024;
+  private static final long DEFAULT_ENTITY_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+  private static final long DEFAULT_SNAPSHOT_INTERVAL = 60;
+  private static final long DEFAULT_WAL_SEGMENT_SIZE = 64L * 1024 * 1024;
+  private static final String DEFAULT_REPLICATION_HOST = "localhost";
+  private static final int DEFAULT_REPLICATION_PORT = 7070;
+  private static final long DEFAULT_REPLICATION_MAX_LAG = 5000;
+  private static final long DEFAULT_REPLICATION_HEARTBEAT_INTERVAL = 1000;
+  private static final int DEFAULT_HOT_TIER_MAX_ENTRIES = 1024;
+  private static final long DEFAULT_HOT_TIER_MAX_BYTES = 64L * 1024 * 1024;
+  private static final int DEFAULT_REPRESENTATION_CACHE_MAX_ENTRIES = 1024;
+  private static final int DEFAULT_FRAGMENT_PAGE_SIZE = 100;
+  private static final int DEFAULT_LISTING_PAGE_SIZE = 1000;
+  private static final int DEFAULT_FULL_TEXT_SEARCH_MAX_RESULTS = 50;
+  private static final int DEFAULT_WORKER_POOL_SIZE = 4;
+  // The entities are read and cleared by named graph, so an index starting with the context is kept
+  private static final String DEFAULT_TRIPLE_INDEXES = "spoc,posc,cspo";
+  private static final long DEFAULT_LMDB_DB_SIZE = 10L * 1024 * 1024;
+  private static final int DEFAULT_QUERY_CACHE_MAX_ENTRIES = 256;
+  private static final long DEFAULT_QUERY_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+  private static final int DEFAULT_QUERY_TIMEOUT = 0;
+  private static final long DEFAULT_QUERY_MAX_RESULTS = 0;
+  private static final long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+  private static final int DEFAULT_PARSED_QUERY_CACHE_SIZE = 256;
+
+  private final Backend backend;
+  private final String storePath;
+  private final int readConnections;
+  private final String nativeTripleIndexes;
+  private final String lmdbTripleIndexes;
+  private final long lmdbTripleDbSize;
+  private final long lmdbValueDbSize;
+  private final boolean forceSyncEnabled;
+  private final boolean groupCommitEnabled;
+  private final boolean snapshotEnabled;
+  private final long snapshotInterval;
+  private final boolean writeAheadLogEnabled;
+  private final long writeAheadLogSegmentSize;
+  private final boolean writeBehindEnabled;
+  private final ReplicationRole replicationRole;
+  private final String replicationHost;
+  private final int replicationPort;
+  private final long replicationMaxLag;
+  private final long replicationHeartbeatInterval;
+  private final boolean entityCacheEnabled;
+  private final int entityCacheMaxEntries;
+  private final long entityCacheMaxBytes;
+  private final boolean hotTierEnabled;
+  private final int hotTierMaxEntries;
+  private final long hotTierMaxBytes;
+  private final boolean representationCacheEnabled;
+  private final int representationCacheMaxEntries;
+  private final SerializationProfile serializationProfile;
+  private final int fragmentPageSize;
+  private final int listingPageSize;
+  private final boolean fullTextSearchEnabled;
+  private final boolean fullTextSearchRebuildEnabled;
+  private final int fullTextSearchMaxResults;
+  private final boolean queryCacheEnabled;
+  private final int queryCacheMaxEntries;
+  private final long queryCacheMaxBytes;
+  private final int queryTimeout;
+  private final long queryMaxResults;
+  private final long slowQueryThreshold;
+  private final int parsedQueryCacheSize;
+  private final ExecutionMode executionMode;
+  private final int workerPoolSize;
+
+  /**
+   * Constructs a new RdfStoreConfigImpl object with the specified configuration.
+   *
+   * @param config The JSON object containing the rdf-store configuration settings.
+   */
+  public RdfStoreConfigImpl(final JsonObject config) {
+    final var storeConfig = Optional.ofNullable(config)
+        .flatMap(c -> JsonObjectUtils.getJsonObject(c, "rdf-store", LOGGER::error));
+    // The "in-memory" flag was historically read from the top level of the configuration
+    final boolean inMemory =
+        storeConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, IN_MEMORY_KEY, LOGGER::error))
+                   .or(() -> Optional.ofNullable(config)
+                                     .flatMap(c -> JsonObjectUtils.getBoolean(
+                                         c,
+                                         IN_MEMORY_KEY,
+                                         LOGGER::error
+                                     )))
+                   .orElse(true);
+    // Without an explicit backend, the "in-memory" flag chooses between memory and native
+    this.backend =
+        storeConfig.flatMap(c -> JsonObjectUtils.getString(c, "backend", LOGGER::error))
+                   .flatMap(b -> {
+                     final var name = b.toUpperCase(Locale.ROOT);
+                     final var backend =
+                         Arrays.stream(Backend.values())
+                               .filter(e -> e.name().equals(name))
+                               .findFirst();
+                     if (backend.isEmpty()) {
+                       LOGGER.error("Unknown backend for the rdf-store: {}", b);
+                     }
+                     return backend;
+                   })
+                   .orElse(inMemory ? Backend.MEMORY : Backend.NATIVE);
+    this.storePath =
+        storeConfig.flatMap(c -> JsonObjectUtils.getString(c, "store-path", LOGGER::error))
+                   .orElse("data/");
+    this.readConnections =
+        storeConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "read-connections", LOGGER::error))
+                   .filter(n -> n > 0)
+                   .orElseGet(() -> Runtime.getRuntime().availableProcessors());
+    this.nativeTripleIndexes =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "native", LOGGER::error))
+                   .flatMap(c -> JsonObjectUtils.getString(c, "triple-indexes", LOGGER::error))
+                   .filter(s -> !s.isBlank())
+                   .orElse(DEFAULT_TRIPLE_INDEXES);
+    final var lmdbConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "lmdb", LOGGER::error));
+    this.lmdbTripleIndexes =
+        lmdbConfig.flatMap(c -> JsonObjectUtils.getString(c, "triple-indexes", LOGGER::error))
+                  .filter(s -> !s.isBlank())
+                  .orElse(DEFAULT_TRIPLE_INDEXES);
+    this.lmdbTripleDbSize =
+        lmdbConfig.flatMap(c -> JsonObjectUtils.getLong(c, "triple-db-size", LOGGER::error))
+                  .filter(n -> n > 0)
+                  .orElse(DEFAULT_LMDB_DB_SIZE);
+    this.lmdbValueDbSize =
+        lmdbConfig.flatMap(c -> JsonObjectUtils.getLong(c, "value-db-size", LOGGER::error))
+                  .filter(n -> n > 0)
+                  .orElse(DEFAULT_LMDB_DB_SIZE);
+    this.forceSyncEnabled =
+        storeConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "force-sync", LOGGER::error))
+                   .orElse(false);
+    this.groupCommitEnabled =
+        storeConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "group-commit", LOGGER::error))
+                   .orElse(false);
+    final var snapshotConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "snapshot", LOGGER::error));
+    this.snapshotEnabled =
+        snapshotConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                      .orElse(false);
+    this.snapshotInterval =
+        snapshotConfig.flatMap(c -> JsonObjectUtils.getLong(c, "interval", LOGGER::error))
+                      .filter(n -> n >= 0)
+                      .orElse(DEFAULT_SNAPSHOT_INTERVAL);
+    final var walConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "wal", LOGGER::error));
+    this.writeAheadLogEnabled =
+        walConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                 .orElse(false);
+    this.writeAheadLogSegmentSize =
+        walConfig.flatMap(c -> JsonObjectUtils.getLong(c, "segment-size", LOGGER::error))
+                 .filter(n -> n > 0)
+                 .orElse(DEFAULT_WAL_SEGMENT_SIZE);
+    this.writeBehindEnabled =
+        walConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "write-behind", LOGGER::error))
+                 .orElse(false);
+
+    final var replicationConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "replication", LOGGER::error));
+    this.replicationRole =
+        replicationConfig.flatMap(c -> JsonObjectUtils.getString(c, "role", LOGGER::error))
+                         .flatMap(r -> {
+                           final var name = r.toUpperCase(Locale.ROOT);
+                           final var role =
+                               Arrays.stream(ReplicationRole.values())
+                                     .filter(e -> e.name().equals(name))
+                                     .findFirst();
+                           if (role.isEmpty()) {
+                             LOGGER.error("Unknown replication role for the rdf-store: {}", r);
+                           }
+                           return role;
+                         })
+                         .orElse(ReplicationRole.NONE);
+    this.replicationHost =
+        replicationConfig.flatMap(c -> JsonObjectUtils.getString(c, "host", LOGGER::error))
+                         .filter(s -> !s.isBlank())
+                         .orElse(DEFAULT_REPLICATION_HOST);
+    this.replicationPort =
+        replicationConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "port", LOGGER::error))
+                         .filter(n -> n >= 0)
+                         .orElse(DEFAULT_REPLICATION_PORT);
+    this.replicationMaxLag =
+        replicationConfig.flatMap(c -> JsonObjectUtils.getLong(c, "max-lag", LOGGER::error))
+                         .filter(n -> n > 0)
+                         .orElse(DEFAULT_REPLICATION_MAX_LAG);
+    this.replicationHeartbeatInterval =
+        replicationConfig
+            .flatMap(c -> JsonObjectUtils.getLong(c, "heartbeat-interval", LOGGER::error))
+            .filter(n -> n > 0)
+            .orElse(DEFAULT_REPLICATION_HEARTBEAT_INTERVAL);
+
+    final var entityCacheConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "entity-cache", LOGGER::error));
+    this.entityCacheEnabled =
+        entityCacheConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                         .orElse(false);
+    this.entityCacheMaxEntries =
+        entityCacheConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "max-entries", LOGGER::error))
+                         .filter(n -> n > 0)
+                         .orElse(DEFAULT_ENTITY_CACHE_MAX_ENTRIES);
+    this.entityCacheMaxBytes =
+        entityCacheConfig.flatMap(c -> JsonObjectUtils.getLong(c, "max-bytes", LOGGER::error))
+                         .filter(n -> n > 0)
+                         .orElse(DEFAULT_ENTITY_CACHE_MAX_BYTES);
+
+    final var hotTierConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "hot-tier", LOGGER::error));
+    this.hotTierEnabled =
+        hotTierConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                     .orElse(false);
+    this.hotTierMaxEntries =
+        hotTierConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "max-entries", LOGGER::error))
+                     .filter(n -> n > 0)
+                     .orElse(DEFAULT_HOT_TIER_MAX_ENTRIES);
+    this.hotTierMaxBytes =
+        hotTierConfig.flatMap(c -> JsonObjectUtils.getLong(c, "max-bytes", LOGGER::error))
+                     .filter(n -> n > 0)
+                     .orElse(DEFAULT_HOT_TIER_MAX_BYTES);
+
+    final var representationCacheConfig = storeConfig.flatMap(
+        c -> JsonObjectUtils.getJsonObject(c, "representation-cache", LOGGER::error)
+    );
+    this.representationCacheEnabled =
+        representationCacheConfig
+            .flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+            .orElse(true);
+    this.representationCacheMaxEntries =
+        representationCacheConfig
+            .flatMap(c -> JsonObjectUtils.getInteger(c, "max-entries", LOGGER::error))
+            .filter(n -> n > 0)
+            .orElse(DEFAULT_REPRESENTATION_CACHE_MAX_ENTRIES);
+    this.serializationProfile =
+        storeConfig.flatMap(c -> JsonObjectUtils.getString(c, "serialization", LOGGER::error))
+                   .flatMap(p -> {
+                     final var name = p.toUpperCase(Locale.ROOT);
+                     final var profile =
+                         Arrays.stream(SerializationProfile.values())
+                               .filter(e -> e.name().equals(name))
+                               .findFirst();
+                     if (profile.isEmpty()) {
+                       LOGGER.error("Unknown serialization profile for the rdf-store: {}", p);
+                     }
+                     return profile;
+                   })
+                   .orElse(SerializationProfile.PRETTY);
+    this.fragmentPageSize =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "fragments", LOGGER::error))
+                   .flatMap(c -> JsonObjectUtils.getInteger(c, "page-size", LOGGER::error))
+                   .filter(n -> n > 0)
+                   .orElse(DEFAULT_FRAGMENT_PAGE_SIZE);
+    this.listingPageSize =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "listings", LOGGER::error))
+                   .flatMap(c -> JsonObjectUtils.getInteger(c, "page-size", LOGGER::error))
+                   .filter(n -> n > 0)
+                   .orElse(DEFAULT_LISTING_PAGE_SIZE);
+
+    final var searchConfig = storeConfig.flatMap(
+        c -> JsonObjectUtils.getJsonObject(c, "full-text-search", LOGGER::error)
+    );
+    this.fullTextSearchEnabled =
+        searchConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                    .orElse(false);
+    this.fullTextSearchRebuildEnabled =
+        searchConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "rebuild", LOGGER::error))
+                    .orElse(false);
+    this.fullTextSearchMaxResults =
+        searchConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "max-results", LOGGER::error))
+                    .filter(n -> n > 0)
+                    .orElse(DEFAULT_FULL_TEXT_SEARCH_MAX_RESULTS);
+
+    final var queryCacheConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "query-cache", LOGGER::error));
+    this.queryCacheEnabled =
+        queryCacheConfig.flatMap(c -> JsonObjectUtils.getBoolean(c, "enabled", LOGGER::error))
+                        .orElse(false);
+    this.queryCacheMaxEntries =
+        queryCacheConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "max-entries", LOGGER::error))
+                        .filter(n -> n > 0)
+                        .orElse(DEFAULT_QUERY_CACHE_MAX_ENTRIES);
+    this.queryCacheMaxBytes =
+        queryCacheConfig.flatMap(c -> JsonObjectUtils.getLong(c, "max-bytes", LOGGER::error))
+                        .filter(n -> n > 0)
+                        .orElse(DEFAULT_QUERY_CACHE_MAX_BYTES);
+
+    final var queryConfig =
+        storeConfig.flatMap(c -> JsonObjectUtils.getJsonObject(c, "query", LOGGER::error));
+    this.queryTimeout =
+        queryConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "timeout", LOGGER::error))
+                   .filter(n -> n >= 0)
+                   .orElse(DEFAULT_QUERY_TIMEOUT);
+    this.queryMaxResults =
+        queryConfig.flatMap(c -> JsonObjectUtils.getLong(c, "max-results", LOGGER::error))
+                   .filter(n -> n >= 0)
+                   .orElse(DEFAULT_QUERY_MAX_RESULTS);
+    this.slowQueryThreshold =
+        queryConfig.flatMap(c -> JsonObjectUtils.getLong(c, "slow-query-threshold", LOGGER::error))
+                   .filter(n -> n >= 0)
+                   .orElse(DEFAULT_SLOW_QUERY_THRESHOLD);
+    this.parsedQueryCacheSize =
+        queryConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "parsed-cache-size", LOGGER::error))
+                   .filter(n -> n >= 0)
+                   .orElse(DEFAULT_PARSED_QUERY_CACHE_SIZE);
+
+    this.executionMode =
+        storeConfig.flatMap(c -> JsonObjectUtils.getString(c, "execution-mode", LOGGER::error))
+                   .flatMap(m -> {
+                     final var mode = m.toUpperCase(Locale.ROOT).replace('-', '_');
+                     final var executionMode =
+                         Arrays.stream(ExecutionMode.values())
+                               .filter(e -> e.name().equals(mode))
+                               .findFirst();
+                     if (executionMode.isEmpty()) {
+                       LOGGER.error("Unknown execution mode for the rdf-store: {}", m);
+                     }
+                     return executionMode;
+                   })
+                   .orElse(ExecutionMode.EVENT_LOOP);
+    this.workerPoolSize =
+        storeConfig.flatMap(c -> JsonObjectUtils.getInteger(c, "worker-pool-size", LOGGER::error))
+                   .filter(n -> n > 0)
+                   .orElse(DEFAULT_WORKER_POOL_SIZE);
+  }
+
+  @Override
+  public boolean isInMemory() {
+    return this.backend == Backend.MEMORY;
+  }
+
+  @Override
+  public Backend getBackend() {
+    return this.backend;
+  }
+
+  @Override
+  public String getStorePath() {
+    return this.storePath;
+  }
+
+  @Override
+  public int getReadConnections() {
+    return this.readConnections;
+  }
+
+  @Override
+  public String getNativeTripleIndexes() {
+    return this.nativeTripleIndexes;
+  }
+
+  @Override
+  public String getLmdbTripleIndexes() {
+    return this.lmdbTripleIndexes;
+  }
+
+  @Override
+  public long getLmdbTripleDbSize() {
+    return this.lmdbTripleDbSize;
+  }
+
+  @Override
+  public long getLmdbValueDbSize() {
+    return this.lmdbValueDbSize;
+  }
+
+  @Override
+  public boolean isForceSyncEnabled() {
+    return this.forceSyncEnabled;
+  }
+
+  @Override
+  public boolean isGroupCommitEnabled() {
+    return this.groupCommitEnabled;
+  }
+
+  @Override
+  public boolean isSnapshotEnabled() {
+    return this.snapshotEnabled;
+  }
+
+  @Override
+  public long getSnapshotInterval() {
+    return this.snapshotInterval;
+  }
+
+  @Override
+  public boolean isWriteAheadLogEnabled() {
+    return this.writeAheadLogEnabled;
+  }
+
+  @Override
+  public long getWriteAheadLogSegmentSize() {
+    return this.writeAheadLogSegmentSize;
+  }
+
+  @Override
+  public boolean isWriteBehindEnabled() {
+    return this.writeBehindEnabled;
+  }
+
+  @Override
+  public ReplicationRole getReplicationRole() {
+    return this.replicationRole;
+  }
+
+  @Override
+  public String getReplicationHost() {
+    return this.replicationHost;
+  }
+
+  @Override
+  public int getReplicationPort() {
+    return this.replicationPort;
+  }
+
+  @Override
+  public long getReplicationMaxLag() {
+    return this.replicationMaxLag;
+  }
+
+  @Override
+  public long getReplicationHeartbeatInterval() {
+    return this.replicationHeartbeatInterval;
+  }
+
+  @Override
+  public boolean isEntityCacheEnabled() {
+    return this.entityCacheEnabled;
+  }
+
+  @Override
+  public int getEntityCacheMaxEntries() {
+    return this.entityCacheMaxEntries;
+  }
+
+  @Override
+  public long getEntityCacheMaxBytes() {
+    return this.entityCacheMaxBytes;
+  }
+
+  @Override
+  public boolean isHotTierEnabled() {
+    return this.hotTierEnabled;
+  }
+
+  @Override
+  public int getHotTierMaxEntries() {
+    return this.hotTierMaxEntries;
+  }
+
+  @Override
+  public long getHotTierMaxBytes() {
+    return this.hotTierMaxBytes;
+  }
+
+  @Override
+  public boolean isRepresentationCacheEnabled() {
+    return this.representationCacheEnabled;
+  }
+
+  @Override
+  public int getRepresentationCacheMaxEntries() {
+    return this.representationCacheMaxEntries;
+  }
+
+  @Override
+  public SerializationProfile getSerializationProfile() {
+    return this.serializationProfile;
+  }
+
+  @Override
+  public int getFragmentPageSize() {
+    return this.fragmentPageSize;
+  }
+
+  @Override
+  public int getListingPageSize() {
+    return this.listingPageSize;
+  }
+
+  @Override
+  public boolean isFullTextSearchEnabled() {
+    return this.fullTextSearchEnabled;
+  }
+
+  @Override
+  public boolean isFullTextSearchRebuildEnabled() {
+    return this.fullTextSearchRebuildEnabled;
+  }
+
+  @Override
+  public int getFullTextSearchMaxResults() {
+    return this.fullTextSearchMaxResults;
+  }
+
+  @Override
+  public boolean isQueryCacheEnabled() {
+    return this.queryCacheEnabled;
+  }
+
+  @Override
+  public int getQueryCacheMaxEntries() {
+    return this.queryCacheMaxEntries;
+  }
+
+  @Override
+  public long getQueryCacheMaxBytes() {
+    return this.queryCacheMaxBytes;
+  }
+
+  @Override
+  public int getQueryTimeout() {
+    return this.queryTimeout;
+  }
+
+  @Override
+  public long getQueryMaxResults() {
+    return this.queryMaxResults;
+  }
+
+  @Override
+  public long getSlowQueryThreshold() {
+    return this.slowQueryThreshold;
+  }
+
+  @Override
+  public int getParsedQueryCacheSize() {
+    return this.parsedQueryCacheSize;
+  }
+
+  @Override
+  public ExecutionMode getExecutionMode() {
+    return this.executionMode;
+  }
+
+  @Override
+  public int getWorkerPoolSize() {
+    return this.workerPoolSize;
+  }
+}